@@ -0,0 +1,108 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.knime.testing.core.ng.ClassHistogram.Delta;
+
+/**
+ * Tests for the {@link ClassHistogram}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class ClassHistogramTest {
+    private static final String BEFORE = """
+         num     #instances         #bytes  class name (module)
+        -------------------------------------------------------
+           1:          4133         503240  [B (java.base@17.0.8)
+           2:          3914          93936  java.lang.String (java.base@17.0.8)
+           3:           100           2400  org.example.Cache
+        Total          8147         599576
+        """;
+
+    /**
+     * Tests parsing of the histogram lines and the summary line, including Windows line endings and classes that
+     * appear several times because they are loaded by different class loaders.
+     */
+    @Test
+    void testParse() {
+        ClassHistogram before = ClassHistogram.parse(BEFORE.replace("\n", "\r\n"));
+        assertThat(before.getTotalBytes()).as("Total bytes").isEqualTo(599576);
+
+        ClassHistogram after = ClassHistogram.parse("""
+               1:          5000         600000  [B (java.base@17.0.8)
+               2:          3914          93936  java.lang.String (java.base@17.0.8)
+               3:           150           3600  org.example.Cache
+               4:            50           1200  org.example.Cache
+               5:            10            160  org.example.Unused
+            Total          9124         698896
+            """);
+        assertThat(after.getGrowth(before, 10)).as("Grown classes").containsExactly(
+            new Delta("[B", 867, 96760), new Delta("org.example.Cache", 100, 2400),
+            new Delta("org.example.Unused", 10, 160));
+        assertThat(after.getGrowth(before, 1)).as("Largest grown class").containsExactly(new Delta("[B", 867, 96760));
+        assertThat(before.getGrowth(after, 10)).as("Grown classes of shrunk heap").isEmpty();
+    }
+
+    /**
+     * Tests that unexpected output results in an empty histogram instead of an exception.
+     */
+    @Test
+    void testParseInvalidOutput() {
+        ClassHistogram histogram = ClassHistogram.parse("""
+            GC.class_histogram is not supported
+               1:          many         bytes  [B
+            Total          unknown
+            """);
+        assertThat(histogram.getTotalBytes()).as("Total bytes").isZero();
+        assertThat(histogram.getGrowth(ClassHistogram.parse(""), 10)).as("Grown classes").isEmpty();
+    }
+}
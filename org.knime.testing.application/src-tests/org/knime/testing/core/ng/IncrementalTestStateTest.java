@@ -0,0 +1,163 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the input hash of the {@link IncrementalTestState}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class IncrementalTestStateTest {
+    private static final List<String> TEST_NAMES = List.of("load", "execute");
+
+    /**
+     * Tests that the hash covers the files in the workflow directory and the names of the sub-tests.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testWorkflowFiles(@TempDir final Path tempDir) throws IOException {
+        Path workflowDir = createWorkflow(tempDir, "");
+        IncrementalTestState state = new IncrementalTestState(tempDir.resolve("state").toFile(), new String[0]);
+        String hash = state.computeInputHash(workflowDir, tempDir, TEST_NAMES);
+
+        assertThat(state.computeInputHash(workflowDir, tempDir, TEST_NAMES)).as("Hash of unchanged workflow")
+            .isEqualTo(hash);
+        assertThat(state.computeInputHash(workflowDir, tempDir, List.of("load"))).as("Hash with other sub-tests")
+            .isNotEqualTo(hash);
+
+        Files.writeString(workflowDir.resolve("Node (#1)/settings.xml"), "<config key=\"changed\"/>");
+        assertThat(state.computeInputHash(workflowDir, tempDir, TEST_NAMES)).as("Hash of changed workflow")
+            .isNotEqualTo(hash);
+    }
+
+    /**
+     * Tests that files outside of the workflow directory are only part of the hash if node settings refer to them.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testReferencedFiles(@TempDir final Path tempDir) throws IOException {
+        Files.createDirectories(tempDir.resolve("data/sub dir"));
+        Files.writeString(tempDir.resolve("data/sub dir/table.csv"), "a,b");
+        Files.writeString(tempDir.resolve("data/unused.csv"), "c,d");
+        Files.writeString(tempDir.resolve("data/relative.csv"), "e,f");
+        Path workflowDir = createWorkflow(tempDir, "<entry key=\"url\" value=\"knime://knime.mountpoint/data/sub%20dir/"
+            + "table.csv\"/><entry key=\"path\" value=\"knime://knime.workflow/../data/relative.csv\"/>");
+        IncrementalTestState state = new IncrementalTestState(tempDir.resolve("state").toFile(), new String[0]);
+        String hash = state.computeInputHash(workflowDir, tempDir, TEST_NAMES);
+
+        Files.writeString(tempDir.resolve("data/unused.csv"), "changed");
+        assertThat(state.computeInputHash(workflowDir, tempDir, TEST_NAMES)).as("Hash after unreferenced change")
+            .isEqualTo(hash);
+
+        Files.writeString(tempDir.resolve("data/sub dir/table.csv"), "changed");
+        String mountpointHash = state.computeInputHash(workflowDir, tempDir, TEST_NAMES);
+        assertThat(mountpointHash).as("Hash after change of mountpoint-relative file").isNotEqualTo(hash);
+
+        Files.writeString(tempDir.resolve("data/relative.csv"), "changed");
+        assertThat(state.computeInputHash(workflowDir, tempDir, TEST_NAMES))
+            .as("Hash after change of workflow-relative file").isNotEqualTo(mountpointHash);
+    }
+
+    /**
+     * Tests that only the options that influence the results are part of the hash, regardless of their order.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testRunOptions(@TempDir final Path tempDir) throws IOException {
+        Path workflowDir = createWorkflow(tempDir, "");
+        Path preferences = tempDir.resolve("test.epf");
+        Files.writeString(preferences, "a=b");
+        String[] args = {"-root", "tests", "-timeout", "300", "-preferences", preferences.toString(), "-views"};
+        String hash = computeInputHash(tempDir, workflowDir, args);
+
+        assertThat(computeInputHash(tempDir, workflowDir,
+            "-views", "-preferences", preferences.toString(), "-timeout", "300", "-xmlResultDir", "results"))
+                .as("Hash with reordered and additional reporting options").isEqualTo(hash);
+        assertThat(computeInputHash(tempDir, workflowDir,
+            "-root", "tests", "-timeout", "600", "-preferences", preferences.toString(), "-views"))
+                .as("Hash with other timeout").isNotEqualTo(hash);
+        assertThat(computeInputHash(tempDir, workflowDir, "-root", "tests", "-timeout", "300", "-preferences",
+            preferences.toString())).as("Hash without option").isNotEqualTo(hash);
+
+        Files.writeString(preferences, "a=c");
+        assertThat(computeInputHash(tempDir, workflowDir, args)).as("Hash with changed preferences")
+            .isNotEqualTo(hash);
+    }
+
+    private static String computeInputHash(final Path tempDir, final Path workflowDir, final String... args)
+        throws IOException {
+        return new IncrementalTestState(tempDir.resolve("state").toFile(), args).computeInputHash(workflowDir,
+            tempDir, TEST_NAMES);
+    }
+
+    private static Path createWorkflow(final Path parent, final String settings) throws IOException {
+        Path workflowDir = parent.resolve("workflow");
+        Files.createDirectories(workflowDir.resolve("Node (#1)"));
+        Files.writeString(workflowDir.resolve("workflow.knime"), "<config key=\"workflow.knime\"/>");
+        Files.writeString(workflowDir.resolve("Node (#1)/settings.xml"), "<config key=\"settings.xml\">" + settings
+            + "</config>");
+        return workflowDir;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link OutputCaptureBuffer}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class OutputCaptureBufferTest {
+    /** Larger than the initial buffer size, so that both buffers have to grow. */
+    private static final int HEAD_SIZE = 1500;
+
+    private static final int TAIL_SIZE = 2000;
+
+    /**
+     * Tests that output below, at, and above the sizes of the head and the tail is completely returned, regardless of
+     * how it is split into appended chunks, and that only output beyond both buffers is spilled into a file.
+     */
+    @Test
+    void testLimits() {
+        int[] lengths = {0, 1, HEAD_SIZE - 1, HEAD_SIZE, HEAD_SIZE + 1, HEAD_SIZE + TAIL_SIZE - 1,
+            HEAD_SIZE + TAIL_SIZE, HEAD_SIZE + TAIL_SIZE + 1, HEAD_SIZE + 2 * TAIL_SIZE, 10 * (HEAD_SIZE + TAIL_SIZE)
+                + 7};
+        int[] chunkSizes = {1, 7, TAIL_SIZE - 1, TAIL_SIZE, TAIL_SIZE + 1, Integer.MAX_VALUE};
+        for (int length : lengths) {
+            String output = createOutput(length);
+            for (int chunkSize : chunkSizes) {
+                int openSpillFiles = OutputCaptureBuffer.getOpenSpillFileCount();
+                OutputCaptureBuffer buffer = new OutputCaptureBuffer(HEAD_SIZE, TAIL_SIZE);
+                try {
+                    append(buffer, output, chunkSize);
+                    assertThat(buffer.length()).as("Length of %d characters in chunks of %d", length, chunkSize)
+                        .isEqualTo(length);
+                    assertThat(buffer.toString()).as("Output of %d characters in chunks of %d", length, chunkSize)
+                        .isEqualTo(output);
+                    assertThat(OutputCaptureBuffer.getOpenSpillFileCount() - openSpillFiles)
+                        .as("Spill files for %d characters in chunks of %d", length, chunkSize)
+                        .isEqualTo((length > HEAD_SIZE + TAIL_SIZE) ? 1 : 0);
+                } finally {
+                    buffer.dispose();
+                }
+                assertThat(OutputCaptureBuffer.getOpenSpillFileCount()).as("Spill files after disposal")
+                    .isEqualTo(openSpillFiles);
+            }
+        }
+    }
+
+    /**
+     * Tests that the buffer works without a head.
+     */
+    @Test
+    void testWithoutHead() {
+        String output = createOutput(3 * TAIL_SIZE + 1);
+        OutputCaptureBuffer buffer = new OutputCaptureBuffer(0, TAIL_SIZE);
+        try {
+            append(buffer, output, 13);
+            assertThat(buffer.toString()).as("Output").isEqualTo(output);
+        } finally {
+            buffer.dispose();
+        }
+    }
+
+    /**
+     * Tests that the characters that cannot be spilled are replaced by a marker with their number and the reason,
+     * and that the head and the tail are still complete.
+     *
+     * @param tempDir a temporary directory
+     */
+    @Test
+    void testTruncationMarker(@TempDir final Path tempDir) {
+        int omitted = 2 * TAIL_SIZE + 3;
+        String output = createOutput(HEAD_SIZE + omitted + TAIL_SIZE);
+        OutputCaptureBuffer buffer =
+            new OutputCaptureBuffer(HEAD_SIZE, TAIL_SIZE, tempDir.resolve("missing").toFile());
+        try {
+            append(buffer, output, 100);
+            assertThat(buffer.length()).as("Length including omitted characters").isEqualTo(output.length());
+            String captured = buffer.toString();
+            String head = output.substring(0, HEAD_SIZE);
+            String tail = output.substring(output.length() - TAIL_SIZE);
+            assertThat(captured).as("Captured output")
+                .startsWith(head + System.lineSeparator() + "[... " + omitted + " characters omitted, could not "
+                    + "create temporary file for captured output: ")
+                .endsWith(" ...]" + System.lineSeparator() + tail);
+        } finally {
+            buffer.dispose();
+        }
+    }
+
+    /**
+     * Creates output with distinct characters at nearby positions, so that misplaced characters are detected.
+     */
+    private static String createOutput(final int length) {
+        StringBuilder buf = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            buf.append((i % 97 == 96) ? '\n' : (char)('a' + (i % 26)));
+        }
+        return buf.toString();
+    }
+
+    private static void append(final OutputCaptureBuffer buffer, final String output, final int chunkSize) {
+        char[] chars = output.toCharArray();
+        int off = 0;
+        while (off < chars.length) {
+            int n = Math.min(chunkSize, chars.length - off);
+            buffer.append(chars, off, n);
+            off += n;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link ParallelTestflowRunner}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class ParallelTestflowRunnerTest {
+
+    /**
+     * Tests that all testflows are run, non-exclusive ones concurrently, and that exclusive testflows never run
+     * together with any other testflow.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void testExclusiveTestflows() throws Exception {
+        List<Integer> testflows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            testflows.add(i);
+        }
+        Set<Integer> finished = ConcurrentHashMap.newKeySet();
+        List<String> violations = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        new ParallelTestflowRunner<Integer>(4, ParallelTestflowRunnerTest::isExclusive, () -> false).run(testflows,
+            testflow -> {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                if (isExclusive(testflow) && (running.get() != 1)) {
+                    synchronized (violations) {
+                        violations.add(
+                            "Exclusive testflow " + testflow + " ran with " + (running.get() - 1) + " others");
+                    }
+                }
+                finished.add(testflow);
+                running.decrementAndGet();
+            });
+
+        assertThat(violations).as("Concurrently run exclusive testflows").isEmpty();
+        assertThat(finished).as("Finished testflows").containsExactlyInAnyOrderElementsOf(testflows);
+        assertThat(maxRunning.get()).as("Maximum number of concurrent testflows").isBetween(2, 4);
+    }
+
+    /**
+     * Tests that testflows that have not been started yet are skipped after the run has been stopped.
+     *
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void testStopped() throws Exception {
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicInteger started = new AtomicInteger();
+        new ParallelTestflowRunner<Integer>(1, t -> false, stopped::get).run(List.of(1, 2, 3), testflow -> {
+            started.incrementAndGet();
+            stopped.set(true);
+        });
+        assertThat(started.get()).as("Started testflows").isEqualTo(1);
+    }
+
+    /**
+     * Tests that an I/O error of a testflow is passed on to the caller.
+     */
+    @Test
+    void testException() {
+        assertThatThrownBy(() -> new ParallelTestflowRunner<Integer>(2, t -> t == 1, () -> false)
+            .run(List.of(1, 2, 3), testflow -> {
+                if (testflow == 2) {
+                    throw new IOException("Failed testflow " + testflow);
+                }
+            })).as("Error of testflow").isInstanceOf(IOException.class).hasMessage("Failed testflow 2");
+    }
+
+    private static boolean isExclusive(final Integer testflow) {
+        return testflow % 7 == 3;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link PerformanceBaseline}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class PerformanceBaselineTest {
+
+    /**
+     * Tests the median and the slowdown based on it.
+     */
+    @Test
+    void testMedianAndSlowdown() {
+        assertThat(PerformanceBaseline.median(new long[]{5, 1, 3})).as("Median of odd samples").isEqualTo(3);
+        assertThat(PerformanceBaseline.median(new long[]{4, 1, 2, 3})).as("Median of even samples").isEqualTo(2.5);
+        assertThat(PerformanceBaseline.slowdown(new long[]{100, 100}, new long[]{110, 110})).as("Slowdown")
+            .isCloseTo(0.1, within(1e-9));
+        assertThat(PerformanceBaseline.slowdown(new long[]{100}, new long[]{50})).as("Speedup").isEqualTo(-0.5);
+        assertThat(PerformanceBaseline.slowdown(new long[]{0}, new long[]{0})).as("Slowdown of zero").isZero();
+        assertThat(PerformanceBaseline.slowdown(new long[]{0}, new long[]{1})).as("Slowdown from zero")
+            .isInfinite();
+    }
+
+    /**
+     * Tests the exact p-values of the Mann-Whitney U test for small samples without ties.
+     */
+    @Test
+    void testExactPValue() {
+        // all 20 arrangements of 3 and 3 samples are equally likely, only one has all current samples on top
+        assertThat(PerformanceBaseline.pValue(new long[]{1, 2, 3}, new long[]{4, 5, 6})).as("p-value of slowdown")
+            .isCloseTo(0.05, within(1e-12));
+        assertThat(PerformanceBaseline.pValue(new long[]{4, 5, 6}, new long[]{1, 2, 3})).as("p-value of speedup")
+            .isEqualTo(1);
+        assertThat(PerformanceBaseline.pValue(new long[0], new long[]{1})).as("p-value without baseline")
+            .isEqualTo(1);
+
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            int n = 1 + random.nextInt(6);
+            int m = 1 + random.nextInt(6);
+            // distinct values, so there are no ties
+            long[] all = LongStream.range(0, n + m).map(i -> i * 10 + random.nextInt(10)).toArray();
+            shuffle(all, random);
+            long[] current = Arrays.copyOf(all, n);
+            long[] baseline = Arrays.copyOfRange(all, n, n + m);
+            assertThat(PerformanceBaseline.pValue(baseline, current)).as("p-value for %d and %d samples", n, m)
+                .isCloseTo(bruteForcePValue(n, m, u(baseline, current)), within(1e-12));
+        }
+    }
+
+    /**
+     * Tests the normal approximation for large samples and samples with ties.
+     */
+    @Test
+    void testApproximatePValue() {
+        long[] baseline = LongStream.range(100, 140).toArray();
+        long[] slower = LongStream.range(140, 180).toArray();
+        assertThat(PerformanceBaseline.pValue(baseline, slower)).as("p-value of clear slowdown").isLessThan(1e-6);
+        assertThat(PerformanceBaseline.pValue(slower, baseline)).as("p-value of clear speedup").isGreaterThan(0.999);
+        assertThat(PerformanceBaseline.pValue(baseline, baseline)).as("p-value of equal samples")
+            .isCloseTo(0.5, within(0.01));
+
+        long[] constant = new long[40];
+        Arrays.fill(constant, 100);
+        assertThat(PerformanceBaseline.pValue(constant, constant)).as("p-value of constant samples").isEqualTo(1);
+
+        // just above the limit for the exact distribution the approximation must be close to it
+        long[] current = LongStream.range(0, 30).map(i -> 2 * i + 11).toArray();
+        long[] base = LongStream.range(0, 30).map(i -> 2 * i).toArray();
+        double exact = PerformanceBaseline.pValue(base, current);
+        long[] largerCurrent = LongStream.concat(LongStream.of(current), LongStream.of(1000)).toArray();
+        long[] largerBase = LongStream.concat(LongStream.of(base), LongStream.of(1001)).toArray();
+        assertThat(PerformanceBaseline.pValue(largerBase, largerCurrent)).as("Approximated p-value")
+            .isCloseTo(exact, within(0.01));
+    }
+
+    /**
+     * Tests that samples are written and read back, and that only the baseline is read.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testReadWrite(@TempDir final Path tempDir) throws IOException {
+        PerformanceBaseline store = new PerformanceBaseline(tempDir.resolve("baseline").toFile());
+        Map<String, long[]> samples = new LinkedHashMap<>();
+        samples.put(PerformanceBaseline.TOTAL_KEY, new long[]{100, 110, 105});
+        samples.put(PerformanceBaseline.NODE_PREFIX + "0:1", new long[]{10, 11, 12});
+
+        store.write("group/flow", samples, false);
+        assertThat(store.read("group/flow")).as("Baseline after writing most recent run").isNull();
+
+        store.write("group/flow", samples, true);
+        Map<String, long[]> read = store.read("group\\flow");
+        assertThat(read).as("Baseline").containsOnlyKeys(samples.keySet());
+        assertThat(read.get(PerformanceBaseline.TOTAL_KEY)).as("Total samples").containsExactly(100, 110, 105);
+        assertThat(read.get(PerformanceBaseline.NODE_PREFIX + "0:1")).as("Node samples").containsExactly(10, 11, 12);
+    }
+
+    private static double u(final long[] baseline, final long[] current) {
+        int u = 0;
+        for (long c : current) {
+            for (long b : baseline) {
+                if (c > b) {
+                    u++;
+                }
+            }
+        }
+        return u;
+    }
+
+    /**
+     * Computes P(U >= u) by enumerating all subsets of ranks that the current samples may have.
+     */
+    private static double bruteForcePValue(final int n, final int m, final double u) {
+        int total = 0;
+        int tail = 0;
+        for (int mask = 0; mask < (1 << (n + m)); mask++) {
+            if (Integer.bitCount(mask) != n) {
+                continue;
+            }
+            int maskU = 0;
+            int baselineBelow = 0;
+            for (int rank = 0; rank < n + m; rank++) {
+                if ((mask & (1 << rank)) != 0) {
+                    maskU += baselineBelow;
+                } else {
+                    baselineBelow++;
+                }
+            }
+            total++;
+            if (maskU >= u) {
+                tail++;
+            }
+        }
+        return tail / (double)total;
+    }
+
+    private static void shuffle(final long[] values, final Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
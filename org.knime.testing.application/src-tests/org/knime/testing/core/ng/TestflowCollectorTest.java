@@ -52,12 +52,16 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.knime.testing.core.TestrunConfiguration;
 
 import junit.framework.TestResult;
@@ -99,6 +103,70 @@ void testZippedWorkflows() throws IOException {
             Path.of("sub/caller").toString(), Path.of("sub/callee").toString());
     }
 
+    /**
+     * Tests that the listing of a directory is taken from the discovery index as long as the directory's modification
+     * time has not changed, and that an index with an unknown format is ignored.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException
+     */
+    @SuppressWarnings("static-method")
+    @Test
+    void testDiscoveryIndex(@TempDir final Path tempDir) throws IOException {
+        final Path root = tempDir.resolve("root");
+        createWorkflow(root.resolve("group/flow1"));
+        createWorkflow(root.resolve("group/flow2"));
+        Files.createDirectories(root.resolve("template"));
+        Files.writeString(root.resolve("template/template.knime"), "");
+        // listings of recently modified directories are not stored in the index
+        final long past = System.currentTimeMillis() - 60000;
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>)dirs.filter(Files::isDirectory)::iterator) {
+                Files.setLastModifiedTime(dir, FileTime.fromMillis(past));
+            }
+        }
+
+        final File indexFile = tempDir.resolve("index").toFile();
+        final String flow1 = Path.of("group/flow1").toString();
+        final String flow2 = Path.of("group/flow2").toString();
+        assertThat(collectNames(root, indexFile)).as("Testflows without index").containsExactly(flow1, flow2);
+        assertThat(Files.readAllLines(indexFile.toPath())).as("Index lines").hasSizeGreaterThan(1).first()
+            .isEqualTo("# testflow discovery index v1");
+
+        // the new testflow is not found because the unchanged listing of its parent is taken from the index
+        createWorkflow(root.resolve("group/flow3"));
+        Files.setLastModifiedTime(root.resolve("group"), FileTime.fromMillis(past));
+        assertThat(collectNames(root, indexFile)).as("Testflows from index").containsExactly(flow1, flow2);
+
+        final String flow3 = Path.of("group/flow3").toString();
+        Files.setLastModifiedTime(root.resolve("group"), FileTime.fromMillis(past + 10000));
+        assertThat(collectNames(root, indexFile)).as("Testflows after modification").containsExactly(flow1, flow2,
+            flow3);
+
+        Files.setLastModifiedTime(root.resolve("group"), FileTime.fromMillis(past));
+        Files.writeString(indexFile.toPath(), "# unknown index\n" + root.resolve("group").toAbsolutePath() + "\t"
+            + past + "\tOTHER\tflow1\t\n");
+        assertThat(collectNames(root, indexFile)).as("Testflows with unknown index").containsExactly(flow1, flow2,
+            flow3);
+    }
+
+    private static void createWorkflow(final Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("workflow.knime"), "");
+    }
+
+    private static List<String> collectNames(final Path root, final File indexFile) throws IOException {
+        final TestflowCollector collector = new TestflowCollector(null, null, root.toFile());
+        collector.setIndexFile(indexFile);
+        final TestrunConfiguration config = new TestrunConfiguration();
+        config.setEnableStreamingMode(false);
+        final List<String> names = new ArrayList<>();
+        for (final WorkflowTestSuite suite : collector.collectTestCases(config)) {
+            names.add(suite.getWorkflowName());
+        }
+        return names;
+    }
+
     private static <T> List<T> toList(final Enumeration<T> enumeration) {
         final List<T> out = new ArrayList<>();
         enumeration.asIterator().forEachRemaining(out::add);
@@ -0,0 +1,103 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link TestflowRunnerClient}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class TestflowRunnerClientTest {
+    /** An option in the usage text with the name of its argument. */
+    private static final Pattern USAGE_OPTION = Pattern.compile("(?m)^ {4}(-[\\w.]+) <([^>]*)>:");
+
+    /**
+     * Tests that the client resolves exactly the arguments of those options of the testflow runner whose argument is
+     * a file or directory according to the usage text, except for the daemon's socket which is never sent.
+     */
+    @Test
+    void testPathOptions() {
+        ByteArrayOutputStream usage = new ByteArrayOutputStream();
+        TestflowRunnerApplication.printUsage(new PrintStream(usage, true, StandardCharsets.UTF_8));
+
+        Set<String> pathOptions = new HashSet<>();
+        Matcher matcher = USAGE_OPTION.matcher(usage.toString(StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            String argument = matcher.group(2);
+            if ((argument.contains("file") || argument.contains("dir")) && !matcher.group(1).equals("-daemon")) {
+                pathOptions.add(matcher.group(1));
+            }
+        }
+        assertThat(TestflowRunnerClient.PATH_OPTIONS).as("Path options").isEqualTo(pathOptions);
+    }
+
+    /**
+     * Tests that only the arguments of path options are resolved against the working directory.
+     */
+    @Test
+    void testResolvePaths() {
+        String[] resolved =
+            TestflowRunnerClient.resolvePaths(new String[]{"-root", "flows", "-timeout", "60", "-jfr", "/tmp/jfr"});
+        assertThat(resolved).as("Resolved arguments").containsExactly("-root", new File("flows").getAbsolutePath(),
+            "-timeout", "60", "-jfr", new File("/tmp/jfr").getAbsolutePath());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link TestflowShard}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class TestflowShardTest {
+    private static final List<String> TESTFLOWS = List.of("group/a", "group/b", "c", "group\\d", "e", "f", "g");
+
+    /**
+     * Tests parsing of shard specifications.
+     */
+    @Test
+    void testParse() {
+        assertThat(TestflowShard.parse("2/3")).as("Parsed shard").hasToString("2/3");
+        assertThat(TestflowShard.parse(" 1 / 1 ")).as("Parsed shard with spaces").hasToString("1/1");
+        assertThatThrownBy(() -> TestflowShard.parse("2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TestflowShard.parse("a/b")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TestflowShard.parse("0/2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TestflowShard.parse("3/2")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Tests that without a timing history every testflow is selected by exactly one shard, in its original order.
+     */
+    @Test
+    void testAssignmentByName() {
+        List<String> all = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            List<String> selected = new TestflowShard(i, 3).select(TESTFLOWS, Function.identity());
+            assertThat(TESTFLOWS).as("Original order").containsSubsequence(selected);
+            all.addAll(selected);
+        }
+        assertThat(all).as("Testflows of all shards").containsExactlyInAnyOrderElementsOf(TESTFLOWS);
+    }
+
+    /**
+     * Tests that with a timing history the testflows are distributed by their durations, longest first into the least
+     * loaded shard, and that testflows without history still end up in exactly one shard.
+     */
+    @Test
+    void testAssignmentByDuration() {
+        Map<String, TestflowTimingStore.Timing> history = Map.of( //
+            "group/a", new TestflowTimingStore.Timing(0, 100, "ok"), //
+            "group/b", new TestflowTimingStore.Timing(0, 60, "ok"), //
+            "c", new TestflowTimingStore.Timing(0, 50, "ok"), //
+            "group/d", new TestflowTimingStore.Timing(0, 10, "ok"));
+        List<String> testflows = List.of("group/a", "group/b", "c", "group\\d");
+
+        TestflowShard first = new TestflowShard(1, 2);
+        first.setHistory(history);
+        TestflowShard second = new TestflowShard(2, 2);
+        second.setHistory(history);
+        assertThat(first.select(testflows, Function.identity())).as("Testflows of first shard")
+            .containsExactly("group/a", "group\\d");
+        assertThat(second.select(testflows, Function.identity())).as("Testflows of second shard")
+            .containsExactly("group/b", "c");
+
+        List<String> all = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            TestflowShard shard = new TestflowShard(i, 3);
+            shard.setHistory(history);
+            all.addAll(shard.select(TESTFLOWS, Function.identity()));
+        }
+        assertThat(all).as("Testflows of all shards").containsExactlyInAnyOrderElementsOf(TESTFLOWS);
+    }
+
+    /**
+     * Tests that shards whose result directories contain different timing histories still select disjoint testflows
+     * that together cover all testflows, both without a shared history (as the runner does if no <tt>-timings</tt> file
+     * is given) and with a shared one.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testDifferentHistories(@TempDir final Path tempDir) throws IOException {
+        Path firstHistory = writeHistory(tempDir.resolve("first-" + TestflowTimingStore.FILE_NAME),
+            "group/a", 100, "group/b", 60, "c", 50, "group/d", 10, "e", 5);
+        Path secondHistory = writeHistory(tempDir.resolve("second-" + TestflowTimingStore.FILE_NAME),
+            "group/a", 5, "group/b", 10, "c", 200, "f", 70, "g", 40);
+
+        TestflowShard first = new TestflowShard(1, 2);
+        first.readHistory(null);
+        TestflowShard second = new TestflowShard(2, 2);
+        second.readHistory(null);
+        assertDisjointCover(first, second);
+
+        TestflowShard firstByName = new TestflowShard(1, 2);
+        TestflowShard secondByName = new TestflowShard(2, 2);
+        assertThat(first.select(TESTFLOWS, Function.identity())).as("Testflows of first shard without shared history")
+            .containsExactlyElementsOf(firstByName.select(TESTFLOWS, Function.identity()));
+        assertThat(second.select(TESTFLOWS, Function.identity()))
+            .as("Testflows of second shard without shared history")
+            .containsExactlyElementsOf(secondByName.select(TESTFLOWS, Function.identity()));
+
+        // the history of one of the shards given to both via -timings
+        first.readHistory(secondHistory.toFile());
+        second.readHistory(secondHistory.toFile());
+        assertDisjointCover(first, second);
+        assertThat(first.select(TESTFLOWS, Function.identity())).as("Testflows of first shard with shared history")
+            .containsExactly("c", "g");
+
+        first.readHistory(tempDir.resolve("missing.tsv").toFile());
+        second.readHistory(firstHistory.getParent().resolve("missing.tsv").toFile());
+        assertDisjointCover(first, second);
+    }
+
+    private static void assertDisjointCover(final TestflowShard first, final TestflowShard second) {
+        List<String> all = new ArrayList<>(first.select(TESTFLOWS, Function.identity()));
+        all.addAll(second.select(TESTFLOWS, Function.identity()));
+        assertThat(all).as("Testflows of all shards").containsExactlyInAnyOrderElementsOf(TESTFLOWS);
+    }
+
+    private static Path writeHistory(final Path file, final Object... durations) throws IOException {
+        StringBuilder buf = new StringBuilder("# start\ttestflow\ttest\tmillis\tresult\n");
+        for (int i = 0; i < durations.length; i += 2) {
+            buf.append("0\t").append(durations[i]).append("\t\t").append(durations[i + 1]).append("\tOK\n");
+        }
+        return Files.writeString(file, buf);
+    }
+}
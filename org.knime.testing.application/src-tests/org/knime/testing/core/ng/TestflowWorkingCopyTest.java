@@ -0,0 +1,124 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link TestflowWorkingCopy}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class TestflowWorkingCopyTest {
+
+    /**
+     * Tests that the working copy contains the selected workflow, the workflows it references via URLs relative to the
+     * mountpoint with either mount ID or via a relative workflow path setting, but no other workflows.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testReferencedWorkflows(@TempDir final Path tempDir) throws IOException {
+        Path root = tempDir.resolve("root");
+        createWorkflow(root.resolve("group/caller"), "knime://LOCAL/group/local%20callee/data.csv",
+            "knime://knime.mountpoint/mountpoint-callee", "<entry key=\"workflowPath\" type=\"xstring\" "
+                + "value=\"../relative callee\"/>");
+        createWorkflow(root.resolve("group/local callee"), "");
+        createWorkflow(root.resolve("mountpoint-callee"), "");
+        createWorkflow(root.resolve("group/relative callee"), "");
+        createWorkflow(root.resolve("other"), "");
+        Files.writeString(root.resolve("data.csv"), "data");
+
+        Path target = tempDir.resolve("copy");
+        new TestflowWorkingCopy(root.toFile(), target.toFile()).create(List.of(root.resolve("group/caller").toFile()));
+
+        for (String workflow : new String[]{"group/caller", "group/local callee", "mountpoint-callee",
+            "group/relative callee"}) {
+            assertThat(target.resolve(workflow).resolve("workflow.knime")).as("Copied workflow %s", workflow)
+                .isRegularFile();
+        }
+        assertThat(target.resolve("other")).as("Unreferenced workflow").doesNotExist();
+        assertThat(target.resolve("data.csv")).as("Data file").isRegularFile();
+    }
+
+    /**
+     * Tests that all workflows are copied if a workflow path setting cannot be resolved inside the mountpoint.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testUnresolvedWorkflowPath(@TempDir final Path tempDir) throws IOException {
+        Path root = tempDir.resolve("root");
+        createWorkflow(root.resolve("caller"), "<entry key=\"workflowPath\" type=\"xstring\" value=\"/missing\"/>");
+        createWorkflow(root.resolve("other"), "");
+
+        Path target = tempDir.resolve("copy");
+        new TestflowWorkingCopy(root.toFile(), target.toFile()).create(List.of(root.resolve("caller").toFile()));
+
+        assertThat(target.resolve("caller/workflow.knime")).as("Selected workflow").isRegularFile();
+        assertThat(target.resolve("other/workflow.knime")).as("Other workflow").isRegularFile();
+    }
+
+    private static void createWorkflow(final Path dir, final String... settings) throws IOException {
+        Path nodeDir = dir.resolve("Node (#1)");
+        Files.createDirectories(nodeDir);
+        Files.writeString(dir.resolve("workflow.knime"), "<config/>");
+        Files.writeString(nodeDir.resolve("settings.xml"), String.join("\n", settings));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.testing.core.TestrunConfiguration;
+
+/**
+ * Tests for the attribution of nodes and log messages to concurrently running testflows in the
+ * {@link WorkflowTestContext}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class WorkflowTestContextTest {
+
+    /**
+     * Tests that messages without a node are only attributed to other testflows if they have been logged by a thread
+     * other than the one running the tests while other testflows are running.
+     *
+     * @throws InterruptedException if the thread is interrupted
+     */
+    @Test
+    void testThreadAttribution() throws InterruptedException {
+        WorkflowTestContext context = new WorkflowTestContext(new TestrunConfiguration());
+        WorkflowTestContext other = new WorkflowTestContext(new TestrunConfiguration());
+        String runnerThread = Thread.currentThread().getName();
+        try {
+            context.activate();
+            assertThat(context.isFromConcurrentTestflow(null, runnerThread)).as("Message of runner thread").isFalse();
+            assertThat(context.isFromConcurrentTestflow(null, "Some thread"))
+                .as("Message of other thread without concurrent testflows").isFalse();
+
+            Thread otherRunner = new Thread(other::activate, "Other runner");
+            otherRunner.start();
+            otherRunner.join();
+            assertThat(context.hasConcurrentTestflows()).as("Concurrent testflows").isTrue();
+            assertThat(context.isFromConcurrentTestflow(null, runnerThread))
+                .as("Message of runner thread with concurrent testflows").isFalse();
+            assertThat(context.isFromConcurrentTestflow(null, "Some thread"))
+                .as("Message of other thread with concurrent testflows").isTrue();
+            assertThat(other.isFromConcurrentTestflow(null, "Other runner"))
+                .as("Message of the other testflow's runner thread").isFalse();
+            assertThat(context.isFromConcurrentTestflow(NodeID.ROOTID.createChild(1).createChild(2), "Some thread"))
+                .as("Message of node while no concurrent workflow is loaded").isFalse();
+
+            other.clear();
+            assertThat(context.isFromConcurrentTestflow(null, "Some thread"))
+                .as("Message of other thread after concurrent testflow has finished").isFalse();
+        } finally {
+            context.clear();
+            other.clear();
+        }
+    }
+
+    /**
+     * Tests that nodes are attributed to a workflow if they are the workflow itself or nested in it, but not if they
+     * belong to a workflow whose ID merely starts with the same digits.
+     */
+    @Test
+    void testNodeAttribution() {
+        NodeID workflow = NodeID.ROOTID.createChild(1);
+        List<NodeID> workflows = List.of(workflow);
+        assertThat(WorkflowTestContext.belongsToWorkflows(workflow, workflows)).as("Workflow itself").isTrue();
+        assertThat(WorkflowTestContext.belongsToWorkflows(workflow.createChild(3), workflows)).as("Node in workflow")
+            .isTrue();
+        assertThat(WorkflowTestContext.belongsToWorkflows(workflow.createChild(3).createChild(0).createChild(4),
+            workflows)).as("Node in component of workflow").isTrue();
+        assertThat(WorkflowTestContext.belongsToWorkflows(NodeID.ROOTID.createChild(11).createChild(3), workflows))
+            .as("Node in other workflow").isFalse();
+        assertThat(WorkflowTestContext.belongsToWorkflows(NodeID.ROOTID.createChild(2), workflows))
+            .as("Other workflow").isFalse();
+        assertThat(WorkflowTestContext.belongsToWorkflows(workflow, List.of())).as("Without workflows").isFalse();
+    }
+}
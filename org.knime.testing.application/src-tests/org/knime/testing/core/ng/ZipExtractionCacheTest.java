@@ -0,0 +1,195 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link ZipExtractionCache}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class ZipExtractionCacheTest {
+
+    /**
+     * Tests that a zip file is extracted into the cache on the first use and copied from the cache afterwards, also if
+     * the same content is in another zip file.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testMissAndHit(@TempDir final Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        ZipExtractionCache cache = new ZipExtractionCache(cacheDir.toFile(), Long.MAX_VALUE);
+        File zipFile = createZip(tempDir.resolve("flows.zip"));
+
+        Path firstDest = tempDir.resolve("first");
+        cache.extract(zipFile, firstDest.toFile());
+        assertExtracted(firstDest);
+        Path entryDir = getEntryDir(cacheDir);
+        assertThat(entryDir.resolveSibling(entryDir.getFileName() + ".properties")).as("Metadata file").isRegularFile();
+
+        // the marker only appears in the destination if the content is copied from the cache
+        Files.writeString(entryDir.resolve("marker"), "cached");
+        File copiedZip = Files.copy(zipFile.toPath(), tempDir.resolve("copy.zip")).toFile();
+        Path secondDest = tempDir.resolve("second");
+        cache.extract(copiedZip, secondDest.toFile());
+        assertExtracted(secondDest);
+        assertThat(secondDest.resolve("marker")).as("Marker from cache").isRegularFile();
+    }
+
+    /**
+     * Tests that an entry whose metadata is missing, e.g. because the run has been aborted after extracting it, is
+     * used and gets its metadata instead of being extracted again.
+     *
+     * @param tempDir a temporary directory
+     * @throws IOException if an I/O error occurs
+     */
+    @Test
+    void testOrphanedEntry(@TempDir final Path tempDir) throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        File zipFile = createZip(tempDir.resolve("flows.zip"));
+        new ZipExtractionCache(cacheDir.toFile(), Long.MAX_VALUE).extract(zipFile, tempDir.resolve("first").toFile());
+        Path entryDir = getEntryDir(cacheDir);
+        Path metadataFile = entryDir.resolveSibling(entryDir.getFileName() + ".properties");
+        Files.delete(metadataFile);
+        Files.writeString(entryDir.resolve("marker"), "cached");
+
+        Path dest = tempDir.resolve("second");
+        new ZipExtractionCache(cacheDir.toFile(), Long.MAX_VALUE).extract(zipFile, dest.toFile());
+        assertExtracted(dest);
+        assertThat(dest.resolve("marker")).as("Marker from orphaned entry").isRegularFile();
+        assertThat(metadataFile).as("Restored metadata file").isRegularFile();
+    }
+
+    /**
+     * Tests that concurrent extractions of the same content by several caches on the same directory, as done by
+     * concurrent runs, all succeed although only one of them can rename its extraction into place.
+     *
+     * @param tempDir a temporary directory
+     * @throws Exception if an error occurs
+     */
+    @Test
+    void testConcurrentExtraction(@TempDir final Path tempDir) throws Exception {
+        final int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int run = 0; run < 5; run++) {
+                Path cacheDir = tempDir.resolve("cache" + run);
+                File zipFile = createZip(tempDir.resolve("flows" + run + ".zip"));
+                CyclicBarrier barrier = new CyclicBarrier(threads);
+                List<Future<Path>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    Path dest = tempDir.resolve("dest" + run + "-" + t);
+                    results.add(executor.submit(() -> {
+                        ZipExtractionCache cache = new ZipExtractionCache(cacheDir.toFile(), Long.MAX_VALUE);
+                        barrier.await();
+                        cache.extract(zipFile, dest.toFile());
+                        return dest;
+                    }));
+                }
+                for (Future<Path> result : results) {
+                    assertExtracted(result.get());
+                }
+                getEntryDir(cacheDir);
+                try (Stream<Path> files = Files.list(cacheDir)) {
+                    assertThat(files.map(p -> p.getFileName().toString()))
+                        .as("Left-over temporary files in run %d", run).noneMatch(n -> n.contains(".tmp"));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static File createZip(final Path zipFile) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            for (String name : new String[]{"group/flow/workflow.knime", "group/flow/Node (#1)/settings.xml"}) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(name.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return zipFile.toFile();
+    }
+
+    private static void assertExtracted(final Path dest) throws IOException {
+        assertThat(Files.readString(dest.resolve("group/flow/workflow.knime"))).as("Extracted workflow file")
+            .isEqualTo("group/flow/workflow.knime");
+        assertThat(Files.readString(dest.resolve("group/flow/Node (#1)/settings.xml"))).as("Extracted settings file")
+            .isEqualTo("group/flow/Node (#1)/settings.xml");
+    }
+
+    private static Path getEntryDir(final Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            List<Path> dirs = files.filter(Files::isDirectory).toList();
+            assertThat(dirs).as("Cache entries").hasSize(1);
+            return dirs.get(0);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.internal.diffcheckers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettings;
+import org.knime.testing.core.DifferenceChecker.Result;
+
+/**
+ * Tests that the primitive and batched comparisons of the checkers agree with their regular check methods.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class PrimitiveCheckerTest {
+    private static final double[] DOUBLES = {0.0, -0.0, 1.0, Math.nextUp(1.0), 0.995, 1.005, 1.01, 1.02, -1.0,
+        Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L), Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+        Double.MAX_VALUE, Double.MIN_VALUE, 1e300};
+
+    private static final long[] LONGS = {0, 1, -1, 42, Long.MAX_VALUE, Long.MIN_VALUE, 1L << 53, (1L << 53) + 1};
+
+    /**
+     * Tests that the equality checker's primitive comparisons only accept values that its check accepts, including
+     * NaN and signed zeros.
+     */
+    @Test
+    void testEqualityChecker() {
+        EqualityChecker checker = new EqualityChecker();
+        for (long e : LONGS) {
+            for (long g : LONGS) {
+                assertThat(checker.matches(e, g)).as("Match of %d and %d", e, g)
+                    .isEqualTo(checker.check(new LongCell(e), new LongCell(g)).ok());
+            }
+        }
+        for (double e : DOUBLES) {
+            for (double g : DOUBLES) {
+                if (checker.matches(e, g)) {
+                    assertThat(checker.check(new DoubleCell(e), new DoubleCell(g)).ok())
+                        .as("Check of matching %s and %s", e, g).isTrue();
+                }
+            }
+            assertThat(checker.matches(e, e)).as("Match of %s with itself", e).isEqualTo(!Double.isNaN(e));
+        }
+        assertThat(checker.matches(0.0, -0.0)).as("Match of signed zeros").isFalse();
+
+        assertBatchesAgree(checker);
+    }
+
+    /**
+     * Tests that the epsilon checker's primitive comparisons accept exactly the values that its check accepts, except
+     * for NaN which is left to the check.
+     *
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    @Test
+    void testEpsilonNumberChecker() throws InvalidSettingsException {
+        for (double epsilon : new double[]{0.01, 0}) {
+            EpsilonNumberChecker checker = new EpsilonNumberChecker();
+            NodeSettings settings = new NodeSettings("checker");
+            checker.saveSettings(settings);
+            settings.addDouble("epsilon", epsilon);
+            checker.loadSettings(settings);
+
+            for (long e : LONGS) {
+                for (long g : LONGS) {
+                    assertThat(checker.matches(e, g)).as("Match of %d and %d with epsilon %s", e, g, epsilon)
+                        .isEqualTo(checker.check(new LongCell(e), new LongCell(g)).ok());
+                }
+            }
+            for (double e : DOUBLES) {
+                for (double g : DOUBLES) {
+                    Result result = checker.check(new DoubleCell(e), new DoubleCell(g));
+                    if (Double.isNaN(e) && Double.isNaN(g)) {
+                        assertThat(result.ok()).as("Check of %s and %s", e, g).isTrue();
+                    } else {
+                        assertThat(checker.matches(e, g)).as("Match of %s and %s with epsilon %s", e, g, epsilon)
+                            .isEqualTo(result.ok());
+                    }
+                }
+            }
+            assertThat(checker.matches(0.0, -0.0)).as("Match of signed zeros").isTrue();
+
+            assertBatchesAgree(checker);
+        }
+    }
+
+    /**
+     * Tests that the epsilon checker accepts exactly the numbers within its tolerance, which is never negative.
+     *
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    @Test
+    void testTolerance() throws InvalidSettingsException {
+        for (double epsilon : new double[]{0.01, 0, -1}) {
+            EpsilonNumberChecker checker = new EpsilonNumberChecker();
+            NodeSettings settings = new NodeSettings("checker");
+            checker.saveSettings(settings);
+            settings.addDouble("epsilon", epsilon);
+            checker.loadSettings(settings);
+
+            double tolerance = checker.getTolerance();
+            assertThat(tolerance).as("Tolerance for epsilon %s", epsilon).isEqualTo(Math.max(0, epsilon));
+            for (double e : DOUBLES) {
+                for (double g : DOUBLES) {
+                    assertThat(checker.check(new DoubleCell(e), new DoubleCell(g)).ok())
+                        .as("Check of %s and %s with tolerance %s", e, g, tolerance)
+                        .isEqualTo((e == g) || (Double.isNaN(e) && Double.isNaN(g)) || (Math.abs(e - g) <= tolerance));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the string checker's primitive comparison only accepts strings that its check accepts and that its
+     * check accepts exactly the strings with equal normalized values.
+     *
+     * @throws InvalidSettingsException if the settings are invalid
+     */
+    @Test
+    void testStringChecker() throws InvalidSettingsException {
+        String[] strings = {"", "\n", "a", "a\n", "a\r\n", "a\nb", "a\r\nb", "a\rb", "b"};
+        for (boolean ignoreLinefeeds : new boolean[]{false, true}) {
+            StringChecker checker = new StringChecker();
+            NodeSettings settings = new NodeSettings("checker");
+            checker.saveSettings(settings);
+            settings.addBoolean("ignoreLinefeeds", ignoreLinefeeds);
+            checker.loadSettings(settings);
+
+            for (String e : strings) {
+                for (String g : strings) {
+                    if (checker.matches(e, g)) {
+                        assertThat(checker.check(new StringCell(e), new StringCell(g)).ok())
+                            .as("Check of matching '%s' and '%s'", e, g).isTrue();
+                    }
+                    assertThat(checker.normalize(new StringCell(e)).equals(checker.normalize(new StringCell(g))))
+                        .as("Equal normalized values of '%s' and '%s'", e, g)
+                        .isEqualTo(checker.check(new StringCell(e), new StringCell(g)).ok());
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the batched search for mismatches with the single comparisons on random arrays.
+     */
+    private static void assertBatchesAgree(final BatchChecker checker) {
+        Random random = new Random(42);
+        for (int run = 0; run < 1000; run++) {
+            int length = random.nextInt(3 * BatchChecker.BLOCK_SIZE + 2);
+            long[] expectedLongs = new long[length];
+            long[] gotLongs = new long[length];
+            double[] expectedDoubles = new double[length];
+            double[] gotDoubles = new double[length];
+            boolean[] skipped = new boolean[length];
+            // mostly equal values, otherwise almost every search ends at the first position
+            for (int i = 0; i < length; i++) {
+                expectedLongs[i] = LONGS[random.nextInt(LONGS.length)];
+                gotLongs[i] = (random.nextInt(20) == 0) ? LONGS[random.nextInt(LONGS.length)] : expectedLongs[i];
+                expectedDoubles[i] = DOUBLES[random.nextInt(DOUBLES.length)];
+                gotDoubles[i] =
+                    (random.nextInt(20) == 0) ? DOUBLES[random.nextInt(DOUBLES.length)] : expectedDoubles[i];
+                skipped[i] = random.nextInt(10) == 0;
+            }
+            int from = (length > 0) ? random.nextInt(length) : 0;
+            int to = from + ((length > from) ? random.nextInt(length - from + 1) : 0);
+
+            int firstLong = -1;
+            int firstDouble = -1;
+            for (int i = to - 1; i >= from; i--) {
+                if (!skipped[i] && !checker.matches(expectedLongs[i], gotLongs[i])) {
+                    firstLong = i;
+                }
+                if (!skipped[i] && !checker.matches(expectedDoubles[i], gotDoubles[i])) {
+                    firstDouble = i;
+                }
+            }
+            assertThat(checker.firstMismatch(expectedLongs, gotLongs, skipped, from, to))
+                .as("First long mismatch in run %d", run).isEqualTo(firstLong);
+            assertThat(checker.firstMismatch(expectedDoubles, gotDoubles, skipped, from, to))
+                .as("First double mismatch in run %d", run).isEqualTo(firstDouble);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.internal.nodes.differ;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.testing.internal.diffcheckers.EpsilonNumberChecker;
+
+/**
+ * Tests for the {@link BipartiteMatching} that matches rows regardless of their order.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class BipartiteMatchingTest {
+
+    /**
+     * Tests the example in which matching each test row with the first acceptable reference row fails: with an
+     * epsilon of 0.01 the test row 0.01 takes the reference row 0.00, which is the only match of the test row -0.005.
+     * The values are those of reference rows 1.00 and 1.02 and test rows 1.01 and 0.995 shifted to zero, where the
+     * differences of 0.01 are not rounded above the epsilon.
+     */
+    @Test
+    void testGreedyCounterexample() {
+        double[] refs = {0.00, 0.02};
+        double[] tests = {0.01, -0.005};
+        int[] greedy = {0, -1};
+
+        int[] match = BipartiteMatching.maximumMatching(tests.length, refs.length, epsilonNeighbors(refs, tests),
+            greedy);
+        assertThat(match).as("Matched reference rows").containsExactly(1, 0);
+    }
+
+    /**
+     * Tests that pairs of equal values are only an initial matching: with an epsilon of 0.01 the reference rows 0.00
+     * and 0.01 and the test rows 0.01 and 0.02 only match if the equal values 0.01 are not paired.
+     */
+    @Test
+    void testEqualValuesAreReassigned() {
+        double[] refs = {0.00, 0.01};
+        double[] tests = {0.01, 0.02};
+        int[] equal = {1, -1};
+
+        int[] match = BipartiteMatching.maximumMatching(tests.length, refs.length, epsilonNeighbors(refs, tests),
+            equal);
+        assertThat(match).as("Matched reference rows").containsExactly(0, 1);
+    }
+
+    /**
+     * Tests that no neighbors are computed if the initial matching is already complete.
+     */
+    @Test
+    void testCompleteInitialMatching() {
+        int[] match = BipartiteMatching.maximumMatching(3, 3, u -> {
+            throw new AssertionError("Neighbors of " + u + " requested");
+        }, new int[]{2, 0, 1});
+        assertThat(match).as("Matched reference rows").containsExactly(2, 0, 1);
+    }
+
+    /**
+     * Compares the size of the matching with an exhaustive search on random graphs, with and without a greedy initial
+     * matching, and checks that the neighbors of each vertex are computed at most once.
+     */
+    @Test
+    void testMaximumMatching() {
+        Random random = new Random(42);
+        for (int run = 0; run < 2000; run++) {
+            int leftCount = random.nextInt(7);
+            int rightCount = random.nextInt(7);
+            double density = random.nextDouble();
+            boolean[][] edges = new boolean[leftCount][rightCount];
+            for (boolean[] row : edges) {
+                for (int v = 0; v < rightCount; v++) {
+                    row[v] = random.nextDouble() < density;
+                }
+            }
+
+            int[] initialMatch = null;
+            if (random.nextBoolean()) {
+                initialMatch = new int[leftCount];
+                boolean[] used = new boolean[rightCount];
+                for (int u = 0; u < leftCount; u++) {
+                    initialMatch[u] = -1;
+                    for (int v = 0; (v < rightCount) && (initialMatch[u] < 0); v++) {
+                        if (edges[u][v] && !used[v]) {
+                            initialMatch[u] = v;
+                            used[v] = true;
+                        }
+                    }
+                }
+            }
+
+            int[] calls = new int[leftCount];
+            int[] match = BipartiteMatching.maximumMatching(leftCount, rightCount, u -> {
+                calls[u]++;
+                return neighbors(edges[u]);
+            }, initialMatch);
+
+            boolean[] used = new boolean[rightCount];
+            int size = 0;
+            for (int u = 0; u < leftCount; u++) {
+                assertThat(calls[u]).as("Neighbor computations of vertex %d in run %d", u, run).isLessThanOrEqualTo(1);
+                if (match[u] >= 0) {
+                    assertThat(edges[u][match[u]]).as("Edge of vertex %d in run %d", u, run).isTrue();
+                    assertThat(used[match[u]]).as("Right vertex %d used twice in run %d", match[u], run).isFalse();
+                    used[match[u]] = true;
+                    size++;
+                }
+            }
+            assertThat(size).as("Matching size in run %d", run)
+                .isEqualTo(maximumSize(edges, 0, new boolean[rightCount]));
+        }
+    }
+
+    /**
+     * Tests that long augmenting paths do not need deep recursion.
+     */
+    @Test
+    void testLongAugmentingPath() {
+        // left vertex u is initially matched with right vertex u + 1, only the last left vertex is unmatched
+        int n = 100000;
+        int[] initialMatch = new int[n];
+        for (int u = 0; u < n; u++) {
+            initialMatch[u] = (u < n - 1) ? u + 1 : -1;
+        }
+        int[] match = BipartiteMatching.maximumMatching(n, n,
+            u -> (u < n - 1) ? new int[]{u, u + 1} : new int[]{n - 1}, initialMatch);
+        for (int u = 0; u < n; u++) {
+            assertThat(match[u]).as("Matched right vertex of %d", u).isEqualTo(u);
+        }
+    }
+
+    private static IntFunction<int[]> epsilonNeighbors(final double[] refs, final double[] tests) {
+        EpsilonNumberChecker checker = new EpsilonNumberChecker();
+        return j -> {
+            List<Integer> neighbors = new ArrayList<>();
+            for (int i = 0; i < refs.length; i++) {
+                if (checker.check(new DoubleCell(refs[i]), new DoubleCell(tests[j])).ok()) {
+                    neighbors.add(i);
+                }
+            }
+            return neighbors.stream().mapToInt(Integer::intValue).toArray();
+        };
+    }
+
+    private static int[] neighbors(final boolean[] edges) {
+        return IntStream.range(0, edges.length).filter(v -> edges[v]).toArray();
+    }
+
+    private static int maximumSize(final boolean[][] edges, final int u, final boolean[] used) {
+        if (u == edges.length) {
+            return 0;
+        }
+        int best = maximumSize(edges, u + 1, used);
+        for (int v = 0; v < used.length; v++) {
+            if (edges[u][v] && !used[v]) {
+                used[v] = true;
+                best = Math.max(best, 1 + maximumSize(edges, u + 1, used));
+                used[v] = false;
+            }
+        }
+        return best;
+    }
+}
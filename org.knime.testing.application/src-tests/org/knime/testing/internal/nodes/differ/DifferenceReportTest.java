@@ -0,0 +1,104 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.internal.nodes.differ;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Tests for the {@link DifferenceReport}.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+@SuppressWarnings("static-method")
+final class DifferenceReportTest {
+    private static final DataTableSpec SPEC =
+        new DataTableSpec(new DataColumnSpecCreator("name", StringCell.TYPE).createSpec(),
+            new DataColumnSpecCreator("value", DoubleCell.TYPE).createSpec());
+
+    /**
+     * Tests that the differences of all ranges are listed in the order of the ranges up to the maximum number while
+     * the counts per column stay complete.
+     */
+    @Test
+    void testTruncation() {
+        DifferenceReport report = new DifferenceReport(SPEC, true, 3);
+        DifferenceReport.Range first = report.newRange();
+        DifferenceReport.Range second = report.newRange();
+        for (int i = 0; i < 5; i++) {
+            second.add("Row" + (10 + i), 1, "1.0", "2.0", "second " + i);
+        }
+        first.add("Row0", 0, "a", null, "first 0");
+        first.add("Row1", DifferenceReport.ROW_ID, "Row1", null, "first 1");
+
+        assertThat(report.getListedDifferences()).as("Listed differences").extracting(DifferenceReport.Entry::message)
+            .containsExactly("first 0", "first 1", "second 0");
+        assertThat(report.differenceCount()).as("Number of differences").isEqualTo(7);
+        assertThat(report.getColumnCounts()).as("Differences per column").containsExactly(1, 1, 5);
+    }
+
+    /**
+     * Tests that nothing is listed if only the counts are needed.
+     */
+    @Test
+    void testCountsOnly() {
+        DifferenceReport report = new DifferenceReport(SPEC, false, 0);
+        DifferenceReport.Range range = report.newRange();
+        range.add("Row0", 0, new StringCell("a"), new StringCell("b"), "different");
+        range.add("Row1", 1, new DoubleCell(1), new DoubleCell(2), "different");
+
+        assertThat(report.getListedDifferences()).as("Listed differences").isEmpty();
+        assertThat(report.differenceCount()).as("Number of differences").isEqualTo(2);
+        assertThat(report.getColumnCounts()).as("Differences per column").containsExactly(0, 1, 1);
+    }
+}
@@ -47,30 +47,40 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 import junit.framework.AssertionFailedError;
 import junit.framework.Test;
@@ -86,14 +96,16 @@
  */
 public abstract class AbstractXMLResultWriter implements TestListener {
     /**
-     * Map with the start times of each test (in milliseconds since the epoch).
+     * Map with the start times of each test (in milliseconds since the epoch). Tests of several suites may run
+     * concurrently, therefore the map is thread-safe.
      */
-    protected final Map<Test, Long> m_startTimes = new HashMap<>();
+    protected final Map<Test, Long> m_startTimes = new ConcurrentHashMap<>();
 
     /**
-     * Map with the end times of each test (in milliseconds since the epoch).
+     * Map with the end times of each test (in milliseconds since the epoch). Tests of several suites may run
+     * concurrently, therefore the map is thread-safe.
      */
-    protected final Map<Test, Long> m_endTimes = new HashMap<>();
+    protected final Map<Test, Long> m_endTimes = new ConcurrentHashMap<>();
 
     /**
      * Document builder for creating XML documents.
@@ -105,8 +117,17 @@ public abstract class AbstractXMLResultWriter implements TestListener {
      */
     protected final Transformer m_serializer;
 
+    /**
+     * Factory for StAX writers that stream the results into files.
+     */
+    protected final XMLOutputFactory m_outputFactory = XMLOutputFactory.newInstance();
+
     private final DateFormat m_timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
 
+    private final String m_hostname;
+
+    private boolean m_nodeProfileProperties;
+
     /**
      * Creates a new result writer.
      *
@@ -116,6 +137,27 @@ public abstract class AbstractXMLResultWriter implements TestListener {
     public AbstractXMLResultWriter() throws ParserConfigurationException, TransformerConfigurationException {
         m_docBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
         m_serializer = TransformerFactory.newInstance().newTransformer();
+        m_hostname = resolveHostname();
+    }
+
+    private static String resolveHostname() {
+        try {
+            // resolving may be slow, therefore it is only done once
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            // TODO add log output
+            return "<unknown>";
+        }
+    }
+
+    /**
+     * Sets whether the per-node execution profiles should be added as <tt>&lt;properties></tt> to the test suites.
+     * They are always written into a separate file, see {@link #getNodeProfileFile(String)}.
+     *
+     * @param include <code>true</code> if the profiles should be included in the XML, <code>false</code> otherwise
+     */
+    public void setNodeProfileProperties(final boolean include) {
+        m_nodeProfileProperties = include;
     }
 
     /**
@@ -153,100 +195,150 @@ public void startTest(final Test test) {
     }
 
     /**
-     * Analyzes the the workflow test result and creates an XML <tt>&lt;testsuite></tt> element.
+     * Analyzes the the workflow test result and writes an XML <tt>&lt;testsuite></tt> element. The element is streamed
+     * directly to the writer without building up a DOM first.
      *
      * @param result the result of a workflow test suite
-     * @param doc the document from which the elements should be created
+     * @param out the writer into which the element is written
      * @param includeStdouterr true if stdout and stderr should be included in the XML structure
-     * @return a new XML element containing the test suite
+     * @throws XMLStreamException if an error occurs while writing the XML
+     * @throws IOException if an I/O error occurs while reading the captured output
      */
-    protected final Element createTestsuiteElement(final WorkflowTestResult result, final Document doc,
-        final boolean includeStdouterr) {
-        Element testSuite = doc.createElement("testsuite");
-
-        testSuite.setAttribute("name", result.getSuite().getSuiteName());
-        testSuite.setAttribute("tests", Integer.toString(result.runCount()));
-        testSuite.setAttribute("failures", Integer.toString(result.failureCount()));
-        testSuite.setAttribute("errors", Integer.toString(result.errorCount()));
-        testSuite.setAttribute("skipped", Long.toString(result.skippedCount()));
-        testSuite.setAttribute("time", Double.toString((m_endTimes.get(result.getSuite()) - m_startTimes.get(result
+    protected final void writeTestsuite(final WorkflowTestResult result, final XMLStreamWriter out,
+        final boolean includeStdouterr) throws XMLStreamException, IOException {
+        out.writeStartElement("testsuite");
+
+        out.writeAttribute("name", result.getSuite().getSuiteName());
+        out.writeAttribute("tests", Integer.toString(result.runCount()));
+        out.writeAttribute("failures", Integer.toString(result.failureCount()));
+        out.writeAttribute("errors", Integer.toString(result.errorCount()));
+        out.writeAttribute("skipped", Long.toString(result.skippedCount()));
+        out.writeAttribute("time", Double.toString((m_endTimes.get(result.getSuite()) - m_startTimes.get(result
                 .getSuite())) / 1000.0));
-        testSuite.setAttribute("timestamp", m_timestampFormat.format(new Date(m_startTimes.get(result.getSuite()))));
-        try {
-            testSuite.setAttribute("hostname", InetAddress.getLocalHost().getHostName());
-        } catch (UnknownHostException ex) {
-            // TODO add log output
-            testSuite.setAttribute("hostname", "<unknown>");
-        }
+        out.writeAttribute("timestamp", m_timestampFormat.format(new Date(m_startTimes.get(result.getSuite()))));
+        out.writeAttribute("hostname", m_hostname);
 
-        addTestcases(result, doc, testSuite);
+        if (m_nodeProfileProperties) {
+            writeNodeProfileProperties(result, out);
+        }
+        writeTestcases(result, out);
 
         if (includeStdouterr) {
-            Element sysout = doc.createElement("system-out");
-            testSuite.appendChild(sysout);
-            sysout.appendChild(doc.createTextNode(result.getSystemOut()));
+            // the output may be huge, therefore it is streamed instead of converted into a string first
+            Writer charactersWriter = new CharactersWriter(out);
+            out.writeStartElement("system-out");
+            result.writeSystemOut(charactersWriter);
+            out.writeEndElement();
+
+            out.writeStartElement("system-err");
+            result.writeSystemErr(charactersWriter);
+            out.writeEndElement();
+        }
+
+        out.writeEndElement();
+    }
 
-            Element syserr = doc.createElement("system-err");
-            testSuite.appendChild(syserr);
-            syserr.appendChild(doc.createTextNode(result.getSystemErr()));
+    private static void writeNodeProfileProperties(final WorkflowTestResult result, final XMLStreamWriter out)
+        throws XMLStreamException {
+        if (!(result.getSuite() instanceof WorkflowTestSuite suite)
+            || suite.getNodeProfiles().values().stream().allMatch(List::isEmpty)) {
+            return; // the schema requires at least one property
         }
 
-        return testSuite;
+        out.writeStartElement("properties");
+        for (Map.Entry<String, List<NodeExecutionProfiler.NodeProfile>> e : suite.getNodeProfiles().entrySet()) {
+            for (NodeExecutionProfiler.NodeProfile p : e.getValue()) {
+                out.writeEmptyElement("property");
+                out.writeAttribute("name", "profile:" + e.getKey() + ":" + p.nodeId());
+                out.writeAttribute("value", replaceInvalidCharacters(p.nodeName()) + "; executions="
+                    + p.executions() + "; wall=" + p.wallTime() + "ms; queue=" + p.queueTime() + "ms; allocated="
+                    + p.allocatedBytes() + "B; rows=" + NodeExecutionProfiler.formatRowCounts(p));
+            }
+        }
+        out.writeEndElement();
     }
 
-    private void addTestcases(final WorkflowTestResult result, final Document doc, final Element testSuite) {
-        Map<Test, Element> testcases = new HashMap<>();
+    /**
+     * Writes the per-node execution profiles of the given result into the file returned by
+     * {@link #getNodeProfileFile(String)}. Nothing is written if no profiles have been recorded.
+     *
+     * @param result the result of a workflow test suite
+     */
+    protected final void writeNodeProfile(final WorkflowTestResult result) {
+        if ((result.getSuite() instanceof WorkflowTestSuite suite) && !suite.getNodeProfiles().isEmpty()) {
+            File profileFile = getNodeProfileFile(suite.getName());
+            if (profileFile.getParentFile().isDirectory() || profileFile.getParentFile().mkdirs()) {
+                NodeExecutionProfiler.writeReport(suite.getNodeProfiles(), profileFile);
+            }
+        }
+    }
+
+    private void writeTestcases(final WorkflowTestResult result, final XMLStreamWriter out)
+        throws XMLStreamException {
+        Map<Test, List<TestFailure>> failures = groupByTest(result.failures());
+        Map<Test, List<TestFailure>> errors = groupByTest(result.errors());
 
+        Set<Test> written = new HashSet<>();
         Collection<Test> skippedTests = result.getSkippedTests();
         for (Test test : result.getAllTests()) {
             if ((test instanceof TestWithName) && !(test instanceof WorkflowTestSuite) && (test != result.getSuite())) {
-                Element tc = createTestcaseElement((TestWithName)test, doc);
-                testSuite.appendChild(tc);
-                testcases.put(test, tc);
-                if (skippedTests.contains(test)) {
-                    tc.appendChild(doc.createElement("skipped"));
-                }
+                writeTestcase((TestWithName)test, skippedTests.contains(test), failures.get(test), errors.get(test),
+                    out);
+                written.add(test);
             }
         }
 
-        processIssues(result.failures(), "failure", doc, testSuite, testcases);
-        processIssues(result.errors(), "error", doc, testSuite, testcases);
+        // strange, but we add an element anyway for issues of tests without their own testcase (e.g. the suite)
+        Set<Test> remaining = new LinkedHashSet<>(failures.keySet());
+        remaining.addAll(errors.keySet());
+        remaining.removeAll(written);
+        for (Test test : remaining) {
+            writeTestcase((TestWithName)test, false, failures.get(test), errors.get(test), out);
+        }
     }
 
-    private void processIssues(final Enumeration<TestFailure> issues, final String type, final Document doc,
-                               final Element testSuite, final Map<Test, Element> testcases) {
+    private static Map<Test, List<TestFailure>> groupByTest(final Enumeration<TestFailure> issues) {
+        Map<Test, List<TestFailure>> map = new LinkedHashMap<>();
         while (issues.hasMoreElements()) {
             TestFailure f = issues.nextElement();
-
-            Element tc = testcases.get(f.failedTest());
-            if (tc == null) {
-                // strange, but we add an element anyway
-                tc = createTestcaseElement((TestWithName)f.failedTest(), doc);
-                testSuite.appendChild(tc);
-                testcases.put(f.failedTest(), tc);
-            }
-
-            Element failure = doc.createElement(type);
-            tc.appendChild(failure);
-            failure.setAttribute("message", replaceInvalidCharacters(f.exceptionMessage()));
-            failure.setAttribute("type", f.thrownException().getClass().getName());
-
-            StringWriter buf = new StringWriter();
-            f.thrownException().printStackTrace(new PrintWriter(buf));
-            failure.appendChild(doc.createTextNode(replaceInvalidCharacters(buf.toString())));
+            map.computeIfAbsent(f.failedTest(), k -> new ArrayList<>()).add(f);
         }
+        return map;
     }
 
-    private Element createTestcaseElement(final TestWithName test, final Document doc) {
-        Element tc = doc.createElement("testcase");
-        tc.setAttribute("name", test.getName());
-        tc.setAttribute("classname", test.getSuiteName());
+    private void writeTestcase(final TestWithName test, final boolean skipped, final List<TestFailure> failures,
+        final List<TestFailure> errors, final XMLStreamWriter out) throws XMLStreamException {
+        out.writeStartElement("testcase");
+        out.writeAttribute("name", test.getName());
+        out.writeAttribute("classname", test.getSuiteName());
         if ((m_endTimes.get(test) != null) && (m_startTimes.get(test) != null)) {
-            tc.setAttribute("time", Double.toString((m_endTimes.get(test) - m_startTimes.get(test)) / 1000.0));
+            out.writeAttribute("time", Double.toString((m_endTimes.get(test) - m_startTimes.get(test)) / 1000.0));
         } else {
-            tc.setAttribute("time", "-1");
+            out.writeAttribute("time", "-1");
+        }
+        if (skipped) {
+            out.writeEmptyElement("skipped");
+        }
+        writeIssues(failures, "failure", out);
+        writeIssues(errors, "error", out);
+        out.writeEndElement();
+    }
+
+    private static void writeIssues(final List<TestFailure> issues, final String type, final XMLStreamWriter out)
+        throws XMLStreamException {
+        if (issues == null) {
+            return;
+        }
+        for (TestFailure f : issues) {
+            out.writeStartElement(type);
+            out.writeAttribute("message", replaceInvalidCharacters(f.exceptionMessage()));
+            out.writeAttribute("type", f.thrownException().getClass().getName());
+
+            StringWriter buf = new StringWriter();
+            f.thrownException().printStackTrace(new PrintWriter(buf));
+            out.writeCharacters(replaceInvalidCharacters(buf.toString()));
+            out.writeEndElement();
         }
-        return tc;
     }
 
     /**
@@ -264,7 +356,8 @@ private Element createTestcaseElement(final TestWithName test, final Document do
     public abstract void endSuites() throws IOException, TransformerException;
 
     /**
-     * Adds a result. The writer may choose to write it out immediately or postpone the processing.
+     * Adds a result. The writer may choose to write it out immediately or postpone the processing. Implementations
+     * must support results being added concurrently by several threads.
      *
      * @param result a test results
      * @throws TransformerException if an error occurs while writing the XML
@@ -272,6 +365,53 @@ private Element createTestcaseElement(final TestWithName test, final Document do
      */
     public abstract void addResult(WorkflowTestResult result) throws TransformerException, IOException;
 
+    /**
+     * Adds a result that has already been converted into a single <tt>&lt;testsuite></tt> document, e.g. by a
+     * result writer in another process. Implementations must support results being added concurrently by several
+     * threads.
+     *
+     * @param testsuite a document with a <tt>&lt;testsuite></tt> root element
+     * @param suiteName the name of the test suite
+     * @param systemOut a file with the suite's output to <tt>System.out</tt>, may be <code>null</code> if the output
+     *            is already contained in the document
+     * @throws TransformerException if an error occurs while writing the XML
+     * @throws IOException if an I/O error occurs while writing the results
+     */
+    public abstract void addResult(Document testsuite, String suiteName, File systemOut)
+        throws TransformerException, IOException;
+
+    /**
+     * Returns the file into which the per-node execution profiles of the given suite are written. The file is located
+     * next to the suite's XML result.
+     *
+     * @param suiteName the name of the test suite
+     * @return the profile file
+     */
+    public abstract File getNodeProfileFile(String suiteName);
+
+    /**
+     * Returns the file into which the resource samples of the given suite are written, see {@link ResourceSampler}.
+     * The file is located next to the suite's XML result.
+     *
+     * @param suiteName the name of the test suite
+     * @return the samples file
+     */
+    public abstract File getResourceSamplesFile(String suiteName);
+
+    /**
+     * Removes the recorded start and end times of all tests that are part of the given result.
+     *
+     * @param result a test result that has been written
+     */
+    protected final void forgetTimes(final WorkflowTestResult result) {
+        for (Test test : result.getAllTests()) {
+            m_startTimes.remove(test);
+            m_endTimes.remove(test);
+        }
+        m_startTimes.remove(result.getSuite());
+        m_endTimes.remove(result.getSuite());
+    }
+
     /**
      * Replaces characters that are invalid in XML 1.0 with an replacement notation. A <code>null</code> string is
      * replaced by an empty string.
@@ -296,4 +436,34 @@ protected static String replaceInvalidCharacters(final String input) {
 
         return buf.toString();
     }
+
+    /**
+     * Writer that passes all characters as text content to an XML stream writer.
+     */
+    private static final class CharactersWriter extends Writer {
+        private final XMLStreamWriter m_out;
+
+        CharactersWriter(final XMLStreamWriter out) {
+            m_out = out;
+        }
+
+        @Override
+        public void write(final char[] cbuf, final int off, final int len) throws IOException {
+            try {
+                m_out.writeCharacters(cbuf, off, len);
+            } catch (XMLStreamException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+        }
+
+        @Override
+        public void flush() {
+            // nothing to do, the XML stream writer is flushed by its owner
+        }
+
+        @Override
+        public void close() {
+            // nothing to do, the XML stream writer is closed by its owner
+        }
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Histogram of the live objects on the heap per class, as printed by <tt>jcmd &lt;pid&gt; GC.class_histogram</tt>.
+ * Taking a histogram triggers a full garbage collection, therefore only live objects are counted.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ClassHistogram {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ClassHistogram.class);
+
+    private static final String DIAGNOSTIC_COMMAND_BEAN = "com.sun.management:type=DiagnosticCommand";
+
+    /**
+     * The instance count and size of all objects of a class.
+     *
+     * @param instances the number of instances
+     * @param bytes the number of bytes used by all instances
+     */
+    record Entry(long instances, long bytes) {
+    }
+
+    /**
+     * The change of the instance count and size of a class between two histograms.
+     *
+     * @param className the class name
+     * @param instances the change in the number of instances
+     * @param bytes the change in the number of bytes
+     */
+    record Delta(String className, long instances, long bytes) {
+    }
+
+    private final Map<String, Entry> m_entries;
+
+    private final long m_totalBytes;
+
+    private ClassHistogram(final Map<String, Entry> entries, final long totalBytes) {
+        m_entries = entries;
+        m_totalBytes = totalBytes;
+    }
+
+    /**
+     * Takes a histogram of the current heap.
+     *
+     * @return a new histogram or <code>null</code> if the JVM does not support class histograms
+     */
+    static ClassHistogram take() {
+        String output;
+        try {
+            output = (String)ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName(DIAGNOSTIC_COMMAND_BEAN),
+                "gcClassHistogram", new Object[]{new String[0]}, new String[]{String[].class.getName()});
+        } catch (JMException | RuntimeException ex) {
+            LOGGER.debug("Could not take class histogram: " + ex.getMessage(), ex);
+            return null;
+        }
+        return parse(output);
+    }
+
+    /**
+     * Parses the output of the <tt>GC.class_histogram</tt> diagnostic command.
+     *
+     * @param output the command's output
+     * @return the histogram
+     */
+    static ClassHistogram parse(final String output) {
+        Map<String, Entry> entries = new HashMap<>();
+        long totalBytes = 0;
+        for (String line : output.split("\n")) {
+            String[] parts = line.trim().split("\\s+");
+            if ((parts.length >= 4) && parts[0].endsWith(":")) {
+                //   1:        123456       7890123  [B (java.base@17)
+                try {
+                    entries.merge(parts[3], new Entry(Long.parseLong(parts[1]), Long.parseLong(parts[2])),
+                        (e1, e2) -> new Entry(e1.instances() + e2.instances(), e1.bytes() + e2.bytes()));
+                } catch (NumberFormatException ex) {
+                    // not a histogram line
+                }
+            } else if ((parts.length == 3) && "Total".equals(parts[0])) {
+                try {
+                    totalBytes = Long.parseLong(parts[2]);
+                } catch (NumberFormatException ex) {
+                    // not the summary line
+                }
+            }
+        }
+        return new ClassHistogram(entries, totalBytes);
+    }
+
+    /**
+     * Returns the number of bytes used by all live objects.
+     *
+     * @return the total number of bytes
+     */
+    long getTotalBytes() {
+        return m_totalBytes;
+    }
+
+    /**
+     * Returns the classes whose instances use more memory than in an earlier histogram.
+     *
+     * @param before the earlier histogram
+     * @param maxClasses the maximum number of classes to return
+     * @return a list with the grown classes, the class with the largest growth first
+     */
+    List<Delta> getGrowth(final ClassHistogram before, final int maxClasses) {
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<String, Entry> e : m_entries.entrySet()) {
+            Entry old = before.m_entries.getOrDefault(e.getKey(), new Entry(0, 0));
+            long bytes = e.getValue().bytes() - old.bytes();
+            if (bytes > 0) {
+                deltas.add(new Delta(e.getKey(), e.getValue().instances() - old.instances(), bytes));
+            }
+        }
+        deltas.sort(Comparator.comparingLong(Delta::bytes).reversed());
+        return (deltas.size() > maxClasses) ? new ArrayList<>(deltas.subList(0, maxClasses)) : deltas;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Samples the stacks of the threads that execute nodes and aggregates identical stacks. If a workflow hangs, the most
+ * frequent stacks tell whether the nodes are waiting for a lock, for I/O, or are busy in a loop. All node threads of
+ * the JVM are sampled, therefore the sampler must only be used while no other testflow is running concurrently.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class HotStackSampler {
+    /** Threads of KNIME's global thread pool are named after the node they execute. */
+    private static final String NODE_THREAD_PREFIX = "KNIME-Worker-";
+
+    /** The number of top frames that identify a stack. */
+    private static final int MAX_FRAMES = 12;
+
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    /**
+     * The samples of a single thread.
+     */
+    private static final class ThreadSamples {
+        private int m_count;
+
+        private final Map<String, Integer> m_stacks = new HashMap<>();
+    }
+
+    private final Map<String, ThreadSamples> m_samples = new HashMap<>();
+
+    private int m_sampleCount;
+
+    /**
+     * Takes a sample of the stacks of all threads that currently execute a node.
+     */
+    synchronized void sample() {
+        m_sampleCount++;
+        for (ThreadInfo info : THREAD_BEAN.dumpAllThreads(false, false, MAX_FRAMES)) {
+            if ((info != null) && info.getThreadName().startsWith(NODE_THREAD_PREFIX)) {
+                ThreadSamples samples = m_samples.computeIfAbsent(info.getThreadName(), n -> new ThreadSamples());
+                samples.m_count++;
+                samples.m_stacks.merge(formatStack(info), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of samples that have been taken.
+     *
+     * @return the number of samples
+     */
+    synchronized int getSampleCount() {
+        return m_sampleCount;
+    }
+
+    private static String formatStack(final ThreadInfo info) {
+        StringBuilder buf = new StringBuilder();
+        buf.append(info.getThreadState());
+        if (info.getLockName() != null) {
+            buf.append(" on ").append(info.getLockName());
+            if (info.getLockOwnerName() != null) {
+                buf.append(" owned by '").append(info.getLockOwnerName()).append('\'');
+            }
+        }
+        for (StackTraceElement e : info.getStackTrace()) {
+            buf.append("\n        at ").append(e);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Creates a report that lists the most frequent stacks of each sampled node thread, the threads with the most
+     * samples first.
+     *
+     * @param maxStacks the maximum number of stacks that are reported per thread
+     * @return a report, empty if no node thread has been sampled
+     */
+    synchronized String getReport(final int maxStacks) {
+        List<Map.Entry<String, ThreadSamples>> threads = new ArrayList<>(m_samples.entrySet());
+        threads.sort(Comparator.comparingInt((Map.Entry<String, ThreadSamples> e) -> e.getValue().m_count).reversed());
+
+        StringBuilder buf = new StringBuilder();
+        for (Map.Entry<String, ThreadSamples> thread : threads) {
+            ThreadSamples samples = thread.getValue();
+            buf.append('\'').append(thread.getKey()).append("' in ").append(samples.m_count).append(" of ")
+                .append(m_sampleCount).append(" samples:\n");
+            List<Map.Entry<String, Integer>> stacks = new ArrayList<>(samples.m_stacks.entrySet());
+            stacks.sort(Map.Entry.<String, Integer> comparingByValue().reversed());
+            for (Map.Entry<String, Integer> stack : stacks.subList(0, Math.min(maxStacks, stacks.size()))) {
+                buf.append(String.format("    %d%% ", 100 * stack.getValue() / samples.m_count))
+                    .append(stack.getKey()).append('\n');
+            }
+        }
+        return buf.toString();
+    }
+}
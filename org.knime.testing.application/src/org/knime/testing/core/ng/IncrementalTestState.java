@@ -0,0 +1,373 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.Platform;
+import org.knime.core.node.NodeLogger;
+import org.osgi.framework.Bundle;
+
+/**
+ * State for the incremental mode of the testflow runner. For each testflow that has been run successfully a small
+ * properties file is kept in the state directory. It contains a hash of the workflow directory, the mountpoint files
+ * referenced by its nodes, the sub-tests that have been run, and the run options; further the node factories that have
+ * been tested and the versions of the bundles that contain these factories. If none of them has changed, the testflow
+ * does not need to be run again. Failed testflows have no state and are therefore always run.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class IncrementalTestState {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(IncrementalTestState.class);
+
+    private static final String INPUT_HASH_KEY = "inputHash";
+
+    private static final String FACTORY_PREFIX = "factory.";
+
+    private static final String BUNDLE_PREFIX = "bundle.";
+
+    /**
+     * Command line options that influence how a testflow is run or checked, mapped to the number of values they take.
+     * All other options only select or report testflows.
+     */
+    private static final Map<String, Integer> RUN_OPTIONS = Map.ofEntries(Map.entry("-timeout", 1),
+        Map.entry("-stacktraceOnTimeout", 0), Map.entry("-memLeaks", 1), Map.entry("-resourceLeaks", 0),
+        Map.entry("-dialogs", 0), Map.entry("-views", 0), Map.entry("-logMessages", 0),
+        Map.entry("-ignoreNodeMessages", 0), Map.entry("-deprecated", 0), Map.entry("-loadSaveLoad", 0),
+        Map.entry("-preferences", 1), Map.entry("-workflow.variable", 1), Map.entry("-streaming", 0),
+        Map.entry("-streamingReuseWorkflow", 0), Map.entry("-streamingMaxSlowdown", 1), Map.entry("-perf", 1),
+        Map.entry("-perfBaseline", 1));
+
+    /**
+     * Matches mountpoint-relative and workflow-relative URLs in node settings, the path is in the first group.
+     */
+    private static final Pattern MOUNTPOINT_URL =
+        Pattern.compile("knime://(?:knime\\.mountpoint|knime\\.workflow)(/[^\"<>\\s]*)");
+
+    private final File m_stateDir;
+
+    private final byte[] m_runOptionsHash;
+
+    /**
+     * Creates a new incremental state that is kept in the given directory.
+     *
+     * @param stateDir the state directory, which is created if it does not exist
+     * @param runArgs the runner's command line arguments; the options among them that influence the test results are
+     *            part of every testflow's input hash
+     * @throws IOException if the state directory cannot be created or the preferences file cannot be read
+     */
+    IncrementalTestState(final File stateDir, final String[] runArgs) throws IOException {
+        Files.createDirectories(stateDir.toPath());
+        m_stateDir = stateDir;
+        m_runOptionsHash = hashRunOptions(runArgs);
+    }
+
+    /**
+     * Computes a hash over all files in the testflow's workflow directory, the files outside of it that are referenced
+     * by mountpoint-relative URLs, the names of the sub-tests that will be run, and the run options. Must be called
+     * before the testflow is run, because running it may modify the workflow directory.
+     *
+     * @param testflow a testflow
+     * @return a hex-encoded hash
+     * @throws IOException if an I/O error occurs while reading the workflow
+     */
+    String computeInputHash(final WorkflowTestSuite testflow) throws IOException {
+        return computeInputHash(testflow.getWorkflowDir().toPath(), testflow.getTestcaseRoot().toPath(),
+            testflow.getTestNames());
+    }
+
+    /**
+     * Computes the input hash of a testflow, see {@link #computeInputHash(WorkflowTestSuite)}.
+     *
+     * @param root the workflow directory
+     * @param mountpointRoot the root directory that mountpoint-relative URLs refer to
+     * @param testNames the names of the sub-tests that will be run
+     * @return a hex-encoded hash
+     * @throws IOException if an I/O error occurs while reading the workflow
+     */
+    String computeInputHash(final Path root, final Path mountpointRoot, final List<String> testNames)
+        throws IOException {
+        MessageDigest digest = createDigest();
+        digest.update(m_runOptionsHash);
+        for (String testName : testNames) {
+            digest.update(testName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+        }
+
+        List<Path> files = listFiles(root);
+        byte[] buffer = new byte[65536];
+        for (Path file : files) {
+            updateDigest(digest, root.relativize(file), file, buffer);
+        }
+
+        // the referenced files are absolute, relativizing them against a relative root would fail
+        Path absoluteMountpointRoot = mountpointRoot.toAbsolutePath().normalize();
+        for (Path file : findReferencedFiles(files, root, absoluteMountpointRoot)) {
+            digest.update((byte)1);
+            updateDigest(digest, absoluteMountpointRoot.relativize(file), file, buffer);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static List<Path> listFiles(final Path dir) throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            return stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void updateDigest(final MessageDigest digest, final Path name, final Path file,
+        final byte[] buffer) throws IOException {
+        digest.update(name.toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Collects the files below the mountpoint root but outside the workflow directory that node settings refer to.
+     * Referenced directories are expanded to all files they contain.
+     */
+    private static Set<Path> findReferencedFiles(final List<Path> workflowFiles, final Path workflowDir,
+        final Path mountpointRoot) throws IOException {
+        Path normalizedWorkflowDir = workflowDir.toAbsolutePath().normalize();
+        Path normalizedMountpointRoot = mountpointRoot.toAbsolutePath().normalize();
+        Set<Path> referenced = new TreeSet<>();
+        for (Path file : workflowFiles) {
+            if (!file.getFileName().toString().equals("settings.xml")) {
+                continue;
+            }
+            Matcher m = MOUNTPOINT_URL.matcher(Files.readString(file, StandardCharsets.UTF_8));
+            while (m.find()) {
+                String path = URLDecoder.decode(m.group(1).substring(1), StandardCharsets.UTF_8);
+                Path target = (m.group().startsWith("knime://knime.mountpoint") ? normalizedMountpointRoot
+                    : normalizedWorkflowDir).resolve(path).normalize();
+                if (!target.startsWith(normalizedWorkflowDir) && target.startsWith(normalizedMountpointRoot)) {
+                    if (Files.isDirectory(target)) {
+                        referenced.addAll(listFiles(target));
+                    } else if (Files.isRegularFile(target)) {
+                        referenced.add(target);
+                    }
+                }
+            }
+        }
+        return referenced;
+    }
+
+    /**
+     * Hashes the command line options that influence the test results. The contents of a preferences file are
+     * included, because the same file may contain different preferences in the next run.
+     */
+    private static byte[] hashRunOptions(final String[] runArgs) throws IOException {
+        List<String> options = new ArrayList<>();
+        int i = 0;
+        while (i < runArgs.length) {
+            Integer valueCount = (runArgs[i] != null) ? RUN_OPTIONS.get(runArgs[i]) : null;
+            if (valueCount == null) {
+                i++;
+                continue;
+            }
+            String name = runArgs[i++];
+            StringBuilder option = new StringBuilder(name);
+            for (int k = 0; (k < valueCount) && (i < runArgs.length); k++, i++) {
+                option.append('\t').append(runArgs[i]);
+                if (name.equals("-preferences") && (runArgs[i] != null)) {
+                    byte[] preferences = Files.readAllBytes(Path.of(runArgs[i]));
+                    option.append('\t').append(HexFormat.of().formatHex(createDigest().digest(preferences)));
+                }
+            }
+            options.add(option.toString());
+        }
+        // the order of the options does not influence the run
+        options.sort(null);
+
+        MessageDigest digest = createDigest();
+        for (String option : options) {
+            digest.update(option.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Checks whether the testflow has been run successfully with the same input before and neither the workflow nor
+     * the bundles of any of its nodes have changed since then.
+     *
+     * @param testflow a testflow
+     * @param inputHash the current input hash, see {@link #computeInputHash(WorkflowTestSuite)}
+     * @return the node factories tested in the last successful run if the testflow is unchanged, <code>null</code>
+     *         if it must be run
+     */
+    Set<String> getUnchangedNodesUnderTest(final WorkflowTestSuite testflow, final String inputHash) {
+        File stateFile = getStateFile(testflow);
+        if (!stateFile.isFile()) {
+            return null;
+        }
+
+        Properties state = new Properties();
+        try (InputStream in = Files.newInputStream(stateFile.toPath())) {
+            state.load(in);
+        } catch (IOException ex) {
+            LOGGER.warn("Could not read incremental state " + stateFile + ": " + ex.getMessage(), ex);
+            return null;
+        }
+
+        if (!inputHash.equals(state.getProperty(INPUT_HASH_KEY))) {
+            LOGGER.debug("Testflow " + testflow.getName() + " has changed since its last successful run");
+            return null;
+        }
+
+        Set<String> nodesUnderTest = new HashSet<>();
+        for (String key : state.stringPropertyNames()) {
+            if (key.startsWith(BUNDLE_PREFIX)) {
+                String bundleName = key.substring(BUNDLE_PREFIX.length());
+                String currentVersion = getBundleVersion(bundleName);
+                if (!state.getProperty(key).equals(currentVersion)) {
+                    LOGGER.debug("Bundle " + bundleName + " used by testflow " + testflow.getName() + " has changed "
+                        + "from " + state.getProperty(key) + " to " + currentVersion);
+                    return null;
+                }
+            } else if (key.startsWith(FACTORY_PREFIX)) {
+                nodesUnderTest.add(key.substring(FACTORY_PREFIX.length()));
+            }
+        }
+        return nodesUnderTest;
+    }
+
+    /**
+     * Updates the state after a testflow has been run. Successful runs are recorded, for failed runs any previous
+     * state is removed.
+     *
+     * @param testflow a testflow that has been run
+     * @param inputHash the input hash computed before the testflow has been run
+     * @param result the testflow's result
+     * @throws IOException if an I/O error occurs while writing the state
+     */
+    void update(final WorkflowTestSuite testflow, final String inputHash, final WorkflowTestResult result)
+        throws IOException {
+        File stateFile = getStateFile(testflow);
+        if ((result.errorCount() > 0) || (result.failureCount() > 0) || (testflow.getNodesUnderTest() == null)) {
+            Files.deleteIfExists(stateFile.toPath());
+            return;
+        }
+
+        Properties state = new Properties();
+        state.setProperty(INPUT_HASH_KEY, inputHash);
+        for (String factory : testflow.getNodesUnderTest()) {
+            state.setProperty(FACTORY_PREFIX + factory, "");
+        }
+        for (String bundleName : testflow.getNodeBundles()) {
+            String version = getBundleVersion(bundleName);
+            if (version != null) {
+                state.setProperty(BUNDLE_PREFIX + bundleName, version);
+            }
+        }
+
+        // write to a temporary file first so that a concurrent or aborted run never sees a partial state
+        File tempFile = new File(m_stateDir, stateFile.getName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            state.store(out, testflow.getName());
+        }
+        Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Checks whether the result is from a testflow that has been skipped because it is unchanged.
+     *
+     * @param result a testflow result
+     * @return <code>true</code> if the testflow has been skipped, <code>false</code> otherwise
+     */
+    static boolean isCached(final WorkflowTestResult result) {
+        return result.getAllTests().stream().anyMatch(t -> t instanceof WorkflowCachedTest);
+    }
+
+    private File getStateFile(final WorkflowTestSuite testflow) {
+        MessageDigest digest = createDigest();
+        byte[] name = TestflowTimingStore.normalizeName(testflow.getName()).getBytes(StandardCharsets.UTF_8);
+        return new File(m_stateDir, HexFormat.of().formatHex(digest.digest(name)) + ".properties");
+    }
+
+    private static String getBundleVersion(final String symbolicName) {
+        Bundle bundle = Platform.getBundle(symbolicName);
+        return (bundle != null) ? bundle.getVersion().toString() : null;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform must support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.port.PortObject;
+import org.knime.core.node.workflow.NativeNodeContainer;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeContainerState;
+import org.knime.core.node.workflow.NodeID;
+import org.knime.core.node.workflow.NodeStateChangeListener;
+import org.knime.core.node.workflow.NodeStateEvent;
+import org.knime.core.node.workflow.SubNodeContainer;
+import org.knime.core.node.workflow.WorkflowManager;
+
+/**
+ * Profiler that records for every node in a workflow (including nodes inside metanodes and components) how long it
+ * was waiting for execution, how long it was executing, how many bytes the executing thread allocated, and how many
+ * rows it produced at each output port. It listens to the node state changes while the workflow is being executed.
+ * Nodes that are executed several times (e.g. inside loops) have their times and allocations summed up.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class NodeExecutionProfiler implements NodeStateChangeListener {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(NodeExecutionProfiler.class);
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+    /**
+     * The profile of a single node.
+     *
+     * @param nodeId the node's ID
+     * @param nodeName the node's name
+     * @param executions how often the node has been executed
+     * @param queueTime the time in milliseconds the node has been waiting for execution
+     * @param wallTime the time in milliseconds the node has been executing
+     * @param allocatedBytes the number of bytes that the executing thread has allocated, -1 if unknown
+     * @param rowCounts the number of rows at each output port (without the flow variable port of nodes and
+     *            components), -1 for ports that don't hold a data table
+     */
+    record NodeProfile(String nodeId, String nodeName, int executions, long queueTime, long wallTime,
+        long allocatedBytes, List<Long> rowCounts) {
+    }
+
+    /**
+     * Mutable execution statistics of a node.
+     */
+    private static final class NodeStatistics {
+        private final NodeContainer m_node;
+
+        private long m_waitStart = -1;
+
+        private long m_execStart = -1;
+
+        private long m_threadId = -1;
+
+        private long m_allocatedAtStart = -1;
+
+        private int m_executions;
+
+        private long m_queueNanos;
+
+        private long m_wallNanos;
+
+        private long m_allocatedBytes = -1;
+
+        private List<Long> m_rowCounts = Collections.emptyList();
+
+        NodeStatistics(final NodeContainer node) {
+            m_node = node;
+        }
+    }
+
+    private final WorkflowManager m_workflow;
+
+    private final Map<NodeID, NodeStatistics> m_statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new profiler for the given workflow.
+     *
+     * @param workflow a workflow manager
+     */
+    NodeExecutionProfiler(final WorkflowManager workflow) {
+        m_workflow = workflow;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        if ((ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+            && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    /**
+     * Starts profiling by registering a listener at all nodes in the workflow.
+     */
+    void start() {
+        register(m_workflow);
+    }
+
+    private void register(final WorkflowManager wfm) {
+        for (NodeContainer node : wfm.getNodeContainers()) {
+            m_statistics.put(node.getID(), new NodeStatistics(node));
+            node.addNodeStateChangeListener(this);
+            if (node instanceof SubNodeContainer snc) {
+                register(snc.getWorkflowManager());
+            } else if (node instanceof WorkflowManager wfmNode) {
+                register(wfmNode);
+            }
+        }
+    }
+
+    /**
+     * Stops profiling and removes all listeners.
+     */
+    void stop() {
+        for (NodeStatistics stats : m_statistics.values()) {
+            stats.m_node.removeNodeStateChangeListener(this);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stateChanged(final NodeStateEvent event) {
+        NodeStatistics stats = m_statistics.get(event.getSource());
+        if (stats == null) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        NodeContainerState state = stats.m_node.getNodeContainerState();
+        synchronized (stats) {
+            if (state.isWaitingToBeExecuted()) {
+                if (stats.m_waitStart < 0) {
+                    stats.m_waitStart = now;
+                }
+            } else if (state.isExecutionInProgress()) {
+                if (stats.m_execStart < 0) {
+                    stats.m_execStart = now;
+                    if (stats.m_waitStart >= 0) {
+                        stats.m_queueNanos += now - stats.m_waitStart;
+                    }
+                    if ((THREAD_BEAN != null) && (stats.m_node instanceof NativeNodeContainer)) {
+                        // state changes at the start of the execution are triggered by the executing thread
+                        stats.m_threadId = Thread.currentThread().getId();
+                        stats.m_allocatedAtStart = THREAD_BEAN.getThreadAllocatedBytes(stats.m_threadId);
+                    }
+                }
+            } else if (stats.m_execStart >= 0) {
+                stats.m_executions++;
+                stats.m_wallNanos += now - stats.m_execStart;
+                if (stats.m_threadId >= 0) {
+                    long allocated = THREAD_BEAN.getThreadAllocatedBytes(stats.m_threadId);
+                    if ((allocated >= 0) && (stats.m_allocatedAtStart >= 0)) {
+                        stats.m_allocatedBytes = Math.max(stats.m_allocatedBytes, 0)
+                            + (allocated - stats.m_allocatedAtStart);
+                    }
+                }
+                if (state.isExecuted()) {
+                    stats.m_rowCounts = getRowCounts(stats.m_node);
+                }
+                stats.m_waitStart = -1;
+                stats.m_execStart = -1;
+                stats.m_threadId = -1;
+            } else {
+                // execution has been canceled before it started
+                stats.m_waitStart = -1;
+            }
+        }
+    }
+
+    private static List<Long> getRowCounts(final NodeContainer node) {
+        List<Long> rowCounts = new ArrayList<>();
+        // nodes and components have the flow variable port at index 0
+        int firstPort = (node instanceof WorkflowManager) ? 0 : 1;
+        for (int i = firstPort; i < node.getNrOutPorts(); i++) {
+            PortObject portObject = node.getOutPort(i).getPortObject();
+            rowCounts.add((portObject instanceof BufferedDataTable table) ? table.size() : -1L);
+        }
+        return rowCounts;
+    }
+
+    /**
+     * Returns the profiles of all nodes that have been executed while the profiler was active, ordered by decreasing
+     * execution time.
+     *
+     * @return a list with node profiles
+     */
+    List<NodeProfile> getProfiles() {
+        List<NodeProfile> profiles = new ArrayList<>();
+        for (NodeStatistics stats : m_statistics.values()) {
+            synchronized (stats) {
+                if (stats.m_executions > 0) {
+                    profiles.add(new NodeProfile(stats.m_node.getID().toString(), stats.m_node.getName(),
+                        stats.m_executions, TimeUnit.NANOSECONDS.toMillis(stats.m_queueNanos),
+                        TimeUnit.NANOSECONDS.toMillis(stats.m_wallNanos), stats.m_allocatedBytes,
+                        List.copyOf(stats.m_rowCounts)));
+                }
+            }
+        }
+        profiles.sort(Comparator.comparingLong(NodeProfile::wallTime).reversed());
+        return profiles;
+    }
+
+    /**
+     * Formats the row counts of a node profile as a comma-separated list.
+     *
+     * @param profile a node profile
+     * @return the formatted row counts
+     */
+    static String formatRowCounts(final NodeProfile profile) {
+        return profile.rowCounts().stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Writes the node profiles of all sub-tests of a testflow as a tab-separated file.
+     *
+     * @param profiles a map between sub-test names and the profiles recorded during the sub-test
+     * @param file the destination file
+     */
+    static void writeReport(final Map<String, List<NodeProfile>> profiles, final File file) {
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("# test\tnode\tname\texecutions\tqueue_millis\twall_millis\tallocated_bytes\trows\n");
+            for (Map.Entry<String, List<NodeProfile>> e : profiles.entrySet()) {
+                for (NodeProfile p : e.getValue()) {
+                    out.write(clean(e.getKey()) + "\t" + p.nodeId() + "\t" + clean(p.nodeName()) + "\t"
+                        + p.executions() + "\t" + p.queueTime() + "\t" + p.wallTime() + "\t" + p.allocatedBytes()
+                        + "\t" + formatRowCounts(p) + "\n");
+                }
+            }
+        } catch (IOException ex) {
+            LOGGER.warn("Could not write node profile " + file + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static String clean(final String s) {
+        return s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
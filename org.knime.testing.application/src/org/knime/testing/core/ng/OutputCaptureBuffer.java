@@ -0,0 +1,355 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Buffer for captured output of a testflow that only keeps a bounded amount of characters in memory. The first
+ * characters are kept in a head buffer and the most recent characters in a ring buffer (the tail). Characters that
+ * drop out of the tail are spilled into a temporary file, so that the complete output can still be written into the
+ * result files. If the temporary file cannot be written, the spilled characters are omitted and a marker with the
+ * reason is inserted instead. Both buffers grow on demand up to their maximum size.
+ *
+ * <p>
+ * Nothing is logged while characters are appended, because the buffer usually captures the log output itself.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class OutputCaptureBuffer {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(OutputCaptureBuffer.class);
+
+    /** Default number of characters kept in the head and in the tail buffer. */
+    static final int DEFAULT_BUFFER_SIZE = 128 * 1024;
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /** Prefix of the names of the temporary files into which characters are spilled. */
+    static final String SPILL_FILE_PREFIX = "testflow-output";
+
+    /** Number of spill files that are currently open by all buffers. */
+    private static final AtomicInteger OPEN_SPILL_FILES = new AtomicInteger();
+
+    private final int m_headSize;
+
+    private char[] m_head;
+
+    private int m_headLength;
+
+    private final int m_tailSize;
+
+    /** The directory for the temporary file, <code>null</code> for the default temporary directory. */
+    private final File m_spillDir;
+
+    private char[] m_tail;
+
+    /** Index of the next character to be written in the tail ring buffer. */
+    private int m_tailPos;
+
+    private int m_tailLength;
+
+    private File m_spillFile;
+
+    private Writer m_spillWriter;
+
+    private long m_spilled;
+
+    private long m_omitted;
+
+    /** The reason why characters have been omitted, <code>null</code> as long as spilling has not failed. */
+    private String m_spillError;
+
+    /**
+     * Creates a new capture buffer with the default sizes.
+     */
+    OutputCaptureBuffer() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a new capture buffer.
+     *
+     * @param headSize the number of characters at the beginning that are kept in memory
+     * @param tailSize the number of characters at the end that are kept in memory, must be positive
+     */
+    OutputCaptureBuffer(final int headSize, final int tailSize) {
+        this(headSize, tailSize, null);
+    }
+
+    /**
+     * Creates a new capture buffer that spills into the given directory.
+     *
+     * @param headSize the number of characters at the beginning that are kept in memory
+     * @param tailSize the number of characters at the end that are kept in memory, must be positive
+     * @param spillDir the directory for the temporary file, <code>null</code> for the default temporary directory
+     */
+    OutputCaptureBuffer(final int headSize, final int tailSize, final File spillDir) {
+        if ((headSize < 0) || (tailSize < 1)) {
+            throw new IllegalArgumentException("Invalid buffer sizes: " + headSize + ", " + tailSize);
+        }
+        m_headSize = headSize;
+        m_tailSize = tailSize;
+        m_spillDir = spillDir;
+        m_head = new char[Math.min(headSize, INITIAL_BUFFER_SIZE)];
+        m_tail = new char[Math.min(tailSize, INITIAL_BUFFER_SIZE)];
+    }
+
+    /**
+     * Appends characters to the buffer.
+     *
+     * @param cbuf array of characters
+     * @param off offset from which to start appending characters
+     * @param len number of characters to append
+     */
+    synchronized void append(final char[] cbuf, final int off, final int len) {
+        int pos = off;
+        int remaining = len;
+
+        int toHead = Math.min(remaining, m_headSize - m_headLength);
+        if (toHead > 0) {
+            if (m_headLength + toHead > m_head.length) {
+                m_head = Arrays.copyOf(m_head, Math.min(m_headSize, Math.max(m_headLength + toHead,
+                    2 * m_head.length)));
+            }
+            System.arraycopy(cbuf, pos, m_head, m_headLength, toHead);
+            m_headLength += toHead;
+            pos += toHead;
+            remaining -= toHead;
+        }
+
+        if (remaining > m_tailSize) {
+            // the first characters would drop out of the tail immediately
+            spillTail(m_tailLength);
+            write(cbuf, pos, remaining - m_tailSize);
+            pos += remaining - m_tailSize;
+            remaining = m_tailSize;
+        }
+
+        // must grow before spilling, growing relies on the characters starting at the beginning of the tail
+        growTail(Math.min(m_tailSize, m_tailLength + remaining));
+        spillTail(m_tailLength + remaining - m_tailSize);
+        while (remaining > 0) {
+            int n = Math.min(remaining, m_tail.length - m_tailPos);
+            System.arraycopy(cbuf, pos, m_tail, m_tailPos, n);
+            m_tailPos = (m_tailPos + n) % m_tail.length;
+            pos += n;
+            remaining -= n;
+            m_tailLength += n;
+        }
+    }
+
+    /**
+     * Grows the tail ring buffer to hold at least the given number of characters. As long as the tail has not reached
+     * its maximum size no characters have been spilled, so they all start at the beginning of the ring buffer.
+     *
+     * @param capacity the required capacity, at most the maximum tail size
+     */
+    private void growTail(final int capacity) {
+        if (capacity > m_tail.length) {
+            m_tail = Arrays.copyOf(m_tail, Math.min(m_tailSize, Math.max(capacity, 2 * m_tail.length)));
+            m_tailPos = m_tailLength;
+        }
+    }
+
+    /**
+     * Spills the oldest characters of the tail into the temporary file.
+     *
+     * @param count the number of characters to spill
+     */
+    private void spillTail(final int count) {
+        if (count <= 0) {
+            return;
+        }
+        int start = Math.floorMod(m_tailPos - m_tailLength, m_tail.length);
+        int n = Math.min(count, m_tail.length - start);
+        write(m_tail, start, n);
+        if (n < count) {
+            write(m_tail, 0, count - n);
+        }
+        m_tailLength -= count;
+    }
+
+    private void write(final char[] cbuf, final int off, final int len) {
+        if ((m_spillWriter == null) && (m_spillError == null)) {
+            try {
+                m_spillFile = File.createTempFile(SPILL_FILE_PREFIX, ".txt", m_spillDir);
+                m_spillFile.deleteOnExit();
+                m_spillWriter = Files.newBufferedWriter(m_spillFile.toPath(), StandardCharsets.UTF_8);
+                OPEN_SPILL_FILES.incrementAndGet();
+            } catch (IOException ex) {
+                // not logged, the log output may be captured by this buffer
+                m_spillError = "could not create temporary file for captured output: " + ex.getMessage();
+                deleteSpillFile();
+            }
+        }
+
+        if (m_spillWriter != null) {
+            try {
+                m_spillWriter.write(cbuf, off, len);
+                m_spilled += len;
+                return;
+            } catch (IOException ex) {
+                m_spillError = "could not write captured output to " + m_spillFile + ": " + ex.getMessage();
+                closeSpillWriter();
+            }
+        }
+        m_omitted += len;
+    }
+
+    /**
+     * Returns the total number of characters that have been appended (including omitted characters).
+     *
+     * @return the number of characters
+     */
+    synchronized long length() {
+        return m_headLength + m_spilled + m_omitted + m_tailLength;
+    }
+
+    /**
+     * Writes the complete captured output into the given writer. The spilled part is streamed from the temporary
+     * file.
+     *
+     * @param out a writer
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void writeTo(final Writer out) throws IOException {
+        out.write(m_head, 0, m_headLength);
+
+        if ((m_spilled > 0) && (m_spillFile != null)) {
+            if (m_spillWriter != null) {
+                m_spillWriter.flush();
+            }
+            try (Reader in = Files.newBufferedReader(m_spillFile.toPath(), StandardCharsets.UTF_8)) {
+                char[] buf = new char[COPY_BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buf)) >= 0) {
+                    out.write(buf, 0, n);
+                }
+            }
+        }
+        if (m_omitted > 0) {
+            out.write(System.lineSeparator() + "[... " + m_omitted + " characters omitted, " + m_spillError + " ...]"
+                + System.lineSeparator());
+        }
+
+        int start = Math.floorMod(m_tailPos - m_tailLength, m_tail.length);
+        int n = Math.min(m_tailLength, m_tail.length - start);
+        out.write(m_tail, start, n);
+        out.write(m_tail, 0, m_tailLength - n);
+    }
+
+    /**
+     * Releases the temporary file. Afterwards the buffer must not be used any more.
+     */
+    synchronized void dispose() {
+        closeSpillWriter();
+        deleteSpillFile();
+    }
+
+    // both are also called while characters are appended, therefore errors are not logged; at worst the temporary
+    // file remains until the JVM exits
+
+    private void closeSpillWriter() {
+        if (m_spillWriter != null) {
+            try {
+                m_spillWriter.close();
+            } catch (IOException ex) { // NOSONAR see above
+            }
+            m_spillWriter = null;
+            OPEN_SPILL_FILES.decrementAndGet();
+        }
+    }
+
+    private void deleteSpillFile() {
+        if (m_spillFile != null) {
+            try {
+                Files.deleteIfExists(m_spillFile.toPath());
+            } catch (IOException ex) { // NOSONAR see above
+            }
+            m_spillFile = null;
+        }
+    }
+
+    /**
+     * Returns the number of file handles that are currently held by all capture buffers for their spill files.
+     *
+     * @return the number of open spill files
+     */
+    static int getOpenSpillFileCount() {
+        return OPEN_SPILL_FILES.get();
+    }
+
+    /**
+     * Returns the complete captured output as a string. Note that this defeats the purpose of this buffer for large
+     * outputs, use {@link #writeTo(Writer)} whenever possible.
+     *
+     * @return the captured output
+     */
+    @Override
+    public synchronized String toString() {
+        StringWriter out = new StringWriter();
+        try {
+            writeTo(out);
+        } catch (IOException ex) {
+            LOGGER.warn("Could not read captured output from " + m_spillFile + ": " + ex.getMessage(), ex);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import javax.xml.transform.TransformerException;
+
+/**
+ * Runs testflows in a fixed number of parallel slots. Testflows that are configured to run exclusively wait until all
+ * running testflows have finished and block all other slots while they are running.
+ *
+ * @param <T> the type of the testflows
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ParallelTestflowRunner<T> {
+    /**
+     * The task that runs a single testflow.
+     *
+     * @param <T> the type of the testflows
+     */
+    @FunctionalInterface
+    interface Task<T> {
+        /**
+         * Runs the testflow.
+         *
+         * @param testflow the testflow
+         * @throws IOException if an I/O error occurs
+         * @throws TransformerException if a result cannot be written
+         */
+        void run(T testflow) throws IOException, TransformerException;
+    }
+
+    private final int m_parallelism;
+
+    private final Predicate<T> m_runExclusively;
+
+    private final BooleanSupplier m_stopped;
+
+    /**
+     * Creates a new runner.
+     *
+     * @param parallelism the maximum number of concurrently running testflows
+     * @param runExclusively checks whether a testflow must run alone
+     * @param stopped checks whether the run has been stopped, testflows that have not been started yet are then
+     *            skipped
+     */
+    ParallelTestflowRunner(final int parallelism, final Predicate<T> runExclusively, final BooleanSupplier stopped) {
+        m_parallelism = parallelism;
+        m_runExclusively = runExclusively;
+        m_stopped = stopped;
+    }
+
+    /**
+     * Runs all testflows and returns after all of them have finished.
+     *
+     * @param testflows the testflows in the order in which they should be started
+     * @param task the task that runs a single testflow
+     * @throws IOException if an I/O error occurs in a task
+     * @throws TransformerException if a result cannot be written by a task
+     */
+    void run(final Collection<T> testflows, final Task<T> task) throws IOException, TransformerException {
+        // fair, so that exclusive testflows are not starved by the steady stream of non-exclusive testflows
+        final ReadWriteLock exclusiveLock = new ReentrantReadWriteLock(true);
+        final AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(m_parallelism,
+            r -> new Thread(r, "Testflow executor #" + threadCounter.incrementAndGet()));
+
+        List<Future<Void>> futures = new ArrayList<>(testflows.size());
+        for (T testflow : testflows) {
+            final Lock lock = m_runExclusively.test(testflow) ? exclusiveLock.writeLock() : exclusiveLock.readLock();
+            futures.add(executor.submit(() -> {
+                if (m_stopped.getAsBoolean()) {
+                    return null;
+                }
+                lock.lock();
+                try {
+                    if (!m_stopped.getAsBoolean()) {
+                        task.run(testflow);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+
+        try {
+            for (Future<Void> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for testflows to finish", ex);
+        } catch (ExecutionException ex) {
+            executor.shutdownNow();
+            if (ex.getCause() instanceof IOException ioEx) {
+                throw ioEx;
+            } else if (ex.getCause() instanceof TransformerException transEx) {
+                throw transEx;
+            } else if (ex.getCause() instanceof RuntimeException rtEx) {
+                throw rtEx;
+            } else {
+                throw new IOException(ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Store for the execution times of testflows that are used as baseline by the performance test, together with the
+ * statistics for comparing new measurements against the baseline. For each testflow a small properties file is kept
+ * in the baseline directory that maps the total execution time and the execution time of each node to the samples
+ * (in milliseconds) of all iterations. The samples of the most recent run are kept in a second file so that they can
+ * be promoted to the new baseline if desired.
+ * <p>
+ * Samples are compared with a one-sided Mann-Whitney U test, which does not assume any particular distribution of
+ * the execution times. For small samples without ties the exact distribution of U is used, otherwise the normal
+ * approximation with tie correction.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class PerformanceBaseline {
+    /** The key for the total execution time of the workflow. */
+    static final String TOTAL_KEY = "total";
+
+    /** The prefix of the keys for the execution times of single nodes. */
+    static final String NODE_PREFIX = "node.";
+
+    /** Samples up to this size are compared using the exact distribution of U. */
+    private static final int MAX_EXACT_SAMPLE_SIZE = 30;
+
+    private final File m_dir;
+
+    /**
+     * Creates a new baseline store that is kept in the given directory.
+     *
+     * @param dir the baseline directory, which is created if it does not exist
+     * @throws IOException if the baseline directory cannot be created
+     */
+    PerformanceBaseline(final File dir) throws IOException {
+        Files.createDirectories(dir.toPath());
+        m_dir = dir;
+    }
+
+    /**
+     * Reads the baseline of a testflow.
+     *
+     * @param testflowName the testflow's name
+     * @return a map between keys ({@link #TOTAL_KEY} or {@link #NODE_PREFIX} + node ID) and samples in milliseconds,
+     *         or <code>null</code> if there is no baseline for the testflow
+     * @throws IOException if an I/O error occurs while reading the baseline
+     */
+    Map<String, long[]> read(final String testflowName) throws IOException {
+        File file = getFile(testflowName, true);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            props.load(in);
+        }
+        Map<String, long[]> samples = new LinkedHashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            try {
+                samples.put(key, Arrays.stream(props.getProperty(key).split(",")).map(String::trim)
+                    .mapToLong(Long::parseLong).toArray());
+            } catch (NumberFormatException ex) {
+                throw new IOException("Invalid samples for '" + key + "' in baseline " + file + ": " + ex.getMessage(),
+                    ex);
+            }
+        }
+        return samples;
+    }
+
+    /**
+     * Writes samples of a testflow, either as new baseline or as most recent run.
+     *
+     * @param testflowName the testflow's name
+     * @param samples a map between keys and samples in milliseconds, see {@link #read(String)}
+     * @param baseline <code>true</code> if the samples are the new baseline, <code>false</code> if they are the most
+     *            recent run
+     * @throws IOException if an I/O error occurs while writing the samples
+     */
+    void write(final String testflowName, final Map<String, long[]> samples, final boolean baseline)
+        throws IOException {
+        Properties props = new Properties();
+        for (Map.Entry<String, long[]> e : samples.entrySet()) {
+            props.setProperty(e.getKey(),
+                LongStream.of(e.getValue()).mapToObj(Long::toString).collect(Collectors.joining(",")));
+        }
+
+        File file = getFile(testflowName, baseline);
+        // write to a temporary file first so that an aborted run never leaves a partial baseline
+        File tempFile = new File(m_dir, file.getName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile.toPath())) {
+            props.store(out, testflowName);
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private File getFile(final String testflowName, final boolean baseline) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform must support SHA-256
+            throw new IllegalStateException(ex);
+        }
+        byte[] name = TestflowTimingStore.normalizeName(testflowName).getBytes(StandardCharsets.UTF_8);
+        return new File(m_dir,
+            HexFormat.of().formatHex(digest.digest(name)) + (baseline ? ".properties" : ".last.properties"));
+    }
+
+    /**
+     * Returns the median of the given samples.
+     *
+     * @param samples a non-empty array of samples
+     * @return the median
+     */
+    static double median(final long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return ((sorted.length % 2) == 1) ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2.0;
+    }
+
+    /**
+     * Returns the relative slowdown of the current samples compared to the baseline, based on the medians.
+     *
+     * @param baseline the baseline samples
+     * @param current the current samples
+     * @return the relative slowdown, e.g. 0.1 if the current median is 10% larger than the baseline median; negative
+     *         values denote a speedup
+     */
+    static double slowdown(final long[] baseline, final long[] current) {
+        double baseMedian = median(baseline);
+        if (baseMedian == 0) {
+            return (median(current) > 0) ? Double.POSITIVE_INFINITY : 0;
+        }
+        return median(current) / baseMedian - 1;
+    }
+
+    /**
+     * Computes the p-value of a one-sided Mann-Whitney U test whose alternative hypothesis is that the current
+     * samples are stochastically larger (i.e. slower) than the baseline samples.
+     *
+     * @param baseline the baseline samples
+     * @param current the current samples
+     * @return the p-value
+     */
+    static double pValue(final long[] baseline, final long[] current) {
+        int n = current.length;
+        int m = baseline.length;
+        if ((n == 0) || (m == 0)) {
+            return 1;
+        }
+
+        // U counts the pairs in which the current sample is larger, ties count half
+        double u = 0;
+        boolean ties = false;
+        for (long c : current) {
+            for (long b : baseline) {
+                if (c > b) {
+                    u += 1;
+                } else if (c == b) {
+                    u += 0.5;
+                    ties = true;
+                }
+            }
+        }
+
+        if (!ties && (n <= MAX_EXACT_SAMPLE_SIZE) && (m <= MAX_EXACT_SAMPLE_SIZE)) {
+            return exactPValue(n, m, (int)u);
+        } else {
+            return approximatePValue(baseline, current, u);
+        }
+    }
+
+    /**
+     * Computes P(U >= u) from the exact distribution of U. The number of arrangements of n current and m baseline
+     * samples with a given U follows the recursion f(n, m, u) = f(n - 1, m, u - m) + f(n, m - 1, u), depending on
+     * whether the largest sample is a current or a baseline sample.
+     */
+    private static double exactPValue(final int n, final int m, final int u) {
+        // counts[j][k] = number of arrangements of i current and j baseline samples with U = k
+        double[][] counts = new double[m + 1][];
+        for (int j = 0; j <= m; j++) {
+            counts[j] = new double[]{1};
+        }
+        for (int i = 1; i <= n; i++) {
+            double[][] next = new double[m + 1][];
+            next[0] = new double[]{1};
+            for (int j = 1; j <= m; j++) {
+                double[] c = new double[i * j + 1];
+                // largest sample is a current sample, which is larger than all j baseline samples
+                double[] withCurrent = counts[j];
+                for (int k = 0; k < withCurrent.length; k++) {
+                    c[k + j] += withCurrent[k];
+                }
+                // largest sample is a baseline sample
+                double[] withBaseline = next[j - 1];
+                for (int k = 0; k < withBaseline.length; k++) {
+                    c[k] += withBaseline[k];
+                }
+                next[j] = c;
+            }
+            counts = next;
+        }
+
+        double[] dist = counts[m];
+        double total = 0;
+        double tail = 0;
+        for (int k = 0; k < dist.length; k++) {
+            total += dist[k];
+            if (k >= u) {
+                tail += dist[k];
+            }
+        }
+        return tail / total;
+    }
+
+    private static double approximatePValue(final long[] baseline, final long[] current, final double u) {
+        int n = current.length;
+        int m = baseline.length;
+        long total = (long)n + m;
+
+        long[] all = LongStream.concat(LongStream.of(current), LongStream.of(baseline)).sorted().toArray();
+        double tieSum = 0;
+        for (int i = 0; i < all.length;) {
+            int j = i;
+            while ((j < all.length) && (all[j] == all[i])) {
+                j++;
+            }
+            double t = j - i;
+            tieSum += t * t * t - t;
+            i = j;
+        }
+
+        double mean = n * (double)m / 2;
+        double variance = n * (double)m / 12 * ((total + 1) - tieSum / (total * (total - 1.0)));
+        if (variance <= 0) {
+            // all samples are equal
+            return 1;
+        }
+        // continuity correction
+        double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    /**
+     * Cumulative distribution function of the standard normal distribution (Abramowitz and Stegun, 26.2.17).
+     */
+    private static double normalCdf(final double z) {
+        double t = 1 / (1 + 0.2316419 * Math.abs(z));
+        double poly = t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        double upper = Math.exp(-z * z / 2) / Math.sqrt(2 * Math.PI) * poly;
+        return (z >= 0) ? 1 - upper : upper;
+    }
+}
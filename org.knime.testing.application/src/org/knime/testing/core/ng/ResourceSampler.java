@@ -0,0 +1,212 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Background sampler that periodically records the resource usage of the JVM while a testflow is running. Each sample
+ * is written immediately as one CSV line so that the time series is also available if the testflow hangs or the JVM
+ * crashes. The columns are
+ * <ul>
+ * <li><tt>millis</tt>: time since the sampler has been started</li>
+ * <li><tt>heap_used</tt>, <tt>heap_committed</tt>, <tt>heap_max</tt>: heap usage in bytes (without forcing a garbage
+ * collection)</li>
+ * <li><tt>gc_count</tt>, <tt>gc_millis</tt>: number and accumulated time of garbage collections since the JVM has
+ * been started</li>
+ * <li><tt>cpu_millis</tt>: CPU time used by the process since the JVM has been started</li>
+ * <li><tt>threads</tt>: number of live threads</li>
+ * <li><tt>pool_running</tt>, <tt>pool_queued</tt>: running and queued tasks in KNIME's global thread pool</li>
+ * <li><tt>io_read_bytes</tt>, <tt>io_write_bytes</tt>: bytes read and written by the process as reported by
+ * <tt>/proc/self/io</tt> (<tt>rchar</tt> and <tt>wchar</tt>), -1 if not available</li>
+ * </ul>
+ * The values describe the whole JVM, therefore they include concurrently running testflows.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ResourceSampler {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ResourceSampler.class);
+
+    private static final Timer SAMPLING_TIMER = new Timer("Resource sampler", true);
+
+    private static final Path PROC_IO = Paths.get("/proc/self/io");
+
+    private static final String HEADER = "millis,heap_used,heap_committed,heap_max,gc_count,gc_millis,cpu_millis,"
+        + "threads,pool_running,pool_queued,io_read_bytes,io_write_bytes\n";
+
+    private final File m_file;
+
+    private final long m_interval;
+
+    private Writer m_out;
+
+    private TimerTask m_task;
+
+    private long m_startTime;
+
+    /**
+     * Creates a new sampler.
+     *
+     * @param file the CSV file into which the samples are written
+     * @param interval the sampling interval in milliseconds
+     */
+    ResourceSampler(final File file, final long interval) {
+        m_file = file;
+        m_interval = interval;
+    }
+
+    /**
+     * Starts sampling. The first sample is taken immediately.
+     *
+     * @throws IOException if the CSV file cannot be created
+     */
+    synchronized void start() throws IOException {
+        Files.createDirectories(m_file.getParentFile().toPath());
+        m_out = Files.newBufferedWriter(m_file.toPath(), StandardCharsets.UTF_8);
+        m_out.write(HEADER);
+        m_startTime = System.currentTimeMillis();
+        m_task = new TimerTask() {
+            @Override
+            public void run() {
+                sample();
+            }
+        };
+        SAMPLING_TIMER.schedule(m_task, 0, m_interval);
+    }
+
+    /**
+     * Stops sampling after taking a final sample and closes the CSV file.
+     */
+    synchronized void stop() {
+        if (m_out == null) {
+            return;
+        }
+        m_task.cancel();
+        sample();
+        try {
+            m_out.close();
+        } catch (IOException ex) {
+            LOGGER.warn("Could not close resource samples " + m_file + ": " + ex.getMessage(), ex);
+        }
+        m_out = null;
+    }
+
+    private synchronized void sample() {
+        if (m_out == null) {
+            return;
+        }
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(gc.getCollectionCount(), 0);
+            gcTime += Math.max(gc.getCollectionTime(), 0);
+        }
+        long cpuMillis = -1;
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean osBean) {
+            cpuMillis = osBean.getProcessCpuTime() / 1_000_000;
+        }
+        long[] io = readProcessIo();
+
+        StringBuilder line = new StringBuilder(128);
+        line.append(System.currentTimeMillis() - m_startTime).append(',');
+        line.append(heap.getUsed()).append(',').append(heap.getCommitted()).append(',').append(heap.getMax());
+        line.append(',').append(gcCount).append(',').append(gcTime).append(',').append(cpuMillis);
+        line.append(',').append(ManagementFactory.getThreadMXBean().getThreadCount());
+        line.append(',').append(KNIMEConstants.GLOBAL_THREAD_POOL.getRunningThreads());
+        line.append(',').append(KNIMEConstants.GLOBAL_THREAD_POOL.getQueueSize());
+        line.append(',').append(io[0]).append(',').append(io[1]).append('\n');
+        try {
+            m_out.write(line.toString());
+            // flush each line, otherwise the samples are lost if the JVM crashes
+            m_out.flush();
+        } catch (IOException ex) {
+            LOGGER.warn("Could not write resource samples " + m_file + ", sampling stopped: " + ex.getMessage(), ex);
+            m_task.cancel();
+        }
+    }
+
+    /**
+     * Returns the characters read and written by this process (<tt>rchar</tt> and <tt>wchar</tt> from
+     * <tt>/proc/self/io</tt>).
+     */
+    private static long[] readProcessIo() {
+        long[] io = {-1, -1};
+        if (Files.isReadable(PROC_IO)) {
+            try {
+                List<String> lines = Files.readAllLines(PROC_IO, StandardCharsets.US_ASCII);
+                for (String line : lines) {
+                    if (line.startsWith("rchar:")) {
+                        io[0] = Long.parseLong(line.substring(6).trim());
+                    } else if (line.startsWith("wchar:")) {
+                        io[1] = Long.parseLong(line.substring(6).trim());
+                    }
+                }
+            } catch (IOException | NumberFormatException ex) {
+                LOGGER.debug("Could not read " + PROC_IO + ": " + ex.getMessage(), ex);
+            }
+        }
+        return io;
+    }
+}
@@ -48,13 +48,28 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
 
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.workflow.WorkflowPersistor;
@@ -63,19 +78,81 @@
 
 /**
  * This class collects all testflows in a list of root directories and creates a {@link WorkflowTestSuite} for each
- * found workflow.
+ * found workflow. The directories are searched in parallel and matching zip files are extracted concurrently. The
+ * testflows are returned in the same order as by a sequential depth-first search.
+ * <p>
+ * Optionally the directory listings can be kept in an index file. A directory's modification time changes whenever
+ * entries are added, removed, or renamed, therefore the listing of a directory whose modification time has not changed
+ * is taken from the index instead of listing and checking all its entries again. This saves most of the file system
+ * accesses on slow network file systems.
  *
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
 public class TestflowCollector {
     private static NodeLogger logger = NodeLogger.getLogger(TestflowCollector.class);
 
-    private final String m_namePattern;
+    /** Directories are searched concurrently with this many threads, most time is spent waiting for I/O. */
+    private static final int SEARCH_PARALLELISM = 16;
 
-    private final String m_pathPattern;
+    /**
+     * Listings of directories that have been modified less than this time (in milliseconds) ago are not stored in the
+     * index because the modification time may not change for further modifications within the file system's timestamp
+     * resolution.
+     */
+    private static final long MIN_INDEX_AGE = 2000;
+
+    private static final String INDEX_HEADER = "# testflow discovery index v1";
+
+    private final Pattern m_namePattern;
+
+    private final Pattern m_pathPattern;
 
     private final Collection<File> m_testRootDirs = new ArrayList<File>();
 
+    private File m_indexFile;
+
+    private ZipExtractionCache m_extractionCache;
+
+    private final Collection<File> m_copiedRootDirs = new ArrayList<File>();
+
+    private final Map<String, DirectoryListing> m_oldIndex = new ConcurrentHashMap<>();
+
+    private final Map<String, DirectoryListing> m_newIndex = new ConcurrentHashMap<>();
+
+    /**
+     * The type of a directory.
+     */
+    private enum DirectoryType {
+        /** A workflow. */
+        WORKFLOW,
+        /** A workflow template, which is not a testflow. */
+        TEMPLATE,
+        /** Any other directory, which may contain testflows. */
+        OTHER
+    }
+
+    /**
+     * The relevant content of a directory.
+     *
+     * @param modificationTime the directory's modification time
+     * @param type the directory's type
+     * @param subDirs the sorted names of the sub-directories, empty for workflows and templates
+     * @param zipFiles the sorted names of the zip files, empty for workflows and templates
+     */
+    private record DirectoryListing(long modificationTime, DirectoryType type, List<String> subDirs,
+        List<String> zipFiles) {
+    }
+
+    /**
+     * A testflow that has been found.
+     *
+     * @param workflowDir the workflow directory
+     * @param rootDir the root directory in which the search started
+     * @param mountpointRoot the root directory of all workflows
+     */
+    private record FoundTestflow(File workflowDir, File rootDir, File mountpointRoot) {
+    }
+
     /**
      * Registry for all testing workflows. Note that only of the first two arguments should be non-null.
      *
@@ -110,19 +187,49 @@ public TestflowCollector(final String testNamePattern, final String testPathPatt
         }
 
         if ((testNamePattern == null) || testNamePattern.isEmpty()) {
-            m_namePattern = ".*";
+            m_namePattern = Pattern.compile(".*");
         } else {
-            m_namePattern = testNamePattern;
+            m_namePattern = Pattern.compile(testNamePattern);
         }
         if ((testPathPattern == null) || testPathPattern.isEmpty()) {
-            m_pathPattern = ".*";
+            m_pathPattern = Pattern.compile(".*");
         } else {
-            m_pathPattern = testPathPattern;
+            m_pathPattern = Pattern.compile(testPathPattern);
         }
 
         m_testRootDirs.addAll(testRootDirs);
     }
 
+    /**
+     * Sets the file in which the directory listings are kept between runs. The file is read before and written after
+     * the search.
+     *
+     * @param indexFile the index file, <code>null</code> if no index should be used
+     */
+    void setIndexFile(final File indexFile) {
+        m_indexFile = indexFile;
+    }
+
+    /**
+     * Sets the cache from which extracted zip files are taken.
+     *
+     * @param cache the extraction cache, <code>null</code> if zip files should always be extracted
+     */
+    void setExtractionCache(final ZipExtractionCache cache) {
+        m_extractionCache = cache;
+    }
+
+    /**
+     * Sets the root directories whose testflows are modified by the tests and must therefore be run in a working
+     * copy. The working copy is created after the search and only contains the selected testflows.
+     *
+     * @param rootDirs root directories from the constructor
+     */
+    void setCopiedRootDirs(final Collection<File> rootDirs) {
+        m_copiedRootDirs.clear();
+        m_copiedRootDirs.addAll(rootDirs);
+    }
+
     /**
      * Recursively collects all testflows in the directory given in the constructor and creates a
      * {@link WorkflowTestSuite} for each found testflow.
@@ -133,98 +240,318 @@ public TestflowCollector(final String testNamePattern, final String testPathPatt
      */
     public Collection<WorkflowTestSuite> collectTestCases(final TestrunConfiguration runConfiguration)
         throws IOException {
-        Collection<WorkflowTestSuite> workflowTests = new ArrayList<WorkflowTestSuite>();
+        return collectTestCases(runConfiguration, null);
+    }
+
+    /**
+     * Recursively collects all testflows in the directory given in the constructor and creates a
+     * {@link WorkflowTestSuite} for each found testflow that belongs to the given shard.
+     *
+     * @param runConfiguration configuration how the testflows should be run
+     * @param shard the shard whose testflows should be returned, <code>null</code> if all testflows should be returned
+     * @return all found test cases that belong to the shard
+     * @throws IOException if an I/O error occurs
+     */
+    Collection<WorkflowTestSuite> collectTestCases(final TestrunConfiguration runConfiguration,
+        final TestflowShard shard) throws IOException {
+        readIndex();
+
+        List<FoundTestflow> found = new ArrayList<>();
         Collection<File> rootDirSnapshot = new ArrayList<File>(m_testRootDirs);
         // m_testRootDirs may be changed during search for zipped workflows
-        for (File dir : rootDirSnapshot) {
-            searchDirectory(dir, dir, dir, workflowTests, runConfiguration);
+        ForkJoinPool pool = new ForkJoinPool(SEARCH_PARALLELISM);
+        try {
+            for (File dir : rootDirSnapshot) {
+                found.addAll(pool.invoke(new SearchTask(dir, dir, dir, true)));
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            pool.shutdown();
+        }
+
+        writeIndex();
+        if (m_extractionCache != null) {
+            m_extractionCache.evict();
+        }
+
+        if (shard != null) {
+            int allCount = found.size();
+            found = shard.select(found, t -> WorkflowTestSuite.getWorkflowName(t.workflowDir(), t.rootDir()));
+            logger.info("Shard " + shard + " runs " + found.size() + " of " + allCount + " testflows");
+        }
+        if (!m_copiedRootDirs.isEmpty()) {
+            found = createWorkingCopies(found);
         }
 
+        // test suites are created sequentially in the order of a depth-first search
+        Collection<WorkflowTestSuite> workflowTests = new ArrayList<WorkflowTestSuite>();
+        for (FoundTestflow t : found) {
+            workflowTests.add(new WorkflowTestSuite(WorkflowTestSuite.getWorkflowName(t.workflowDir(), t.rootDir()),
+                t.workflowDir(), t.mountpointRoot(), runConfiguration, null));
+        }
         return workflowTests;
     }
 
     /**
-     * Searches in the directory and subdirectories for workflow.knime files..
-     *
-     * @param currentDir the current directory for the search
-     * @param rootDir the root directory in which the search started
-     * @param mountpointRoot the root directory of all workflows
-     * @param tests a collection into which the found testflows are added
-     * @param runConfiguration configuration how the testflows should be run
-     * @throws IOException if an I/O error occurs
+     * Creates a working copy of each root directory to be copied with the testflows found in it and replaces the
+     * directories of the testflows with the ones in the working copies. Testflows from zip files have already been
+     * extracted into a temporary directory, but their mountpoint root is also replaced.
      */
-    private void searchDirectory(final File currentDir, final File rootDir, final File mountpointRoot,
-        final Collection<WorkflowTestSuite> tests, final TestrunConfiguration runConfiguration) throws IOException {
-        File workflowFile = new File(currentDir, WorkflowPersistor.WORKFLOW_FILE);
-        File templateFile = new File(currentDir, WorkflowPersistor.TEMPLATE_FILE);
+    private List<FoundTestflow> createWorkingCopies(final List<FoundTestflow> found) throws IOException {
+        File tempDir = FileUtil.createTempDir("tempTestRootDirs");
+        Map<File, TestflowWorkingCopy> workingCopies = new HashMap<>();
+        for (File rootDir : m_copiedRootDirs) {
+            List<File> workflowDirs = new ArrayList<>();
+            for (FoundTestflow t : found) {
+                if (t.rootDir().equals(rootDir)) {
+                    workflowDirs.add(t.workflowDir());
+                }
+            }
+            boolean usedAsMountpoint = found.stream().anyMatch(t -> t.mountpointRoot().equals(rootDir));
+            if (workflowDirs.isEmpty() && !usedAsMountpoint) {
+                continue;
+            }
+            TestflowWorkingCopy workingCopy = new TestflowWorkingCopy(rootDir, new File(tempDir, rootDir.getName()));
+            workingCopy.create(workflowDirs);
+            workingCopies.put(rootDir, workingCopy);
+        }
 
-        if (templateFile.exists()) {
-            return;
-        } else if (workflowFile.exists()) {
-            String workflowName = currentDir.getName();
-            String workflowPath =
-                currentDir.getAbsolutePath().substring(rootDir.getAbsolutePath().length()).replace('\\', '/');
-            if (workflowName.matches(m_namePattern) && workflowPath.matches(m_pathPattern)) {
-                WorkflowTestSuite testCase =
-                    new WorkflowTestSuite(WorkflowTestSuite.getWorkflowName(currentDir, rootDir), currentDir,
-                        mountpointRoot, runConfiguration, null);
-                tests.add(testCase);
-            } else {
-                logger.info("Skipping testcase '" + workflowPath + "' (doesn't match name pattern '" + m_namePattern
-                    + "'" + " and/or path pattern '" + m_pathPattern + "').");
+        List<FoundTestflow> copied = new ArrayList<>(found.size());
+        for (FoundTestflow t : found) {
+            TestflowWorkingCopy rootCopy = workingCopies.get(t.rootDir());
+            TestflowWorkingCopy mountpointCopy = workingCopies.get(t.mountpointRoot());
+            copied.add(new FoundTestflow(
+                (rootCopy != null) ? rootCopy.toWorkingCopy(t.workflowDir()) : t.workflowDir(),
+                (rootCopy != null) ? rootCopy.toWorkingCopy(t.rootDir()) : t.rootDir(),
+                (mountpointCopy != null) ? mountpointCopy.toWorkingCopy(t.mountpointRoot()) : t.mountpointRoot()));
+        }
+        return copied;
+    }
+
+    /**
+     * Searches in a directory and its subdirectories for workflow.knime files. Sub-directories and zip files are
+     * searched by concurrent sub-tasks.
+     */
+    private final class SearchTask extends RecursiveTask<List<FoundTestflow>> {
+        private final File m_currentDir;
+
+        private final File m_rootDir;
+
+        private final File m_mountpointRoot;
+
+        private final boolean m_indexed;
+
+        /**
+         * @param currentDir the current directory for the search
+         * @param rootDir the root directory in which the search started
+         * @param mountpointRoot the root directory of all workflows
+         * @param indexed <code>true</code> if the directory listings should be kept in the index, <code>false</code>
+         *            for temporary directories
+         */
+        SearchTask(final File currentDir, final File rootDir, final File mountpointRoot, final boolean indexed) {
+            m_currentDir = currentDir;
+            m_rootDir = rootDir;
+            m_mountpointRoot = mountpointRoot;
+            m_indexed = indexed;
+        }
+
+        @Override
+        protected List<FoundTestflow> compute() {
+            DirectoryListing listing;
+            try {
+                listing = listDirectory(m_currentDir, m_indexed);
+            } catch (IOException ex) {
+                logger.error("I/O error accessing '" + m_currentDir + "'. Does it exist?!?", ex);
+                return Collections.emptyList();
             }
-        } else {
-            // recursively search directories
-            File[] dirList = currentDir.listFiles(DIRECTORY_FILTER);
-            if (dirList == null) {
-                logger.error("I/O error accessing '" + currentDir + "'. Does it exist?!?");
-                return;
+
+            if (listing.type() == DirectoryType.TEMPLATE) {
+                return Collections.emptyList();
+            } else if (listing.type() == DirectoryType.WORKFLOW) {
+                String workflowPath = getRelativePath(m_currentDir, m_rootDir);
+                if (matches(m_currentDir.getName(), workflowPath)) {
+                    return Collections.singletonList(new FoundTestflow(m_currentDir, m_rootDir, m_mountpointRoot));
+                } else {
+                    logger.info("Skipping testcase '" + workflowPath + "' (doesn't match name pattern '"
+                        + m_namePattern + "'" + " and/or path pattern '" + m_pathPattern + "').");
+                    return Collections.emptyList();
+                }
             }
-            Arrays.sort(dirList);
 
-            for (int i = 0; i < dirList.length; i++) {
-                searchDirectory(dirList[i], rootDir, mountpointRoot, tests, runConfiguration);
+            // recursively search directories, then check for zipped workflow(group)s
+            List<ForkJoinTask<List<FoundTestflow>>> subTasks = new ArrayList<>();
+            for (String subDir : listing.subDirs()) {
+                subTasks.add(new SearchTask(new File(m_currentDir, subDir), m_rootDir, m_mountpointRoot, m_indexed));
+            }
+            for (String zipName : listing.zipFiles()) {
+                File zipFile = new File(m_currentDir, zipName);
+                if (matches(zipName, getRelativePath(zipFile, m_rootDir))) {
+                    subTasks.add(new UnzipTask(zipFile, m_mountpointRoot));
+                }
             }
 
-            // check for zipped workflow(group)s
-            File[] zipList = currentDir.listFiles(ZIP_FILTER);
-            if (zipList == null) {
-                logger.error("I/O error accessing '" + currentDir + "'. Does it exist?!?");
-                return;
+            List<FoundTestflow> result = new ArrayList<>();
+            for (ForkJoinTask<List<FoundTestflow>> task : ForkJoinTask.invokeAll(subTasks)) {
+                result.addAll(task.join());
             }
-            Arrays.sort(zipList);
-            for (int i = 0; i < zipList.length; i++) {
-                String workflowName = zipList[i].getName();
-                String workflowPath =
-                    zipList[i].getAbsolutePath().substring(rootDir.getAbsolutePath().length()).replace('\\', '/');
+            return result;
+        }
+    }
+
+    /**
+     * Extracts a zip file into a temporary directory (or copies its content from the extraction cache) and searches it
+     * for workflows.
+     */
+    private final class UnzipTask extends RecursiveTask<List<FoundTestflow>> {
+        private final File m_zipFile;
+
+        private final File m_mountpointRoot;
 
-                if (workflowName.matches(m_namePattern) && workflowPath.matches(m_pathPattern)) {
-                    File tempDir = FileUtil.createTempDir("UnzippedTestflows");
+        UnzipTask(final File zipFile, final File mountpointRoot) {
+            m_zipFile = zipFile;
+            m_mountpointRoot = mountpointRoot;
+        }
+
+        @Override
+        protected List<FoundTestflow> compute() {
+            try {
+                File tempDir = FileUtil.createTempDir("UnzippedTestflows");
+                if (m_extractionCache != null) {
+                    // never run from the cache itself, tests may write into the workflow directories
+                    m_extractionCache.extract(m_zipFile, tempDir);
+                } else {
+                    FileUtil.unzip(m_zipFile, tempDir);
+                }
+                synchronized (m_testRootDirs) {
                     m_testRootDirs.add(tempDir);
-                    FileUtil.unzip(zipList[i], tempDir);
-                    searchDirectory(tempDir, tempDir, mountpointRoot, tests, runConfiguration);
                 }
+                return new SearchTask(tempDir, tempDir, m_mountpointRoot, false).compute();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
             }
         }
     }
 
-    private static final FileFilter DIRECTORY_FILTER = new FileFilter() {
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean accept(final File pathname) {
-            return pathname.isDirectory();
+    private boolean matches(final String workflowName, final String workflowPath) {
+        return m_namePattern.matcher(workflowName).matches() && m_pathPattern.matcher(workflowPath).matches();
+    }
+
+    private static String getRelativePath(final File file, final File rootDir) {
+        return file.getAbsolutePath().substring(rootDir.getAbsolutePath().length()).replace('\\', '/');
+    }
+
+    /**
+     * Lists the relevant content of a directory, either from the index if the directory has not been modified or from
+     * the file system.
+     */
+    private DirectoryListing listDirectory(final File dir, final boolean indexed) throws IOException {
+        String key = dir.getAbsolutePath();
+        long modificationTime = dir.lastModified();
+        if (modificationTime == 0) {
+            throw new IOException("Directory '" + dir + "' does not exist");
+        }
+        if (indexed) {
+            DirectoryListing cached = m_oldIndex.get(key);
+            if ((cached != null) && (cached.modificationTime() == modificationTime)) {
+                m_newIndex.put(key, cached);
+                return cached;
+            }
         }
-    };
 
-    private static final FileFilter ZIP_FILTER = new FileFilter() {
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public boolean accept(final File pathname) {
-            return pathname.getName().endsWith(".zip");
+        DirectoryListing listing;
+        if (new File(dir, WorkflowPersistor.TEMPLATE_FILE).exists()) {
+            listing = new DirectoryListing(modificationTime, DirectoryType.TEMPLATE, List.of(), List.of());
+        } else if (new File(dir, WorkflowPersistor.WORKFLOW_FILE).exists()) {
+            listing = new DirectoryListing(modificationTime, DirectoryType.WORKFLOW, List.of(), List.of());
+        } else {
+            List<String> subDirs = new ArrayList<>();
+            List<String> zipFiles = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir.toPath())) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    if (Files.isDirectory(entry)) {
+                        subDirs.add(name);
+                    } else if (name.endsWith(".zip")) {
+                        zipFiles.add(name);
+                    }
+                }
+            }
+            Collections.sort(subDirs);
+            Collections.sort(zipFiles);
+            listing = new DirectoryListing(modificationTime, DirectoryType.OTHER, subDirs, zipFiles);
+        }
+
+        if (indexed && (System.currentTimeMillis() - modificationTime > MIN_INDEX_AGE)) {
+            m_newIndex.put(key, listing);
+        }
+        return listing;
+    }
+
+    /**
+     * Reads the index file, if one has been set. Each line contains the tab-separated path, modification time, type,
+     * and the names of the sub-directories and zip files, separated by <tt>/</tt>.
+     */
+    private void readIndex() {
+        m_oldIndex.clear();
+        m_newIndex.clear();
+        if ((m_indexFile == null) || !m_indexFile.isFile()) {
+            return;
+        }
+
+        try (BufferedReader in = Files.newBufferedReader(m_indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line = in.readLine();
+            if (!INDEX_HEADER.equals(line)) {
+                logger.info("Ignoring discovery index " + m_indexFile + " with unknown format");
+                return;
+            }
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                if (parts.length == 5) {
+                    m_oldIndex.put(parts[0], new DirectoryListing(Long.parseLong(parts[1]),
+                        DirectoryType.valueOf(parts[2]), splitNames(parts[3]), splitNames(parts[4])));
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            logger.warn("Could not read discovery index " + m_indexFile + ", searching all directories: "
+                + ex.getMessage(), ex);
+            m_oldIndex.clear();
+        }
+    }
+
+    private static List<String> splitNames(final String names) {
+        return names.isEmpty() ? List.of() : Arrays.asList(names.split("/"));
+    }
+
+    /**
+     * Writes the listings of all directories that have been visited into the index file, if one has been set.
+     */
+    private void writeIndex() {
+        if (m_indexFile == null) {
+            return;
         }
-    };
+
+        File tempFile = new File(m_indexFile.getAbsolutePath() + ".tmp");
+        try {
+            if (m_indexFile.getParentFile() != null) {
+                Files.createDirectories(m_indexFile.getParentFile().toPath());
+            }
+            try (Writer out = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                out.write(INDEX_HEADER + "\n");
+                for (Map.Entry<String, DirectoryListing> e : m_newIndex.entrySet()) {
+                    DirectoryListing l = e.getValue();
+                    String line = e.getKey() + "\t" + l.modificationTime() + "\t" + l.type() + "\t"
+                        + String.join("/", l.subDirs()) + "\t" + String.join("/", l.zipFiles());
+                    // names with line breaks or tabs cannot be stored, such directories are listed again next time
+                    if (line.chars().filter(c -> c == '\t').count() == 4 && (line.indexOf('\n') < 0)
+                        && (line.indexOf('\r') < 0)) {
+                        out.write(line + "\n");
+                    }
+                }
+            }
+            Files.move(tempFile.toPath(), m_indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            logger.warn("Could not write discovery index " + m_indexFile + ": " + ex.getMessage(), ex);
+        }
+    }
 }
@@ -51,6 +51,7 @@
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -65,6 +66,7 @@
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeSettings;
+import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.workflow.NativeNodeContainer;
 import org.knime.core.node.workflow.NodeContainer;
 import org.knime.core.node.workflow.NodeContext;
@@ -73,6 +75,7 @@
 import org.knime.core.node.workflow.WorkflowTableBackendSettings;
 import org.knime.core.util.LoadVersion;
 import org.knime.testing.core.TestrunConfiguration;
+import org.knime.testing.node.config.TestConfigNodeFactory;
 import org.knime.testing.node.config.TestConfigNodeModel;
 import org.knime.testing.node.config.TestConfigSettings;
 
@@ -92,6 +95,8 @@ class TestflowConfiguration {
 
     private static final String REGEX_PATTERN = "_!_";
 
+    private static final String CONFIG_NODE_DIR_PREFIX = "Testflow Configuration (#";
+
     private final WorkflowManager m_manager;
 
     private int m_timeout;
@@ -124,6 +129,16 @@ class TestflowConfiguration {
 
     private boolean m_executeWithCurrentTableBackend = true;
 
+    private int m_maxSlowdown = TestConfigSettings.DEFAULT_MAX_SLOWDOWN;
+
+    private int m_allowedThreadIncrease = 0;
+
+    private int m_allowedOffHeapIncrease = TestConfigSettings.DEFAULT_ALLOWED_OFF_HEAP_INCREASE;
+
+    private int m_allowedFileHandleIncrease = 0;
+
+    private int m_allowedTempFiles = 0;
+
     /**
      * Creates a new testflow configuration. The configuration is read from the testflow configuration node inside the
      * workflow. If no such node exists, configuration files are read. If no files exists, a default configuration is
@@ -153,6 +168,41 @@ public TestflowConfiguration(final WorkflowManager workflowManager, final Testru
         }
     }
 
+    /**
+     * Checks whether the testflow in the given directory must not be executed concurrently with other testflows. The
+     * settings of the testflow configuration node are read directly from its settings file so that this can be decided
+     * before the workflow is loaded.
+     *
+     * @param workflowDir the workflow directory
+     * @return <code>true</code> if the testflow must run alone, <code>false</code> otherwise
+     */
+    static boolean isRunExclusively(final File workflowDir) {
+        File[] nodeDirs =
+            workflowDir.listFiles(f -> f.isDirectory() && f.getName().startsWith(CONFIG_NODE_DIR_PREFIX));
+        if (nodeDirs == null) {
+            return false;
+        }
+
+        for (File nodeDir : nodeDirs) {
+            File settingsFile = new File(nodeDir, "settings.xml");
+            if (!settingsFile.isFile()) {
+                continue;
+            }
+            try (InputStream in = new FileInputStream(settingsFile)) {
+                NodeSettingsRO nodeSettings = NodeSettings.loadFromXML(in);
+                if (TestConfigNodeFactory.class.getName().equals(nodeSettings.getString("factory", null))) {
+                    TestConfigSettings settings = new TestConfigSettings();
+                    settings.loadSettingsForDialog(nodeSettings.getNodeSettings("model"));
+                    return settings.runExclusively();
+                }
+            } catch (IOException | InvalidSettingsException ex) {
+                LOGGER.warn("Could not read testflow configuration from '" + settingsFile + "': " + ex.getMessage(),
+                    ex);
+            }
+        }
+        return false;
+    }
+
     private void load(final NativeNodeContainer configNode) throws InvalidSettingsException {
         NodeSettings s = new NodeSettings("");
         NodeContext.pushContext(configNode);
@@ -227,6 +277,11 @@ private void load(final NativeNodeContainer configNode) throws InvalidSettingsEx
         m_maxHiliteRows = settings.maxHiliteRows();
         m_streamingTest = settings.streamingTest();
         m_testNodesInComponents = settings.testNodesInComponents();
+        m_maxSlowdown = settings.maxSlowdown();
+        m_allowedThreadIncrease = settings.allowedThreadIncrease();
+        m_allowedOffHeapIncrease = settings.allowedOffHeapIncrease();
+        m_allowedFileHandleIncrease = settings.allowedFileHandleIncrease();
+        m_allowedTempFiles = settings.allowedTempFiles();
         NodeContext.pushContext(configNode);
         m_executeWithCurrentTableBackend =
             settings.supportsTableBackend(WorkflowTableBackendSettings.getTableBackendForCurrentContext());
@@ -575,6 +630,56 @@ public boolean testNodesInComponents() {
         return m_testNodesInComponents;
     }
 
+    /**
+     * Returns the maximum slowdown of the execution time compared to the baseline that is tolerated by the
+     * performance test.
+     *
+     * @return the maximum slowdown in percent
+     */
+    public int getMaxSlowdown() {
+        return m_maxSlowdown;
+    }
+
+    /**
+     * Returns the number of additional live threads after the workflow has been closed that is tolerated by the
+     * resource leak test.
+     *
+     * @return the number of threads
+     */
+    public int getAllowedThreadIncrease() {
+        return m_allowedThreadIncrease;
+    }
+
+    /**
+     * Returns the increase of direct and mapped buffer memory after the workflow has been closed that is tolerated by
+     * the resource leak test.
+     *
+     * @return the memory increase in MB
+     */
+    public int getAllowedOffHeapIncrease() {
+        return m_allowedOffHeapIncrease;
+    }
+
+    /**
+     * Returns the number of additional open file handles after the workflow has been closed that is tolerated by the
+     * resource leak test.
+     *
+     * @return the number of file handles
+     */
+    public int getAllowedFileHandleIncrease() {
+        return m_allowedFileHandleIncrease;
+    }
+
+    /**
+     * Returns the number of new files or directories in the KNIME temp directory after the workflow has been closed
+     * that is tolerated by the resource leak test.
+     *
+     * @return the number of files
+     */
+    public int getAllowedTempFiles() {
+        return m_allowedTempFiles;
+    }
+
     /**
      * Returns the version in which this test workflow is required to stay in to be functional. If no specific version
      * is required, {@link LoadVersion#FUTURE} will be returned. This is useful for testing backwards compatibility
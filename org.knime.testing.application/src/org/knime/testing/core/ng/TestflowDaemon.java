@@ -0,0 +1,264 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Daemon that keeps an initialized testflow runner alive and executes run requests that are sent by
+ * {@link TestflowRunnerClient} over a Unix domain socket. Requests are processed one after the other. While a request
+ * is running, <tt>System.out</tt> and <tt>System.err</tt> are redirected to the client.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowDaemon {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowDaemon.class);
+
+    /**
+     * Handler that executes a single run request.
+     */
+    interface RequestHandler {
+        /**
+         * Executes a run with the given arguments.
+         *
+         * @param args the arguments, the same as for the testflow runner application
+         * @return the exit code
+         * @throws Exception if an error occurs during the run
+         */
+        int run(String[] args) throws Exception; // NOSONAR same as in IApplication
+
+        /**
+         * Aborts the currently running request, e.g. because the client has gone away.
+         */
+        void abort();
+    }
+
+    private final Path m_socketFile;
+
+    private final RequestHandler m_handler;
+
+    private volatile ServerSocketChannel m_server;
+
+    private volatile boolean m_stopped;
+
+    /**
+     * Creates a new daemon.
+     *
+     * @param socketFile the file of the Unix domain socket, an existing file is replaced
+     * @param handler the handler for run requests
+     */
+    TestflowDaemon(final Path socketFile, final RequestHandler handler) {
+        m_socketFile = socketFile;
+        m_handler = handler;
+    }
+
+    /**
+     * Accepts and processes requests until the daemon is stopped.
+     *
+     * @throws IOException if the socket cannot be created
+     */
+    void run() throws IOException {
+        Files.deleteIfExists(m_socketFile);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            bind(server);
+            m_server = server;
+            System.out.println("Testflow runner daemon is listening on " + m_socketFile);
+
+            while (!m_stopped) {
+                try (SocketChannel client = server.accept()) {
+                    handle(client);
+                } catch (AsynchronousCloseException ex) { // NOSONAR the daemon has been stopped
+                    break;
+                } catch (IOException ex) {
+                    LOGGER.warn("Error while processing run request: " + ex.getMessage(), ex);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(m_socketFile);
+        }
+    }
+
+    /**
+     * Binds the server to the socket file so that only the current user can connect. Because the permissions of a
+     * socket file cannot be set atomically when it is created, the socket is created in a temporary directory that
+     * only the user can access, restricted, and then moved to its final location.
+     */
+    private void bind(final ServerSocketChannel server) throws IOException {
+        Path privateDir;
+        try {
+            privateDir = Files.createTempDirectory(m_socketFile.toAbsolutePath().getParent(), ".knime-daemon",
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (UnsupportedOperationException ex) { // NOSONAR no POSIX permissions, e.g. on Windows
+            server.bind(UnixDomainSocketAddress.of(m_socketFile));
+            return;
+        }
+
+        try {
+            Path tempSocket = privateDir.resolve("socket");
+            server.bind(UnixDomainSocketAddress.of(tempSocket));
+            Files.setPosixFilePermissions(tempSocket, PosixFilePermissions.fromString("rw-------"));
+            Files.move(tempSocket, m_socketFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(privateDir.resolve("socket"));
+            Files.delete(privateDir);
+        }
+    }
+
+    /**
+     * Stops the daemon and aborts the currently running request.
+     */
+    void stop() {
+        m_stopped = true;
+        m_handler.abort();
+        ServerSocketChannel server = m_server;
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException ex) {
+                LOGGER.debug("Could not close daemon socket: " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private void handle(final SocketChannel channel) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+        LOGGER.info("Received run request: " + String.join(" ", args));
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        PrintStream oldOut = System.out;
+        PrintStream oldErr = System.err;
+        int exitCode;
+        try (PrintStream clientOut = new PrintStream(new FrameOutputStream(out, TestflowRunnerClient.FRAME_STDOUT),
+            true, StandardCharsets.UTF_8);
+                PrintStream clientErr = new PrintStream(
+                    new FrameOutputStream(out, TestflowRunnerClient.FRAME_STDERR), true, StandardCharsets.UTF_8)) {
+            System.setOut(clientOut);
+            System.setErr(clientErr);
+            try {
+                exitCode = m_handler.run(args);
+            } catch (Exception ex) { // NOSONAR report everything to the client
+                ex.printStackTrace(clientErr);
+                exitCode = 1;
+            }
+        } finally {
+            System.setOut(oldOut);
+            System.setErr(oldErr);
+        }
+
+        synchronized (out) {
+            out.writeByte(TestflowRunnerClient.FRAME_EXIT);
+            out.writeInt(exitCode);
+            out.flush();
+        }
+    }
+
+    /**
+     * Output stream that sends everything written to it as frames of the given type to the client.
+     */
+    private final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream m_out;
+
+        private final byte m_type;
+
+        private boolean m_clientGone;
+
+        FrameOutputStream(final DataOutputStream out, final byte type) {
+            m_out = out;
+            m_type = type;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (m_clientGone || (len == 0)) {
+                return;
+            }
+            try {
+                synchronized (m_out) {
+                    m_out.writeByte(m_type);
+                    m_out.writeInt(len);
+                    m_out.write(b, off, len);
+                    m_out.flush();
+                }
+            } catch (IOException ex) {
+                // nobody is interested in the results any more
+                m_clientGone = true;
+                LOGGER.info("Client has disconnected, aborting run");
+                m_handler.abort();
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.ParseException;
+
+import org.knime.core.node.NodeLogger;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Java Flight Recorder recording of a single testflow run. The recording uses the low-overhead <tt>default</tt>
+ * settings and is written to disk by the JVM while the testflow runs. After the run it is either dumped into a file or
+ * discarded.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowFlightRecording {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowFlightRecording.class);
+
+    private static final String SETTINGS = "default";
+
+    private final Recording m_recording;
+
+    private TestflowFlightRecording(final Recording recording) {
+        m_recording = recording;
+    }
+
+    /**
+     * Starts a new recording.
+     *
+     * @param testflowName the name of the testflow that is recorded
+     * @return the new recording or <code>null</code> if the Flight Recorder is not available in this JVM
+     */
+    static TestflowFlightRecording start(final String testflowName) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(SETTINGS));
+            recording.setName("Testflow " + testflowName);
+            recording.setToDisk(true);
+            recording.start();
+            return new TestflowFlightRecording(recording);
+        } catch (IOException | ParseException | RuntimeException ex) {
+            LOGGER.warn("Could not start flight recording for " + testflowName + ": " + ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stops the recording and writes it into the given file.
+     *
+     * @param file the destination file, existing files are overwritten
+     */
+    void keep(final File file) {
+        try {
+            m_recording.stop();
+            Files.createDirectories(file.getParentFile().toPath());
+            m_recording.dump(file.toPath());
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Could not write flight recording " + file + ": " + ex.getMessage(), ex);
+        } finally {
+            m_recording.close();
+        }
+    }
+
+    /**
+     * Stops the recording and discards all recorded data.
+     */
+    void discard() {
+        m_recording.close();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Reads the files of the next testflow in the background so that they are in the operating system's page cache when
+ * the testflow is loaded. The prefetching overlaps with the teardown of the previous testflow, which mostly waits for
+ * asynchronous writes, UI events, and the memory alert. Only the file contents are read, the workflow itself is not
+ * loaded, therefore the testflows stay completely isolated from each other.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowPrefetcher implements AutoCloseable {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowPrefetcher.class);
+
+    /** The maximum number of bytes that are read for one testflow. */
+    private static final long MAX_BYTES = 1024L * 1024 * 1024;
+
+    private final ExecutorService m_executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Testflow prefetcher");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private Future<?> m_current;
+
+    /**
+     * Starts reading the files of the given workflow in the background. A prefetch that is still running is cancelled.
+     *
+     * @param workflowDir the workflow directory
+     */
+    synchronized void prefetch(final File workflowDir) {
+        if (m_current != null) {
+            m_current.cancel(true);
+        }
+        try {
+            m_current = m_executor.submit(() -> read(workflowDir.toPath()));
+        } catch (RejectedExecutionException ex) {
+            // already closed
+            m_current = null;
+        }
+    }
+
+    private static void read(final Path workflowDir) {
+        long startTime = System.currentTimeMillis();
+        byte[] buffer = new byte[64 * 1024];
+        long[] bytesRead = new long[1];
+        try {
+            Files.walkFileTree(workflowDir, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                    if (Thread.currentThread().isInterrupted() || (bytesRead[0] >= MAX_BYTES)) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    if (attrs.isRegularFile()) {
+                        try (InputStream in = Files.newInputStream(file)) {
+                            int n;
+                            while ((bytesRead[0] < MAX_BYTES) && ((n = in.read(buffer)) > 0)) {
+                                bytesRead[0] += n;
+                            }
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(final Path file, final IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            LOGGER.debug("Prefetched " + bytesRead[0] + " bytes of '" + workflowDir + "' in "
+                + (System.currentTimeMillis() - startTime) + "ms");
+        } catch (IOException ex) {
+            // the files are read again when the workflow is loaded, which will report any real problem
+            LOGGER.debug("Could not prefetch '" + workflowDir + "': " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Cancels a running prefetch and stops the background thread.
+     */
+    @Override
+    public synchronized void close() {
+        if (m_current != null) {
+            m_current.cancel(true);
+        }
+        m_executor.shutdownNow();
+    }
+}
@@ -44,22 +44,37 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.PrintWriter;
 import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.Socket;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
 
 import org.eclipse.core.runtime.CoreException;
@@ -96,12 +111,22 @@
  * @author Thorsten Meinl, University of Konstanz
  */
 public class TestflowRunnerApplication implements IApplication {
+    private static final String ORDER_LONGEST_FIRST = "longestFirst";
+
+    private static final String ORDER_FAILED_FIRST = "failedFirst";
+
+    /** The default size limit of the zip extraction cache in MB. */
+    private static final long DEFAULT_ZIP_CACHE_SIZE = 4096;
+
     private String m_workflowNamePattern;
 
     private String m_workflowPathPattern;
 
     private final Collection<File> m_rootDirs = new ArrayList<>();
 
+    /** Root directories whose testflows are copied before they are run. */
+    private final Collection<File> m_copiedRootDirs = new ArrayList<>();
+
     private String m_serverUri;
 
     private String m_serverPath;
@@ -112,6 +137,8 @@ public class TestflowRunnerApplication implements IApplication {
 
     private boolean m_outputToSeparateFile;
 
+    private boolean m_nodeProfileProperties;
+
     private final TestrunConfiguration m_runConfiguration = new TestrunConfiguration();
 
     private volatile boolean m_stopped = false;
@@ -122,6 +149,58 @@ public class TestflowRunnerApplication implements IApplication {
 
     private String m_untestedNodesReportDir;
 
+    private int m_parallelTestflows = 1;
+
+    private TestflowShard m_shard;
+
+    private File m_timingHistoryFile;
+
+    private TestflowTimingStore m_timingStore;
+
+    private String m_testflowOrder;
+
+    private IncrementalTestState m_incrementalState;
+
+    private File m_discoveryIndexFile;
+
+    private File m_zipCacheDir;
+
+    private long m_zipCacheSize = DEFAULT_ZIP_CACHE_SIZE;
+
+    private File m_heapDumpDir;
+
+    private boolean m_checkResourceLeaks;
+
+    private boolean m_reuseWorkflowForStreaming;
+
+    private int m_streamingMaxSlowdown = -1;
+
+    private long m_sampleInterval;
+
+    private File m_jfrDir;
+
+    private int m_perfIterations;
+
+    private String m_perfBaselineDir;
+
+    private boolean m_updatePerfBaseline;
+
+    private PerformanceBaseline m_perfBaseline;
+
+    private int m_workerCount;
+
+    private int m_workerPort;
+
+    private String[] m_applicationArgs = new String[0];
+
+    private volatile TestflowWorkerPool m_workerPool;
+
+    private String m_daemonSocket;
+
+    private volatile TestflowDaemon m_daemon;
+
+    private volatile TestflowRunnerApplication m_currentRequest;
+
     /**
      * {@inheritDoc}
      */
@@ -149,38 +228,24 @@ public Object start(final IApplicationContext context) throws Exception {
 
         Object args = context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
 
-        if (!extractCommandLineArgs(args) || (m_rootDirs.isEmpty() && (m_serverUri == null))
-            || ((m_xmlResultFile == null) && (m_xmlResultDir == null))) {
-            printUsage();
+        if (!extractCommandLineArgs(args) || ((m_daemonSocket == null) && !hasRequiredArguments())) {
+            printUsage(System.err);
             return EXIT_OK;
         }
 
         final AbstractXMLResultWriter resultWriter;
-        if (m_xmlResultDir != null) {
-            File xmlResultDir = new File(m_xmlResultDir);
-            if (!xmlResultDir.exists() && !xmlResultDir.mkdirs()) {
-                throw new IOException("Can not create directory for result files " + m_xmlResultDir);
-            }
-            resultWriter = new XMLResultDirWriter(xmlResultDir, m_outputToSeparateFile);
-            System.setProperty("knime.testing.result-dir", m_xmlResultDir);
+        if ((m_workerPort > 0) || (m_daemonSocket != null)) {
+            // the coordinator tells the worker where to write its results, the daemon gets them with each request
+            resultWriter = null;
         } else {
-            File xmlResultFile = new File(m_xmlResultFile);
-            if (!xmlResultFile.getParentFile().exists() && !xmlResultFile.getParentFile().mkdirs()) {
-                throw new IOException("Can not create directory for results file " + m_xmlResultFile);
-            }
-            resultWriter = new XMLResultFileWriter(xmlResultFile);
-            System.setProperty("knime.testing.result-dir", xmlResultFile.getParent());
+            resultWriter = createResultWriter();
         }
 
         context.applicationRunning();
 
-        if ((m_rootDirs.size() > 0) && m_runConfiguration.isLoadSaveLoad()) {
-            // copy all workflows into a temporary directory because they will be modified by the load-save-load test
-            copyRootDirs();
-        }
-
-        if (m_serverUri != null) {
-            m_rootDirs.add(downloadWorkflows());
+        // workers get the testflow directories from the coordinator, which has already copied or downloaded them
+        if (resultWriter != null) {
+            prepareRootDirs();
         }
 
         // this is to load the repository plug-in
@@ -196,7 +261,13 @@ public Object start(final IApplicationContext context) throws Exception {
             public Integer call() throws Exception {
                 Thread.currentThread().setName("Testflow executor");
                 try {
-                    return runAllTests(resultWriter, globalStartTime);
+                    if (m_workerPort > 0) {
+                        return runAsWorker();
+                    } else if (m_daemonSocket != null) {
+                        return runDaemon();
+                    } else {
+                        return runAllTests(resultWriter, globalStartTime);
+                    }
                 } finally {
                     stop();
                     while (!m_leftDispatchLoop) {
@@ -212,6 +283,110 @@ public Integer call() throws Exception {
         return result.get();
     }
 
+    private boolean hasRequiredArguments() {
+        return (!m_rootDirs.isEmpty() || (m_serverUri != null))
+            && ((m_xmlResultFile != null) || (m_xmlResultDir != null));
+    }
+
+    private AbstractXMLResultWriter createResultWriter() throws IOException, ParserConfigurationException,
+        TransformerException {
+        AbstractXMLResultWriter resultWriter;
+        if (m_xmlResultDir != null) {
+            File xmlResultDir = new File(m_xmlResultDir);
+            if (!xmlResultDir.exists() && !xmlResultDir.mkdirs()) {
+                throw new IOException("Can not create directory for result files " + m_xmlResultDir);
+            }
+            m_timingStore = new TestflowTimingStore(new File(xmlResultDir, TestflowTimingStore.FILE_NAME));
+            System.setProperty("knime.testing.result-dir", m_xmlResultDir);
+            resultWriter = new XMLResultDirWriter(xmlResultDir, m_outputToSeparateFile);
+        } else {
+            File xmlResultFile = new File(m_xmlResultFile);
+            if (!xmlResultFile.getParentFile().exists() && !xmlResultFile.getParentFile().mkdirs()) {
+                throw new IOException("Can not create directory for results file " + m_xmlResultFile);
+            }
+            m_timingStore =
+                new TestflowTimingStore(new File(xmlResultFile.getParentFile(), TestflowTimingStore.FILE_NAME));
+            System.setProperty("knime.testing.result-dir", xmlResultFile.getParent());
+            resultWriter = new XMLResultFileWriter(xmlResultFile);
+        }
+        resultWriter.setNodeProfileProperties(m_nodeProfileProperties);
+        if (m_perfIterations > 0) {
+            File baselineDir = (m_perfBaselineDir != null) ? new File(m_perfBaselineDir)
+                : new File(System.getProperty("knime.testing.result-dir"), "perf-baseline");
+            m_perfBaseline = new PerformanceBaseline(baselineDir);
+        }
+        return resultWriter;
+    }
+
+    private void prepareRootDirs() throws IOException, CoreException, URISyntaxException, PermissionException,
+        InstantiationException, IllegalAccessException {
+        if (m_runConfiguration.isLoadSaveLoad()) {
+            // the selected workflows are copied after the search because they will be modified by the load-save-load
+            // test; downloaded workflows are already in a temporary directory
+            m_copiedRootDirs.addAll(m_rootDirs);
+        }
+
+        if (m_serverUri != null) {
+            m_rootDirs.add(downloadWorkflows());
+        }
+    }
+
+    /**
+     * Keeps this fully initialized application alive and runs the requests of {@link TestflowRunnerClient}s.
+     */
+    private int runDaemon() throws IOException {
+        m_daemon = new TestflowDaemon(Paths.get(m_daemonSocket), new TestflowDaemon.RequestHandler() {
+            @Override
+            public int run(final String[] args) throws Exception {
+                TestflowRunnerApplication request = new TestflowRunnerApplication();
+                m_currentRequest = request;
+                try {
+                    return request.runRequest(args);
+                } finally {
+                    m_currentRequest = null;
+                }
+            }
+
+            @Override
+            public void abort() {
+                TestflowRunnerApplication request = m_currentRequest;
+                if (request != null) {
+                    request.stop();
+                }
+            }
+        });
+        if (m_stopped) {
+            return EXIT_OK;
+        }
+        m_daemon.run();
+        return EXIT_OK;
+    }
+
+    /**
+     * Runs the testflows for a single request to the daemon. The application has already been initialized by the
+     * daemon, therefore this only parses the arguments and runs the testflows.
+     */
+    private int runRequest(final String[] args) throws Exception {
+        final long startTime = System.currentTimeMillis();
+        if (Arrays.asList(args).contains("-preferences")) {
+            // preferences are global and would silently remain in effect for all following requests
+            System.err.println("-preferences cannot be used for runs in a daemon, pass it when starting the daemon.");
+            return 1;
+        }
+        if (!extractCommandLineArgs(args) || !hasRequiredArguments()) {
+            printUsage(System.err);
+            return EXIT_OK;
+        }
+        if ((m_workerCount > 0) || (m_workerPort > 0) || (m_daemonSocket != null)) {
+            System.err.println("-workers and -daemon cannot be used for runs in a daemon.");
+            return 1;
+        }
+
+        AbstractXMLResultWriter resultWriter = createResultWriter();
+        prepareRootDirs();
+        return runAllTests(resultWriter, startTime);
+    }
+
     private void dispatchLoop(final Display display) {
         while (!m_stopped) {
             try {
@@ -226,21 +401,6 @@ private void dispatchLoop(final Display display) {
         m_leftDispatchLoop = true;
     }
 
-    private void copyRootDirs() throws IOException {
-        Collection<File> newRootDirs = new ArrayList<File>();
-
-        File tempDir = FileUtil.createTempDir("tempTestRootDirs");
-
-        for (File rootDir : m_rootDirs) {
-            File tempRoot = new File(tempDir, rootDir.getName());
-            FileUtil.copyDir(rootDir, tempRoot);
-            newRootDirs.add(tempRoot);
-        }
-
-        m_rootDirs.clear();
-        m_rootDirs.addAll(newRootDirs);
-    }
-
     /**
      * Searches the root directory for testflows and executes each of them.
      *
@@ -252,7 +412,20 @@ private void copyRootDirs() throws IOException {
     private int runAllTests(final AbstractXMLResultWriter resultWriter, final long globalStartTime) throws IOException,
         TransformerException {
         TestflowCollector registry = new TestflowCollector(m_workflowNamePattern, m_workflowPathPattern, m_rootDirs);
-        Collection<WorkflowTestSuite> allTestFlows = registry.collectTestCases(m_runConfiguration);
+        registry.setIndexFile(m_discoveryIndexFile);
+        registry.setCopiedRootDirs(m_copiedRootDirs);
+        if (m_zipCacheDir != null) {
+            registry.setExtractionCache(new ZipExtractionCache(m_zipCacheDir, m_zipCacheSize * 1024 * 1024));
+        }
+        if (m_shard != null) {
+            // only an explicitly given history is the same for all shards
+            m_shard.readHistory(m_timingHistoryFile);
+        }
+        Map<String, TestflowTimingStore.Timing> history = readTimingHistory();
+        Collection<WorkflowTestSuite> allTestFlows = registry.collectTestCases(m_runConfiguration, m_shard);
+        if (m_testflowOrder != null) {
+            allTestFlows = orderTestflows(allTestFlows, history);
+        }
 
         if (allTestFlows.size() == 0) {
             System.err.println("No testflows found, exiting");
@@ -268,29 +441,33 @@ private int runAllTests(final AbstractXMLResultWriter resultWriter, final long g
         final PrintStream syserr = System.err; // we save and use the copy because some test may re-assign it
         resultWriter.startSuites();
 
-        for (WorkflowTestSuite testFlow : allTestFlows) {
-            if (m_stopped) {
-                syserr.println("Tests aborted");
-                break;
-            }
-            Thread.currentThread().setName("Testflow executor (" + testFlow.getName() + ")");
-            sysout.printf("[%1$tH:%1$tM:%1$tS.%1$tL] => Running %2$-" + maxNameLength + "s...", new Date(),
-                testFlow.getName());
-            long startTime = System.currentTimeMillis();
-            WorkflowTestResult result = WorkflowTestSuite.runTest(testFlow, resultWriter);
-            long duration = System.currentTimeMillis() - startTime;
-            long totalRuntime = System.currentTimeMillis() - globalStartTime;
-            if (result.errorCount() > 0) {
-                sysout.printf("%-7s (%7.3f s -- %8.3f s)%n", "ERROR", (duration / 1000.0), (totalRuntime / 1000.0));
-            } else if (result.failureCount() > 0) {
-                sysout.printf("%-7s (%7.3f s -- %8.3f s)%n", "FAILURE", (duration / 1000.0), (totalRuntime / 1000.0));
-            } else {
-                sysout.printf("%-7s (%7.3f s -- %8.3f s)%n", "OK", (duration / 1000.0), (totalRuntime / 1000.0));
-            }
-            resultWriter.addResult(result);
-
-            if (m_untestedNodesTest != null) {
-                m_untestedNodesTest.addNodesUnderTest(testFlow.getNodesUnderTest());
+        if (m_workerCount > 0) {
+            runTestsInWorkers(allTestFlows, resultWriter, globalStartTime, maxNameLength, sysout, syserr);
+        } else if (m_parallelTestflows > 1) {
+            runTestsInParallel(allTestFlows, resultWriter, globalStartTime, maxNameLength, sysout, syserr);
+        } else {
+            List<WorkflowTestSuite> testFlows = new ArrayList<>(allTestFlows);
+            try (TestflowPrefetcher prefetcher = new TestflowPrefetcher()) {
+                for (int i = 0; i < testFlows.size(); i++) {
+                    WorkflowTestSuite testFlow = testFlows.get(i);
+                    if (m_stopped) {
+                        syserr.println("Tests aborted");
+                        break;
+                    }
+                    if (i + 1 < testFlows.size()) {
+                        // read the next testflow from disk while this one is torn down
+                        File nextWorkflowDir = testFlows.get(i + 1).getWorkflowDir();
+                        testFlow.setTeardownListener(() -> prefetcher.prefetch(nextWorkflowDir));
+                    }
+                    Thread.currentThread().setName("Testflow executor (" + testFlow.getName() + ")");
+                    sysout.printf("[%1$tH:%1$tM:%1$tS.%1$tL] => Running %2$-" + maxNameLength + "s...", new Date(),
+                        testFlow.getName());
+                    long startTime = System.currentTimeMillis();
+                    WorkflowTestResult result = runTestflow(testFlow, resultWriter);
+                    long duration = System.currentTimeMillis() - startTime;
+                    printResultStatus(sysout, result, duration, System.currentTimeMillis() - globalStartTime);
+                    collectResult(testFlow, result, resultWriter);
+                }
             }
         }
 
@@ -311,6 +488,312 @@ private int runAllTests(final AbstractXMLResultWriter resultWriter, final long g
         return EXIT_OK;
     }
 
+    private Map<String, TestflowTimingStore.Timing> readTimingHistory() throws IOException {
+        if (m_testflowOrder == null) {
+            return Collections.emptyMap();
+        }
+        File historyFile = (m_timingHistoryFile != null) ? m_timingHistoryFile : m_timingStore.getFile();
+        if (!historyFile.isFile()) {
+            System.err.println("No timing history found in " + historyFile + ", testflows are run in default order");
+            return Collections.emptyMap();
+        }
+        return TestflowTimingStore.readHistory(historyFile);
+    }
+
+    /**
+     * Orders the testflows according to the order given on the command line. Testflows without any history keep their
+     * relative order and are run first, because they have never been run before.
+     */
+    private Collection<WorkflowTestSuite> orderTestflows(final Collection<WorkflowTestSuite> testflows,
+        final Map<String, TestflowTimingStore.Timing> history) {
+        Function<WorkflowTestSuite, TestflowTimingStore.Timing> timing =
+            t -> history.get(TestflowTimingStore.normalizeName(t.getName()));
+
+        Comparator<WorkflowTestSuite> comparator;
+        if (ORDER_LONGEST_FIRST.equals(m_testflowOrder)) {
+            comparator = Comparator.comparingLong(t -> {
+                TestflowTimingStore.Timing tim = timing.apply(t);
+                return (tim != null) ? -tim.duration() : Long.MIN_VALUE;
+            });
+        } else {
+            // failed testflows first, the most recently failed one at the beginning
+            comparator = Comparator.comparingLong(t -> {
+                TestflowTimingStore.Timing tim = timing.apply(t);
+                if (tim == null) {
+                    return Long.MIN_VALUE;
+                } else if (tim.isFailed()) {
+                    return -tim.startTime();
+                } else {
+                    return 0;
+                }
+            });
+        }
+
+        List<WorkflowTestSuite> sorted = new ArrayList<>(testflows);
+        sorted.sort(comparator); // stable, so testflows with equal keys keep their relative order
+        return sorted;
+    }
+
+    /**
+     * Runs the testflows in {@link #m_parallelTestflows} parallel slots, see {@link ParallelTestflowRunner}.
+     */
+    private void runTestsInParallel(final Collection<WorkflowTestSuite> allTestFlows,
+        final AbstractXMLResultWriter resultWriter, final long globalStartTime, final int maxNameLength,
+        final PrintStream sysout, final PrintStream syserr) throws IOException, TransformerException {
+        ParallelTestflowRunner<WorkflowTestSuite> runner = new ParallelTestflowRunner<>(m_parallelTestflows,
+            WorkflowTestSuite::isRunExclusively, () -> m_stopped);
+        runner.run(allTestFlows, testFlow -> {
+            String threadName = Thread.currentThread().getName();
+            Thread.currentThread().setName("Testflow executor (" + testFlow.getName() + ")");
+            long startTime = System.currentTimeMillis();
+            WorkflowTestResult result = runTestflow(testFlow, resultWriter);
+            long duration = System.currentTimeMillis() - startTime;
+            synchronized (sysout) {
+                sysout.printf("[%1$tH:%1$tM:%1$tS.%1$tL] => Finished %2$-" + maxNameLength + "s...",
+                    new Date(), testFlow.getName());
+                printResultStatus(sysout, result, duration, System.currentTimeMillis() - globalStartTime);
+            }
+            collectResult(testFlow, result, resultWriter);
+            Thread.currentThread().setName(threadName);
+        });
+
+        if (m_stopped) {
+            syserr.println("Tests aborted");
+        }
+    }
+
+    /**
+     * Runs the testflows in {@link #m_workerCount} separate worker JVMs, see {@link TestflowWorkerPool}.
+     */
+    private void runTestsInWorkers(final Collection<WorkflowTestSuite> allTestFlows,
+        final AbstractXMLResultWriter resultWriter, final long globalStartTime, final int maxNameLength,
+        final PrintStream sysout, final PrintStream syserr) throws IOException, TransformerException {
+        File workDir = FileUtil.createTempDir("TestflowWorkers");
+        m_workerPool = new TestflowWorkerPool(m_workerCount, createWorkerCommand(), workDir, resultWriter,
+            m_timingStore.getFile(), 1000L * m_runConfiguration.getTimeout());
+        if (m_stopped) {
+            m_workerPool.stop();
+        }
+
+        try {
+            m_workerPool.run(allTestFlows, (testFlow, status, duration, nodesUnderTest) -> {
+                synchronized (sysout) {
+                    sysout.printf("[%1$tH:%1$tM:%1$tS.%1$tL] => Finished %2$-" + maxNameLength + "s...",
+                        new Date(), testFlow.getName());
+                    printStatus(sysout, status, duration, System.currentTimeMillis() - globalStartTime);
+                }
+                if (m_untestedNodesTest != null) {
+                    m_untestedNodesTest.addNodesUnderTest(nodesUnderTest);
+                }
+            });
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for worker JVMs to finish", ex);
+        }
+
+        if (m_stopped) {
+            syserr.println("Tests aborted");
+        }
+    }
+
+    /**
+     * Creates the command line for starting a worker JVM. It is the command line of this process with all
+     * application arguments except <tt>-workers</tt>, and without <tt>-data</tt> because each worker needs its own
+     * workspace.
+     */
+    private List<String> createWorkerCommand() throws IOException {
+        List<String> command = new ArrayList<>();
+        ProcessHandle.Info info = ProcessHandle.current().info();
+        if (info.command().isPresent() && info.arguments().isPresent()) {
+            command.add(info.command().get());
+            command.addAll(Arrays.asList(info.arguments().get()));
+        } else if (System.getProperty("eclipse.vm") != null) {
+            // fallback to the properties that Eclipse's launcher sets for restarting the application
+            command.add(System.getProperty("eclipse.vm"));
+            for (String property : new String[]{"eclipse.vmargs", "eclipse.commands"}) {
+                for (String arg : System.getProperty(property, "").split("\\R")) {
+                    if (!arg.isEmpty()) {
+                        command.add(arg);
+                    }
+                }
+            }
+        } else {
+            throw new IOException("Cannot determine the command line of this process for starting worker JVMs");
+        }
+
+        // the application arguments are at the end of the command line
+        int argsStart = command.size() - m_applicationArgs.length;
+        if ((argsStart < 1) || !command.subList(argsStart, command.size()).equals(Arrays.asList(m_applicationArgs))) {
+            throw new IOException("Cannot find the application arguments in the command line of this process: "
+                + String.join(" ", command));
+        }
+        command.subList(argsStart, command.size()).clear();
+
+        int dataIndex = command.indexOf("-data");
+        if ((dataIndex >= 0) && (dataIndex + 1 < command.size())) {
+            command.subList(dataIndex, dataIndex + 2).clear();
+        }
+
+        for (int i = 0; i < m_applicationArgs.length; i++) {
+            if ("-workers".equals(m_applicationArgs[i])) {
+                i++; // skip the value as well
+            } else {
+                command.add(m_applicationArgs[i]);
+            }
+        }
+        return command;
+    }
+
+    /**
+     * Runs testflows as a worker for a coordinator started with <tt>-workers</tt>, see {@link TestflowWorkerPool}.
+     */
+    private int runAsWorker() throws IOException, TransformerException, ParserConfigurationException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), m_workerPort);
+                BufferedReader in =
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out =
+                    new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line = in.readLine();
+            String[] config = (line != null) ? line.split("\t", -1) : new String[0];
+            if ((config.length != 3) || !TestflowWorkerPool.CMD_CONFIG.equals(config[0])) {
+                throw new IOException("Unexpected message from coordinator: " + line);
+            }
+            AbstractXMLResultWriter resultWriter = new XMLResultDirWriter(new File(config[1]), m_outputToSeparateFile);
+            resultWriter.setNodeProfileProperties(m_nodeProfileProperties);
+            m_timingStore = new TestflowTimingStore(new File(config[2]));
+            System.setProperty("knime.testing.result-dir", config[1]);
+
+            while (!m_stopped) {
+                out.print(TestflowWorkerPool.CMD_NEXT + "\n");
+                out.flush();
+
+                line = in.readLine();
+                String[] command = (line != null) ? line.split("\t", -1) : new String[]{TestflowWorkerPool.CMD_STOP};
+                if (TestflowWorkerPool.CMD_STOP.equals(command[0])) {
+                    break;
+                } else if ((command.length != 4) || !TestflowWorkerPool.CMD_RUN.equals(command[0])) {
+                    throw new IOException("Unexpected message from coordinator: " + line);
+                }
+
+                WorkflowTestSuite testFlow = new WorkflowTestSuite(command[1], new File(command[2]),
+                    new File(command[3]), m_runConfiguration, null);
+                Thread.currentThread().setName("Testflow executor (" + testFlow.getName() + ")");
+                WorkflowTestResult result = runTestflow(testFlow, resultWriter);
+                resultWriter.addResult(result);
+                result.dispose();
+
+                Set<String> nodesUnderTest = testFlow.getNodesUnderTest();
+                out.print(TestflowWorkerPool.CMD_FINISHED + "\t" + getResultStatus(result) + "\t"
+                    + ((nodesUnderTest != null) ? String.join(",", nodesUnderTest) : "") + "\n");
+                out.flush();
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Runs a single testflow. In incremental mode unchanged testflows are only reported as skipped.
+     */
+    private WorkflowTestResult runTestflow(final WorkflowTestSuite testFlow, final AbstractXMLResultWriter resultWriter)
+        throws IOException {
+        if (m_heapDumpDir != null) {
+            testFlow.setMemLeakHeapDumpDir(m_heapDumpDir);
+        }
+        if (m_checkResourceLeaks) {
+            testFlow.addResourceLeakTest();
+        }
+        if (m_reuseWorkflowForStreaming) {
+            testFlow.reuseWorkflowForStreaming();
+        }
+        if (m_streamingMaxSlowdown >= 0) {
+            testFlow.setStreamingMaxSlowdown(m_streamingMaxSlowdown);
+        }
+        if (m_perfBaseline != null) {
+            testFlow.addPerformanceTest(m_perfIterations, m_perfBaseline, m_updatePerfBaseline, m_runConfiguration);
+        }
+        if (m_incrementalState == null) {
+            return runMonitored(testFlow, resultWriter);
+        }
+
+        String inputHash = m_incrementalState.computeInputHash(testFlow);
+        Set<String> cachedNodes = m_incrementalState.getUnchangedNodesUnderTest(testFlow, inputHash);
+        if (cachedNodes != null) {
+            // the timing store is not notified, otherwise the history would contain the durations of skipped runs
+            return WorkflowTestSuite.reportCached(testFlow, cachedNodes, resultWriter);
+        }
+
+        WorkflowTestResult result = runMonitored(testFlow, resultWriter);
+        m_incrementalState.update(testFlow, inputHash, result);
+        return result;
+    }
+
+    /**
+     * Runs a single testflow while the resource sampler and the Flight Recorder record the JVM's behavior, if
+     * enabled. The flight recording is only kept if the testflow did not succeed.
+     */
+    private WorkflowTestResult runMonitored(final WorkflowTestSuite testFlow,
+        final AbstractXMLResultWriter resultWriter) throws IOException {
+        ResourceSampler sampler = null;
+        if (m_sampleInterval > 0) {
+            sampler = new ResourceSampler(resultWriter.getResourceSamplesFile(testFlow.getName()), m_sampleInterval);
+            sampler.start();
+        }
+        TestflowFlightRecording recording =
+            (m_jfrDir != null) ? TestflowFlightRecording.start(testFlow.getName()) : null;
+
+        WorkflowTestResult result = null;
+        try {
+            result = WorkflowTestSuite.runTest(testFlow, resultWriter, m_timingStore);
+            return result;
+        } finally {
+            if (sampler != null) {
+                sampler.stop();
+            }
+            if ((recording != null) && ((result == null) || (result.errorCount() > 0) || (result.failureCount() > 0))) {
+                // timeouts are reported as failures by the execute test
+                recording.keep(new File(m_jfrDir, testFlow.getName() + ".jfr"));
+            } else if (recording != null) {
+                recording.discard();
+            }
+        }
+    }
+
+    private static void printResultStatus(final PrintStream sysout, final WorkflowTestResult result,
+        final long duration, final long totalRuntime) {
+        printStatus(sysout, getResultStatus(result), duration, totalRuntime);
+    }
+
+    private static String getResultStatus(final WorkflowTestResult result) {
+        if (result.errorCount() > 0) {
+            return TestflowTimingStore.ERROR;
+        } else if (result.failureCount() > 0) {
+            return TestflowTimingStore.FAILURE;
+        } else if (IncrementalTestState.isCached(result)) {
+            return "CACHED";
+        } else {
+            return TestflowTimingStore.OK;
+        }
+    }
+
+    private static void printStatus(final PrintStream sysout, final String status, final long duration,
+        final long totalRuntime) {
+        sysout.printf("%-7s (%7.3f s -- %8.3f s)%n", status, (duration / 1000.0), (totalRuntime / 1000.0));
+    }
+
+    private void collectResult(final WorkflowTestSuite testFlow, final WorkflowTestResult result,
+        final AbstractXMLResultWriter resultWriter) throws TransformerException, IOException {
+        try {
+            resultWriter.addResult(result);
+        } finally {
+            // deletes the temporary files with the captured output
+            result.dispose();
+        }
+
+        if (m_untestedNodesTest != null) {
+            m_untestedNodesTest.addNodesUnderTest(testFlow.getNodesUnderTest());
+        }
+    }
+
     /**
      * Extracts from the passed object the arguments. Returns <code>true</code> if everything went smooth,
      * <code>false</code> if the application must exit.
@@ -325,6 +808,7 @@ private boolean extractCommandLineArgs(final Object args) throws IOException, Co
         String[] stringArgs;
         if (args instanceof String[]) {
             stringArgs = (String[])args;
+            m_applicationArgs = stringArgs;
             if ((stringArgs.length > 0) && stringArgs[0].equals("-pdelaunch")) {
                 String[] copy = new String[stringArgs.length - 1];
                 System.arraycopy(stringArgs, 1, copy, 0, copy.length);
@@ -432,6 +916,9 @@ private boolean extractCommandLineArgs(final Object args) throws IOException, Co
             } else if (stringArgs[i].equals("-outputToSeparateFile")) {
                 i++;
                 m_outputToSeparateFile = true;
+            } else if (stringArgs[i].equals("-profileProperties")) {
+                i++;
+                m_nodeProfileProperties = true;
             } else if (stringArgs[i].equals("-save")) {
                 if (m_runConfiguration.getSaveLocation() != null) {
                     System.err.println("Multiple -save arguments not allowed");
@@ -480,6 +967,60 @@ private boolean extractCommandLineArgs(final Object args) throws IOException, Co
                     return false;
                 }
                 m_runConfiguration.setAllowedMemoryIncrease(Integer.parseInt(stringArgs[i++]));
+            } else if (stringArgs[i].equals("-memLeaksHeapDump")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <directory_name> for option -memLeaksHeapDump.");
+                    return false;
+                }
+                m_heapDumpDir = new File(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-sampleResources")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <millis> for option -sampleResources.");
+                    return false;
+                }
+                m_sampleInterval = Long.parseLong(stringArgs[i++]);
+                if (m_sampleInterval < 1) {
+                    System.err.println("Sampling interval must be at least 1 millisecond.");
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-jfr")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <directory_name> for option -jfr.");
+                    return false;
+                }
+                m_jfrDir = new File(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-resourceLeaks")) {
+                m_checkResourceLeaks = true;
+                i++;
+            } else if (stringArgs[i].equals("-perf")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <iterations> for option -perf.");
+                    return false;
+                }
+                m_perfIterations = Integer.parseInt(stringArgs[i++]);
+                if (m_perfIterations < 1) {
+                    System.err.println("Number of performance test iterations must be at least 1.");
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-perfBaseline")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <directory_name> for option -perfBaseline.");
+                    return false;
+                }
+                m_perfBaselineDir = stringArgs[i++];
+            } else if (stringArgs[i].equals("-updatePerfBaseline")) {
+                m_updatePerfBaseline = true;
+                i++;
             } else if (stringArgs[i].equals("-dialogs")) {
                 m_runConfiguration.setTestDialogs(true);
                 i++;
@@ -526,9 +1067,136 @@ private boolean extractCommandLineArgs(final Object args) throws IOException, Co
                 }
                 m_runConfiguration.addFlowVariable(var);
                 i++;
+            } else if (stringArgs[i].equals("-parallel")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <n> for option -parallel.");
+                    return false;
+                }
+                m_parallelTestflows = Integer.parseInt(stringArgs[i++]);
+                if (m_parallelTestflows < 1) {
+                    System.err.println("Number of parallel testflows must be at least 1.");
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-shard")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <i>/<n> for option -shard.");
+                    return false;
+                }
+                try {
+                    m_shard = TestflowShard.parse(stringArgs[i++]);
+                } catch (IllegalArgumentException ex) {
+                    System.err.println(ex.getMessage());
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-timings")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <file_name> for option -timings.");
+                    return false;
+                }
+                m_timingHistoryFile = new File(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-order")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <order> for option -order.");
+                    return false;
+                }
+                m_testflowOrder = stringArgs[i++];
+                if (!ORDER_LONGEST_FIRST.equals(m_testflowOrder) && !ORDER_FAILED_FIRST.equals(m_testflowOrder)) {
+                    System.err.println("Invalid order '" + m_testflowOrder + "', must be one of "
+                        + ORDER_LONGEST_FIRST + " or " + ORDER_FAILED_FIRST + ".");
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-incremental")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <state_dir> for option -incremental.");
+                    return false;
+                }
+                try {
+                    m_incrementalState = new IncrementalTestState(new File(stringArgs[i++]), stringArgs);
+                } catch (IOException ex) {
+                    System.err.println("Could not initialize the state for option -incremental: "
+                        + ex.getMessage());
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-discoveryIndex")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <file_name> for option -discoveryIndex.");
+                    return false;
+                }
+                m_discoveryIndexFile = new File(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-zipCache")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <directory_name> for option -zipCache.");
+                    return false;
+                }
+                m_zipCacheDir = new File(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-zipCacheSize")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <megabytes> for option -zipCacheSize.");
+                    return false;
+                }
+                m_zipCacheSize = Long.parseLong(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-workers")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <n> for option -workers.");
+                    return false;
+                }
+                m_workerCount = Integer.parseInt(stringArgs[i++]);
+                if (m_workerCount < 1) {
+                    System.err.println("Number of worker JVMs must be at least 1.");
+                    return false;
+                }
+            } else if (stringArgs[i].equals("-worker")) {
+                i++;
+                // requires another argument, only used internally by -workers
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <port> for option -worker.");
+                    return false;
+                }
+                m_workerPort = Integer.parseInt(stringArgs[i++]);
+            } else if (stringArgs[i].equals("-daemon")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <socket_file> for option -daemon.");
+                    return false;
+                }
+                m_daemonSocket = stringArgs[i++];
             } else if(stringArgs[i].equals("-streaming")) {
                 m_runConfiguration.setEnableStreamingMode(true);
                 i++;
+            } else if (stringArgs[i].equals("-streamingReuseWorkflow")) {
+                m_reuseWorkflowForStreaming = true;
+                i++;
+            } else if (stringArgs[i].equals("-streamingMaxSlowdown")) {
+                i++;
+                // requires another argument
+                if ((i >= stringArgs.length) || (stringArgs[i] == null) || (stringArgs[i].length() == 0)) {
+                    System.err.println("Missing <percent> for option -streamingMaxSlowdown.");
+                    return false;
+                }
+                m_streamingMaxSlowdown = Integer.parseInt(stringArgs[i++]);
+                if (m_streamingMaxSlowdown < 0) {
+                    System.err.println("Maximum slowdown of the streaming test must not be negative.");
+                    return false;
+                }
             } else if (stringArgs[i].equals("-eclipse.password") || stringArgs[i].equals("-eclipse.keyring")) {
                 // proxy arguments, nothing to do for us, skip flag and value
                 i += 2;
@@ -538,52 +1206,163 @@ private boolean extractCommandLineArgs(final Object args) throws IOException, Co
             }
         }
 
+        if ((m_parallelTestflows > 1) && (m_workerCount > 0)) {
+            System.err.println("-parallel cannot be combined with -workers.");
+            return false;
+        }
+
+        if ((m_heapDumpDir != null) && !m_runConfiguration.isCheckMemoryLeaks()) {
+            System.err.println("-memLeaksHeapDump requires -memLeaks.");
+            return false;
+        }
+
+        if ((m_parallelTestflows > 1) && m_runConfiguration.isCheckMemoryLeaks()) {
+            System.err.println("-memLeaks cannot be combined with -parallel because the heap is shared by all "
+                + "concurrently running testflows.");
+            return false;
+        }
+
+        if ((m_parallelTestflows > 1) && m_checkResourceLeaks) {
+            System.err.println("-resourceLeaks cannot be combined with -parallel because threads, file handles, and "
+                + "the temp directory are shared by all concurrently running testflows.");
+            return false;
+        }
+
+        if ((m_perfIterations > 0) && ((m_parallelTestflows > 1) || (m_workerCount > 0))) {
+            System.err.println("-perf cannot be combined with -parallel or -workers because concurrently running "
+                + "testflows distort the execution times.");
+            return false;
+        }
+
+        if ((m_parallelTestflows > 1) && (m_sampleInterval > 0)) {
+            System.err.println("-sampleResources cannot be combined with -parallel because the samples of the JVM "
+                + "include all concurrently running testflows.");
+            return false;
+        }
+
+        if ((m_parallelTestflows > 1) && (m_jfrDir != null)) {
+            System.err.println("-jfr cannot be combined with -parallel because a recording contains the events of all "
+                + "concurrently running testflows.");
+            return false;
+        }
+
         return true;
     }
 
-    private void printUsage() {
-        System.err.println("Valid arguments:");
+    /**
+     * Prints the description of all arguments.
+     *
+     * @param out the stream to which the description is printed
+     */
+    static void printUsage(final PrintStream out) {
+        out.println("Valid arguments:");
 
-        System.err.println("    -include <regex>: only tests matching the regular expression <regex> will be run. "
+        out.println("    -include <regex>: only tests matching the regular expression <regex> will be run. "
                 + "The complete path of each testcase starting from the testflows' root directory is matched, "
                 + "e.g. '/Misc/Workflow'.");
-        System.err.println("    -root <dir_name>: optional, specifies the root dir where all testcases are located in."
+        out.println("    -root <dir_name>: optional, specifies the root dir where all testcases are located in."
                 + " Multiple root arguments may be present.");
-        System.err.println("    -server <uri>: optional, a KNIME server  from which workflows should be downloaded"
+        out.println("    -server <uri>: optional, a KNIME server  from which workflows should be downloaded"
                 + " first. Has to be used with -serverPath.");
-        System.err.println("                   Example: " + "http://<user>:<password>@host[:port]/knime/rest");
-        System.err.println("    -serverPath <path>: optional, a path on the KNIME Server that specifies which workflows "
+        out.println("                   Example: " + "http://<user>:<password>@host[:port]/knime/rest");
+        out.println("    -serverPath <path>: optional, a path on the KNIME Server that specifies which workflows "
             + "should be downloaded first.");
-        System.err.println("                   Example: " + "/workflowGroup1/workflowGroup2");
-        System.err.println("    -xmlResult <file_name>: specifies a single XML  file where the test results are"
+        out.println("                   Example: " + "/workflowGroup1/workflowGroup2");
+        out.println("    -xmlResult <file_name>: specifies a single XML  file where the test results are"
                 + " written to.");
-        System.err.println("    -xmlResultDir <directory_name>: specifies the directory "
+        out.println("    -xmlResultDir <directory_name>: specifies the directory "
                 + " into which each test result is written to as an XML files. Either -xmlResult or -xmlResultDir must"
                 + " be provided.");
-        System.err.println("    -outputToSeparateFile: optional, specifies that system out and system err are written "
+        out.println("    -outputToSeparateFile: optional, specifies that system out and system err are written "
                 + "to a separate text file instead of being included in the XML result file (similar to Surefire)");
-        System.err.println("    -loadSaveLoad: optional, loads, saves, and loads the workflow before execution.");
-        System.err.println("    -deprecated: optional, reports deprecated nodes in workflows as failures.");
-        System.err.println("    -views: optional, opens all views during a workflow test.");
-        System.err.println("    -dialogs: optional, additional tests all node dialogs.");
-        System.err.println("    -logMessages: optional, checks for required or unexpected log messages.");
-        System.err.println("    -ignoreNodeMessages: optional, ignores any warning messages on nodes.");
-        System.err.println("    -untestedNodes <comma seperated list of plugin ids>: optional, "
+        out.println("    -profileProperties: optional, adds the execution profile of each node (which is always "
+                + "written into a separate <testflow>-profile.tsv file) as properties to the XML results.");
+        out.println("    -loadSaveLoad: optional, loads, saves, and loads the workflow before execution.");
+        out.println("    -deprecated: optional, reports deprecated nodes in workflows as failures.");
+        out.println("    -views: optional, opens all views during a workflow test.");
+        out.println("    -dialogs: optional, additional tests all node dialogs.");
+        out.println("    -logMessages: optional, checks for required or unexpected log messages.");
+        out.println("    -ignoreNodeMessages: optional, ignores any warning messages on nodes.");
+        out.println("    -untestedNodes <comma seperated list of plugin ids>: optional, "
             + "checks for untested nodes, only nodes from the provided list of plugins are considered");
-        System.err.println("    -untestedNodesReportDir <directory_path>: optional, write untested nodes "
+        out.println("    -untestedNodesReportDir <directory_path>: optional, write untested nodes "
             + "report as csv to the given directoy, instead of reporting via junit, requires -untestedNodes.");
-        System.err.println("    -save <directory_name>: optional, specifies the directory "
+        out.println("    -save <directory_name>: optional, specifies the directory "
                 + " into which each testflow is saved after execution. If not specified the workflows are not saved.");
-        System.err.println("    -timeout <seconds>: optional, specifies the timeout for each individual workflow.");
-        System.err.println("    -stacktraceOnTimeout: optional, if specified output a full stack trace in case of"
+        out.println("    -timeout <seconds>: optional, specifies the timeout for each individual workflow.");
+        out.println("    -stacktraceOnTimeout: optional, if specified output a full stack trace in case of"
                 + " timeouts.");
-        System.err.println("    -memLeaks <bytes>: optional, specifies the maximum allowed increaes in heap usage for "
+        out.println("    -memLeaks <bytes>: optional, specifies the maximum allowed increaes in heap usage for "
                 + "each testflow. If not specified no test for memory leaks is performed.");
-        System.err.println("    -streaming: optional, enables additional streaming test for workflows configured "
+        out.println("    -memLeaksHeapDump <directory_name>: optional, writes a heap dump into the given "
+            + "directory for each testflow that exceeds the allowed increase in heap usage, requires -memLeaks.");
+        out.println("    -sampleResources <millis>: optional, records heap usage, garbage collections, CPU "
+            + "time, threads, tasks of the KNIME thread pool, and I/O of the JVM every <millis> milliseconds while a "
+            + "testflow is running. The samples are written into a separate <testflow>-resources.csv file. Cannot be "
+            + "combined with -parallel.");
+        out.println("    -jfr <directory_name>: optional, records each testflow with the Java Flight Recorder "
+            + "(low-overhead default settings). Recordings of testflows that fail, have errors, or time out are "
+            + "written as <testflow>.jfr into the given directory, all others are discarded. Cannot be combined with "
+            + "-parallel.");
+        out.println("    -resourceLeaks: optional, checks for threads, direct and mapped buffers, file handles, "
+            + "and files in the temp directory that are left behind after a testflow has been closed. The tolerated "
+            + "increases are configured in the Testflow Configuration node. Cannot be combined with -parallel.");
+        out.println("    -perf <iterations>: optional, executes each testflow <iterations> more times after its "
+            + "regular execution and compares the execution times with a baseline. The testflow fails if it is "
+            + "significantly slower than the maximum slowdown configured in its Testflow Configuration node. Cannot "
+            + "be combined with -parallel or -workers.");
+        out.println("    -perfBaseline <directory_name>: optional, the directory with the baseline for -perf. "
+            + "By default the directory 'perf-baseline' in the result directory is used. Testflows without baseline "
+            + "use their current execution times as baseline.");
+        out.println("    -updatePerfBaseline: optional, replaces the baseline with the execution times of all "
+            + "testflows that passed the performance test.");
+        out.println("    -parallel <n>: optional, runs up to <n> testflows concurrently in this JVM. Testflows that "
+            + "must run alone can opt out in their Testflow Configuration node. Cannot be combined with -workers, "
+            + "-memLeaks, -resourceLeaks, -perf, -jfr, or -sampleResources.");
+        out.println("    -daemon <socket_file>: optional, initializes KNIME once and then runs the testflows "
+            + "requested over the Unix domain socket <socket_file> until the application is stopped. No other "
+            + "arguments are required. Requests are sent with 'java -cp <org.knime.testing.application> "
+            + TestflowRunnerClient.class.getName() + " <socket_file> <arguments>' using the arguments described here, "
+            + "except for -preferences, which must be passed when starting the daemon. Only the user who started the "
+            + "daemon can connect to the socket.");
+        out.println("    -workers <n>: optional, runs the testflows in <n> separate JVMs. If a JVM crashes, "
+            + "the testflow it was running is reported as an error and a new JVM is started. The same happens if a JVM "
+            + "does not finish a testflow within the -timeout plus 30 minutes. Cannot be combined with -parallel.");
+        out.println("    -shard <i>/<n>: optional, only runs the i-th of n disjoint parts of all matching "
+            + "testflows (1 <= i <= n). All shards must be given the same testflows. Testflows are distributed by "
+            + "their durations only if all shards are given the same -timings file, otherwise by a hash of their "
+            + "name. Use a separate -xmlResult or -xmlResultDir for each shard.");
+        out.println("    -order <order>: optional, runs the testflows ordered by their history, either "
+            + "'" + ORDER_LONGEST_FIRST + "' or '" + ORDER_FAILED_FIRST + "'. New testflows are always run first.");
+        out.println("    -timings <file_name>: optional, the timing history used by -shard and -order. "
+            + "For -order the file '" + TestflowTimingStore.FILE_NAME + "' in the result directory is used by "
+            + "default, into which the durations of all testflows and sub-tests are appended. -shard only uses an "
+            + "explicitly given file.");
+        out.println("    -incremental <state_dir>: optional, skips testflows that have been run successfully "
+            + "before and whose workflow directory, referenced mountpoint files, sub-tests, run options (including the "
+            + "content of the -preferences file), and node bundle versions have not changed since. The state of the "
+            + "last successful runs is kept in <state_dir>.");
+        out.println("    -discoveryIndex <file_name>: optional, keeps the listings of all searched directories "
+            + "in the given file. Directories whose modification time has not changed since the last run are not "
+            + "listed again, which speeds up the search for testflows on network file systems.");
+        out.println("    -zipCache <directory_name>: optional, keeps the extracted content of zipped testflows "
+            + "in the given directory so that unchanged zip files are not extracted again. The cached testflows are "
+            + "copied before they are used. The directory may be shared by concurrent runs.");
+        out.println("    -zipCacheSize <megabytes>: optional, the size above which the least recently used "
+            + "entries are removed from the -zipCache directory, default is " + DEFAULT_ZIP_CACHE_SIZE + " MB.");
+        out.println("    -streaming: optional, enables additional streaming test for workflows configured "
             + "accordingly. The test streaming job manager is set and used for each single node.");
-        System.err.println("    -preferences <file_name>: optional, specifies an exported preferences file that should"
+        out.println("    -streamingReuseWorkflow: optional, runs the streaming test on the already executed "
+            + "workflow before it is closed instead of loading it again. All nodes that were not executed when the "
+            + "workflow was loaded are reset. The workflow is closed after the log messages have been checked, "
+            + "therefore messages logged while closing it are not checked. The execution times in streaming and "
+            + "default mode are logged.");
+        out.println("    -streamingMaxSlowdown <percent>: optional, lets the streaming test fail if the workflow "
+            + "takes more than <percent> percent (and at least one second) longer to execute in streaming mode than "
+            + "in default mode.");
+        out.println("    -preferences <file_name>: optional, specifies an exported preferences file that should"
                 + " be used to initialize preferences");
-        System.err.println("    -workflow.variable <variable-declaration>: optional, defines or overwrites workflow "
+        out.println("    -workflow.variable <variable-declaration>: optional, defines or overwrites workflow "
                 +  "variable 'name' with value 'value' (possibly enclosed by quotes). The 'type' must be one "
                 +  "of \"String\", \"int\" or \"double\".");
 
@@ -645,6 +1424,14 @@ private static FlowVariable createWorkflowVariable(final String[] args) {
     @Override
     public void stop() {
         m_stopped = true;
+        TestflowWorkerPool pool = m_workerPool;
+        if (pool != null) {
+            pool.stop();
+        }
+        TestflowDaemon daemon = m_daemon;
+        if (daemon != null) {
+            daemon.stop();
+        }
     }
 
     private File downloadWorkflows() throws IOException, CoreException, URISyntaxException, PermissionException,
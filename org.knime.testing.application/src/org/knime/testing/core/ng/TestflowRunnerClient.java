@@ -0,0 +1,166 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Thin client for a testflow runner that has been started with <tt>-daemon &lt;socket_file&gt;</tt>. It sends its
+ * arguments to the daemon, prints the console output of the run and exits with the run's exit code. The client only
+ * depends on the JDK and is started with
+ *
+ * <pre>
+ * java -cp &lt;org.knime.testing.application&gt; org.knime.testing.core.ng.TestflowRunnerClient &lt;socket_file&gt;
+ *     &lt;testflow runner arguments&gt;
+ * </pre>
+ *
+ * Relative paths in arguments are resolved against the client's working directory, because the daemon may run in a
+ * different one.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public final class TestflowRunnerClient {
+    /** Frame type for output to <tt>System.out</tt>. */
+    static final byte FRAME_STDOUT = 1;
+
+    /** Frame type for output to <tt>System.err</tt>. */
+    static final byte FRAME_STDERR = 2;
+
+    /** Frame type for the exit code, which is the last frame of a run. */
+    static final byte FRAME_EXIT = 3;
+
+    /** The options of the testflow runner whose argument is a file or directory. */
+    static final Set<String> PATH_OPTIONS = Set.of("-root", "-xmlResult", "-xmlResultDir", "-save", "-preferences",
+        "-untestedNodesReportDir", "-memLeaksHeapDump", "-jfr", "-perfBaseline", "-timings", "-incremental",
+        "-discoveryIndex", "-zipCache");
+
+    private TestflowRunnerClient() {
+    }
+
+    /**
+     * Sends a run request to the daemon.
+     *
+     * @param args the socket file followed by the arguments for the testflow runner
+     * @throws IOException if the communication with the daemon fails
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TestflowRunnerClient <socket_file> <testflow runner arguments>");
+            System.exit(2);
+        }
+
+        String[] runArgs = resolvePaths(Arrays.copyOfRange(args, 1, args.length));
+        int exitCode;
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(args[0]))) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(runArgs.length);
+            for (String arg : runArgs) {
+                out.writeUTF(arg);
+            }
+            out.flush();
+
+            exitCode = readOutput(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
+        }
+        System.exit(exitCode);
+    }
+
+    private static int readOutput(final DataInputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == FRAME_EXIT) {
+                    return in.readInt();
+                }
+                int length = in.readInt();
+                if (buffer.length < length) {
+                    buffer = new byte[length];
+                }
+                in.readFully(buffer, 0, length);
+                if (type == FRAME_STDERR) {
+                    System.err.write(buffer, 0, length);
+                    System.err.flush();
+                } else {
+                    System.out.write(buffer, 0, length);
+                    System.out.flush();
+                }
+            }
+        } catch (EOFException ex) { // NOSONAR
+            System.err.println("Connection to testflow runner daemon lost");
+            return 1;
+        }
+    }
+
+    /**
+     * Resolves the arguments of path options against the working directory.
+     *
+     * @param args the arguments for the testflow runner
+     * @return the arguments with absolute paths
+     */
+    static String[] resolvePaths(final String[] args) {
+        String[] resolved = args.clone();
+        for (int i = 0; i < resolved.length - 1; i++) {
+            if (PATH_OPTIONS.contains(resolved[i])) {
+                i++;
+                resolved[i] = new File(resolved[i]).getAbsolutePath();
+            }
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Selects the part of all collected testflows that should be run by one of several independent test runs ("shards").
+ * The assignment only depends on the testflow names and the timing history, therefore all shards agree on it as long
+ * as they see the same testflows and the same timing history. A history is therefore only used if it is explicitly
+ * shared by all shards, see {@link #readHistory(File)}. If durations of previous runs are available, testflows
+ * are distributed with a greedy bin-packing (longest testflow first into the currently least loaded shard) so that all
+ * shards finish at roughly the same time. Otherwise testflows are assigned by a hash of their name.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowShard {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowShard.class);
+
+    private final int m_index;
+
+    private final int m_count;
+
+    private final Map<String, Long> m_durations = new HashMap<>();
+
+    /**
+     * Creates a new shard.
+     *
+     * @param index the 1-based index of this shard
+     * @param count the total number of shards
+     */
+    TestflowShard(final int index, final int count) {
+        if ((count < 1) || (index < 1) || (index > count)) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count);
+        }
+        m_index = index;
+        m_count = count;
+    }
+
+    /**
+     * Parses a shard specification of the form <tt>i/n</tt>.
+     *
+     * @param spec the specification
+     * @return a new shard
+     * @throws IllegalArgumentException if the specification is invalid
+     */
+    static TestflowShard parse(final String spec) {
+        int slash = spec.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Shard must be given as <i>/<n>, got '" + spec + "'");
+        }
+        try {
+            return new TestflowShard(Integer.parseInt(spec.substring(0, slash).trim()),
+                Integer.parseInt(spec.substring(slash + 1).trim()));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Shard must be given as <i>/<n>, got '" + spec + "'", ex);
+        }
+    }
+
+    /**
+     * Reads the durations of previous runs that are used for distributing the testflows from a timing file shared by
+     * all shards. Each shard's own timing file in its result directory must not be used, because the shards would then
+     * compute different assignments and run some testflows twice and others not at all. Without a shared file the
+     * testflows are assigned by a hash of their name.
+     *
+     * @param sharedHistoryFile the timing file given to all shards, may be <code>null</code>
+     * @throws IOException if an I/O error occurs while reading the file
+     */
+    void readHistory(final File sharedHistoryFile) throws IOException {
+        m_durations.clear();
+        if (sharedHistoryFile == null) {
+            LOGGER.info("No shared timing history given, assigning testflows to shards by name");
+        } else if (!sharedHistoryFile.isFile()) {
+            LOGGER.warn(
+                "Timing history " + sharedHistoryFile + " does not exist, assigning testflows to shards by name");
+        } else {
+            setHistory(TestflowTimingStore.readHistory(sharedHistoryFile));
+        }
+    }
+
+    /**
+     * Sets the durations of previous runs that are used for distributing the testflows.
+     *
+     * @param history the timing history, see {@link TestflowTimingStore#readHistory(java.io.File)}
+     */
+    void setHistory(final Map<String, TestflowTimingStore.Timing> history) {
+        m_durations.clear();
+        history.forEach((name, timing) -> m_durations.put(name, timing.duration()));
+    }
+
+    /**
+     * Returns the testflows that belong to this shard, in their original order.
+     *
+     * @param <T> the type of the testflows
+     * @param allTestflows all collected testflows
+     * @param nameFunction function that returns the (unique) name of a testflow
+     * @return the testflows of this shard
+     */
+    <T> List<T> select(final Collection<T> allTestflows, final Function<T, String> nameFunction) {
+        Set<String> names = new HashSet<>();
+        for (T t : allTestflows) {
+            names.add(TestflowTimingStore.normalizeName(nameFunction.apply(t)));
+        }
+        Set<String> myNames = assign(names);
+
+        List<T> selected = new ArrayList<>();
+        for (T t : allTestflows) {
+            if (myNames.contains(TestflowTimingStore.normalizeName(nameFunction.apply(t)))) {
+                selected.add(t);
+            }
+        }
+        return selected;
+    }
+
+    private Set<String> assign(final Set<String> names) {
+        Set<String> myNames = new HashSet<>();
+        if (names.stream().noneMatch(m_durations::containsKey)) {
+            LOGGER.info("No timing history available, assigning testflows to shards by name");
+            for (String name : names) {
+                if (Math.floorMod(name.hashCode(), m_count) == m_index - 1) {
+                    myNames.add(name);
+                }
+            }
+            return myNames;
+        }
+
+        // testflows without history (e.g. new ones) are assumed to take as long as the average known testflow
+        long defaultDuration = Math.round(names.stream().filter(m_durations::containsKey)
+            .mapToLong(m_durations::get).average().orElse(0));
+        List<String> sortedNames = new ArrayList<>(names);
+        sortedNames.sort(Comparator
+            .<String> comparingLong(n -> m_durations.getOrDefault(n, defaultDuration)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+
+        long[] load = new long[m_count];
+        for (String name : sortedNames) {
+            int minShard = 0;
+            for (int i = 1; i < m_count; i++) {
+                if (load[i] < load[minShard]) {
+                    minShard = i;
+                }
+            }
+            load[minShard] += Math.max(1, m_durations.getOrDefault(name, defaultDuration));
+            if (minShard == m_index - 1) {
+                myNames.add(name);
+            }
+        }
+        LOGGER.info("Expected duration of shard " + this + " is " + (load[m_index - 1] / 1000) + "s");
+        return myNames;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return m_index + "/" + m_count;
+    }
+}
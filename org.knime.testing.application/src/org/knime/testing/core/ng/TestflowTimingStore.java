@@ -0,0 +1,258 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.knime.core.node.NodeLogger;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.Test;
+import junit.framework.TestListener;
+
+/**
+ * Append-only store for the wall times of testflows and their sub-tests. Each finished test is written immediately as
+ * a single tab-separated line
+ *
+ * <pre>
+ * &lt;start time (ms since epoch)&gt; &lt;testflow name&gt; &lt;sub-test name&gt; &lt;duration (ms)&gt; &lt;result&gt;
+ * </pre>
+ *
+ * where the sub-test name is empty for the whole testflow and the result is one of <tt>OK</tt>, <tt>FAILURE</tt>, or
+ * <tt>ERROR</tt>. Lines are never rewritten, so the file accumulates the history of all runs that used the same result
+ * directory. Later lines for the same testflow supersede earlier ones when the history is read.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowTimingStore implements TestListener {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowTimingStore.class);
+
+    /** The name of the timing file inside the result directory. */
+    static final String FILE_NAME = "testflow-timings.tsv";
+
+    static final String OK = "OK";
+
+    static final String FAILURE = "FAILURE";
+
+    static final String ERROR = "ERROR";
+
+    /**
+     * The most recent recorded run of a testflow.
+     *
+     * @param startTime the start time in milliseconds since the epoch
+     * @param duration the wall time in milliseconds
+     * @param result the result, one of {@link #OK}, {@link #FAILURE}, or {@link #ERROR}
+     */
+    record Timing(long startTime, long duration, String result) {
+        boolean isFailed() {
+            return !OK.equals(result);
+        }
+    }
+
+    private final File m_file;
+
+    private final Map<Test, Long> m_startTimes = new ConcurrentHashMap<>();
+
+    private final Map<Test, String> m_results = new ConcurrentHashMap<>();
+
+    /** Worst result of any sub-test per testflow name. */
+    private final Map<String, String> m_testflowResults = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new timing store that appends to the given file.
+     *
+     * @param file the timing file, which is created if it does not exist yet
+     */
+    TestflowTimingStore(final File file) {
+        m_file = file;
+    }
+
+    /**
+     * Returns the file into which the timings are written.
+     *
+     * @return the timing file
+     */
+    File getFile() {
+        return m_file;
+    }
+
+    /**
+     * Reads the most recent timing of each testflow from a timing file. Invalid lines are ignored.
+     *
+     * @param file a timing file
+     * @return a map from testflow names (always with <tt>/</tt> as separator) to their most recent timing
+     * @throws IOException if an I/O error occurs while reading the file
+     */
+    static Map<String, Timing> readHistory(final File file) throws IOException {
+        Map<String, Timing> history = new HashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split("\t", -1);
+                if ((parts.length != 5) || !parts[2].isEmpty()) {
+                    // only the lines for whole testflows are relevant
+                    continue;
+                }
+                try {
+                    history.put(normalizeName(parts[1]),
+                        new Timing(Long.parseLong(parts[0]), Long.parseLong(parts[3]), parts[4]));
+                } catch (NumberFormatException ex) {
+                    LOGGER.debug("Ignoring invalid line in timing file " + file + ": " + line);
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Converts a testflow name into the form used as key in the history. Workflow names contain the platform's file
+     * separator, but the history must be usable regardless of the OS.
+     *
+     * @param name a testflow name
+     * @return the normalized name
+     */
+    static String normalizeName(final String name) {
+        return name.replace('\\', '/');
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void startTest(final Test test) {
+        m_startTimes.put(test, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addError(final Test test, final Throwable t) {
+        m_results.put(test, ERROR);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addFailure(final Test test, final AssertionFailedError t) {
+        m_results.merge(test, FAILURE, TestflowTimingStore::worst);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void endTest(final Test test) {
+        if (!(test instanceof WorkflowTest)) {
+            return;
+        }
+        Long startTime = m_startTimes.remove(test);
+        if (startTime == null) {
+            return;
+        }
+        long duration = System.currentTimeMillis() - startTime;
+        String testflowName = ((WorkflowTest)test).getWorkflowName();
+        String result = m_results.getOrDefault(test, OK);
+        m_results.remove(test);
+
+        String subTest;
+        if (test instanceof WorkflowTestSuite) {
+            subTest = "";
+            String subTestResult = m_testflowResults.remove(testflowName);
+            if (subTestResult != null) {
+                result = worst(result, subTestResult);
+            }
+        } else {
+            subTest = ((WorkflowTest)test).getName();
+            m_testflowResults.merge(testflowName, result, TestflowTimingStore::worst);
+        }
+
+        append(startTime + "\t" + clean(normalizeName(testflowName)) + "\t" + clean(subTest) + "\t" + duration + "\t"
+            + result + "\n");
+    }
+
+    private synchronized void append(final String line) {
+        boolean newFile = !m_file.exists();
+        try (Writer out = Files.newBufferedWriter(m_file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND)) {
+            if (newFile) {
+                out.write("# start\ttestflow\ttest\tmillis\tresult\n");
+            }
+            out.write(line);
+        } catch (IOException ex) {
+            LOGGER.warn("Could not write to timing file " + m_file + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static String clean(final String s) {
+        return s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    private static String worst(final String r1, final String r2) {
+        if (ERROR.equals(r1) || ERROR.equals(r2)) {
+            return ERROR;
+        } else if (FAILURE.equals(r1) || FAILURE.equals(r2)) {
+            return FAILURE;
+        } else {
+            return OK;
+        }
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+
+import org.knime.core.node.NodeLogger;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Coordinator that runs testflows in several separate worker JVMs. Each worker is a testflow runner started with the
+ * <tt>-worker</tt> option that connects to the coordinator over a local socket and repeatedly asks for the next
+ * testflow to run. All workers take their testflows from a shared queue, so a worker that finishes early simply takes
+ * over the remaining work of the others. If a worker JVM dies, e.g. because of a native crash or an
+ * {@link OutOfMemoryError}, the testflow it was running is reported as an error and a new worker is started. The
+ * same happens if a worker does not finish a testflow within the testflow timeout plus a generous margin, e.g.
+ * because it hangs in a deadlock that its own timeout handling cannot resolve; the worker is killed in this case.
+ *
+ * <p>
+ * The protocol consists of tab-separated lines:
+ * <ul>
+ * <li>coordinator &rarr; worker: <tt>CONFIG &lt;result dir&gt; &lt;timing file&gt;</tt> once after connecting</li>
+ * <li>worker &rarr; coordinator: <tt>NEXT</tt> to request a testflow</li>
+ * <li>coordinator &rarr; worker: <tt>RUN &lt;name&gt; &lt;workflow dir&gt; &lt;testcase root&gt;</tt> or
+ * <tt>STOP</tt></li>
+ * <li>worker &rarr; coordinator: <tt>FINISHED &lt;status&gt; &lt;comma-separated node factories&gt;</tt></li>
+ * </ul>
+ * Workers write their results with an {@link XMLResultDirWriter} into their own directory, from where the coordinator
+ * passes them on to its result writer.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowWorkerPool {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowWorkerPool.class);
+
+    static final String CMD_CONFIG = "CONFIG";
+
+    static final String CMD_NEXT = "NEXT";
+
+    static final String CMD_RUN = "RUN";
+
+    static final String CMD_STOP = "STOP";
+
+    static final String CMD_FINISHED = "FINISHED";
+
+    /** Number of consecutive failed worker starts after which a worker slot is given up. */
+    private static final int MAX_FAILED_STARTS = 3;
+
+    private static final long STARTUP_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int LOG_TAIL_BYTES = 8192;
+
+    /**
+     * Time that a worker may take for a testflow in addition to the testflow timeout, which only applies to single
+     * phases such as the execution, and which may be increased in the Testflow Configuration node.
+     */
+    private static final long READ_TIMEOUT_MARGIN = TimeUnit.MINUTES.toMillis(30);
+
+    /**
+     * Listener that is notified whenever a testflow has been finished by a worker.
+     */
+    interface Listener {
+        /**
+         * Called after the result of a testflow has been passed to the result writer. May be called concurrently.
+         *
+         * @param testflow the finished testflow
+         * @param status the result status, see {@link TestflowTimingStore}
+         * @param duration the duration in milliseconds
+         * @param nodesUnderTest the node factories that have been tested
+         * @throws IOException if an I/O error occurs
+         */
+        void testflowFinished(WorkflowTestSuite testflow, String status, long duration, Set<String> nodesUnderTest)
+            throws IOException;
+    }
+
+    private final int m_workerCount;
+
+    private final List<String> m_command;
+
+    private final File m_workDir;
+
+    private final AbstractXMLResultWriter m_resultWriter;
+
+    private final File m_timingFile;
+
+    private final int m_readTimeout;
+
+    private final Deque<WorkflowTestSuite> m_queue = new ConcurrentLinkedDeque<>();
+
+    private volatile boolean m_stopped;
+
+    /**
+     * Creates a new worker pool.
+     *
+     * @param workerCount the number of concurrently running worker JVMs
+     * @param command the command line for starting a worker, the worker specific arguments are appended
+     * @param workDir a directory for the workers' results, workspaces, and logs
+     * @param resultWriter the result writer into which all results are written
+     * @param timingFile the file into which the workers write the testflow timings
+     * @param testflowTimeout the timeout for testflows in milliseconds, a worker that does not finish a testflow
+     *            within this time plus a margin is killed
+     */
+    TestflowWorkerPool(final int workerCount, final List<String> command, final File workDir,
+        final AbstractXMLResultWriter resultWriter, final File timingFile, final long testflowTimeout) {
+        m_workerCount = workerCount;
+        m_command = new ArrayList<>(command);
+        m_workDir = workDir;
+        m_resultWriter = resultWriter;
+        m_timingFile = timingFile;
+        m_readTimeout = (int)Math.min(Integer.MAX_VALUE, testflowTimeout + READ_TIMEOUT_MARGIN);
+    }
+
+    /**
+     * Runs all testflows in the worker JVMs and returns after all of them have finished.
+     *
+     * @param testflows the testflows in the order in which they should be started
+     * @param listener a listener that is notified about finished testflows
+     * @throws IOException if an I/O error occurs
+     * @throws TransformerException if a result cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the workers
+     */
+    void run(final Collection<WorkflowTestSuite> testflows, final Listener listener)
+        throws IOException, TransformerException, InterruptedException {
+        m_queue.addAll(testflows);
+
+        ExecutorService executor = Executors.newFixedThreadPool(m_workerCount);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 1; i <= m_workerCount; i++) {
+            WorkerSlot slot = new WorkerSlot(i, listener);
+            futures.add(executor.submit(() -> {
+                Thread.currentThread().setName("Testflow worker #" + slot.m_index);
+                slot.run();
+                return null;
+            }));
+        }
+        executor.shutdown();
+
+        try {
+            for (Future<Void> f : futures) {
+                f.get();
+            }
+        } catch (ExecutionException ex) {
+            m_stopped = true;
+            if (ex.getCause() instanceof IOException ioEx) {
+                throw ioEx;
+            } else if (ex.getCause() instanceof TransformerException transEx) {
+                throw transEx;
+            } else if (ex.getCause() instanceof RuntimeException rtEx) {
+                throw rtEx;
+            } else {
+                throw new IOException(ex.getCause().getMessage(), ex.getCause());
+            }
+        }
+
+        // only happens if no worker could be started at all
+        WorkflowTestSuite testflow;
+        while (!m_stopped && ((testflow = m_queue.poll()) != null)) {
+            reportError(testflow, "No worker JVM could be started for running the testflow, see the logs in "
+                + m_workDir, 0, listener);
+        }
+    }
+
+    /**
+     * Stops handing out testflows to the workers. Testflows that are currently running are finished.
+     */
+    void stop() {
+        m_stopped = true;
+    }
+
+    private void reportError(final WorkflowTestSuite testflow, final String message, final long duration,
+        final Listener listener) throws IOException, TransformerException {
+        WorkflowTestResult result = new WorkflowTestResult(testflow);
+        result.addListener(m_resultWriter);
+        result.startTest(testflow);
+        result.addError(testflow, new IllegalStateException(message));
+        result.endTest(testflow);
+        m_resultWriter.addResult(result);
+        listener.testflowFinished(testflow, TestflowTimingStore.ERROR, duration, Collections.emptySet());
+    }
+
+    /**
+     * One slot of the pool, which runs one worker JVM at a time and restarts it if it dies.
+     */
+    private final class WorkerSlot {
+        private final int m_index;
+
+        private final Listener m_listener;
+
+        private final File m_resultDir;
+
+        private final File m_workspaceDir;
+
+        private final File m_logFile;
+
+        WorkerSlot(final int index, final Listener listener) {
+            m_index = index;
+            m_listener = listener;
+            m_resultDir = new File(m_workDir, "worker-" + index + "/results");
+            m_workspaceDir = new File(m_workDir, "worker-" + index + "/workspace");
+            m_logFile = new File(m_workDir, "worker-" + index + ".log");
+        }
+
+        void run() throws IOException, TransformerException, ParserConfigurationException, SAXException,
+            ProtocolException {
+            Files.createDirectories(m_resultDir.toPath());
+            Files.createDirectories(m_workspaceDir.toPath());
+
+            int failedStarts = 0;
+            while (!m_stopped && !m_queue.isEmpty() && (failedStarts < MAX_FAILED_STARTS)) {
+                if (runWorker()) {
+                    failedStarts = 0;
+                } else {
+                    failedStarts++;
+                }
+            }
+            if (failedStarts >= MAX_FAILED_STARTS) {
+                LOGGER.error("Giving up worker #" + m_index + " after " + failedStarts + " failed starts, see "
+                    + m_logFile);
+            }
+        }
+
+        /**
+         * Starts a worker JVM and hands out testflows until the queue is empty or the worker dies.
+         *
+         * @return <code>true</code> if the worker has connected, <code>false</code> if it could not be started
+         */
+        private boolean runWorker() throws IOException, TransformerException, ParserConfigurationException,
+            SAXException, ProtocolException {
+            try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                server.setSoTimeout(1000);
+
+                List<String> command = new ArrayList<>(m_command);
+                command.add("-data");
+                command.add(m_workspaceDir.getAbsolutePath());
+                command.add("-worker");
+                command.add(Integer.toString(server.getLocalPort()));
+                LOGGER.info("Starting worker #" + m_index + ": " + String.join(" ", command));
+                Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(Redirect.appendTo(m_logFile)).start();
+
+                try (Socket socket = accept(server, process)) {
+                    if (socket == null) {
+                        return false;
+                    }
+                    communicate(socket, process);
+                } finally {
+                    shutdown(process);
+                }
+                return true;
+            }
+        }
+
+        private Socket accept(final ServerSocket server, final Process process) throws IOException {
+            long startTime = System.currentTimeMillis();
+            while (true) {
+                try {
+                    return server.accept();
+                } catch (SocketTimeoutException ex) { // NOSONAR expected while the worker starts
+                    if (!process.isAlive()) {
+                        LOGGER.error("Worker #" + m_index + " terminated during startup with exit code "
+                            + process.exitValue() + ", see " + m_logFile);
+                        return null;
+                    } else if (m_stopped || (System.currentTimeMillis() - startTime > STARTUP_TIMEOUT)) {
+                        LOGGER.error("Worker #" + m_index + " did not connect in time, see " + m_logFile);
+                        process.destroyForcibly();
+                        return null;
+                    }
+                }
+            }
+        }
+
+        private void communicate(final Socket socket, final Process process) throws IOException,
+            TransformerException, ParserConfigurationException, SAXException, ProtocolException {
+            WorkflowTestSuite current = null;
+            long startTime = 0;
+            boolean timedOut = false;
+            try (BufferedReader in =
+                new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                    PrintWriter out = new PrintWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                socket.setSoTimeout(m_readTimeout);
+                send(out, CMD_CONFIG, m_resultDir.getAbsolutePath(), m_timingFile.getAbsolutePath());
+
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String[] parts = line.split("\t", -1);
+                    if (CMD_NEXT.equals(parts[0])) {
+                        current = m_stopped ? null : m_queue.poll();
+                        if (current == null) {
+                            send(out, CMD_STOP);
+                            return;
+                        }
+                        startTime = System.currentTimeMillis();
+                        send(out, CMD_RUN, current.getName(), current.getWorkflowDir().getAbsolutePath(),
+                            current.getTestcaseRoot().getAbsolutePath());
+                    } else if (CMD_FINISHED.equals(parts[0]) && (current != null)) {
+                        Set<String> nodesUnderTest = new HashSet<>();
+                        for (String factory : parts[2].split(",")) {
+                            if (!factory.isEmpty()) {
+                                nodesUnderTest.add(factory);
+                            }
+                        }
+                        transferResult(current);
+                        m_listener.testflowFinished(current, parts[1], System.currentTimeMillis() - startTime,
+                            nodesUnderTest);
+                        current = null;
+                    } else {
+                        // not an I/O problem of a dying worker, therefore not caught below
+                        throw new ProtocolException("Unexpected message from worker #" + m_index + ": " + line);
+                    }
+                }
+            } catch (SocketTimeoutException ex) { // NOSONAR handled below
+                LOGGER.error("Worker #" + m_index + " did not respond for " + (m_readTimeout / 1000)
+                    + " seconds, killing it");
+                timedOut = true;
+                process.destroyForcibly();
+            } catch (IOException ex) {
+                // the worker died, which is handled below
+                LOGGER.debug("Connection to worker #" + m_index + " lost: " + ex.getMessage(), ex);
+            }
+
+            if (current != null) {
+                shutdown(process);
+                // the samples show what the worker was doing before it died
+                moveSidecarFile(XMLResultDirWriter.getResourceSamplesFile(m_resultDir, current.getName()),
+                    m_resultWriter.getResourceSamplesFile(current.getName()));
+                String reason = timedOut ? ("did not finish the testflow within " + (m_readTimeout / 1000)
+                    + " seconds and has been killed") : ("terminated with exit code " + process.exitValue()
+                    + " while running the testflow");
+                reportError(current, "Worker JVM #" + m_index + " " + reason + ", last output:\n" + readLogTail(),
+                    System.currentTimeMillis() - startTime, m_listener);
+            }
+        }
+
+        private void transferResult(final WorkflowTestSuite testflow) throws IOException, TransformerException,
+            ParserConfigurationException, SAXException {
+            File resultFile = XMLResultDirWriter.getResultFile(m_resultDir, testflow.getName());
+            File outputFile = XMLResultDirWriter.getOutputFile(m_resultDir, testflow.getName());
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(resultFile);
+            m_resultWriter.addResult(doc, testflow.getName(), outputFile.isFile() ? outputFile : null);
+            Files.delete(resultFile.toPath());
+            Files.deleteIfExists(outputFile.toPath());
+
+            moveSidecarFile(XMLResultDirWriter.getNodeProfileFile(m_resultDir, testflow.getName()),
+                m_resultWriter.getNodeProfileFile(testflow.getName()));
+            moveSidecarFile(XMLResultDirWriter.getResourceSamplesFile(m_resultDir, testflow.getName()),
+                m_resultWriter.getResourceSamplesFile(testflow.getName()));
+        }
+
+        private void moveSidecarFile(final File file, final File destFile) throws IOException {
+            if (file.isFile()) {
+                Files.createDirectories(destFile.getParentFile().toPath());
+                Files.move(file.toPath(), destFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        private void shutdown(final Process process) {
+            try {
+                if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                    LOGGER.warn("Worker #" + m_index + " did not terminate, killing it");
+                    process.destroyForcibly().waitFor();
+                }
+            } catch (InterruptedException ex) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String readLogTail() {
+            try (RandomAccessFile log = new RandomAccessFile(m_logFile, "r")) {
+                long start = Math.max(0, log.length() - LOG_TAIL_BYTES);
+                byte[] tail = new byte[(int)(log.length() - start)];
+                log.seek(start);
+                log.readFully(tail);
+                return new String(tail, StandardCharsets.UTF_8);
+            } catch (IOException ex) {
+                return "<" + ex.getMessage() + ">";
+            }
+        }
+    }
+
+    private static void send(final PrintWriter out, final String... parts) {
+        out.print(String.join("\t", parts));
+        out.print('\n');
+        out.flush();
+    }
+
+    /**
+     * Thrown if a worker sends a message that violates the protocol. In contrast to an {@link IOException} it does not
+     * indicate that the worker has died and it aborts the whole run.
+     */
+    private static final class ProtocolException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        ProtocolException(final String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Creates a working copy of a mountpoint with only some of its workflows. The load-save-load test saves the workflows
+ * in place, therefore they must not be run in the original directory. Instead of copying the whole mountpoint, the
+ * working copy contains only the selected workflows, the workflows they reference via <tt>knime://</tt> URLs or
+ * workflow path settings, and all other files of the mountpoint that don't belong to a workflow, e.g. data files and
+ * components. All other workflows are left out. URLs relative to the mountpoint are followed for both the
+ * <tt>knime.mountpoint</tt> and the <tt>LOCAL</tt> mount ID, because the workflow tests mount the root directory as
+ * <tt>LOCAL</tt>. If a reference cannot be resolved, e.g. because it is malformed or a workflow path setting points
+ * outside the mountpoint, all workflows are copied, since the referenced workflow cannot be determined.
+ *
+ * <p>
+ * Only the saved port data of nodes (the content of their <tt>port_&lt;n&gt;</tt> directories) is hard-linked, because
+ * saving a workflow deletes and rewrites it but never changes it in place. All other files are copied, since nodes or
+ * the save step may write into them, and a hard link would then modify the original mountpoint. If hard links are
+ * not supported, e.g. because the working copy is on a different file system, port data is copied as well.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class TestflowWorkingCopy {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(TestflowWorkingCopy.class);
+
+    private static final Pattern MOUNTPOINT_URL =
+        Pattern.compile("knime://(?:knime\\.mountpoint|LOCAL)(/[^\"'<>\\s]*)");
+
+    private static final Pattern WORKFLOW_URL = Pattern.compile("knime://knime\\.workflow(/[^\"'<>\\s]*)");
+
+    /** String settings, the ones whose key contains "workflow" and "path" may be plain paths of called workflows. */
+    private static final Pattern STRING_SETTING =
+        Pattern.compile("<entry key=\"([^\"]*)\" type=\"xstring\" value=\"([^\"]*)\"");
+
+    private static final Pattern PORT_DIR = Pattern.compile("port_\\d+");
+
+    /** Files larger than this are not searched for references. */
+    private static final long MAX_SCANNED_FILE_SIZE = 1024 * 1024;
+
+    private final Path m_sourceRoot;
+
+    private final Path m_targetRoot;
+
+    private final Set<Path> m_workflows = new HashSet<>();
+
+    private boolean m_linksSupported = true;
+
+    /** <code>true</code> if a reference could not be resolved and therefore all workflows are copied. */
+    private boolean m_copyAll;
+
+    private int m_copiedWorkflows, m_copiedFiles, m_linkedFiles;
+
+    /**
+     * Creates a new working copy.
+     *
+     * @param sourceRoot the root directory of the mountpoint
+     * @param targetRoot the directory into which the working copy is written, must not exist yet
+     */
+    TestflowWorkingCopy(final File sourceRoot, final File targetRoot) {
+        m_sourceRoot = sourceRoot.toPath().toAbsolutePath().normalize();
+        m_targetRoot = targetRoot.toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Creates the working copy with the given workflows.
+     *
+     * @param workflowDirs the workflows that should be in the working copy, all inside the source root
+     * @throws IOException if an I/O error occurs
+     */
+    void create(final Collection<File> workflowDirs) throws IOException {
+        Deque<Path> pending = new ArrayDeque<>();
+        for (File dir : workflowDirs) {
+            pending.add(dir.toPath().toAbsolutePath().normalize());
+        }
+        while (!pending.isEmpty() && !m_copyAll) {
+            Path workflowDir = pending.poll();
+            if (m_workflows.add(workflowDir)) {
+                addReferencedWorkflows(workflowDir, pending);
+            }
+        }
+
+        Files.walkFileTree(m_sourceRoot, new SimpleFileVisitor<Path>() {
+            /** The selected workflow that is currently visited, <code>null</code> if outside a workflow. */
+            private Path m_currentWorkflow;
+
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                throws IOException {
+                if ((m_currentWorkflow == null) && isWorkflow(dir)) {
+                    if (!m_copyAll && !m_workflows.contains(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    m_currentWorkflow = dir;
+                    m_copiedWorkflows++;
+                }
+                Files.createDirectories(toTarget(dir));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile()) {
+                    transfer(file, toTarget(file), (m_currentWorkflow != null) && isPortData(m_currentWorkflow, file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                if (dir.equals(m_currentWorkflow)) {
+                    m_currentWorkflow = null;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        LOGGER.debug("Created working copy of " + m_copiedWorkflows + " workflows from '" + m_sourceRoot + "' in '"
+            + m_targetRoot + "' (" + m_copiedFiles + " files copied, " + m_linkedFiles + " files linked)");
+    }
+
+    /**
+     * Returns the location of a file from the source root in the working copy.
+     *
+     * @param file a file inside the source root
+     * @return the file in the working copy
+     */
+    File toWorkingCopy(final File file) {
+        return toTarget(file.toPath().toAbsolutePath().normalize()).toFile();
+    }
+
+    private Path toTarget(final Path source) {
+        return m_targetRoot.resolve(m_sourceRoot.relativize(source).toString());
+    }
+
+    private void transfer(final Path source, final Path target, final boolean link) throws IOException {
+        if (m_linksSupported && link) {
+            try {
+                Files.createLink(target, source);
+                m_linkedFiles++;
+                return;
+            } catch (UnsupportedOperationException | FileSystemException ex) {
+                LOGGER.debug("Could not create hard link to '" + source + "', copying all further files: "
+                    + ex.getMessage());
+                m_linksSupported = false;
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+        m_copiedFiles++;
+    }
+
+    /**
+     * Checks whether a file is saved port data of a node, i.e. it is inside a <tt>port_&lt;n&gt;</tt> directory of a
+     * node directory of the workflow.
+     */
+    private static boolean isPortData(final Path workflowDir, final Path file) {
+        for (Path dir = file.getParent(); (dir != null) && !dir.equals(workflowDir); dir = dir.getParent()) {
+            if (PORT_DIR.matcher(dir.getFileName().toString()).matches()
+                && Files.exists(dir.getParent().resolve("settings.xml"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWorkflow(final Path dir) {
+        return Files.exists(dir.resolve("workflow.knime")) && !Files.exists(dir.resolve("template.knime"));
+    }
+
+    /**
+     * Searches the settings of a workflow for URLs and workflow paths that point to other workflows in the mountpoint,
+     * e.g. called workflows, and adds them to the queue.
+     */
+    private void addReferencedWorkflows(final Path workflowDir, final Deque<Path> pending) throws IOException {
+        try (Stream<Path> files = Files.walk(workflowDir)) {
+            for (Path file : (Iterable<Path>)files::iterator) {
+                String name = file.getFileName().toString();
+                if ((name.endsWith(".xml") || name.endsWith(".knime")) && Files.isRegularFile(file)
+                    && (Files.size(file) <= MAX_SCANNED_FILE_SIZE)) {
+                    String content = Files.readString(file, StandardCharsets.ISO_8859_1);
+                    addReferences(MOUNTPOINT_URL.matcher(content), m_sourceRoot, pending);
+                    addReferences(WORKFLOW_URL.matcher(content), workflowDir, pending);
+                    addWorkflowPaths(STRING_SETTING.matcher(content), workflowDir, pending);
+                }
+            }
+        }
+    }
+
+    private void addReferences(final Matcher matcher, final Path base, final Deque<Path> pending) {
+        while (matcher.find()) {
+            try {
+                addReference(base.resolve(URLDecoder.decode(matcher.group(1).substring(1), StandardCharsets.UTF_8)),
+                    pending);
+            } catch (IllegalArgumentException ex) { // NOSONAR
+                // malformed URL, e.g. with a flow variable reference
+                copyAll(matcher.group());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the workflows of settings that contain a plain path to a workflow, e.g. the workflow path of a Call Workflow
+     * node. Absolute paths are relative to the mountpoint, other paths relative to the workflow.
+     */
+    private void addWorkflowPaths(final Matcher matcher, final Path workflowDir, final Deque<Path> pending) {
+        while (matcher.find()) {
+            String key = matcher.group(1).toLowerCase(Locale.ROOT);
+            String value = unescapeXml(matcher.group(2)).trim();
+            if (!key.contains("workflow") || !key.contains("path") || value.isEmpty() || value.startsWith("knime:")) {
+                // URLs are handled separately
+                continue;
+            }
+            Path referenced;
+            try {
+                referenced = value.startsWith("/") ? m_sourceRoot.resolve(value.substring(1))
+                    : workflowDir.resolve(value);
+            } catch (InvalidPathException ex) { // NOSONAR
+                referenced = null;
+            }
+            if ((referenced == null) || !addReference(referenced, pending)) {
+                copyAll(value);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the workflow that contains the referenced file to the queue. The file itself need not exist, e.g. if a node
+     * writes it into another workflow.
+     *
+     * @return <code>true</code> if the reference points to a workflow or an existing file inside the mountpoint,
+     *         <code>false</code> otherwise
+     */
+    private boolean addReference(final Path reference, final Deque<Path> pending) {
+        Path referenced = reference.normalize();
+        boolean exists = referenced.startsWith(m_sourceRoot) && Files.exists(referenced);
+        // only workflows need to be added, all other files of the mountpoint are always in the working copy
+        while ((referenced != null) && referenced.startsWith(m_sourceRoot) && !referenced.equals(m_sourceRoot)) {
+            if (isWorkflow(referenced)) {
+                pending.add(referenced);
+                return true;
+            }
+            referenced = referenced.getParent();
+        }
+        return exists;
+    }
+
+    private void copyAll(final String reference) {
+        if (!m_copyAll) {
+            LOGGER.info("Could not resolve reference '" + reference + "' in '" + m_sourceRoot
+                + "', copying all workflows into the working copy");
+            m_copyAll = true;
+        }
+    }
+
+    private static String unescapeXml(final String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'")
+            .replace("&amp;", "&");
+    }
+}
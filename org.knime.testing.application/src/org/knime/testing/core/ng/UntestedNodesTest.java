@@ -52,6 +52,7 @@
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -73,7 +74,7 @@
  */
 class UntestedNodesTest implements TestWithName {
 
-    private final Set<String> m_testedNodes = new HashSet<>();
+    private final Set<String> m_testedNodes = ConcurrentHashMap.newKeySet();
 
     private Set<String> m_includedPlugins;
 
@@ -213,7 +214,8 @@ public void createCSVReport(final Path outputDir) throws IOException {
     }
 
     /**
-     * Adds the given set of factory class names to the nodes under test.
+     * Adds the given set of factory class names to the nodes under test. This method may be called concurrently by
+     * several testflows.
      *
      * @param set a set with factory class names
      */
@@ -51,6 +51,8 @@
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
@@ -60,6 +62,7 @@
 import org.knime.core.data.util.memory.MemoryAlertListener;
 import org.knime.core.data.util.memory.MemoryAlertSystem;
 import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeID;
 import org.knime.core.node.workflow.WorkflowManager;
 import org.knime.core.util.Pair;
 
@@ -74,6 +77,8 @@
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
 class WorkflowCloseTest extends WorkflowTest {
+    private static final Set<NodeID> REPORTED_BUFFER_OWNERS = ConcurrentHashMap.newKeySet();
+
     WorkflowCloseTest(final String workflowName, final IProgressMonitor monitor, final WorkflowTestContext context) {
         super(workflowName, monitor, context);
     }
@@ -95,7 +100,8 @@ public void run(final TestResult result) {
     }
 
     /**
-     * Closes the workflow and check for dangling workflow managers and table buffers.
+     * Closes the workflow and check for dangling workflow managers and table buffers. If other testflows are running
+     * concurrently, their workflows and buffers are not considered.
      *
      * @param test the current test
      * @param result the test result to which problems are reported
@@ -107,6 +113,7 @@ static void closeWorkflow(final Test test, final TestResult result, final Workfl
 
         List<NodeContainer> openWorkflows = new ArrayList<NodeContainer>(WorkflowManager.ROOT.getNodeContainers());
         openWorkflows.removeAll(context.getAlreadyOpenWorkflows());
+        openWorkflows.removeIf(nc -> context.belongsToConcurrentTestflow(nc.getID()));
         for (Iterator<NodeContainer> it = openWorkflows.iterator(); it.hasNext();) {
             WorkflowManager wfm = (WorkflowManager)it.next();
             if (wfm.getNodeContainers().isEmpty()) {
@@ -120,19 +127,31 @@ static void closeWorkflow(final Test test, final TestResult result, final Workfl
                     + " dangling workflows detected: " + openWorkflows));
         }
 
-        openWorkflows = new ArrayList<>(WorkflowManager.EXTRACTED_WORKFLOW_ROOT.getNodeContainers());
-        if (!openWorkflows.isEmpty()) {
-            result.addFailure(test, new AssertionFailedError(
-                openWorkflows.size() + " dangling workflow fragments detected: " + openWorkflows));
+        if (!context.hasConcurrentTestflows()) {
+            openWorkflows = new ArrayList<>(WorkflowManager.EXTRACTED_WORKFLOW_ROOT.getNodeContainers());
+            if (!openWorkflows.isEmpty()) {
+                result.addFailure(test, new AssertionFailedError(
+                    openWorkflows.size() + " dangling workflow fragments detected: " + openWorkflows));
+            }
         }
 
+        // the buffer tracker is global, therefore buffers that have already been reported by a concurrently running
+        // testflow must not be reported again; it can only be cleared if no other testflow is running
         Collection<Pair<NodeContainer, StackTraceElement[]>> openBuffers =
-            BufferTracker.getInstance().getOpenBuffers();
+            BufferTracker.getInstance().getOpenBuffers().stream()
+                .filter(p -> !context.belongsToConcurrentTestflow(p.getFirst().getID()))
+                .filter(p -> !REPORTED_BUFFER_OWNERS.contains(p.getFirst().getID()))
+                .collect(Collectors.toList());
         if (!openBuffers.isEmpty()) {
             result.addFailure(test, new AssertionFailedError(openBuffers.size() + " open buffers detected: "
                 + openBuffers.stream().map(p -> p.getFirst().getNameWithID()).collect(Collectors.joining(", "))));
         }
-        BufferTracker.getInstance().clear();
+        if (context.hasConcurrentTestflows()) {
+            openBuffers.forEach(p -> REPORTED_BUFFER_OWNERS.add(p.getFirst().getID()));
+        } else {
+            BufferTracker.getInstance().clear();
+            REPORTED_BUFFER_OWNERS.clear();
+        }
     }
 
     private void sendMemoryAlert() throws InterruptedException {
@@ -64,12 +64,15 @@
 import org.knime.testing.streaming.testexecutor.StreamingTestNodeExecutionJob;
 import org.knime.testing.streaming.testexecutor.StreamingTestNodeExecutionJobManager;
 
+import junit.framework.AssertionFailedError;
 import junit.framework.TestResult;
 
 /**
  * Executes a workflows in streaming mode (i.e. sets for each single node the {@link StreamingTestNodeExecutionJob}) and
  * checks if all nodes are executed (except nodes that are supposed to fail). The workflow is canceled if it still
- * running after the configured timeout.
+ * running after the configured timeout. By default the workflow is loaded again; optionally the already executed
+ * workflow is reset instead, see {@link #setReuseWorkflow(boolean)}. The execution times in streaming and default mode
+ * are logged for comparison; optionally the test fails if streaming is much slower, see {@link #setMaxSlowdown(int)}.
  *
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  * @author Martin Horn, University of Konstanz
@@ -77,8 +80,18 @@
 class WorkflowExecuteStreamingTest extends WorkflowExecuteTest {
     private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowExecuteStreamingTest.class);
 
+    /**
+     * Differences in milliseconds below which a slowdown is never reported, because single measurements of short
+     * executions vary too much.
+     */
+    private static final long MIN_REPORTED_DIFFERENCE = 1000;
+
     private final File m_workflowDir;
 
+    private boolean m_reuseWorkflow;
+
+    private int m_maxSlowdown = -1;
+
     WorkflowExecuteStreamingTest(final File workflowDir, final File testcaseRoot, final String workflowName,
         final IProgressMonitor monitor, final TestrunConfiguration runConfiguration,
         final WorkflowTestContext context) {
@@ -87,6 +100,36 @@ class WorkflowExecuteStreamingTest extends WorkflowExecuteTest {
         m_workflowDir = workflowDir;
     }
 
+    /**
+     * Sets whether the workflow that has already been executed by the previous sub-tests is reset and executed again
+     * instead of loading the workflow a second time. Only nodes that were not executed when the workflow was loaded
+     * are reset. The test must then run before the workflow is closed.
+     *
+     * @param reuse <code>true</code> if the open workflow should be reused, <code>false</code> if it should be loaded
+     *            again
+     */
+    void setReuseWorkflow(final boolean reuse) {
+        m_reuseWorkflow = reuse;
+    }
+
+    /**
+     * Returns whether the open workflow is reused, see {@link #setReuseWorkflow(boolean)}.
+     *
+     * @return <code>true</code> if the open workflow is reused, <code>false</code> otherwise
+     */
+    boolean isReuseWorkflow() {
+        return m_reuseWorkflow;
+    }
+
+    /**
+     * Sets the maximum slowdown of the execution in streaming mode compared to the execution in default mode. If the
+     * streaming execution is slower, the test fails.
+     *
+     * @param percent the maximum slowdown in percent, -1 if the execution times should only be logged
+     */
+    void setMaxSlowdown(final int percent) {
+        m_maxSlowdown = percent;
+    }
 
     /**
      * {@inheritDoc}
@@ -96,14 +139,21 @@ public void run(final TestResult result) {
         try {
             var testflowConfiguration = m_context.getTestflowConfiguration();
             if (testflowConfiguration.runStreamingTest() && testflowConfiguration.executeWithCurrentTableBackend()) {
-                LOGGER.info("Loading workflow '" + m_workflowName + "' for streaming test");
-                WorkflowManager wfm =
-                    WorkflowLoadTest.loadWorkflow(this, result, m_workflowDir, m_testcaseRoot, m_runConfiguration);
-                m_context.setWorkflowManager(wfm);
+                if (m_reuseWorkflow) {
+                    LOGGER.info("Resetting workflow '" + m_workflowName + "' for streaming test");
+                    resetNonPreExecutedNodes(m_context.getWorkflowManager());
 
-                super.run(result);
+                    super.run(result);
+                } else {
+                    LOGGER.info("Loading workflow '" + m_workflowName + "' for streaming test");
+                    WorkflowManager wfm =
+                        WorkflowLoadTest.loadWorkflow(this, result, m_workflowDir, m_testcaseRoot, m_runConfiguration);
+                    m_context.setWorkflowManager(wfm);
 
-                WorkflowCloseTest.closeWorkflow(this, result, m_context);
+                    super.run(result);
+
+                    WorkflowCloseTest.closeWorkflow(this, result, m_context);
+                }
             } else {
                 ignoreTest(result);
             }
@@ -112,6 +162,41 @@ public void run(final TestResult result) {
         }
     }
 
+    /**
+     * Resets all nodes that were not already executed when the workflow was loaded, including the nodes inside
+     * metanodes and components.
+     */
+    private void resetNonPreExecutedNodes(final WorkflowManager wfm) {
+        for (NodeContainer node : wfm.getNodeContainers()) {
+            if (node instanceof SubNodeContainer snc) {
+                resetNonPreExecutedNodes(snc.getWorkflowManager());
+            } else if (node instanceof WorkflowManager metanode) {
+                resetNonPreExecutedNodes(metanode);
+            } else if (!m_context.isPreExecutedNode(node) && wfm.canResetNode(node.getID())) {
+                wfm.resetAndConfigureNode(node.getID());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void checkExecutionTime(final TestResult result, final long executionTime) {
+        long defaultTime = m_context.getExecutionTime(WorkflowExecuteTest.NAME);
+        if (defaultTime <= 0) {
+            return;
+        }
+        String message = String.format("Execution of workflow '%s' took %d ms in streaming mode and %d ms in default "
+            + "mode (factor %.2f)", m_workflowName, executionTime, defaultTime, executionTime / (double)defaultTime);
+        LOGGER.info(message);
+        if ((m_maxSlowdown >= 0) && (executionTime - defaultTime >= MIN_REPORTED_DIFFERENCE)
+            && (100.0 * (executionTime - defaultTime) / defaultTime > m_maxSlowdown)) {
+            result.addFailure(this, new AssertionFailedError(message + ", the maximum allowed slowdown is "
+                + m_maxSlowdown + "%"));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -81,6 +81,12 @@
 class WorkflowExecuteTest extends WorkflowTest {
 
     private final class WatchDog extends TimerTask {
+        /** Thread stacks are sampled during this last fraction of the timeout. */
+        private static final double SAMPLING_FRACTION = 0.2;
+
+        /** The number of most frequent stacks that are reported per node thread. */
+        private static final int REPORTED_STACKS = 3;
+
         private final TestflowConfiguration m_flowConfiguration;
 
         private final TestResult m_result;
@@ -89,6 +95,8 @@ private final class WatchDog extends TimerTask {
 
         private final long m_startTime = System.currentTimeMillis();
 
+        private final HotStackSampler m_hotStacks = new HotStackSampler();
+
         /**
          * @param flowConfiguration
          * @param result
@@ -119,6 +127,12 @@ private void internalRun() {
                     m_context.getWorkflowManager().printNodeSummary(m_context.getWorkflowManager().getID(), 0);
                 String message =
                     "Worklow running longer than " + (m_timeout / 1000.0) + " seconds.\n" + "Node status:\n" + status;
+                String hotStacks = m_hotStacks.getReport(REPORTED_STACKS);
+                if (!hotStacks.isEmpty()) {
+                    message += "\nMost frequent stacks of node threads during the last "
+                        + (m_timeout * SAMPLING_FRACTION / 1000.0) + " seconds (" + m_hotStacks.getSampleCount()
+                        + " samples):\n" + hotStacks;
+                }
                 if (m_runConfiguration.isStacktraceOnTimeout()) {
                     MemoryUsage usage = getHeapUsage();
 
@@ -138,10 +152,18 @@ private void internalRun() {
                 m_result.addFailure(WorkflowExecuteTest.this, new AssertionFailedError(message));
                 m_context.getWorkflowManager().getParent().cancelExecution(m_context.getWorkflowManager());
                 this.cancel();
+            } else if ((System.currentTimeMillis() > m_startTime + m_timeout * (1 - SAMPLING_FRACTION))
+                && !m_context.hasConcurrentTestflows()) {
+                // node threads cannot be attributed to a workflow, with concurrent testflows the stacks of their
+                // nodes would be reported, too
+                m_hotStacks.sample();
             }
         }
     }
 
+    /** The name of this test, under which it also records the execution time in the {@link WorkflowTestContext}. */
+    static final String NAME = "execute workflow";
+
     private static final Timer TIMEOUT_TIMER = new Timer("Workflow watchdog", true);
 
     /**
@@ -184,6 +206,7 @@ public void run(final TestResult result) {
         result.startTest(this);
 
         TimerTask watchdog = null;
+        NodeExecutionProfiler profiler = null;
         try {
 
             resetTestflowConfigNode();
@@ -196,9 +219,15 @@ public void run(final TestResult result) {
             watchdog = new WatchDog(flowConfiguration, result);
 
             TIMEOUT_TIMER.schedule(watchdog, 500, 500);
+            profiler = new NodeExecutionProfiler(m_context.getWorkflowManager());
+            profiler.start();
+            long startTime = System.currentTimeMillis();
             m_context.getWorkflowManager().executeAllAndWaitUntilDone();
+            long executionTime = System.currentTimeMillis() - startTime;
+            m_context.addExecutionTime(getName(), executionTime);
             if (!m_progressMonitor.isCanceled()) {
                 checkExecutionStatus(result, m_context.getWorkflowManager(), flowConfiguration);
+                checkExecutionTime(result, executionTime);
             }
         } catch (Throwable t) {
             result.addError(this, t);
@@ -210,6 +239,10 @@ public void run(final TestResult result) {
             if (watchdog != null) {
                 watchdog.cancel();
             }
+            if (profiler != null) {
+                profiler.stop();
+                m_context.addNodeProfiles(getName(), profiler.getProfiles());
+            }
         }
 
     }
@@ -224,12 +257,23 @@ private void resetTestflowConfigNode() {
         }
     }
 
+    /**
+     * Hook that is called after the workflow has been executed completely where the execution time can be checked.
+     * The default implementation does nothing.
+     *
+     * @param result the test result to which failures should be reported
+     * @param executionTime the execution time in milliseconds
+     */
+    protected void checkExecutionTime(final TestResult result, final long executionTime) {
+        // do nothing
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public String getName() {
-        return "execute workflow";
+        return NAME;
     }
 
     private void checkExecutionStatus(final TestResult result, final WorkflowManager wfm,
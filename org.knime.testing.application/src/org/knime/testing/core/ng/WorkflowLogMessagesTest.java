@@ -110,6 +110,9 @@ public void close() {
 
         @Override
         protected void append(final LoggingEvent event) {
+            if (isFromConcurrentTestflow(event)) {
+                return;
+            }
             if (!Level.ERROR.equals(event.getLevel())
                 || !X_RANDR_PATTERN.matcher(event.getRenderedMessage().trim()).matches()) {
                 m_logEvents.add(event);
@@ -165,6 +168,16 @@ public String getName() {
         return "log messages";
     }
 
+    /**
+     * Checks whether the log event belongs to another testflow that is running concurrently. The appender is
+     * registered at the root logger and therefore sees the messages of all testflows.
+     */
+    private boolean isFromConcurrentTestflow(final LoggingEvent event) {
+        final var nodeContext = NodeLogger.getNodeContext(event.getMessage());
+        return m_context.isFromConcurrentTestflow(nodeContext.map(c -> c.nodeID()).orElse(null),
+            event.getThreadName());
+    }
+
     private static void findSubNodes(final WorkflowManager root, final boolean inComponent, final boolean testSubnodes,
         final Set<NodeID> ignoredIDs) {
         for (NodeContainer node : root.getNodeContainers()) {
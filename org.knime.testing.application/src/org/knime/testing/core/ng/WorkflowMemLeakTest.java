@@ -47,30 +47,81 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.knime.core.node.NodeLogger;
 import org.knime.testing.core.TestrunConfiguration;
 
+import com.sun.management.HotSpotDiagnosticMXBean;
+
 import junit.framework.AssertionFailedError;
 import junit.framework.TestResult;
 
 /**
  * Testcase that checks the used heap before and after a testflows is run. If the difference is greater than the
- * threshold (see {@link TestrunConfiguration#getAllowedMemoryIncrease()} the test fails.
+ * threshold (see {@link TestrunConfiguration#getAllowedMemoryIncrease()} the test fails. Before each measurement
+ * garbage is collected repeatedly until the heap usage has settled. If supported by the JVM, class histograms are
+ * compared as well and the classes that have grown most are reported. Optionally a heap dump is written if the test
+ * fails.
  *
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
 public class WorkflowMemLeakTest extends WorkflowTest {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowMemLeakTest.class);
+
+    /** The maximum number of garbage collections before a measurement. */
+    private static final int MAX_GC_CYCLES = 10;
+
+    /** The time in milliseconds to wait after each garbage collection, e.g. for cleaners and asynchronous writes. */
+    private static final long SETTLE_MILLIS = 200;
+
+    /** The heap is considered settled if the usage changes by less than this number of bytes between two cycles. */
+    private static final long SETTLE_TOLERANCE = 1024 * 1024;
+
+    /** The number of grown classes that are reported. */
+    private static final int REPORTED_CLASSES = 15;
+
     private final TestrunConfiguration m_runConfiguration;
 
-    private final MemoryUsage m_initalUsage;
+    private MemoryUsage m_initalUsage;
+
+    private ClassHistogram m_initialHistogram;
+
+    private File m_heapDumpDir;
 
     WorkflowMemLeakTest(final String workflowName, final IProgressMonitor monitor,
                         final TestrunConfiguration runConfiguration, final WorkflowTestContext context) {
         super(workflowName, monitor, context);
         m_runConfiguration = runConfiguration;
-        m_initalUsage = getHeapUsage();
+    }
+
+    /**
+     * Sets the directory into which a heap dump is written if the test fails.
+     *
+     * @param dir the heap dump directory, <code>null</code> if no heap dump should be written
+     */
+    void setHeapDumpDir(final File dir) {
+        m_heapDumpDir = dir;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void aboutToStart() {
+        try {
+            m_initalUsage = getSettledHeapUsage();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            m_initalUsage = getHeapUsage();
+        }
+        m_initialHistogram = ClassHistogram.take();
     }
 
     /**
@@ -95,12 +146,25 @@ public void run(final TestResult result) {
         result.startTest(this);
 
         try {
-            MemoryUsage currentUsage = getHeapUsage();
+            MemoryUsage currentUsage = getSettledHeapUsage();
+            ClassHistogram currentHistogram = (m_initialHistogram != null) ? ClassHistogram.take() : null;
             long diff = currentUsage.getUsed() - m_initalUsage.getUsed();
+            if (currentHistogram != null) {
+                // the histogram only counts live objects and is therefore more accurate than the heap usage
+                diff = currentHistogram.getTotalBytes() - m_initialHistogram.getTotalBytes();
+            }
             if (diff > m_runConfiguration.getAllowedMemoryIncrease()) {
-                result.addFailure(this, new AssertionFailedError("Heap usage increased by " + diff
+                StringBuilder message = new StringBuilder("Heap usage increased by " + diff
                         + " bytes which is more than the allowed " + m_runConfiguration.getAllowedMemoryIncrease()
-                        + "bytes (before test: " + m_initalUsage.getUsed() + ", after test: " + currentUsage.getUsed()));
+                        + "bytes (before test: " + m_initalUsage.getUsed() + ", after test: " + currentUsage.getUsed()
+                        + ")");
+                if (currentHistogram != null) {
+                    appendGrowth(message, currentHistogram.getGrowth(m_initialHistogram, REPORTED_CLASSES));
+                }
+                if (m_heapDumpDir != null) {
+                    message.append("\nHeap dump: ").append(writeHeapDump());
+                }
+                result.addFailure(this, new AssertionFailedError(message.toString()));
             }
         } catch (Throwable t) {
             result.addError(this, t);
@@ -108,4 +172,47 @@ public void run(final TestResult result) {
             result.endTest(this);
         }
     }
+
+    /**
+     * Collects garbage repeatedly until the heap usage does not change any more (or the maximum number of cycles has
+     * been reached).
+     */
+    private static MemoryUsage getSettledHeapUsage() throws InterruptedException {
+        MemoryUsage usage = getHeapUsage();
+        for (int i = 1; i < MAX_GC_CYCLES; i++) {
+            Thread.sleep(SETTLE_MILLIS);
+            MemoryUsage next = getHeapUsage();
+            boolean settled = Math.abs(next.getUsed() - usage.getUsed()) < SETTLE_TOLERANCE;
+            usage = next;
+            if (settled) {
+                break;
+            }
+        }
+        return usage;
+    }
+
+    private static void appendGrowth(final StringBuilder message, final List<ClassHistogram.Delta> growth) {
+        if (growth.isEmpty()) {
+            return;
+        }
+        message.append("\nClasses with the largest growth (bytes, instances):");
+        for (ClassHistogram.Delta d : growth) {
+            message.append(String.format("\n    %+,15d %+,12d  %s", d.bytes(), d.instances(), d.className()));
+        }
+    }
+
+    private String writeHeapDump() {
+        File dumpFile = new File(m_heapDumpDir, getSuiteName() + "-memleak.hprof");
+        try {
+            Files.createDirectories(m_heapDumpDir.toPath());
+            // the heap dump fails if the file already exists
+            Files.deleteIfExists(dumpFile.toPath());
+            ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class).dumpHeap(dumpFile.getAbsolutePath(),
+                true);
+            return dumpFile.getAbsolutePath();
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Could not write heap dump " + dumpFile + ": " + ex.getMessage(), ex);
+            return "failed (" + ex.getMessage() + ")";
+        }
+    }
 }
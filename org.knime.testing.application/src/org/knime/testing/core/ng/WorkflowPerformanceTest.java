@@ -0,0 +1,270 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.WorkflowManager;
+import org.knime.testing.core.TestrunConfiguration;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.TestResult;
+
+/**
+ * Executes a workflow several times and compares the execution times with a stored baseline. The regular execution
+ * of the workflow serves as warm-up run, afterwards all nodes executed by it are reset and the workflow is executed
+ * again for the configured number of iterations. The total execution time and the execution time of each node are
+ * compared with the baseline using a Mann-Whitney U test. The test fails only if the workflow has become significantly
+ * slower and the slowdown of the median is larger than the maximum slowdown configured in the testflow configuration
+ * node. If there is no baseline yet, the measurements become the new baseline.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class WorkflowPerformanceTest extends WorkflowTest {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowPerformanceTest.class);
+
+    /** The significance level below which a slowdown is considered to be real. */
+    static final double SIGNIFICANCE_LEVEL = 0.05;
+
+    /** Nodes whose baseline median is below this time (in milliseconds) are not reported, they are mostly noise. */
+    private static final long MIN_REPORTED_NODE_TIME = 10;
+
+    /** The maximum number of slower nodes that are listed in the failure message. */
+    private static final int MAX_REPORTED_NODES = 5;
+
+    private final int m_iterations;
+
+    private final PerformanceBaseline m_baseline;
+
+    private final boolean m_updateBaseline;
+
+    private final TestrunConfiguration m_runConfiguration;
+
+    WorkflowPerformanceTest(final String workflowName, final IProgressMonitor monitor, final int iterations,
+        final PerformanceBaseline baseline, final boolean updateBaseline, final TestrunConfiguration runConfiguration,
+        final WorkflowTestContext context) {
+        super(workflowName, monitor, context);
+        m_iterations = iterations;
+        m_baseline = baseline;
+        m_updateBaseline = updateBaseline;
+        m_runConfiguration = runConfiguration;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(final TestResult result) {
+        if (!m_context.getTestflowConfiguration().executeWithCurrentTableBackend()) {
+            ignoreTest(result);
+            return;
+        }
+
+        result.startTest(this);
+        try {
+            Map<String, long[]> samples = measure(result);
+            if (samples != null) {
+                compareWithBaseline(result, samples);
+            }
+        } catch (Throwable t) {
+            result.addError(this, t);
+        } finally {
+            result.endTest(this);
+        }
+    }
+
+    /**
+     * Executes the workflow for the configured number of iterations.
+     *
+     * @return the samples for the total and per-node execution times, <code>null</code> if the workflow could not be
+     *         executed completely
+     */
+    private Map<String, long[]> measure(final TestResult result) throws InterruptedException {
+        final WorkflowManager wfm = m_context.getWorkflowManager();
+        final TestflowConfiguration flowConfiguration = m_context.getTestflowConfiguration();
+        final long timeout = 1000L * ((flowConfiguration.getTimeout() > 0) ? flowConfiguration.getTimeout()
+            : m_runConfiguration.getTimeout());
+
+        // only the nodes executed by the warm-up run are reset, nodes that have been saved in executed state may not
+        // be executable in this environment
+        Set<String> executedNodes = new HashSet<>();
+        for (List<NodeExecutionProfiler.NodeProfile> profiles : m_context.getNodeProfiles().values()) {
+            profiles.forEach(p -> executedNodes.add(p.nodeId()));
+        }
+
+        Map<String, long[]> samples = new LinkedHashMap<>();
+        long[] totals = new long[m_iterations];
+        samples.put(PerformanceBaseline.TOTAL_KEY, totals);
+        for (int i = 0; i < m_iterations; i++) {
+            if (m_progressMonitor.isCanceled()) {
+                result.addError(this, new InterruptedException("Testflow canceled by user"));
+                return null;
+            }
+
+            for (NodeContainer node : wfm.getNodeContainers()) {
+                if (executedNodes.contains(node.getID().toString()) && wfm.canResetNode(node.getID())) {
+                    wfm.resetAndConfigureNode(node.getID());
+                }
+            }
+
+            NodeExecutionProfiler profiler = new NodeExecutionProfiler(wfm);
+            profiler.start();
+            long start = System.nanoTime();
+            try {
+                wfm.executeAll();
+                if (!wfm.waitWhileInExecution(timeout, TimeUnit.MILLISECONDS)) {
+                    wfm.getParent().cancelExecution(wfm);
+                    result.addFailure(this, new AssertionFailedError("Iteration " + (i + 1) + " of the performance "
+                        + "test is running longer than " + (timeout / 1000.0) + " seconds."));
+                    return null;
+                }
+                totals[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            } finally {
+                profiler.stop();
+            }
+
+            for (NodeExecutionProfiler.NodeProfile p : profiler.getProfiles()) {
+                long[] nodeSamples = samples.computeIfAbsent(
+                    PerformanceBaseline.NODE_PREFIX + relativeNodeId(wfm, p.nodeId()), k -> new long[m_iterations]);
+                nodeSamples[i] = p.wallTime();
+            }
+            LOGGER.debug("Iteration " + (i + 1) + " of " + m_workflowName + " took " + totals[i] + "ms");
+        }
+        return samples;
+    }
+
+    /**
+     * Node IDs contain the ID of the workflow project, which changes with every load. The baseline therefore uses the
+     * IDs relative to the project.
+     */
+    private static String relativeNodeId(final WorkflowManager wfm, final String nodeId) {
+        String prefix = wfm.getID().toString() + ":";
+        return nodeId.startsWith(prefix) ? nodeId.substring(prefix.length()) : nodeId;
+    }
+
+    private void compareWithBaseline(final TestResult result, final Map<String, long[]> samples) throws Exception {
+        m_baseline.write(m_workflowName, samples, false);
+
+        Map<String, long[]> baseline = m_baseline.read(m_workflowName);
+        if ((baseline == null) || !baseline.containsKey(PerformanceBaseline.TOTAL_KEY)) {
+            LOGGER.info("No performance baseline for " + m_workflowName + " yet, using the current measurements");
+            m_baseline.write(m_workflowName, samples, true);
+            return;
+        }
+
+        long[] baseTotals = baseline.get(PerformanceBaseline.TOTAL_KEY);
+        long[] totals = samples.get(PerformanceBaseline.TOTAL_KEY);
+        double slowdown = PerformanceBaseline.slowdown(baseTotals, totals);
+        double pValue = PerformanceBaseline.pValue(baseTotals, totals);
+        String summary = String.format(Locale.US, "Median execution time %.0fms, baseline %.0fms (%+.1f%%, p=%.4f)",
+            PerformanceBaseline.median(totals), PerformanceBaseline.median(baseTotals), slowdown * 100, pValue);
+        LOGGER.info(m_workflowName + ": " + summary);
+
+        int maxSlowdown = m_context.getTestflowConfiguration().getMaxSlowdown();
+        if ((pValue < SIGNIFICANCE_LEVEL) && (slowdown * 100 > maxSlowdown)) {
+            StringBuilder message = new StringBuilder("Workflow is significantly slower than the baseline, the "
+                + "maximum allowed slowdown is " + maxSlowdown + "%.\n" + summary);
+            List<String> slowerNodes = getSlowerNodes(baseline, samples);
+            if (!slowerNodes.isEmpty()) {
+                message.append("\nSlower nodes:");
+                slowerNodes.forEach(s -> message.append("\n    ").append(s));
+            }
+            result.addFailure(this, new AssertionFailedError(message.toString()));
+        } else if (m_updateBaseline) {
+            m_baseline.write(m_workflowName, samples, true);
+        }
+    }
+
+    private static List<String> getSlowerNodes(final Map<String, long[]> baseline,
+        final Map<String, long[]> samples) {
+        record NodeSlowdown(String nodeId, double baseMedian, double median, double slowdown, double pValue) {
+        }
+
+        List<NodeSlowdown> slowdowns = new ArrayList<>();
+        for (Map.Entry<String, long[]> e : samples.entrySet()) {
+            long[] baseSamples = baseline.get(e.getKey());
+            if (!e.getKey().startsWith(PerformanceBaseline.NODE_PREFIX) || (baseSamples == null)) {
+                continue;
+            }
+            double baseMedian = PerformanceBaseline.median(baseSamples);
+            double pValue = PerformanceBaseline.pValue(baseSamples, e.getValue());
+            if ((baseMedian >= MIN_REPORTED_NODE_TIME) && (pValue < SIGNIFICANCE_LEVEL)) {
+                slowdowns.add(new NodeSlowdown(e.getKey().substring(PerformanceBaseline.NODE_PREFIX.length()),
+                    baseMedian, PerformanceBaseline.median(e.getValue()),
+                    PerformanceBaseline.slowdown(baseSamples, e.getValue()), pValue));
+            }
+        }
+
+        slowdowns.sort(Comparator.comparingDouble((NodeSlowdown s) -> s.median() - s.baseMedian()).reversed());
+        List<String> lines = new ArrayList<>();
+        for (NodeSlowdown s : slowdowns.subList(0, Math.min(MAX_REPORTED_NODES, slowdowns.size()))) {
+            lines.add(String.format(Locale.US, "%s: %.0fms, baseline %.0fms (%+.1f%%, p=%.4f)", s.nodeId(),
+                s.median(), s.baseMedian(), s.slowdown() * 100, s.pValue()));
+        }
+        return lines;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "performance";
+    }
+}
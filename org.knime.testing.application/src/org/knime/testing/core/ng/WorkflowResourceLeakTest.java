@@ -0,0 +1,250 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.knime.core.node.KNIMEConstants;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import junit.framework.AssertionFailedError;
+import junit.framework.TestResult;
+
+/**
+ * Testcase that checks whether a testflow leaves resources behind that are not on the heap: live threads, memory of
+ * direct and mapped buffers, open file handles, and files in the KNIME temp directory. The resources are recorded
+ * before the workflow is loaded and compared after the workflow has been closed. The tolerated increases are
+ * configured in the testflow configuration node. Because resources are often released asynchronously, the test
+ * waits for a short time before it reports a leak. The files that the runner itself uses for capturing the output of
+ * testflows are not taken into account.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class WorkflowResourceLeakTest extends WorkflowTest {
+    /**
+     * Threads of shared pools that are started on demand and stay alive for later use. They are not leaked by the
+     * testflow.
+     */
+    private static final Pattern POOL_THREAD_NAMES =
+        Pattern.compile("KNIME-Worker-.*|ForkJoinPool\\.commonPool-worker-.*");
+
+    /** The maximum time in milliseconds to wait for resources being released. */
+    private static final long MAX_WAIT_MILLIS = 5000;
+
+    private static final long POLL_MILLIS = 250;
+
+    /** The maximum number of threads or files that are listed in the failure message. */
+    private static final int MAX_REPORTED_ITEMS = 20;
+
+    private static final Path FD_DIR = Paths.get("/proc/self/fd");
+
+    /**
+     * The resources in use at one point in time.
+     *
+     * @param threadIds the IDs of all live threads
+     * @param offHeapBytes the memory used by direct and mapped buffers
+     * @param fileHandles the number of open file handles, -1 if unknown
+     * @param tempFiles the names of the entries in the KNIME temp directory
+     */
+    private record Snapshot(Set<Long> threadIds, long offHeapBytes, long fileHandles, Set<String> tempFiles) {
+    }
+
+    private Snapshot m_before;
+
+    WorkflowResourceLeakTest(final String workflowName, final IProgressMonitor monitor,
+        final WorkflowTestContext context) {
+        super(workflowName, monitor, context);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void aboutToStart() {
+        m_before = takeSnapshot();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "resource leaks";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(final TestResult result) {
+        if (m_context.getTestflowConfiguration() == null) {
+            // workflow could not be loaded
+            ignoreTest(result);
+            return;
+        }
+
+        result.startTest(this);
+        try {
+            long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+            List<String> leaks = findLeaks(takeSnapshot());
+            while (!leaks.isEmpty() && (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(POLL_MILLIS);
+                leaks = findLeaks(takeSnapshot());
+            }
+            for (String leak : leaks) {
+                result.addFailure(this, new AssertionFailedError(leak));
+            }
+        } catch (Throwable t) {
+            result.addError(this, t);
+        } finally {
+            result.endTest(this);
+        }
+    }
+
+    private List<String> findLeaks(final Snapshot after) {
+        TestflowConfiguration flowConfiguration = m_context.getTestflowConfiguration();
+        List<String> leaks = new ArrayList<>();
+
+        List<Thread> newThreads = Thread.getAllStackTraces().keySet().stream()
+            .filter(t -> after.threadIds().contains(t.getId()) && !m_before.threadIds().contains(t.getId()))
+            .filter(t -> !POOL_THREAD_NAMES.matcher(t.getName()).matches()).collect(Collectors.toList());
+        if (newThreads.size() > flowConfiguration.getAllowedThreadIncrease()) {
+            leaks.add(newThreads.size() + " threads are still running after the workflow has been closed, allowed are "
+                + flowConfiguration.getAllowedThreadIncrease() + ": " + abbreviate(newThreads.stream()
+                    .map(t -> "'" + t.getName() + "' (" + t.getState() + ")").collect(Collectors.toList())));
+        }
+
+        long offHeapIncrease = after.offHeapBytes() - m_before.offHeapBytes();
+        if (offHeapIncrease > flowConfiguration.getAllowedOffHeapIncrease() * 1024L * 1024L) {
+            leaks.add("Memory used by direct and mapped buffers increased by " + offHeapIncrease
+                + " bytes, allowed are " + flowConfiguration.getAllowedOffHeapIncrease() + " MB (before test: "
+                + m_before.offHeapBytes() + ", after test: " + after.offHeapBytes() + ")");
+        }
+
+        if ((after.fileHandles() >= 0) && (m_before.fileHandles() >= 0)) {
+            long fileHandleIncrease = after.fileHandles() - m_before.fileHandles();
+            if (fileHandleIncrease > flowConfiguration.getAllowedFileHandleIncrease()) {
+                leaks.add(fileHandleIncrease + " more file handles are open after the workflow has been closed, "
+                    + "allowed are " + flowConfiguration.getAllowedFileHandleIncrease() + " (before test: "
+                    + m_before.fileHandles() + ", after test: " + after.fileHandles() + ")");
+            }
+        }
+
+        List<String> newTempFiles = after.tempFiles().stream().filter(f -> !m_before.tempFiles().contains(f))
+            .sorted().collect(Collectors.toList());
+        if (newTempFiles.size() > flowConfiguration.getAllowedTempFiles()) {
+            leaks.add(newTempFiles.size() + " files have been left behind in the temp directory "
+                + KNIMEConstants.getKNIMETempDir() + ", allowed are " + flowConfiguration.getAllowedTempFiles() + ": "
+                + abbreviate(newTempFiles));
+        }
+        return leaks;
+    }
+
+    private static String abbreviate(final List<String> items) {
+        if (items.size() <= MAX_REPORTED_ITEMS) {
+            return String.join(", ", items);
+        } else {
+            return String.join(", ", items.subList(0, MAX_REPORTED_ITEMS)) + ", ... ("
+                + (items.size() - MAX_REPORTED_ITEMS) + " more)";
+        }
+    }
+
+    private static Snapshot takeSnapshot() {
+        Set<Long> threadIds =
+            Thread.getAllStackTraces().keySet().stream().map(Thread::getId).collect(Collectors.toSet());
+
+        long offHeapBytes = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            offHeapBytes += Math.max(pool.getMemoryUsed(), 0);
+        }
+
+        return new Snapshot(threadIds, offHeapBytes, countFileHandles(), listTempFiles());
+    }
+
+    private static long countFileHandles() {
+        if (Files.isDirectory(FD_DIR)) {
+            try (Stream<Path> fds = Files.list(FD_DIR)) {
+                // the directory stream itself holds one file handle
+                return fds.count() - 1 - OutputCaptureBuffer.getOpenSpillFileCount();
+            } catch (IOException ex) {
+                // fall back to the MXBean
+            }
+        }
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        if (osBean instanceof UnixOperatingSystemMXBean unixBean) {
+            return unixBean.getOpenFileDescriptorCount() - OutputCaptureBuffer.getOpenSpillFileCount();
+        }
+        return -1;
+    }
+
+    private static Set<String> listTempFiles() {
+        String[] files = new File(KNIMEConstants.getKNIMETempDir()).list();
+        if (files == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(files).filter(f -> !f.startsWith(OutputCaptureBuffer.SPILL_FILE_PREFIX))
+            .collect(Collectors.toSet());
+    }
+}
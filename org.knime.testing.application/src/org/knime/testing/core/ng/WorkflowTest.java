@@ -67,6 +67,13 @@
  * @since 2.9
  */
 public abstract class WorkflowTest implements TestWithName {
+    private static final Object WORKSPACE_LOCK = new Object();
+
+    /**
+     * Number of running tests that currently use the set workspace directory, guarded by {@link #WORKSPACE_LOCK}.
+     */
+    private static int customWorkspaceDirUsers;
+
     /**
      * The workflow's name.
      */
@@ -239,26 +246,42 @@ protected static MemoryUsage getHeapUsage() {
     }
 
     /**
-     * Helper to set the workspace directory path. Will only be set if the default workspace directory differs from the
-     * provided one.
+     * Helper to set the workspace directory path. The workspace directory is global, therefore tests of concurrently
+     * running testflows that need different directories are run one after another: if another directory is currently
+     * in use, this method blocks until all tests using it have called {@link #setDefaultWorkspaceDirPath()}.
      *
      * @param wsDir the new workspace directory to be set
-     * @return <code>true</code> if the workspace directory has been set, <code>false</code> if the passed directory is
-     *         already the set one
+     * @return <code>true</code> if {@link #setDefaultWorkspaceDirPath()} must be called after the test,
+     *         <code>false</code> if the thread has been interrupted while waiting for the directory
      */
     protected static boolean setCustomWorkspaceDirPath(final File wsDir) {
-        if (!KNIMEWorkspacePath.getWorkspaceDirPath().equals(wsDir)) {
-            KNIMEWorkspacePath.setWorkspaceDirPath(wsDir);
+        synchronized (WORKSPACE_LOCK) {
+            while ((customWorkspaceDirUsers > 0) && !KNIMEWorkspacePath.getWorkspaceDirPath().equals(wsDir)) {
+                try {
+                    WORKSPACE_LOCK.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            if (!KNIMEWorkspacePath.getWorkspaceDirPath().equals(wsDir)) {
+                KNIMEWorkspacePath.setWorkspaceDirPath(wsDir);
+            }
+            customWorkspaceDirUsers++;
             return true;
-        } else {
-            return false;
         }
     }
 
     /**
-     * Resets the workspace directory path to the default one.
+     * Resets the workspace directory path to the default one once no other test uses the current directory.
      */
     protected static void setDefaultWorkspaceDirPath() {
-        KNIMEWorkspacePath.setWorkspaceDirPath(null);
+        synchronized (WORKSPACE_LOCK) {
+            customWorkspaceDirUsers = Math.max(0, customWorkspaceDirUsers - 1);
+            if (customWorkspaceDirUsers == 0) {
+                KNIMEWorkspacePath.setWorkspaceDirPath(null);
+                WORKSPACE_LOCK.notifyAll();
+            }
+        }
     }
 }
@@ -49,12 +49,15 @@
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.knime.core.node.AbstractNodeView;
 import org.knime.core.node.InvalidSettingsException;
@@ -67,6 +70,8 @@
 import org.knime.core.node.workflow.WorkflowManager;
 import org.knime.core.util.Pair;
 import org.knime.testing.core.TestrunConfiguration;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
 
 /**
  * Shared context for all testcases. It is used to exchange information that is needed by several testcases, such as the
@@ -75,6 +80,8 @@
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
 public class WorkflowTestContext {
+    private static final Set<WorkflowTestContext> ACTIVE_CONTEXTS = ConcurrentHashMap.newKeySet();
+
     private final Map<SingleNodeContainer, List<AbstractNodeView<? extends NodeModel>>> m_views =
             new HashMap<SingleNodeContainer, List<AbstractNodeView<? extends NodeModel>>>();
 
@@ -82,11 +89,20 @@ public class WorkflowTestContext {
 
     private final Set<String> m_nodesUnderTest = new HashSet<String>();
 
+    private final Set<String> m_nodeBundles = new HashSet<String>();
+
+    private final Map<String, List<NodeExecutionProfiler.NodeProfile>> m_nodeProfiles = new LinkedHashMap<>();
+
+    private final Map<String, Long> m_executionTimes = new LinkedHashMap<>();
+
     private final List<Pair<Thread, Throwable>> m_uncaughtExceptions = new ArrayList<Pair<Thread, Throwable>>();
 
     private TestflowConfiguration m_flowConfiguration;
 
-    private WorkflowManager m_manager;
+    private volatile WorkflowManager m_manager;
+
+    /** The name of the thread that runs the tests of the testflow, set by {@link #activate()}. */
+    private volatile String m_runnerThreadName;
 
     private final TestrunConfiguration m_globalConfiguration;
 
@@ -179,7 +195,12 @@ private void recordNodes(final WorkflowManager manager) {
                 if (((NativeNodeContainer)node).getNodeContainerState().isExecuted()) {
                     m_preExecutedNodes.add(node.getID());
                 } else {
-                    m_nodesUnderTest.add(((NativeNodeContainer)node).getNode().getFactory().getClass().getName());
+                    Class<?> factoryClass = ((NativeNodeContainer)node).getNode().getFactory().getClass();
+                    m_nodesUnderTest.add(factoryClass.getName());
+                    Bundle bundle = FrameworkUtil.getBundle(factoryClass);
+                    if (bundle != null) {
+                        m_nodeBundles.add(bundle.getSymbolicName());
+                    }
                 }
             } else if (node instanceof SubNodeContainer) {
                 recordNodes(((SubNodeContainer)node).getWorkflowManager());
@@ -200,6 +221,55 @@ public Set<String> getNodesUnderTest() {
         return Collections.unmodifiableSet(m_nodesUnderTest);
     }
 
+    /**
+     * Returns a set with the symbolic names of the bundles that contain the node factories returned by
+     * {@link #getNodesUnderTest()}.
+     *
+     * @return a set with bundle symbolic names
+     */
+    Set<String> getNodeBundles() {
+        return Collections.unmodifiableSet(m_nodeBundles);
+    }
+
+    /**
+     * Records the node profiles that have been collected while executing the workflow in a sub-test.
+     *
+     * @param testName the name of the sub-test
+     * @param profiles the node profiles
+     */
+    synchronized void addNodeProfiles(final String testName, final List<NodeExecutionProfiler.NodeProfile> profiles) {
+        m_nodeProfiles.put(testName, profiles);
+    }
+
+    /**
+     * Returns the node profiles of all sub-tests that executed the workflow.
+     *
+     * @return a map between sub-test names and node profiles
+     */
+    synchronized Map<String, List<NodeExecutionProfiler.NodeProfile>> getNodeProfiles() {
+        return new LinkedHashMap<>(m_nodeProfiles);
+    }
+
+    /**
+     * Records how long the execution of the workflow in a sub-test took.
+     *
+     * @param testName the name of the sub-test
+     * @param millis the execution time in milliseconds
+     */
+    synchronized void addExecutionTime(final String testName, final long millis) {
+        m_executionTimes.put(testName, millis);
+    }
+
+    /**
+     * Returns how long the execution of the workflow in a sub-test took.
+     *
+     * @param testName the name of the sub-test
+     * @return the execution time in milliseconds or -1 if the sub-test has not executed the workflow
+     */
+    synchronized long getExecutionTime(final String testName) {
+        return m_executionTimes.getOrDefault(testName, -1L);
+    }
+
     /**
      * Returns a list of workflows that were already open when the test started.
      *
@@ -209,6 +279,91 @@ public List<NodeContainer> getAlreadyOpenWorkflows() {
         return m_alreadyOpenWorkflows;
     }
 
+    /**
+     * Marks this context as being used by a running testflow. The context is deactivated again by {@link #clear()}.
+     */
+    void activate() {
+        m_runnerThreadName = Thread.currentThread().getName();
+        ACTIVE_CONTEXTS.add(this);
+    }
+
+    /**
+     * Returns whether other testflows are running concurrently to the testflow using this context.
+     *
+     * @return <code>true</code> if other testflows are running, <code>false</code> otherwise
+     */
+    boolean hasConcurrentTestflows() {
+        for (WorkflowTestContext other : ACTIVE_CONTEXTS) {
+            if (other != this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the IDs of the workflows that are tested by other testflows running concurrently to the testflow using
+     * this context. Checks on global state (open workflows, open buffers, log messages) must ignore everything that
+     * belongs to these workflows.
+     *
+     * @return a possibly empty collection with workflow IDs
+     */
+    Collection<NodeID> getConcurrentWorkflowIDs() {
+        List<NodeID> ids = new ArrayList<>();
+        for (WorkflowTestContext other : ACTIVE_CONTEXTS) {
+            WorkflowManager wfm = other.m_manager;
+            if ((other != this) && (wfm != null)) {
+                ids.add(wfm.getID());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Checks whether the given node belongs to a workflow that is tested by another testflow running concurrently to
+     * the testflow using this context.
+     *
+     * @param nodeId any node ID
+     * @return <code>true</code> if the node belongs to a concurrently tested workflow, <code>false</code> otherwise
+     */
+    boolean belongsToConcurrentTestflow(final NodeID nodeId) {
+        return belongsToWorkflows(nodeId, getConcurrentWorkflowIDs());
+    }
+
+    /**
+     * Checks whether the given node is one of the given workflows or a node inside them.
+     *
+     * @param nodeId any node ID
+     * @param workflowIds the IDs of workflows
+     * @return <code>true</code> if the node belongs to one of the workflows, <code>false</code> otherwise
+     */
+    static boolean belongsToWorkflows(final NodeID nodeId, final Collection<NodeID> workflowIds) {
+        for (NodeID wfmId : workflowIds) {
+            if (nodeId.equals(wfmId) || nodeId.hasPrefix(wfmId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a log message belongs to another testflow running concurrently to the testflow using this
+     * context. Messages of nodes are attributed by the workflow of the node. Messages without a node can only be
+     * attributed by the thread that logged them: while other testflows are running, only the messages of the thread
+     * that runs the tests of this testflow are considered to belong to it.
+     *
+     * @param nodeId the ID of the node that logged the message, <code>null</code> if no node is known
+     * @param threadName the name of the thread that logged the message
+     * @return <code>true</code> if the message must be ignored by this testflow, <code>false</code> otherwise
+     */
+    boolean isFromConcurrentTestflow(final NodeID nodeId, final String threadName) {
+        if (nodeId != null) {
+            return belongsToConcurrentTestflow(nodeId);
+        } else {
+            return !threadName.equals(m_runnerThreadName) && hasConcurrentTestflows();
+        }
+    }
+
     /**
      * Clears the context.
      */
@@ -218,8 +373,13 @@ public void clear() {
         m_preExecutedNodes.clear();
         m_alreadyOpenWorkflows.clear();
         m_nodesUnderTest.clear();
+        m_nodeBundles.clear();
+        m_nodeProfiles.clear();
+        m_executionTimes.clear();
         m_manager = null;
         m_flowConfiguration = null;
+        m_runnerThreadName = null;
+        ACTIVE_CONTEXTS.remove(this);
         // m_nodesUnderTest is deliberately not cleared since the values are used later on
     }
 }
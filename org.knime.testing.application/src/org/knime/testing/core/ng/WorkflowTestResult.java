@@ -47,6 +47,8 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -67,9 +69,9 @@
 public class WorkflowTestResult extends IgnoredTestResult {
     private final TestWithName m_suite;
 
-    private final StringBuilder m_sysout = new StringBuilder();
+    private final OutputCaptureBuffer m_sysout = new OutputCaptureBuffer();
 
-    private final StringBuilder m_syserr = new StringBuilder();
+    private final OutputCaptureBuffer m_syserr = new OutputCaptureBuffer();
 
     private final List<Test> m_allTests = new ArrayList<Test>();
 
@@ -116,7 +118,8 @@ public void handleSystemErr(final char[] cbuf, final int off, final int len) {
     }
 
     /**
-     * Returns the collected output to <tt>System.out</tt>.
+     * Returns the collected output to <tt>System.out</tt>. The output may be large, therefore
+     * {@link #writeSystemOut(Writer)} should be preferred.
      *
      * @return the output
      */
@@ -125,7 +128,8 @@ public String getSystemOut() {
     }
 
     /**
-     * Returns the collected output to <tt>System.err</tt>.
+     * Returns the collected output to <tt>System.err</tt>. The output may be large, therefore
+     * {@link #writeSystemErr(Writer)} should be preferred.
      *
      * @return the output
      */
@@ -133,6 +137,37 @@ public String getSystemErr() {
         return m_syserr.toString();
     }
 
+    /**
+     * Writes the collected output to <tt>System.out</tt> into the given writer. Only the beginning and the end of the
+     * output are kept in memory, the rest is streamed from a temporary file.
+     *
+     * @param out a writer
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeSystemOut(final Writer out) throws IOException {
+        m_sysout.writeTo(out);
+    }
+
+    /**
+     * Writes the collected output to <tt>System.err</tt> into the given writer. Only the beginning and the end of the
+     * output are kept in memory, the rest is streamed from a temporary file.
+     *
+     * @param out a writer
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeSystemErr(final Writer out) throws IOException {
+        m_syserr.writeTo(out);
+    }
+
+    /**
+     * Deletes the temporary files that hold the collected output. This should be called after the result has been
+     * written by all result writers. Afterwards the output is not available any more.
+     */
+    public void dispose() {
+        m_sysout.dispose();
+        m_syserr.dispose();
+    }
+
     /**
      * Returns the suite to which this result belongs.
      *
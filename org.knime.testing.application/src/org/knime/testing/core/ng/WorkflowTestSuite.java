@@ -55,10 +55,12 @@
 import java.lang.management.OperatingSystemMXBean;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -75,6 +77,8 @@
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeLogger.LEVEL;
 import org.knime.core.node.util.ViewUtils;
+import org.knime.core.node.workflow.NodeContainer;
+import org.knime.core.node.workflow.NodeContext;
 import org.knime.testing.core.TestrunConfiguration;
 
 import junit.framework.TestListener;
@@ -89,6 +93,11 @@ public class WorkflowTestSuite extends WorkflowTest {
 
     private final List<WorkflowTest> m_allTests = new ArrayList<WorkflowTest>(8);
     private Set<String> m_nodesUnderTest;
+    private Set<String> m_nodeBundles;
+    private Map<String, List<NodeExecutionProfiler.NodeProfile>> m_nodeProfiles = Collections.emptyMap();
+    private final File m_workflowDir;
+    private final File m_testcaseRoot;
+    private Runnable m_teardownListener;
 
     /**
      * Creates a new suite of workflow tests. Which tests are actually executed is determined by the given run
@@ -153,6 +162,8 @@ protected WorkflowTestSuite(final String workflowName, final File workflowDir, f
         final TestrunConfiguration runConfig, final IProgressMonitor monitor, final WorkflowTestContext testContext)
             throws IOException {
         super(workflowName, monitor, testContext);
+        m_workflowDir = workflowDir;
+        m_testcaseRoot = testcaseRoot;
 
         initTestsuite(workflowDir, testcaseRoot, runConfig);
     }
@@ -237,6 +248,8 @@ public int countTestCases() {
      */
     @Override
     public void run(final TestResult result) {
+        // activate first so that all log messages of this testflow are attributed to it
+        m_context.activate();
         m_progressMonitor.beginTask(getName(), countTestCases());
         m_logger.info("================= Starting testflow " + getName() + " =================");
 
@@ -262,6 +275,9 @@ public void run(final TestResult result) {
                     break;
                 }
             }
+            if (m_teardownListener != null) {
+                m_teardownListener.run();
+            }
             Buffer.waitForAsyncWrites();
             waitForUIEvents();
             m_logger.info("Programmatically sending memory alert after test cases finished...");
@@ -270,8 +286,10 @@ public void run(final TestResult result) {
             result.addError(this, ex);
         } finally {
             m_nodesUnderTest = new HashSet<>(m_context.getNodesUnderTest()); // store a copy before clearing
+            m_nodeBundles = new HashSet<>(m_context.getNodeBundles());
+            m_nodeProfiles = m_context.getNodeProfiles();
+            WorkflowUncaughtExceptionsTest.removeExceptionHandler(m_context);
             m_context.clear();
-            Thread.setDefaultUncaughtExceptionHandler(null);
             result.endTest(this);
             logMemoryStatus();
             m_logger.info("================= Finished testflow " + getName() + " =================");
@@ -338,16 +356,21 @@ public String getName() {
      * Runs a single workflow test suite.
      *
      * @param suite the test suite
-     * @param listener a listener for test results
+     * @param listeners listeners for test results
      * @return the result of the test
      */
-    public static WorkflowTestResult runTest(final WorkflowTestSuite suite, final TestListener listener) {
+    public static WorkflowTestResult runTest(final WorkflowTestSuite suite, final TestListener... listeners) {
         final WorkflowTestResult result = new WorkflowTestResult(suite);
-        result.addListener(listener);
+        for (TestListener listener : listeners) {
+            result.addListener(listener);
+        }
+        // the writers are global, log4j calls them in the thread that logs the message
         Writer stdout = new Writer() {
             @Override
             public void write(final char[] cbuf, final int off, final int len) throws IOException {
-                result.handleSystemOut(cbuf, off, len);
+                if (!isFromConcurrentTestflow(suite.m_context)) {
+                    result.handleSystemOut(cbuf, off, len);
+                }
             }
 
             @Override
@@ -361,7 +384,9 @@ public void close() throws IOException {
         Writer stderr = new Writer() {
             @Override
             public void write(final char[] cbuf, final int off, final int len) throws IOException {
-                result.handleSystemErr(cbuf, off, len);
+                if (!isFromConcurrentTestflow(suite.m_context)) {
+                    result.handleSystemErr(cbuf, off, len);
+                }
             }
 
             @Override
@@ -375,9 +400,46 @@ public void close() throws IOException {
 
         NodeLogger.addWriter(stdout, LEVEL.DEBUG, LEVEL.FATAL);
         NodeLogger.addWriter(stderr, LEVEL.ERROR, LEVEL.FATAL);
-        suite.run(result);
-        NodeLogger.removeWriter(stderr);
-        NodeLogger.removeWriter(stdout);
+        try {
+            suite.run(result);
+        } finally {
+            NodeLogger.removeWriter(stderr);
+            NodeLogger.removeWriter(stdout);
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the log message that is currently written belongs to another testflow. The node that logs the
+     * message is taken from the node context of the current thread.
+     */
+    private static boolean isFromConcurrentTestflow(final WorkflowTestContext context) {
+        final NodeContext nodeContext = NodeContext.getContext();
+        final NodeContainer node = (nodeContext != null) ? nodeContext.getNodeContainer() : null;
+        return context.isFromConcurrentTestflow((node != null) ? node.getID() : null,
+            Thread.currentThread().getName());
+    }
+
+    /**
+     * Reports a workflow test suite as skipped because neither the workflow nor the nodes in it have changed since its
+     * last successful run. The suite itself is not run.
+     *
+     * @param suite the test suite
+     * @param nodesUnderTest the node factories that were tested in the last successful run
+     * @param listeners listeners for test results
+     * @return the result of the test
+     */
+    static WorkflowTestResult reportCached(final WorkflowTestSuite suite, final Set<String> nodesUnderTest,
+        final TestListener... listeners) {
+        final WorkflowTestResult result = new WorkflowTestResult(suite);
+        for (TestListener listener : listeners) {
+            result.addListener(listener);
+        }
+        result.startTest(suite);
+        new WorkflowCachedTest(suite.m_workflowName, suite.m_progressMonitor, suite.m_context).run(result);
+        suite.m_nodesUnderTest = new HashSet<>(nodesUnderTest);
+        suite.m_nodeBundles = new HashSet<>();
+        result.endTest(suite);
         return result;
     }
 
@@ -434,4 +496,162 @@ protected WorkflowTest createLoadSaveLoadTest(final File workflowDir, final File
     protected Set<String> getNodesUnderTest() {
         return m_nodesUnderTest;
     }
+
+    /**
+     * Returns the symbolic names of the bundles that contain the nodes returned by {@link #getNodesUnderTest()}.
+     *
+     * @return bundle symbolic names
+     */
+    Set<String> getNodeBundles() {
+        return m_nodeBundles;
+    }
+
+    /**
+     * Returns the node profiles that have been recorded by the sub-tests that executed the workflow.
+     *
+     * @return a map between sub-test names and node profiles, never <code>null</code>
+     */
+    Map<String, List<NodeExecutionProfiler.NodeProfile>> getNodeProfiles() {
+        return m_nodeProfiles;
+    }
+
+    /**
+     * Adds a performance test that re-executes the workflow right after its regular execution, which serves as
+     * warm-up run.
+     *
+     * @param iterations the number of measured executions
+     * @param baseline the store with the baseline execution times
+     * @param updateBaseline <code>true</code> if the measurements of a successful test should replace the baseline
+     * @param runConfig the run configuration
+     */
+    void addPerformanceTest(final int iterations, final PerformanceBaseline baseline, final boolean updateBaseline,
+        final TestrunConfiguration runConfig) {
+        WorkflowTest test = new WorkflowPerformanceTest(m_workflowName, m_progressMonitor, iterations, baseline,
+            updateBaseline, runConfig, m_context);
+        for (int i = 0; i < m_allTests.size(); i++) {
+            if (m_allTests.get(i) instanceof WorkflowExecuteTest) {
+                m_allTests.add(i + 1, test);
+                return;
+            }
+        }
+        m_allTests.add(test);
+    }
+
+    /**
+     * Adds a resource leak test that checks for threads, buffers, file handles, and temp files that are left behind
+     * after the workflow has been closed. The test is only added if the workflow is closed after the test.
+     */
+    void addResourceLeakTest() {
+        for (int i = 0; i < m_allTests.size(); i++) {
+            if (m_allTests.get(i) instanceof WorkflowCloseTest) {
+                m_allTests.add(i + 1, new WorkflowResourceLeakTest(m_workflowName, m_progressMonitor, m_context));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sets a listener that is called when all sub-tests have finished and the suite waits for asynchronous writes, UI
+     * events, and the memory alert before it ends. The listener is called in the thread that runs the suite and must
+     * return quickly.
+     *
+     * @param listener the listener, <code>null</code> to remove it
+     */
+    void setTeardownListener(final Runnable listener) {
+        m_teardownListener = listener;
+    }
+
+    /**
+     * Lets the streaming test reset and execute the already executed workflow again instead of loading it a second
+     * time. The test that closes the workflow is therefore moved after the streaming test. The streaming test still
+     * runs after the log messages have been checked, so messages logged during the streaming execution are not
+     * attributed to the default execution; messages logged while closing the workflow are then not checked.
+     */
+    void reuseWorkflowForStreaming() {
+        WorkflowExecuteStreamingTest streamingTest = null;
+        WorkflowCloseTest closeTest = null;
+        for (WorkflowTest test : m_allTests) {
+            if (test instanceof WorkflowExecuteStreamingTest t) {
+                streamingTest = t;
+            } else if (test instanceof WorkflowCloseTest t) {
+                closeTest = t;
+            }
+        }
+        if ((streamingTest == null) || streamingTest.isReuseWorkflow()) {
+            return;
+        }
+        streamingTest.setReuseWorkflow(true);
+        if (closeTest != null) {
+            m_allTests.remove(closeTest);
+            m_allTests.add(m_allTests.indexOf(streamingTest) + 1, closeTest);
+        }
+    }
+
+    /**
+     * Lets the streaming test fail if the execution in streaming mode is slower than in default mode by more than the
+     * given percentage.
+     *
+     * @param percent the maximum slowdown in percent
+     */
+    void setStreamingMaxSlowdown(final int percent) {
+        for (WorkflowTest test : m_allTests) {
+            if (test instanceof WorkflowExecuteStreamingTest streamingTest) {
+                streamingTest.setMaxSlowdown(percent);
+            }
+        }
+    }
+
+    /**
+     * Sets the directory into which the memory leak test writes a heap dump if it fails.
+     *
+     * @param dir the heap dump directory
+     */
+    void setMemLeakHeapDumpDir(final File dir) {
+        for (WorkflowTest test : m_allTests) {
+            if (test instanceof WorkflowMemLeakTest memLeakTest) {
+                memLeakTest.setHeapDumpDir(dir);
+            }
+        }
+    }
+
+    /**
+     * Returns the names of all sub-tests of this suite. They depend on the run configuration.
+     *
+     * @return a list with sub-test names
+     */
+    List<String> getTestNames() {
+        List<String> names = new ArrayList<>(m_allTests.size());
+        for (WorkflowTest test : m_allTests) {
+            names.add(test.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Returns the directory of the workflow that is tested by this suite.
+     *
+     * @return the workflow directory
+     */
+    File getWorkflowDir() {
+        return m_workflowDir;
+    }
+
+    /**
+     * Returns the testcase root directory that is used as the mountpoint root for this suite's workflow.
+     *
+     * @return the testcase root directory
+     */
+    File getTestcaseRoot() {
+        return m_testcaseRoot;
+    }
+
+    /**
+     * Returns whether this testflow must not be executed concurrently with other testflows. This is configured in the
+     * testflow configuration node and is read without loading the workflow.
+     *
+     * @return <code>true</code> if the testflow must run alone, <code>false</code> otherwise
+     */
+    boolean isRunExclusively() {
+        return TestflowConfiguration.isRunExclusively(m_workflowDir);
+    }
 }
@@ -47,26 +47,56 @@
  */
 package org.knime.testing.core.ng;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import javax.swing.SwingUtilities;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.knime.core.node.NodeLogger;
+import org.knime.core.node.workflow.NodeContainer;
 import org.knime.core.node.workflow.NodeContext;
+import org.knime.core.node.workflow.WorkflowManager;
 import org.knime.core.util.Pair;
 
 import junit.framework.AssertionFailedError;
 import junit.framework.TestResult;
 
 /**
- * Testcase that reports any uncaught exceptions. An exception handler is installed during creation of the test. It
+ * Testcase that reports any uncaught exceptions. An exception handler is installed when the test suite starts. It
  * records all uncaught exception and reports them as errors when the test is run. The exception handler is removed
- * after the test has run.
+ * after the test has run. If several testflows run concurrently, exceptions thrown in a node's context are only
+ * attributed to the testflow owning the node.
  *
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
 class WorkflowUncaughtExceptionsTest extends WorkflowTest {
     private static final NodeLogger LOGGER = NodeLogger.getLogger(WorkflowUncaughtExceptionsTest.class);
 
+    /**
+     * Contexts of all testflows that currently listen for uncaught exceptions. There is only one default uncaught
+     * exception handler per JVM, therefore it dispatches the exceptions to the testflows in this set.
+     */
+    private static final Set<WorkflowTestContext> HANDLER_CONTEXTS = new LinkedHashSet<>();
+
+    private static final Thread.UncaughtExceptionHandler EXCEPTION_HANDLER = (t, e) -> {
+        String msg = "Uncaught " + e.getClass().getName() + " in thread " + t.getName();
+        NodeContext nodeContext = NodeContext.getContext();
+        if (nodeContext != null) {
+            msg += " with node context '" + nodeContext + "'";
+        }
+        msg += ": " + e.getMessage();
+        LOGGER.debug(msg, e);
+
+        for (WorkflowTestContext context : getAffectedContexts(nodeContext)) {
+            synchronized (context.getUncaughtExceptions()) {
+                context.getUncaughtExceptions().add(new Pair<Thread, Throwable>(t, e));
+            }
+        }
+    };
+
     WorkflowUncaughtExceptionsTest(final String workflowName, final IProgressMonitor monitor,
                                    final WorkflowTestContext context) {
         super(workflowName, monitor, context);
@@ -78,21 +108,7 @@ class WorkflowUncaughtExceptionsTest extends WorkflowTest {
     @Override
     public void aboutToStart() {
         super.aboutToStart();
-        Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
-            @Override
-            public void uncaughtException(final Thread t, final Throwable e) {
-                synchronized (m_context.getUncaughtExceptions()) {
-                    m_context.getUncaughtExceptions().add(new Pair<Thread, Throwable>(t, e));
-
-                    String msg = "Uncaught " + e.getClass().getName() + " in thread " + t.getName();
-                    if (NodeContext.getContext() != null) {
-                        msg += " with node context '" + NodeContext.getContext() + "'";
-                    }
-                    msg += ": " + e.getMessage();
-                    LOGGER.debug(msg, e);
-                }
-            }
-        });
+        installExceptionHandler(m_context);
     }
 
     /**
@@ -132,8 +148,58 @@ public void run() {
             result.addError(this, t);
         } finally {
             result.endTest(this);
-            Thread.setDefaultUncaughtExceptionHandler(null);
+            removeExceptionHandler(m_context);
+        }
+    }
+
+    /**
+     * Installs the default uncaught exception handler which records uncaught exceptions in the given context.
+     *
+     * @param context the test context of the testflow that is about to start
+     */
+    static void installExceptionHandler(final WorkflowTestContext context) {
+        synchronized (HANDLER_CONTEXTS) {
+            HANDLER_CONTEXTS.add(context);
+            Thread.setDefaultUncaughtExceptionHandler(EXCEPTION_HANDLER);
+        }
+    }
+
+    /**
+     * Stops recording uncaught exceptions for the given context. The default uncaught exception handler is removed
+     * once no testflow is listening any more.
+     *
+     * @param context the test context of a testflow
+     */
+    static void removeExceptionHandler(final WorkflowTestContext context) {
+        synchronized (HANDLER_CONTEXTS) {
+            HANDLER_CONTEXTS.remove(context);
+            if (HANDLER_CONTEXTS.isEmpty()) {
+                Thread.setDefaultUncaughtExceptionHandler(null);
+            }
+        }
+    }
+
+    /**
+     * Determines the testflows to which an uncaught exception is reported. If the exception was thrown in the context
+     * of a node, it is only reported to the testflow that owns the node. Otherwise it cannot be attributed and is
+     * reported to all testflows.
+     */
+    private static List<WorkflowTestContext> getAffectedContexts(final NodeContext nodeContext) {
+        List<WorkflowTestContext> contexts;
+        synchronized (HANDLER_CONTEXTS) {
+            contexts = new ArrayList<>(HANDLER_CONTEXTS);
+        }
+
+        NodeContainer node = (nodeContext != null) ? nodeContext.getNodeContainer() : null;
+        if ((node != null) && (contexts.size() > 1)) {
+            for (WorkflowTestContext context : contexts) {
+                WorkflowManager wfm = context.getWorkflowManager();
+                if ((wfm != null) && (node.getID().equals(wfm.getID()) || node.getID().hasPrefix(wfm.getID()))) {
+                    return List.of(context);
+                }
+            }
         }
+        return contexts;
     }
 
     /**
@@ -47,12 +47,19 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.TransformerConfigurationException;
@@ -61,7 +68,6 @@
 import javax.xml.transform.stream.StreamResult;
 
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
 /**
  * Result writer that writes each test suite into its own file.
@@ -90,31 +96,124 @@ public XMLResultDirWriter(final File dir, final boolean outputToSeparateFile)
      * {@inheritDoc}
      */
     @Override
-    public void addResult(final WorkflowTestResult result) throws TransformerException, IOException {
-        Document doc = m_docBuilder.newDocument();
-        Element testsuite = createTestsuiteElement(result, doc, !m_outputToSeparateFile);
-        doc.appendChild(testsuite);
+    public synchronized void addResult(final WorkflowTestResult result) throws TransformerException, IOException {
+        String suiteName = result.getSuite().getName();
+        File destFile = getResultFile(m_rootDir, suiteName);
+        createParentDir(destFile);
 
-        File destFile = new File(m_rootDir, result.getSuite().getName() + ".xml");
-        destFile = new File(destFile.getParentFile(), "TEST-" + destFile.getName());
-        if (!destFile.getParentFile().isDirectory() && !destFile.getParentFile().mkdirs()) {
-            throw new IOException("Could not created directory for result file: "
-                    + destFile.getParentFile().getAbsolutePath());
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(destFile))) {
+            XMLStreamWriter xmlWriter = m_outputFactory.createXMLStreamWriter(out, "UTF-8");
+            xmlWriter.writeStartDocument("UTF-8", "1.0");
+            writeTestsuite(result, xmlWriter, !m_outputToSeparateFile);
+            xmlWriter.writeEndDocument();
+            xmlWriter.close();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Could not write result file " + destFile + ": " + ex.getMessage(), ex);
         }
+        if (m_outputToSeparateFile) {
+            try (Writer out = new FileWriter(getOutputFile(m_rootDir, suiteName))) {
+                result.writeSystemOut(out);
+            }
+        }
+
+        writeNodeProfile(result);
+
+        // only forget the times of this result, tests of other suites may still be running
+        forgetTimes(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void addResult(final Document testsuite, final String suiteName, final File systemOut)
+        throws TransformerException, IOException {
+        writeResult(testsuite, suiteName, systemOut);
+    }
+
+    private void writeResult(final Document doc, final String suiteName, final File systemOut)
+        throws TransformerException, IOException {
+        File destFile = getResultFile(m_rootDir, suiteName);
+        createParentDir(destFile);
 
         Source source = new DOMSource(doc);
         Result res = new StreamResult(destFile);
         m_serializer.transform(source, res);
 
-        if (m_outputToSeparateFile) {
-            File outputFile = new File(m_rootDir, result.getSuite().getName() + "-output.txt");
-            try (Writer out = new FileWriter(outputFile)) {
-                out.write(result.getSystemOut());
-            }
+        if (m_outputToSeparateFile && (systemOut != null)) {
+            // copied byte-wise, the output may be much larger than what should be kept in memory
+            Files.copy(systemOut.toPath(), getOutputFile(m_rootDir, suiteName).toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void createParentDir(final File destFile) throws IOException {
+        if (!destFile.getParentFile().isDirectory() && !destFile.getParentFile().mkdirs()) {
+            throw new IOException("Could not created directory for result file: "
+                    + destFile.getParentFile().getAbsolutePath());
         }
+    }
 
-        m_startTimes.clear();
-        m_endTimes.clear();
+    /**
+     * Returns the file into which the result of the given suite is written.
+     *
+     * @param rootDir the writer's destination directory
+     * @param suiteName the name of the test suite
+     * @return the result file
+     */
+    static File getResultFile(final File rootDir, final String suiteName) {
+        File destFile = new File(rootDir, suiteName + ".xml");
+        return new File(destFile.getParentFile(), "TEST-" + destFile.getName());
+    }
+
+    /**
+     * Returns the file into which the output of the given suite is written if output should be sent to a separate
+     * file.
+     *
+     * @param rootDir the writer's destination directory
+     * @param suiteName the name of the test suite
+     * @return the output file
+     */
+    static File getOutputFile(final File rootDir, final String suiteName) {
+        return new File(rootDir, suiteName + "-output.txt");
+    }
+
+    /**
+     * Returns the file into which the per-node execution profiles of the given suite are written.
+     *
+     * @param rootDir the writer's destination directory
+     * @param suiteName the name of the test suite
+     * @return the profile file
+     */
+    static File getNodeProfileFile(final File rootDir, final String suiteName) {
+        return new File(rootDir, suiteName + "-profile.tsv");
+    }
+
+    /**
+     * Returns the file into which the resource samples of the given suite are written.
+     *
+     * @param rootDir the writer's destination directory
+     * @param suiteName the name of the test suite
+     * @return the samples file
+     */
+    static File getResourceSamplesFile(final File rootDir, final String suiteName) {
+        return new File(rootDir, suiteName + "-resources.csv");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public File getNodeProfileFile(final String suiteName) {
+        return getNodeProfileFile(m_rootDir, suiteName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public File getResourceSamplesFile(final String suiteName) {
+        return getResourceSamplesFile(m_rootDir, suiteName);
     }
 
     /**
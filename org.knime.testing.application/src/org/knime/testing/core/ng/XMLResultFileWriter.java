@@ -47,33 +47,71 @@
  */
 package org.knime.testing.core.ng;
 
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 /**
- * Result writer that writes all test suites into a single file.
+ * Result writer that writes all test suites into a single file. Each test suite is streamed into the file as soon as
+ * it has been added so that results don't have to be kept in memory until all tests have finished. The attributes of
+ * the root element are reserved as blank space when the file is created and filled in by {@link #endSuites()}.
  *
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
 public class XMLResultFileWriter extends AbstractXMLResultWriter {
+    private static final byte[] PROLOGUE =
+        "<?xml version=\"1.0\" encoding=\"UTF-8\"?>".getBytes(StandardCharsets.UTF_8);
+
+    private static final String ROOT_START = "<testsuites";
+
+    /** Number of bytes reserved for the attributes of the root element. */
+    private static final int ROOT_ATTRIBUTES_SPACE = 200;
+
     private final File m_file;
 
+    private final Transformer m_fragmentSerializer;
+
     private long m_startTime, m_endTime;
 
-    private final List<WorkflowTestResult> m_allResults = new ArrayList<WorkflowTestResult>();
+    private FileOutputStream m_fileOut;
+
+    private OutputStream m_out;
+
+    private XMLStreamWriter m_xmlWriter;
+
+    /** Offset of the first byte after the root's start tag. */
+    private long m_contentStart;
+
+    /** Offset of the first byte after the last written test suite. */
+    private long m_contentEnd;
+
+    private int m_suites, m_runs, m_errors, m_failures;
 
     /**
      * Creates a new result writer.
@@ -84,64 +122,177 @@ public class XMLResultFileWriter extends AbstractXMLResultWriter {
      */
     public XMLResultFileWriter(final File file) throws TransformerConfigurationException, ParserConfigurationException {
         m_file = file;
+        m_fragmentSerializer = TransformerFactory.newInstance().newTransformer();
+        m_fragmentSerializer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+        m_fragmentSerializer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void addResult(final WorkflowTestResult result) throws TransformerException, IOException {
-        m_allResults.add(result);
+    public synchronized void addResult(final WorkflowTestResult result) throws TransformerException, IOException {
+        open();
+        try {
+            writeTestsuite(result, m_xmlWriter, false);
+            m_xmlWriter.flush();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Could not write result of " + result.getSuite().getSuiteName() + ": "
+                + ex.getMessage(), ex);
+        }
+        suiteWritten(result.runCount(), result.errorCount(), result.failureCount());
+        writeNodeProfile(result);
 
+        // only forget the times of this result, tests of other suites may still be running
+        forgetTimes(result);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void startSuites() {
-        m_startTime = System.currentTimeMillis();
+    public synchronized void addResult(final Document testsuite, final String suiteName, final File systemOut)
+        throws TransformerException, IOException {
+        open();
+        Element copy = (Element)testsuite.getDocumentElement().cloneNode(true);
+        // output is not included in the single result file
+        for (String tagName : new String[]{"system-out", "system-err"}) {
+            NodeList children = copy.getElementsByTagName(tagName);
+            for (int i = children.getLength() - 1; i >= 0; i--) {
+                children.item(i).getParentNode().removeChild(children.item(i));
+            }
+        }
+
+        try {
+            m_xmlWriter.flush();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Could not write result of " + suiteName + ": " + ex.getMessage(), ex);
+        }
+        m_fragmentSerializer.transform(new DOMSource(copy), new StreamResult(m_out));
+        suiteWritten(Integer.parseInt(copy.getAttribute("tests")), Integer.parseInt(copy.getAttribute("errors")),
+            Integer.parseInt(copy.getAttribute("failures")));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void endSuites() throws IOException, TransformerException {
-        m_endTime = System.currentTimeMillis();
-        Document doc = m_docBuilder.newDocument();
-        Element root;
-        if (m_allResults.size() == 1) {
-            root = createTestsuiteElement(m_allResults.iterator().next(), doc, false);
-        } else {
-            root = doc.createElement("testsuites");
+    public File getNodeProfileFile(final String suiteName) {
+        return XMLResultDirWriter.getNodeProfileFile(m_file.getParentFile(), suiteName);
+    }
 
-            int runs = 0;
-            int errors = 0;
-            int failures = 0;
-            for (WorkflowTestResult res : m_allResults) {
-                runs += res.runCount();
-                errors += res.errorCount();
-                failures += res.failureCount();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public File getResourceSamplesFile(final String suiteName) {
+        return XMLResultDirWriter.getResourceSamplesFile(m_file.getParentFile(), suiteName);
+    }
 
-                root.appendChild(createTestsuiteElement(res, doc, false));
+    private void suiteWritten(final int runs, final int errors, final int failures) throws IOException {
+        m_out.flush();
+        m_contentEnd = m_fileOut.getChannel().position();
+        m_suites++;
+        m_runs += runs;
+        m_errors += errors;
+        m_failures += failures;
+    }
 
-            }
-            root.setAttribute("name", "All tests");
-            root.setAttribute("time", Double.toString((m_endTime - m_startTime) / 1000.0));
-            root.setAttribute("tests", Integer.toString(runs));
-            root.setAttribute("errors", Integer.toString(errors));
-            root.setAttribute("failures", Integer.toString(failures));
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void startSuites() {
+        m_startTime = System.currentTimeMillis();
+    }
 
+    private void open() throws IOException {
+        if (m_xmlWriter != null) {
+            return;
+        }
+        if (m_startTime == 0) {
+            m_startTime = System.currentTimeMillis();
         }
-        doc.appendChild(root);
         if (!m_file.getParentFile().isDirectory() && !m_file.getParentFile().mkdirs()) {
             throw new IOException("Could not created directory for result file: "
                     + m_file.getParentFile().getAbsolutePath());
         }
 
-        Source source = new DOMSource(doc);
-        Result result = new StreamResult(m_file);
-        m_serializer.transform(source, result);
+        m_fileOut = new FileOutputStream(m_file);
+        m_out = new BufferedOutputStream(m_fileOut);
+        m_out.write(PROLOGUE);
+        m_out.write(ROOT_START.getBytes(StandardCharsets.UTF_8));
+        m_out.write(" ".repeat(ROOT_ATTRIBUTES_SPACE).getBytes(StandardCharsets.UTF_8));
+        m_out.write('>');
+        m_out.flush();
+        m_contentStart = m_fileOut.getChannel().position();
+        m_contentEnd = m_contentStart;
+
+        try {
+            m_xmlWriter = m_outputFactory.createXMLStreamWriter(m_out, "UTF-8");
+        } catch (XMLStreamException ex) {
+            m_out.close();
+            throw new IOException("Could not create XML writer for " + m_file + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void endSuites() throws IOException, TransformerException {
+        m_endTime = System.currentTimeMillis();
+        open();
+        try {
+            m_xmlWriter.close();
+        } catch (XMLStreamException ex) {
+            throw new IOException("Could not write result file " + m_file + ": " + ex.getMessage(), ex);
+        } finally {
+            m_xmlWriter = null;
+        }
+        m_out.write("</testsuites>".getBytes(StandardCharsets.UTF_8));
+        m_out.close();
+
+        if (m_suites == 1) {
+            // a single test suite is written without the surrounding <testsuites> element
+            unwrapSingleSuite();
+        } else {
+            String attributes = " name=\"All tests\" time=\"" + ((m_endTime - m_startTime) / 1000.0) + "\" tests=\""
+                + m_runs + "\" errors=\"" + m_errors + "\" failures=\"" + m_failures + "\"";
+            try (RandomAccessFile raf = new RandomAccessFile(m_file, "rw")) {
+                raf.seek(PROLOGUE.length + ROOT_START.length());
+                raf.write(attributes.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Copies the content of the single test suite behind the prologue into a temporary file in the same directory,
+     * which then replaces the result file. The content is transferred between the files without reading it into
+     * memory, and the result file is never left half-written.
+     */
+    private void unwrapSingleSuite() throws IOException {
+        Path file = m_file.toPath().toAbsolutePath();
+        Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+                    FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer prologue = ByteBuffer.wrap(PROLOGUE);
+                while (prologue.hasRemaining()) {
+                    out.write(prologue);
+                }
+                long position = m_contentStart;
+                while (position < m_contentEnd) {
+                    long transferred = in.transferTo(position, m_contentEnd - position, out);
+                    if (transferred == 0) {
+                        throw new EOFException("Result file '" + file + "' has been truncated");
+                    }
+                    position += transferred;
+                }
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
     }
 }
@@ -0,0 +1,368 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.core.ng;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.knime.core.node.NodeLogger;
+import org.knime.core.util.FileUtil;
+
+/**
+ * Persistent cache for extracted zip files with testflows. Entries are keyed by the SHA-256 hash of the zip file's
+ * content, therefore an unchanged zip file is only extracted once, regardless of its name, location, or modification
+ * time. For each entry the cache directory contains a sub-directory with the extracted content and a small properties
+ * file with its size, whose modification time records when the entry has been used last. If the cache grows larger
+ * than its size limit, the least recently used entries are removed; entries used by the current run are always kept.
+ * <p>
+ * Extraction happens into a temporary directory that is atomically renamed to the entry's directory, so concurrent
+ * searches and aborted runs never see partial entries. Testflows are never run from the cache itself, because tests
+ * may write into the workflow directory; instead the cached content is copied into a fresh directory for each run,
+ * which is still much faster than extracting the zip file again.
+ * <p>
+ * The cache directory may be shared by several runner processes. While an entry is extracted or copied, its lock
+ * file is locked shared; eviction only removes entries whose lock file can be locked exclusively. The lock files
+ * themselves are kept, they are empty.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class ZipExtractionCache {
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(ZipExtractionCache.class);
+
+    private static final String METADATA_SUFFIX = ".properties";
+
+    private static final String SIZE_KEY = "size";
+
+    private static final String SOURCE_KEY = "source";
+
+    private static final String LOCK_SUFFIX = ".lock";
+
+    /** Temporary files and directories contain this in their names. */
+    private static final String TEMP_INFIX = ".tmp";
+
+    /**
+     * The shared locks that are held by this JVM, keyed by the lock file. File locks are held by the whole JVM and
+     * must not overlap, therefore concurrent users in the same JVM share one lock. Guarded by itself.
+     */
+    private static final Map<Path, Lease> LEASES = new HashMap<>();
+
+    private static final class Lease {
+        private final FileChannel m_channel;
+
+        private final FileLock m_lock;
+
+        private int m_users;
+
+        Lease(final FileChannel channel, final FileLock lock) {
+            m_channel = channel;
+            m_lock = lock;
+        }
+    }
+
+    /**
+     * Directories without metadata are removed after this time in milliseconds. Younger ones may be extractions of a
+     * concurrent run.
+     */
+    private static final long STALE_AGE = 24L * 60 * 60 * 1000;
+
+    private final File m_dir;
+
+    private final long m_maxSize;
+
+    private final Set<String> m_usedEntries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param dir the cache directory, which is created if it does not exist
+     * @param maxSize the maximum size of all entries in bytes
+     * @throws IOException if the cache directory cannot be created
+     */
+    ZipExtractionCache(final File dir, final long maxSize) throws IOException {
+        Files.createDirectories(dir.toPath());
+        m_dir = dir;
+        m_maxSize = maxSize;
+    }
+
+    /**
+     * Copies the extracted content of the given zip file into the given directory. The zip file is only extracted if
+     * the cache does not contain its content yet.
+     *
+     * @param zipFile a zip file
+     * @param destDir the directory into which the content is copied
+     * @throws IOException if an I/O error occurs while reading or extracting the zip file
+     */
+    void extract(final File zipFile, final File destDir) throws IOException {
+        String hash = computeHash(zipFile);
+        m_usedEntries.add(hash);
+        Path lockFile = new File(m_dir, hash + LOCK_SUFFIX).toPath().toAbsolutePath();
+        acquire(lockFile);
+        try {
+            FileUtil.copyDir(getEntry(zipFile, hash), destDir);
+        } finally {
+            release(lockFile);
+        }
+    }
+
+    private File getEntry(final File zipFile, final String hash) throws IOException {
+        File entryDir = new File(m_dir, hash);
+        File metadataFile = new File(m_dir, hash + METADATA_SUFFIX);
+
+        if (entryDir.isDirectory()) {
+            if (metadataFile.isFile()) {
+                LOGGER.debug("Using cached content of " + zipFile + " from " + entryDir);
+                Files.setLastModifiedTime(metadataFile.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+            } else {
+                // entries are complete because they are renamed into place, only writing the metadata has failed
+                LOGGER.debug("Using cached content of " + zipFile + " from " + entryDir + " without metadata");
+                writeMetadata(zipFile, hash, computeSize(entryDir.toPath()));
+            }
+            return entryDir;
+        }
+
+        File tempDir = Files.createTempDirectory(m_dir.toPath(), hash + TEMP_INFIX).toFile();
+        try {
+            FileUtil.unzip(zipFile, tempDir);
+            long size = computeSize(tempDir.toPath());
+            try {
+                Files.move(tempDir.toPath(), entryDir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                // a concurrent search has extracted the same content in the meantime; renaming onto the existing
+                // directory fails with different exceptions depending on the platform
+                if (!entryDir.isDirectory()) {
+                    throw ex;
+                }
+                LOGGER.debug("Content of " + zipFile + " has been extracted concurrently: " + ex.getMessage());
+            }
+            writeMetadata(zipFile, hash, size);
+        } finally {
+            if (tempDir.exists()) {
+                FileUtil.deleteRecursively(tempDir);
+            }
+        }
+        return entryDir;
+    }
+
+    /**
+     * Writes the metadata of an entry. It is written into a temporary file first, so that concurrent searches never
+     * read partial metadata.
+     */
+    private void writeMetadata(final File zipFile, final String hash, final long size) throws IOException {
+        Properties metadata = new Properties();
+        metadata.setProperty(SIZE_KEY, Long.toString(size));
+        metadata.setProperty(SOURCE_KEY, zipFile.getAbsolutePath());
+        Path tempFile = Files.createTempFile(m_dir.toPath(), hash + TEMP_INFIX, null);
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                metadata.store(out, null);
+            }
+            Files.move(tempFile, new File(m_dir, hash + METADATA_SUFFIX).toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Locks the given lock file shared, waiting while another process evicts the entry.
+     */
+    private static void acquire(final Path lockFile) throws IOException {
+        synchronized (LEASES) {
+            Lease lease = LEASES.get(lockFile);
+            if (lease == null) {
+                FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                try {
+                    lease = new Lease(channel, channel.lock(0, Long.MAX_VALUE, true));
+                } catch (IOException ex) {
+                    channel.close();
+                    throw ex;
+                }
+                LEASES.put(lockFile, lease);
+            }
+            lease.m_users++;
+        }
+    }
+
+    private static void release(final Path lockFile) throws IOException {
+        synchronized (LEASES) {
+            Lease lease = LEASES.get(lockFile);
+            lease.m_users--;
+            if (lease.m_users == 0) {
+                LEASES.remove(lockFile);
+                // closing the channel releases the lock
+                lease.m_channel.close();
+            }
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache is not larger than its size limit. Entries that have
+     * been used since this cache object has been created are never removed, neither are entries that are currently
+     * being copied by another process. Left-overs of aborted extractions and entries without metadata are removed as
+     * well once they are older than a day.
+     */
+    synchronized void evict() {
+        record Entry(String hash, long size, long lastUsed) {
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        long totalSize = 0;
+        File[] files = m_dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            String name = f.getName();
+            boolean stale = System.currentTimeMillis() - f.lastModified() > STALE_AGE;
+            if (name.contains(TEMP_INFIX)) {
+                if (stale) {
+                    // extraction or writing the metadata has been aborted
+                    FileUtil.deleteRecursively(f);
+                }
+            } else if (f.isDirectory() && !new File(m_dir, name + METADATA_SUFFIX).exists()) {
+                if (stale) {
+                    // the entry is complete but has never been used since writing its metadata failed
+                    remove(name);
+                }
+            } else if (name.endsWith(METADATA_SUFFIX)) {
+                String hash = name.substring(0, name.length() - METADATA_SUFFIX.length());
+                Properties metadata = new Properties();
+                try (InputStream in = Files.newInputStream(f.toPath())) {
+                    metadata.load(in);
+                    Entry e = new Entry(hash, Long.parseLong(metadata.getProperty(SIZE_KEY, "0")), f.lastModified());
+                    entries.add(e);
+                    totalSize += e.size();
+                } catch (IOException | NumberFormatException ex) {
+                    LOGGER.debug("Invalid cache entry " + f + ": " + ex.getMessage(), ex);
+                }
+            }
+        }
+
+        entries.sort(Comparator.comparingLong(Entry::lastUsed));
+        for (Entry e : entries) {
+            if (totalSize <= m_maxSize) {
+                break;
+            }
+            if (!m_usedEntries.contains(e.hash()) && remove(e.hash())) {
+                totalSize -= e.size();
+            }
+        }
+    }
+
+    /**
+     * Removes an entry unless it is in use.
+     *
+     * @return <code>true</code> if the entry has been removed, <code>false</code> if it is in use
+     */
+    private boolean remove(final String hash) {
+        Path lockFile = new File(m_dir, hash + LOCK_SUFFIX).toPath().toAbsolutePath();
+        synchronized (LEASES) {
+            if (LEASES.containsKey(lockFile)) {
+                // in use by another run in this JVM
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE); FileLock lock = channel.tryLock()) {
+                if (lock == null) {
+                    LOGGER.debug("Cache entry " + hash + " is in use by another process, not removing it");
+                    return false;
+                }
+                LOGGER.debug("Removing least recently used cache entry " + hash);
+                Files.deleteIfExists(new File(m_dir, hash + METADATA_SUFFIX).toPath());
+                FileUtil.deleteRecursively(new File(m_dir, hash));
+                return true;
+            } catch (IOException ex) {
+                LOGGER.debug("Could not remove cache entry " + hash + ": " + ex.getMessage(), ex);
+                return false;
+            }
+        }
+    }
+
+    private static String computeHash(final File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform must support SHA-256
+            throw new IllegalStateException(ex);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static long computeSize(final Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.internal.diffcheckers;
+
+import org.knime.testing.core.DifferenceChecker;
+
+/**
+ * Optional extension of a {@link DifferenceChecker} that searches arrays of primitive values for the first pair of
+ * values that don't match. It is used by the Table Difference Checker, which reads batches of rows of int, long, and
+ * double columns into arrays. Implementations should process the arrays in blocks of {@link #BLOCK_SIZE} values
+ * without branches inside a block so that the JIT compiler can unroll and vectorize the loop. Like for
+ * {@link PrimitiveChecker} the reported position is only a candidate: the values are compared again with
+ * {@link DifferenceChecker#check(org.knime.core.data.DataValue, org.knime.core.data.DataValue)} and the search
+ * continues after the candidate if they match.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+public interface BatchChecker extends PrimitiveChecker {
+    /** The number of values that should be compared without a branch. */
+    int BLOCK_SIZE = 16;
+
+    /**
+     * Returns the first position in the given range at which the integer values may not match.
+     *
+     * @param expected the expected values
+     * @param got the actual values
+     * @param skipped flags for positions that must not be compared, e.g. because a cell is missing
+     * @param from the first position (inclusive)
+     * @param to the last position (exclusive)
+     * @return the first position of a possible mismatch or -1 if all values in the range match
+     */
+    int firstMismatch(long[] expected, long[] got, boolean[] skipped, int from, int to);
+
+    /**
+     * Returns the first position in the given range at which the floating point values may not match.
+     *
+     * @param expected the expected values
+     * @param got the actual values
+     * @param skipped flags for positions that must not be compared, e.g. because a cell is missing
+     * @param from the first position (inclusive)
+     * @param to the last position (exclusive)
+     * @return the first position of a possible mismatch or -1 if all values in the range match
+     */
+    int firstMismatch(double[] expected, double[] got, boolean[] skipped, int from, int to);
+}
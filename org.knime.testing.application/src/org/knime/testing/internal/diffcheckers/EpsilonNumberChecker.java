@@ -67,7 +67,8 @@
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  * @since 2.9
  */
-public class EpsilonNumberChecker extends AbstractDifferenceChecker<DoubleValue> {
+public class EpsilonNumberChecker extends AbstractDifferenceChecker<DoubleValue> implements BatchChecker,
+    ToleranceChecker {
     /**
      * Factory for the {@link EpsilonNumberChecker}.
      */
@@ -128,6 +129,83 @@ public Result check(final DoubleValue expected, final DoubleValue got) {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(final long expected, final long got) {
+        // the regular check also compares the double values
+        return matches((double)expected, (double)got);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(final double expected, final double got) {
+        return (expected == got) || (Math.abs(expected - got) <= m_epsilon.getDoubleValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTolerance() {
+        return Math.max(0, m_epsilon.getDoubleValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int firstMismatch(final long[] expected, final long[] got, final boolean[] skipped, final int from,
+        final int to) {
+        final double epsilon = m_epsilon.getDoubleValue();
+        for (int block = from; block < to; block += BLOCK_SIZE) {
+            final int blockEnd = Math.min(block + BLOCK_SIZE, to);
+            boolean mismatch = false;
+            for (int i = block; i < blockEnd; i++) {
+                final double e = expected[i];
+                final double g = got[i];
+                mismatch |= !skipped[i] & !((e == g) | (Math.abs(e - g) <= epsilon));
+            }
+            if (mismatch) {
+                for (int i = block; i < blockEnd; i++) {
+                    if (!skipped[i] && !matches(expected[i], got[i])) {
+                        return i;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int firstMismatch(final double[] expected, final double[] got, final boolean[] skipped, final int from,
+        final int to) {
+        final double epsilon = m_epsilon.getDoubleValue();
+        for (int block = from; block < to; block += BLOCK_SIZE) {
+            final int blockEnd = Math.min(block + BLOCK_SIZE, to);
+            boolean mismatch = false;
+            for (int i = block; i < blockEnd; i++) {
+                final double e = expected[i];
+                final double g = got[i];
+                mismatch |= !skipped[i] & !((e == g) | (Math.abs(e - g) <= epsilon));
+            }
+            if (mismatch) {
+                for (int i = block; i < blockEnd; i++) {
+                    if (!skipped[i] && !matches(expected[i], got[i])) {
+                        return i;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * {@inheritDoc}
      */
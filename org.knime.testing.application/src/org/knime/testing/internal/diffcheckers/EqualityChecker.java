@@ -58,7 +58,7 @@
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  * @since 2.9
  */
-public class EqualityChecker extends AbstractDifferenceChecker<DataValue> {
+public class EqualityChecker extends AbstractDifferenceChecker<DataValue> implements BatchChecker, NormalizingChecker {
     /**
      * Factory for the {@link EqualityChecker}.
      */
@@ -102,6 +102,86 @@ public Result check(final DataValue expected, final DataValue got) {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(final long expected, final long got) {
+        return expected == got;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(final double expected, final double got) {
+        // NaN and signed zeros are left to the cells' equals method
+        return (expected == got) && (Double.doubleToLongBits(expected) == Double.doubleToLongBits(got));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(final String expected, final String got) {
+        return expected.equals(got);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object normalize(final DataValue value) {
+        // the check uses the value's equals method
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int firstMismatch(final long[] expected, final long[] got, final boolean[] skipped, final int from,
+        final int to) {
+        for (int block = from; block < to; block += BLOCK_SIZE) {
+            final int blockEnd = Math.min(block + BLOCK_SIZE, to);
+            boolean mismatch = false;
+            for (int i = block; i < blockEnd; i++) {
+                mismatch |= !skipped[i] & (expected[i] != got[i]);
+            }
+            if (mismatch) {
+                for (int i = block; i < blockEnd; i++) {
+                    if (!skipped[i] && (expected[i] != got[i])) {
+                        return i;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int firstMismatch(final double[] expected, final double[] got, final boolean[] skipped, final int from,
+        final int to) {
+        for (int block = from; block < to; block += BLOCK_SIZE) {
+            final int blockEnd = Math.min(block + BLOCK_SIZE, to);
+            boolean mismatch = false;
+            for (int i = block; i < blockEnd; i++) {
+                mismatch |= !skipped[i] & !matches(expected[i], got[i]);
+            }
+            if (mismatch) {
+                for (int i = block; i < blockEnd; i++) {
+                    if (!skipped[i] && !matches(expected[i], got[i])) {
+                        return i;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
     /**
      * {@inheritDoc}
      */
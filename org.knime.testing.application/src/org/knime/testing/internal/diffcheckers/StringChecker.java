@@ -53,6 +53,7 @@
 import java.util.ArrayList;
 import java.util.List;
 
+import org.knime.core.data.DataValue;
 import org.knime.core.data.StringValue;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeSettingsRO;
@@ -70,7 +71,8 @@
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  * @since 2.9
  */
-public class StringChecker extends AbstractDifferenceChecker<StringValue> {
+public class StringChecker extends AbstractDifferenceChecker<StringValue>
+    implements PrimitiveChecker, NormalizingChecker {
     /**
      * Factory for the {@link StringChecker}.
      */
@@ -145,6 +147,30 @@ public Result check(final StringValue valueA, final StringValue valueB) {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean matches(final String expected, final String got) {
+        // equal strings also have equal lines, strings with different line feeds are checked line by line
+        return expected.equals(got);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object normalize(final DataValue value) {
+        String s = ((StringValue)value).getStringValue();
+        if (m_ignoreLinefeeds.getBooleanValue()) {
+            // same line terminators as the line-by-line comparison, the list keeps a trailing empty line apart from
+            // no line at all
+            return s.lines().toList();
+        } else {
+            return s;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,207 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.internal.nodes.differ;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Maximum matching in a bipartite graph with the algorithm of Hopcroft and Karp. The neighbors of a left vertex are
+ * only requested when the search reaches the vertex, so an initial matching that is already maximal is confirmed
+ * without computing any neighbors of matched vertices.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+final class BipartiteMatching {
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final IntFunction<int[]> m_neighbors;
+
+    private final int[][] m_adjacency;
+
+    private final int[] m_leftMatch;
+
+    private final int[] m_rightMatch;
+
+    private final int[] m_distance;
+
+    private final int[] m_nextNeighbor;
+
+    private final int[] m_stack;
+
+    private final int[] m_via;
+
+    private BipartiteMatching(final int leftCount, final int rightCount, final IntFunction<int[]> neighbors) {
+        m_neighbors = neighbors;
+        m_adjacency = new int[leftCount][];
+        m_leftMatch = new int[leftCount];
+        m_rightMatch = new int[rightCount];
+        m_distance = new int[leftCount];
+        m_nextNeighbor = new int[leftCount];
+        m_stack = new int[leftCount];
+        m_via = new int[leftCount];
+        Arrays.fill(m_leftMatch, -1);
+        Arrays.fill(m_rightMatch, -1);
+    }
+
+    /**
+     * Computes a maximum matching.
+     *
+     * @param leftCount the number of left vertices
+     * @param rightCount the number of right vertices
+     * @param neighbors returns the indices of the right vertices that are adjacent to a left vertex, called at most
+     *            once per left vertex
+     * @param initialMatch the right vertex of each left vertex in a valid initial matching or -1 if the left vertex
+     *            is not matched initially, may be <code>null</code>
+     * @return the matched right vertex for each left vertex or -1 if the left vertex is not matched
+     */
+    static int[] maximumMatching(final int leftCount, final int rightCount, final IntFunction<int[]> neighbors,
+        final int[] initialMatch) {
+        BipartiteMatching matching = new BipartiteMatching(leftCount, rightCount, neighbors);
+        int unmatched = leftCount;
+        if (initialMatch != null) {
+            for (int u = 0; u < leftCount; u++) {
+                if (initialMatch[u] >= 0) {
+                    matching.m_leftMatch[u] = initialMatch[u];
+                    matching.m_rightMatch[initialMatch[u]] = u;
+                    unmatched--;
+                }
+            }
+        }
+
+        // the matching cannot grow any further once all vertices on one side are matched
+        while ((unmatched > 0) && (unmatched > leftCount - rightCount) && matching.buildLayers()) {
+            Arrays.fill(matching.m_nextNeighbor, 0);
+            for (int u = 0; u < leftCount; u++) {
+                if ((matching.m_leftMatch[u] < 0) && matching.augment(u)) {
+                    unmatched--;
+                }
+            }
+        }
+        return matching.m_leftMatch;
+    }
+
+    private int[] neighbors(final int u) {
+        if (m_adjacency[u] == null) {
+            m_adjacency[u] = m_neighbors.apply(u);
+        }
+        return m_adjacency[u];
+    }
+
+    /**
+     * Computes the distance of every left vertex from the unmatched left vertices along alternating paths.
+     *
+     * @return <code>true</code> if an unmatched right vertex is reachable, <code>false</code> otherwise
+     */
+    private boolean buildLayers() {
+        int[] queue = new int[m_leftMatch.length];
+        int head = 0;
+        int tail = 0;
+        for (int u = 0; u < m_leftMatch.length; u++) {
+            if (m_leftMatch[u] < 0) {
+                m_distance[u] = 0;
+                queue[tail++] = u;
+            } else {
+                m_distance[u] = UNREACHED;
+            }
+        }
+
+        boolean found = false;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int v : neighbors(u)) {
+                int w = m_rightMatch[v];
+                if (w < 0) {
+                    found = true;
+                } else if (m_distance[w] == UNREACHED) {
+                    m_distance[w] = m_distance[u] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Searches an augmenting path along the layers from an unmatched left vertex and flips it. The depth-first search
+     * uses an explicit stack because paths may be as long as the number of vertices.
+     *
+     * @return <code>true</code> if the matching has been augmented, <code>false</code> otherwise
+     */
+    private boolean augment(final int root) {
+        int[] stack = m_stack;
+        int[] via = m_via;
+        int depth = 0;
+        stack[depth++] = root;
+        while (depth > 0) {
+            int u = stack[depth - 1];
+            int[] adjacent = neighbors(u);
+            if (m_nextNeighbor[u] >= adjacent.length) {
+                // dead end, no other path leads through this vertex in the current phase
+                m_distance[u] = UNREACHED;
+                depth--;
+                continue;
+            }
+
+            int v = adjacent[m_nextNeighbor[u]++];
+            int w = m_rightMatch[v];
+            if (w < 0) {
+                via[depth - 1] = v;
+                for (int i = depth - 1; i >= 0; i--) {
+                    m_leftMatch[stack[i]] = via[i];
+                    m_rightMatch[via[i]] = stack[i];
+                }
+                return true;
+            } else if (m_distance[w] == m_distance[u] + 1) {
+                via[depth - 1] = v;
+                stack[depth++] = w;
+            }
+        }
+        return false;
+    }
+}
@@ -48,6 +48,7 @@
 package org.knime.testing.internal.nodes.differ;
 
 import java.awt.Component;
+import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.util.HashMap;
@@ -58,10 +59,13 @@
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
+import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.JTable;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
@@ -253,6 +257,12 @@ public int getRowHeight() {
 
     private final JCheckBox m_ignoreRowsIds = new JCheckBox("Ignore row IDs (use with caution!)");
 
+    private final JCheckBox m_parallelComparison = new JCheckBox("Compare rows in parallel");
+
+    private final JCheckBox m_ignoreRowOrder = new JCheckBox("Ignore row order");
+
+    private final JSpinner m_maxDifferences = new JSpinner(new SpinnerNumberModel(1000, 0, Integer.MAX_VALUE, 100));
+
     private final JScrollPane m_columnConfigPanel = new JScrollPane();
 
     private final DifferenceCheckerSettings m_settings = new DifferenceCheckerSettings();
@@ -262,7 +272,7 @@ public int getRowHeight() {
 
     private DataTableSpec m_spec = new DataTableSpec();
 
-    DifferenceCheckerNodeDialog() {
+    DifferenceCheckerNodeDialog(final boolean hasDifferencePort) {
         JPanel p = new JPanel(new GridBagLayout());
 
         GridBagConstraints c = new GridBagConstraints();
@@ -293,6 +303,20 @@ public void valueChanged(final ListSelectionEvent e) {
         c.fill = GridBagConstraints.NONE;
         p.add(m_ignoreRowsIds, c);
 
+        c.gridy++;
+        p.add(m_parallelComparison, c);
+
+        c.gridy++;
+        p.add(m_ignoreRowOrder, c);
+
+        c.gridy++;
+        JPanel maxPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        maxPanel.add(new JLabel("Maximum number of listed differences "));
+        maxPanel.add(m_maxDifferences);
+        // the limit only applies to the optional difference table
+        m_maxDifferences.setEnabled(hasDifferencePort);
+        p.add(maxPanel, c);
+
         addTab("Column Configuration", p);
     }
 
@@ -339,6 +363,9 @@ protected void loadSettingsFrom(final NodeSettingsRO settings, final DataTableSp
         m_tableModel.fireTableDataChanged();
 
         m_ignoreRowsIds.setSelected(m_settings.ignoreRowIds());
+        m_parallelComparison.setSelected(m_settings.parallelComparison());
+        m_ignoreRowOrder.setSelected(m_settings.ignoreRowOrder());
+        m_maxDifferences.setValue(m_settings.maxDifferences());
     }
 
     /**
@@ -351,6 +378,9 @@ protected void saveSettingsTo(final NodeSettingsWO settings) throws InvalidSetti
         }
 
         m_settings.ignoreRowIds(m_ignoreRowsIds.isSelected());
+        m_settings.parallelComparison(m_parallelComparison.isSelected());
+        m_settings.ignoreRowOrder(m_ignoreRowOrder.isSelected());
+        m_settings.maxDifferences((Integer)m_maxDifferences.getValue());
         m_settings.saveSettings(settings);
     }
 }
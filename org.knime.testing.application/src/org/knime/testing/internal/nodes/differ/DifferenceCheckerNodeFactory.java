@@ -47,23 +47,48 @@
  */
 package org.knime.testing.internal.nodes.differ;
 
+import java.util.Optional;
+
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ConfigurableNodeFactory;
 import org.knime.core.node.NodeDialogPane;
-import org.knime.core.node.NodeFactory;
 import org.knime.core.node.NodeView;
+import org.knime.core.node.context.NodeCreationConfiguration;
+import org.knime.core.node.context.ports.PortsConfiguration;
 
 /**
  * Factory for the difference checker node.
  *
  * @author Thorsten Meinl, KNIME AG, Zurich, Switzerland
  */
-public class DifferenceCheckerNodeFactory extends NodeFactory<DifferenceCheckerNodeModel> {
+public class DifferenceCheckerNodeFactory extends ConfigurableNodeFactory<DifferenceCheckerNodeModel> {
+    static final String TEST_INPUT_PORT_GRP_NAME = "Test Table";
+
+    static final String REFERENCE_INPUT_PORT_GRP_NAME = "Reference Table";
+
+    static final String DIFFERENCES_OUTPUT_PORT_GRP_NAME = "Differences";
+
+    static final String SUMMARY_OUTPUT_PORT_GRP_NAME = "Difference summary";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Optional<PortsConfigurationBuilder> createPortsConfigBuilder() {
+        final PortsConfigurationBuilder builder = new PortsConfigurationBuilder();
+        builder.addFixedInputPortGroup(TEST_INPUT_PORT_GRP_NAME, BufferedDataTable.TYPE);
+        builder.addFixedInputPortGroup(REFERENCE_INPUT_PORT_GRP_NAME, BufferedDataTable.TYPE);
+        builder.addOptionalOutputPortGroup(DIFFERENCES_OUTPUT_PORT_GRP_NAME, BufferedDataTable.TYPE);
+        builder.addOptionalOutputPortGroup(SUMMARY_OUTPUT_PORT_GRP_NAME, BufferedDataTable.TYPE);
+        return Optional.of(builder);
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public DifferenceCheckerNodeModel createNodeModel() {
-        return new DifferenceCheckerNodeModel();
+    protected DifferenceCheckerNodeModel createNodeModel(final NodeCreationConfiguration creationConfig) {
+        return new DifferenceCheckerNodeModel(creationConfig.getPortConfig().orElseThrow(IllegalStateException::new));
     }
 
     /**
@@ -94,7 +119,9 @@ protected boolean hasDialog() {
      * {@inheritDoc}
      */
     @Override
-    protected NodeDialogPane createNodeDialogPane() {
-        return new DifferenceCheckerNodeDialog();
+    protected NodeDialogPane createNodeDialogPane(final NodeCreationConfiguration creationConfig) {
+        PortsConfiguration portsConfig = creationConfig.getPortConfig().orElseThrow(IllegalStateException::new);
+        return new DifferenceCheckerNodeDialog(
+            portsConfig.getOutputPortLocation().get(DIFFERENCES_OUTPUT_PORT_GRP_NAME).length > 0);
     }
 }
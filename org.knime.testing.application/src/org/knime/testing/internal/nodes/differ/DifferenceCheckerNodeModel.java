@@ -49,41 +49,70 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.knime.core.data.AdapterValue;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnDomain;
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
 import org.knime.core.data.DataValue;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.IntValue;
+import org.knime.core.data.LongValue;
 import org.knime.core.data.RWAdapterValue;
-import org.knime.core.data.RowIterator;
-import org.knime.core.data.RowKey;
+import org.knime.core.data.StringValue;
 import org.knime.core.data.collection.CollectionDataValue;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.container.filter.TableFilter;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.data.v2.ReadValue;
+import org.knime.core.data.v2.RowCursor;
+import org.knime.core.data.v2.RowRead;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.context.ports.PortsConfiguration;
 import org.knime.core.node.util.ConvenienceMethods;
+import org.knime.core.util.ThreadPool;
 import org.knime.testing.core.DifferenceChecker;
 import org.knime.testing.core.DifferenceChecker.Result;
 import org.knime.testing.core.DifferenceCheckerFactory;
+import org.knime.testing.internal.diffcheckers.BatchChecker;
 import org.knime.testing.internal.diffcheckers.EqualityChecker;
 import org.knime.testing.internal.diffcheckers.IgnoreChecker;
+import org.knime.testing.internal.diffcheckers.NormalizingChecker;
+import org.knime.testing.internal.diffcheckers.PrimitiveChecker;
+import org.knime.testing.internal.diffcheckers.ToleranceChecker;
 
 /**
  * Model for the difference checker node.
@@ -93,13 +122,567 @@
 class DifferenceCheckerNodeModel extends NodeModel {
     static final NodeLogger LOGGER = NodeLogger.getLogger(DifferenceCheckerNodeModel.class);
 
+    /** Tables are only split into ranges with at least this number of rows. */
+    private static final long MIN_ROWS_PER_RANGE = 10000;
+
+    /** The number of ranges per thread, more ranges than threads balance different comparison costs. */
+    private static final int RANGES_PER_THREAD = 4;
+
+    /** The number of rows after which progress and cancellation are checked. */
+    private static final int PROGRESS_INTERVAL = 1024;
+
+    /** The maximum number of rows that are kept in memory for matching rows regardless of their order. */
+    private static final int MAX_SEGMENT_ROWS = 100000;
+
     private final DifferenceCheckerSettings m_settings = new DifferenceCheckerSettings();
 
     private final Map<DataColumnSpec, DifferenceChecker<? extends DataValue>> m_checkers =
             new HashMap<DataColumnSpec, DifferenceChecker<? extends DataValue>>();
 
-    DifferenceCheckerNodeModel() {
-        super(2, 0);
+    /** The index of the output port for the differences or -1 if the port does not exist. */
+    private final int m_differencesPort;
+
+    /** The index of the output port for the number of differences per column or -1 if the port does not exist. */
+    private final int m_summaryPort;
+
+    /**
+     * A difference between the two tables.
+     *
+     * @param rowIndex the index of the row with the difference
+     * @param exception the exception that describes the difference
+     */
+    private record Difference(long rowIndex, IllegalStateException exception) {
+    }
+
+    /**
+     * A row together with its index in the original table.
+     *
+     * @param index the index of the row in the table
+     * @param row the row
+     */
+    private record IndexedRow(long index, DataRow row) {
+    }
+
+    /**
+     * The state of a comparison that ignores the row order. The rows that are compared have the hash of their group,
+     * the hash of their compared cells, and their index appended as three additional columns.
+     *
+     * @param spec the spec of the reference table
+     * @param checkers the checkers for all columns
+     * @param sortColumn the index of the first column whose checker is a {@link ToleranceChecker} or -1 if there is
+     *            none
+     * @param tolerance the tolerance of the sort column
+     * @param range the report or <code>null</code> if only the first difference is returned
+     */
+    private record UnorderedComparison(DataTableSpec spec, DifferenceChecker<DataValue>[] checkers, int sortColumn,
+        double tolerance, DifferenceReport.Range range) {
+
+        /**
+         * Compares two rows by the hash of their group, by the value in the sort column, and finally by the hash of
+         * their compared cells, so that identical rows are next to each other.
+         */
+        int compare(final DataRow a, final DataRow b) {
+            int c = Integer.compare(groupHash(a), groupHash(b));
+            if ((c == 0) && (sortColumn >= 0)) {
+                int aClass = sortClass(a.getCell(sortColumn));
+                c = Integer.compare(aClass, sortClass(b.getCell(sortColumn)));
+                if ((c == 0) && (aClass == 1)) {
+                    c = Double.compare(value(a), value(b));
+                }
+            }
+            return (c != 0) ? c : Integer.compare(cellsHash(a), cellsHash(b));
+        }
+
+        /**
+         * Checks whether the next row in the sorted order may still match the previous row or any row before it.
+         */
+        boolean sameSegment(final DataRow previous, final DataRow next) {
+            if (groupHash(previous) != groupHash(next)) {
+                return false;
+            } else if (sortColumn < 0) {
+                return true;
+            }
+            return (sortClass(previous.getCell(sortColumn)) == sortClass(next.getCell(sortColumn)))
+                && !expired(previous, next);
+        }
+
+        /**
+         * Checks whether a row can no longer match the next row or any row after it in the sorted order, because
+         * their numbers in the sort column are further apart than the tolerance.
+         */
+        boolean expired(final DataRow row, final DataRow next) {
+            // the difference of infinite values is NaN, equal infinite values do not expire
+            return (sortColumn >= 0) && (sortClass(row.getCell(sortColumn)) == 1)
+                && (sortClass(next.getCell(sortColumn)) == 1) && (value(next) - value(row) > tolerance);
+        }
+
+        /**
+         * Checks whether the row has a number in the sort column, only such rows are put into buckets.
+         */
+        boolean hasBucket(final DataRow row) {
+            return (sortColumn >= 0) && (sortClass(row.getCell(sortColumn)) == 1);
+        }
+
+        /**
+         * Returns the bucket of the number in the sort column. The buckets are twice as wide as the tolerance, so
+         * numbers within the tolerance are always in the same or in adjacent buckets despite rounding errors. Without
+         * a tolerance only equal numbers are in the same bucket.
+         */
+        long bucket(final DataRow row) {
+            double value = value(row);
+            // adding zero turns -0.0 into 0.0, infinite and very large numbers end up in the outermost buckets
+            return (tolerance > 0) ? (long)Math.floor(value / (2 * tolerance))
+                : Double.doubleToLongBits(value + 0.0);
+        }
+
+        private double value(final DataRow row) {
+            return ((DoubleValue)row.getCell(sortColumn)).getDoubleValue();
+        }
+
+        private int groupHash(final DataRow row) {
+            return ((IntValue)row.getCell(spec.getNumColumns())).getIntValue();
+        }
+
+        private int cellsHash(final DataRow row) {
+            return ((IntValue)row.getCell(spec.getNumColumns() + 1)).getIntValue();
+        }
+
+        /**
+         * Returns 0 for missing cells, 1 for numbers and 2 for NaN, missing cells and NaN only match themselves.
+         */
+        static int sortClass(final DataCell cell) {
+            if (cell.isMissing()) {
+                return 0;
+            }
+            return Double.isNaN(((DoubleValue)cell).getDoubleValue()) ? 2 : 1;
+        }
+    }
+
+    /**
+     * Matches the rows of both tables while they are merged in the sorted order, see
+     * {@link DifferenceCheckerNodeModel#compareUnordered(BufferedDataTable, BufferedDataTable, ExecutionContext,
+     * DifferenceReport)}.
+     */
+    private interface UnorderedMatcher {
+        /**
+         * Adds the next row in the sorted order.
+         *
+         * @param row the row
+         * @param ref <code>true</code> if the row is from the reference table, <code>false</code> if it is from the
+         *            test table
+         * @return the difference in the reference row with the lowest index among the rows that are known to be
+         *         unmatched by now or <code>null</code>
+         */
+        Difference add(IndexedRow row, boolean ref);
+
+        /**
+         * Matches the remaining rows after the last row has been added.
+         *
+         * @return the difference in the reference row with the lowest index among the remaining rows or
+         *         <code>null</code>
+         */
+        Difference finish();
+    }
+
+    /**
+     * Matches rows in a single pass if apart from the sort column only their group decides whether they match, i.e.
+     * all other compared columns use a {@link NormalizingChecker}. Every row is matched with the earliest pending row
+     * of the other table in the same group that is still within the tolerance. Since all rows accept the same range
+     * of values around their own value, this yields a maximum matching. Only the pending rows within the tolerance of
+     * the current row are kept in memory, so even a single group with densely distributed values does not need to
+     * fit into memory.
+     */
+    private final class WindowMatcher implements UnorderedMatcher {
+        private final UnorderedComparison m_comparison;
+
+        private final UnmatchedRows m_unmatched;
+
+        /** The pending reference rows of each group, at most one of the tables has pending rows in a group. */
+        private final Map<List<Object>, Deque<IndexedRow>> m_pendingRefs = new HashMap<>();
+
+        /** The pending test rows of each group. */
+        private final Map<List<Object>, Deque<IndexedRow>> m_pendingTests = new HashMap<>();
+
+        private DataRow m_last;
+
+        WindowMatcher(final UnorderedComparison comparison) {
+            m_comparison = comparison;
+            m_unmatched = new UnmatchedRows(comparison);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Difference add(final IndexedRow row, final boolean ref) {
+            Difference difference = null;
+            if ((m_last != null) && !m_comparison.sameSegment(m_last, row.row())) {
+                difference = finish();
+            }
+            m_last = row.row();
+
+            List<Object> group = getGroup(row.row(), m_comparison.checkers());
+            Deque<IndexedRow> others = (ref ? m_pendingTests : m_pendingRefs).get(group);
+            if (others != null) {
+                expire(others, row, !ref);
+                IndexedRow other = others.peekFirst();
+                if ((other != null) && (ref ? matches(row.row(), other.row(), m_comparison)
+                    : matches(other.row(), row.row(), m_comparison))) {
+                    others.removeFirst();
+                    return earlier(difference, m_unmatched.reportIfFull());
+                }
+            }
+            Deque<IndexedRow> own =
+                (ref ? m_pendingRefs : m_pendingTests).computeIfAbsent(group, k -> new ArrayDeque<>());
+            expire(own, row, ref);
+            own.add(row);
+            return earlier(difference, m_unmatched.reportIfFull());
+        }
+
+        /**
+         * Moves the pending rows that can no longer match the given row or any later row to the unmatched rows.
+         */
+        private void expire(final Deque<IndexedRow> pending, final IndexedRow row, final boolean ref) {
+            while (!pending.isEmpty() && m_comparison.expired(pending.peekFirst().row(), row.row())) {
+                m_unmatched.add(pending.removeFirst(), ref);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Difference finish() {
+            m_pendingRefs.values().forEach(rows -> rows.forEach(r -> m_unmatched.add(r, true)));
+            m_pendingTests.values().forEach(rows -> rows.forEach(r -> m_unmatched.add(r, false)));
+            m_pendingRefs.clear();
+            m_pendingTests.clear();
+            return m_unmatched.report();
+        }
+    }
+
+    /**
+     * Matches rows by computing a maximum matching for each segment of rows that may match each other, see
+     * {@link DifferenceCheckerNodeModel#matchSegment(List, List, UnorderedComparison, List, List)}. This is needed if
+     * another column than the sort column may reject rows of the same group, e.g. a second column compared with an
+     * epsilon. Segments with more than {@link DifferenceCheckerNodeModel#MAX_SEGMENT_ROWS} rows are matched in parts;
+     * the unmatched rows of a part that may still match later rows are carried over into the next part, up to a
+     * quarter of the maximum from each table. The matches of a part are kept, so in such a large segment a few rows
+     * may stay unmatched although a different assignment would have matched them.
+     */
+    private final class SegmentMatcher implements UnorderedMatcher {
+        private final UnorderedComparison m_comparison;
+
+        private final UnmatchedRows m_unmatched;
+
+        private final List<IndexedRow> m_refs = new ArrayList<>();
+
+        private final List<IndexedRow> m_tests = new ArrayList<>();
+
+        private DataRow m_last;
+
+        SegmentMatcher(final UnorderedComparison comparison) {
+            m_comparison = comparison;
+            m_unmatched = new UnmatchedRows(comparison);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Difference add(final IndexedRow row, final boolean ref) {
+            Difference difference = null;
+            if ((m_last != null) && !m_comparison.sameSegment(m_last, row.row())) {
+                difference = matchRows(null);
+            } else if (m_refs.size() + m_tests.size() >= MAX_SEGMENT_ROWS) {
+                difference = matchRows(row.row());
+            }
+            m_last = row.row();
+            (ref ? m_refs : m_tests).add(row);
+            return difference;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Difference finish() {
+            return matchRows(null);
+        }
+
+        /**
+         * Matches the collected rows. If the segment is cut before the next row, the unmatched rows that may still
+         * match the next row are kept.
+         */
+        private Difference matchRows(final DataRow next) {
+            List<IndexedRow> unmatchedRefs = new ArrayList<>();
+            List<IndexedRow> unmatchedTests = new ArrayList<>();
+            matchSegment(m_refs, m_tests, m_comparison, unmatchedRefs, unmatchedTests);
+            m_refs.clear();
+            m_tests.clear();
+            for (IndexedRow r : (next != null) ? carry(unmatchedRefs, m_refs, next) : unmatchedRefs) {
+                m_unmatched.add(r, true);
+            }
+            for (IndexedRow r : (next != null) ? carry(unmatchedTests, m_tests, next) : unmatchedTests) {
+                m_unmatched.add(r, false);
+            }
+            return m_unmatched.report();
+        }
+
+        /**
+         * Moves the latest unmatched rows in the sorted order that may still match the next row into the carried rows
+         * and returns the others.
+         */
+        private List<IndexedRow> carry(final List<IndexedRow> unmatched, final List<IndexedRow> carried,
+            final DataRow next) {
+            unmatched.sort((a, b) -> m_comparison.compare(a.row(), b.row()));
+            List<IndexedRow> others = new ArrayList<>();
+            for (int i = unmatched.size() - 1; i >= 0; i--) {
+                IndexedRow row = unmatched.get(i);
+                if ((carried.size() < MAX_SEGMENT_ROWS / 4) && !m_comparison.expired(row.row(), next)) {
+                    carried.add(row);
+                } else {
+                    others.add(row);
+                }
+            }
+            return others;
+        }
+    }
+
+    /**
+     * Collects rows without a matching row and reports them. Every unmatched reference row is compared with an
+     * unmatched test row of the same group, if there is one, to describe the difference.
+     */
+    private final class UnmatchedRows {
+        private final UnorderedComparison m_comparison;
+
+        private final List<IndexedRow> m_refs = new ArrayList<>();
+
+        private final Map<List<Object>, Deque<IndexedRow>> m_tests = new HashMap<>();
+
+        private int m_count;
+
+        UnmatchedRows(final UnorderedComparison comparison) {
+            m_comparison = comparison;
+        }
+
+        void add(final IndexedRow row, final boolean ref) {
+            if (ref) {
+                m_refs.add(row);
+            } else {
+                m_tests.computeIfAbsent(getGroup(row.row(), m_comparison.checkers()), k -> new ArrayDeque<>())
+                    .add(row);
+            }
+            m_count++;
+        }
+
+        /**
+         * Reports the collected rows if there are too many of them to keep in memory.
+         */
+        Difference reportIfFull() {
+            return (m_count >= MAX_SEGMENT_ROWS) ? report() : null;
+        }
+
+        /**
+         * Reports the collected rows and forgets them.
+         *
+         * @return the difference in the unmatched reference row with the lowest index or <code>null</code> if there
+         *         is none or the differences have been reported
+         */
+        Difference report() {
+            final DifferenceReport.Range range = m_comparison.range();
+            m_refs.sort(Comparator.comparingLong(IndexedRow::index));
+            Difference difference = null;
+            for (IndexedRow ref : m_refs) {
+                String refKey = ref.row().getKey().getString();
+                Deque<IndexedRow> candidates = m_tests.get(getGroup(ref.row(), m_comparison.checkers()));
+                try {
+                    if ((candidates != null) && !candidates.isEmpty()) {
+                        compareMatchedRows(m_comparison.spec(), m_comparison.checkers(), ref.row(),
+                            candidates.removeFirst().row(), range);
+                    } else {
+                        IllegalStateException ex = new IllegalStateException("No matching row in test table for row '"
+                            + refKey + "' of the reference table");
+                        if (range == null) {
+                            throw ex;
+                        }
+                        range.add(refKey, DifferenceReport.ROW_ID, refKey, null, ex.getMessage());
+                    }
+                } catch (IllegalStateException ex) {
+                    difference = new Difference(ref.index(), ex);
+                    break;
+                }
+            }
+
+            if (range != null) {
+                // without a report, an unmatched test row always implies an unmatched reference row somewhere
+                List<IndexedRow> unexpectedRows = new ArrayList<>();
+                for (Deque<IndexedRow> rows : m_tests.values()) {
+                    unexpectedRows.addAll(rows);
+                }
+                unexpectedRows.sort(Comparator.comparingLong(IndexedRow::index));
+                for (IndexedRow test : unexpectedRows) {
+                    String testKey = test.row().getKey().getString();
+                    range.add(testKey, DifferenceReport.ROW_ID, null, testKey, "Unexpected row '" + testKey
+                        + "' in test table without a matching row in the reference table");
+                }
+            }
+            m_refs.clear();
+            m_tests.clear();
+            m_count = 0;
+            return difference;
+        }
+    }
+
+    /**
+     * The state of a comparison that is shared by all ranges of rows.
+     *
+     * @param spec the spec of the reference table
+     * @param refTable the reference table
+     * @param batched whether the rows are compared in batches of primitive values
+     * @param firstDifference the index of the first row with a difference found so far
+     * @param comparedRows the number of rows compared so far
+     * @param exec the execution context for progress and cancellation
+     */
+    private record Comparison(DataTableSpec spec, BufferedDataTable refTable, boolean batched,
+        AtomicLong firstDifference, AtomicLong comparedRows, ExecutionContext exec) {
+
+        /**
+         * Checks for cancellation and updates the progress before the next rows are compared.
+         *
+         * @param rowIndex the index of the next row
+         * @param rows the number of rows that are compared next
+         * @return <code>true</code> if the comparison should proceed, <code>false</code> if a difference before the
+         *         row has already been found in another range
+         * @throws CanceledExecutionException if execution has been canceled
+         */
+        boolean proceed(final long rowIndex, final long rows) throws CanceledExecutionException {
+            exec.checkCanceled();
+            if (rowIndex > firstDifference.get()) {
+                return false;
+            }
+            final long compared = comparedRows.addAndGet(rows);
+            final long rowCount = refTable.size();
+            exec.setProgress(compared / (double)rowCount, () -> "Compared " + compared + " of " + rowCount + " rows");
+            return true;
+        }
+
+        Difference found(final long rowIndex, final IllegalStateException exception) {
+            firstDifference.accumulateAndGet(rowIndex, Math::min);
+            return new Difference(rowIndex, exception);
+        }
+    }
+
+    /**
+     * The values of one int, long, or double column for a batch of rows, read into primitive arrays. Int values are
+     * stored in the long array.
+     */
+    private static final class ColumnBatch {
+        private final DataType m_type;
+
+        private final long[] m_refLongs, m_testLongs;
+
+        private final double[] m_refDoubles, m_testDoubles;
+
+        /** Marks rows in which at least one of the cells is missing, they are skipped by the batch checkers. */
+        private final boolean[] m_missing;
+
+        private final boolean[] m_refMissing, m_testMissing;
+
+        ColumnBatch(final DataType type, final int size) {
+            m_type = type;
+            boolean isDouble = type.equals(DoubleCell.TYPE);
+            m_refLongs = isDouble ? null : new long[size];
+            m_testLongs = isDouble ? null : new long[size];
+            m_refDoubles = isDouble ? new double[size] : null;
+            m_testDoubles = isDouble ? new double[size] : null;
+            m_missing = new boolean[size];
+            m_refMissing = new boolean[size];
+            m_testMissing = new boolean[size];
+        }
+
+        void read(final RowRead refRow, final RowRead testRow, final int column, final int row) {
+            boolean refMissing = refRow.isMissing(column);
+            boolean testMissing = testRow.isMissing(column);
+            m_refMissing[row] = refMissing;
+            m_testMissing[row] = testMissing;
+            m_missing[row] = refMissing || testMissing;
+            if (m_missing[row]) {
+                return;
+            }
+
+            if (m_refDoubles != null) {
+                m_refDoubles[row] = refRow.<DoubleValue> getValue(column).getDoubleValue();
+                m_testDoubles[row] = testRow.<DoubleValue> getValue(column).getDoubleValue();
+            } else if (m_type.equals(IntCell.TYPE)) {
+                m_refLongs[row] = refRow.<IntValue> getValue(column).getIntValue();
+                m_testLongs[row] = testRow.<IntValue> getValue(column).getIntValue();
+            } else {
+                m_refLongs[row] = refRow.<LongValue> getValue(column).getLongValue();
+                m_testLongs[row] = testRow.<LongValue> getValue(column).getLongValue();
+            }
+        }
+
+        /**
+         * Returns the first row between the two indices with a difference, i.e. exactly one of the cells is missing
+         * or the values don't match according to the checker.
+         *
+         * @return the row index or the end index if all rows match
+         */
+        int nextDifference(final DifferenceChecker<DataValue> checker, final int from, final int to) {
+            int singleMissing = from;
+            while ((singleMissing < to) && (m_refMissing[singleMissing] == m_testMissing[singleMissing])) {
+                singleMissing++;
+            }
+            int mismatch = findMismatch(checker, from, singleMissing);
+            return (mismatch >= 0) ? mismatch : singleMissing;
+        }
+
+        /**
+         * Returns the first row between the two indices whose values don't match according to the checker. Candidates
+         * reported by the batch checker are verified with the checker's regular method.
+         *
+         * @return the row index or -1 if all rows match
+         */
+        private int findMismatch(final DifferenceChecker<DataValue> checker, final int from, final int to) {
+            BatchChecker batchChecker = (BatchChecker)checker;
+            int next = from;
+            while (next < to) {
+                int candidate = (m_refDoubles != null)
+                    ? batchChecker.firstMismatch(m_refDoubles, m_testDoubles, m_missing, next, to)
+                    : batchChecker.firstMismatch(m_refLongs, m_testLongs, m_missing, next, to);
+                if (candidate < 0) {
+                    return -1;
+                } else if (!checker.check(getCell(true, candidate), getCell(false, candidate)).ok()) {
+                    return candidate;
+                }
+                next = candidate + 1;
+            }
+            return -1;
+        }
+
+        DataCell getCell(final boolean reference, final int row) {
+            if (reference ? m_refMissing[row] : m_testMissing[row]) {
+                return DataType.getMissingCell();
+            } else if (m_refDoubles != null) {
+                return new DoubleCell(reference ? m_refDoubles[row] : m_testDoubles[row]);
+            } else if (m_type.equals(IntCell.TYPE)) {
+                return new IntCell((int)(reference ? m_refLongs[row] : m_testLongs[row]));
+            } else {
+                return new LongCell(reference ? m_refLongs[row] : m_testLongs[row]);
+            }
+        }
+    }
+
+    DifferenceCheckerNodeModel(final PortsConfiguration portsConfig) {
+        super(portsConfig.getInputPorts(), portsConfig.getOutputPorts());
+        m_differencesPort = getOutputPort(portsConfig, DifferenceCheckerNodeFactory.DIFFERENCES_OUTPUT_PORT_GRP_NAME);
+        m_summaryPort = getOutputPort(portsConfig, DifferenceCheckerNodeFactory.SUMMARY_OUTPUT_PORT_GRP_NAME);
+    }
+
+    private static int getOutputPort(final PortsConfiguration portsConfig, final String groupName) {
+        int[] ports = portsConfig.getOutputPortLocation().get(groupName);
+        return ((ports == null) || (ports.length == 0)) ? -1 : ports[0];
     }
 
     /**
@@ -141,7 +724,14 @@ protected DataTableSpec[] configure(final DataTableSpec[] inSpecs) throws Invali
             }
         }
 
-        return new DataTableSpec[0];
+        DataTableSpec[] outSpecs = new DataTableSpec[getNrOutPorts()];
+        if (m_differencesPort >= 0) {
+            outSpecs[m_differencesPort] = DifferenceReport.DIFFERENCES_SPEC;
+        }
+        if (m_summaryPort >= 0) {
+            outSpecs[m_summaryPort] = DifferenceReport.SUMMARY_SPEC;
+        }
+        return outSpecs;
     }
 
     /**
@@ -166,57 +756,713 @@ protected BufferedDataTable[] execute(final BufferedDataTable[] inData, final Ex
 
 
         exec.setMessage("Comparing table contents");
-        final double max = refTable.getRowCount();
-        int i = 0;
-        RowIterator testIt = testTable.iterator();
-        for (DataRow refRow : refTable) {
-            exec.setProgress(i / max, "Comparing row " + i);
-            exec.checkCanceled();
+        final long rowCount = refTable.size();
+        final long rangeCount = Math.min(rowCount / MIN_ROWS_PER_RANGE,
+            RANGES_PER_THREAD * (long)KNIMEConstants.GLOBAL_THREAD_POOL.getMaxThreads());
+        final Comparison comparison = new Comparison(refTable.getDataTableSpec(), refTable,
+            canCompareInBatches(refTable.getDataTableSpec()), new AtomicLong(Long.MAX_VALUE), new AtomicLong(), exec);
+        // with an output port for the differences, they are reported instead of failing at the first one; without the
+        // differences port only the counts are needed
+        final int maxListed = (m_differencesPort >= 0) ? m_settings.maxDifferences() : 0;
+        final DifferenceReport report = ((m_differencesPort >= 0) || (m_summaryPort >= 0))
+            ? new DifferenceReport(refTable.getDataTableSpec(),
+                !m_settings.ignoreRowIds() || m_settings.ignoreRowOrder(), maxListed)
+            : null;
+        Difference difference;
+        if (m_settings.ignoreRowOrder()) {
+            difference = compareUnordered(testTable, refTable, exec, report);
+        } else if (m_settings.parallelComparison() && (rangeCount > 1)) {
+            difference = compareInParallel(testTable, rangeCount, comparison, report);
+        } else {
+            try (RowCursor testCursor = testTable.cursor(); RowCursor refCursor = refTable.cursor()) {
+                difference = compareRange(testCursor, refCursor, createCheckers(refTable), 0, rowCount, comparison,
+                    (report != null) ? report.newRange() : null);
+            }
+        }
+        if (difference != null) {
+            throw difference.exception();
+        }
+
+        BufferedDataTable[] outTables = new BufferedDataTable[getNrOutPorts()];
+        if (report != null) {
+            long count = report.differenceCount();
+            if (count > 0) {
+                setWarningMessage("Found " + count + " difference" + ((count > 1) ? "s" : "") + " between the tables"
+                    + (((m_differencesPort >= 0) && (count > maxListed)) ? ", only the first " + maxListed
+                        + " are listed" : ""));
+            }
+            if (m_differencesPort >= 0) {
+                outTables[m_differencesPort] = report.createDifferencesTable(exec);
+            }
+            if (m_summaryPort >= 0) {
+                outTables[m_summaryPort] = report.createSummaryTable(exec);
+            }
+        }
+        return outTables;
+    }
+
+    /**
+     * Splits both tables into aligned ranges of rows and compares the ranges concurrently in the KNIME thread pool.
+     * If several ranges contain differences, the difference with the lowest row index is returned, which is the same
+     * difference that the sequential comparison finds. With a report, each range adds its differences to its own
+     * part of the report.
+     */
+    private Difference compareInParallel(final BufferedDataTable testTable, final long rangeCount,
+        final Comparison comparison, final DifferenceReport report) throws Exception {
+        final BufferedDataTable refTable = comparison.refTable();
+        final long rowCount = refTable.size();
+
+        ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool();
+        List<Future<Difference>> futures = new ArrayList<>();
+        for (long r = 0; r < rangeCount; r++) {
+            final long start = rowCount * r / rangeCount;
+            final long end = rowCount * (r + 1) / rangeCount;
+            // each range gets its own checkers because they are not required to be thread-safe
+            final DifferenceChecker<DataValue>[] checkers = createCheckers(refTable);
+            final DifferenceReport.Range range = (report != null) ? report.newRange() : null;
+            futures.add(pool.enqueue(() -> {
+                // the row range of the filter is inclusive
+                try (RowCursor testCursor = testTable.cursor(TableFilter.filterRangeOfRows(start, end - 1));
+                        RowCursor refCursor = refTable.cursor(TableFilter.filterRangeOfRows(start, end - 1))) {
+                    return compareRange(testCursor, refCursor, checkers, start, end, comparison, range);
+                }
+            }));
+        }
+
+        try {
+            return pool.runInvisible(() -> {
+                Difference first = null;
+                for (Future<Difference> f : futures) {
+                    Difference d = f.get();
+                    if ((d != null) && ((first == null) || (d.rowIndex() < first.rowIndex()))) {
+                        first = d;
+                    }
+                }
+                return first;
+            });
+        } catch (ExecutionException ex) {
+            for (Future<Difference> f : futures) {
+                f.cancel(true);
+            }
+            // the exception of the failed range is wrapped by both the future and the thread pool
+            Throwable cause = ex;
+            while ((cause instanceof ExecutionException) && (cause.getCause() != null)) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception e) {
+                throw e;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Compares the tables regardless of the order of their rows. Both tables are sorted by the hash of the group of
+     * each row, see {@link #getGroup(DataRow, DifferenceChecker[])}, by the value of the first column whose checker is
+     * a {@link ToleranceChecker}, and by the hash of the compared cells; the sorter swaps to disk if memory gets low.
+     * The sorted tables are merged, taking rows with equal sort keys alternately from both tables, and matched while
+     * they are merged. A full sort is used instead of hash partitioning because rows that match within a tolerance
+     * must be close to each other in the processing order, which hashing cannot guarantee across the boundaries of
+     * partitions. Only the rows within the tolerance of the current row or a bounded segment of rows are kept in
+     * memory, see {@link WindowMatcher} and {@link SegmentMatcher}. If there is no report, the unmatched reference row
+     * with the lowest index is returned as difference.
+     */
+    private Difference compareUnordered(final BufferedDataTable testTable, final BufferedDataTable refTable,
+        final ExecutionContext exec, final DifferenceReport report) throws Exception {
+        final DataTableSpec spec = refTable.getDataTableSpec();
+        final DifferenceChecker<DataValue>[] checkers = createCheckers(refTable);
+        int sortColumn = -1;
+        for (int i = 0; (i < checkers.length) && (sortColumn < 0); i++) {
+            if (checkers[i] instanceof ToleranceChecker) {
+                sortColumn = i;
+            }
+        }
+        // apart from the sort column only the group may decide whether two rows match
+        boolean groupDecides = true;
+        for (int i = 0; i < checkers.length; i++) {
+            groupDecides &= (i == sortColumn) || (checkers[i] instanceof NormalizingChecker)
+                || (checkers[i] instanceof IgnoreChecker);
+        }
+        final UnorderedComparison comparison = new UnorderedComparison(spec, checkers, sortColumn,
+            (sortColumn >= 0) ? ((ToleranceChecker)checkers[sortColumn]).getTolerance() : 0,
+            (report != null) ? report.newRange() : null);
+
+        // the group hash, the hash of the compared cells, and the index of each row are appended, the index allows to
+        // report the difference in the reference row with the lowest index
+        DataTableSpec sortSpec = new DataTableSpec(spec, new DataTableSpec(
+            new DataColumnSpecCreator(DataTableSpec.getUniqueColumnName(spec, "Group hash"), IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(DataTableSpec.getUniqueColumnName(spec, "Cells hash"), IntCell.TYPE).createSpec(),
+            new DataColumnSpecCreator(DataTableSpec.getUniqueColumnName(spec, "Row index"), LongCell.TYPE)
+                .createSpec()));
+        exec.setMessage("Sorting reference table");
+        BufferedDataTable sortedRef = sort(refTable, sortSpec, comparison, exec.createSubExecutionContext(0.25));
+        exec.setMessage("Sorting test table");
+        BufferedDataTable sortedTest = sort(testTable, sortSpec, comparison, exec.createSubExecutionContext(0.25));
+
+        exec.setMessage("Matching rows");
+        final ExecutionMonitor matchExec = exec.createSubProgress(0.5);
+        final double rowCount = Math.max(1, sortedRef.size() + sortedTest.size());
+        final UnorderedMatcher matcher =
+            groupDecides ? new WindowMatcher(comparison) : new SegmentMatcher(comparison);
+        long processed = 0;
+        Difference first = null;
+        try (CloseableRowIterator refIt = sortedRef.iterator(); CloseableRowIterator testIt = sortedTest.iterator()) {
+            DataRow ref = refIt.hasNext() ? refIt.next() : null;
+            DataRow test = testIt.hasNext() ? testIt.next() : null;
+            boolean lastWasRef = false;
+            while ((ref != null) || (test != null)) {
+                if ((processed++ % PROGRESS_INTERVAL) == 0) {
+                    matchExec.checkCanceled();
+                    matchExec.setProgress(processed / rowCount);
+                }
 
-            DataRow testRow = testIt.next();
-            compareRow(refTable.getDataTableSpec(), testRow, refRow, i);
-            i++;
+                final int c = (ref == null) ? 1 : ((test == null) ? -1 : comparison.compare(ref, test));
+                // identical rows are taken alternately from both tables so that they are matched right away
+                final boolean isRef = (c < 0) || ((c == 0) && !lastWasRef);
+                lastWasRef = isRef;
+                final DataRow row = isRef ? ref : test;
+                IndexedRow indexedRow =
+                    new IndexedRow(((LongValue)row.getCell(spec.getNumColumns() + 2)).getLongValue(), row);
+                first = earlier(first, matcher.add(indexedRow, isRef));
+                if (isRef) {
+                    ref = refIt.hasNext() ? refIt.next() : null;
+                } else {
+                    test = testIt.hasNext() ? testIt.next() : null;
+                }
+            }
         }
+        first = earlier(first, matcher.finish());
+        exec.clearTable(sortedRef);
+        exec.clearTable(sortedTest);
+        return first;
+    }
+
+    private static Difference earlier(final Difference first, final Difference second) {
+        if ((first == null) || ((second != null) && (second.rowIndex() < first.rowIndex()))) {
+            return second;
+        }
+        return first;
+    }
+
+    /**
+     * Appends the hash of the group, the hash of the compared cells, and the index of each row as additional columns
+     * and sorts the rows.
+     */
+    private BufferedDataTable sort(final BufferedDataTable table, final DataTableSpec sortSpec,
+        final UnorderedComparison comparison, final ExecutionContext exec) throws CanceledExecutionException {
+        BufferedDataContainer container = exec.createDataContainer(sortSpec);
+        final ExecutionMonitor appendExec = exec.createSubProgress(0.5);
+        final long rowCount = table.size();
+        long index = 0;
+        try (CloseableRowIterator it = table.iterator()) {
+            while (it.hasNext()) {
+                DataRow row = it.next();
+                if ((index % PROGRESS_INTERVAL) == 0) {
+                    appendExec.checkCanceled();
+                    appendExec.setProgress(index / (double)rowCount);
+                }
+
+                DataCell[] cells = new DataCell[row.getNumCells() + 3];
+                for (int i = 0; i < row.getNumCells(); i++) {
+                    cells[i] = row.getCell(i);
+                }
+                cells[cells.length - 3] = new IntCell(getGroup(row, comparison.checkers()).hashCode());
+                cells[cells.length - 2] = new IntCell(getComparedCells(row, comparison.checkers()).hashCode());
+                cells[cells.length - 1] = new LongCell(index);
+                container.addRowToTable(new DefaultRow(row.getKey(), cells));
+                index++;
+            }
+        } finally {
+            container.close();
+        }
+
+        BufferedDataTable unsorted = container.getTable();
+        BufferedDataTable sorted =
+            new BufferedDataTableSorter(unsorted, comparison::compare).sort(exec.createSubExecutionContext(0.5));
+        exec.clearTable(unsorted);
+        return sorted;
+    }
 
-        return new BufferedDataTable[0];
+    /**
+     * Returns the group of a row, rows that match according to the checkers are always in the same group.
+     */
+    private List<Object> getGroup(final DataRow row, final DifferenceChecker<DataValue>[] checkers) {
+        List<Object> group = new ArrayList<>(checkers.length + 1);
+        if (!m_settings.ignoreRowIds()) {
+            group.add(row.getKey().getString());
+        }
+        for (int i = 0; i < checkers.length; i++) {
+            if (checkers[i] instanceof NormalizingChecker nc) {
+                DataCell cell = row.getCell(i);
+                // missing cells only match missing cells
+                group.add(cell.isMissing() ? null : nc.normalize(cell));
+            }
+        }
+        return group;
     }
 
-    private void compareRow(final DataTableSpec spec, final DataRow testRow, final DataRow refRow, final int rowIndex) {
-        if (!m_settings.ignoreRowIds() && !refRow.getKey().equals(testRow.getKey())) {
-            throw new IllegalStateException("Wrong row key in row " + rowIndex + ": expected '" + refRow.getKey()
-                    + "', got '" + testRow.getKey() + "'");
+    /**
+     * Matches the rows of one segment. The rows are grouped by {@link #getGroup(DataRow, DifferenceChecker[])}, since
+     * different groups may have the same hash, and a maximum matching is computed for every group.
+     *
+     * @param refRows the reference rows of the segment
+     * @param testRows the test rows of the segment
+     * @param comparison the state of the comparison
+     * @param unmatchedRefs the list to which the unmatched reference rows are added
+     * @param unmatchedTests the list to which the unmatched test rows are added
+     */
+    private void matchSegment(final List<IndexedRow> refRows, final List<IndexedRow> testRows,
+        final UnorderedComparison comparison, final List<IndexedRow> unmatchedRefs,
+        final List<IndexedRow> unmatchedTests) {
+        final DifferenceChecker<DataValue>[] checkers = comparison.checkers();
+        Map<List<Object>, List<IndexedRow>> refGroups = new HashMap<>();
+        for (IndexedRow ref : refRows) {
+            refGroups.computeIfAbsent(getGroup(ref.row(), checkers), k -> new ArrayList<>()).add(ref);
+        }
+        Map<List<Object>, List<IndexedRow>> testGroups = new HashMap<>();
+        for (IndexedRow test : testRows) {
+            testGroups.computeIfAbsent(getGroup(test.row(), checkers), k -> new ArrayList<>()).add(test);
         }
 
+        for (Map.Entry<List<Object>, List<IndexedRow>> e : refGroups.entrySet()) {
+            List<IndexedRow> refs = e.getValue();
+            List<IndexedRow> tests = testGroups.remove(e.getKey());
+            if (tests == null) {
+                unmatchedRefs.addAll(refs);
+                continue;
+            }
+
+            int[] refMatch = matchGroup(refs, tests, comparison);
+            boolean[] matched = new boolean[refs.size()];
+            for (int j = 0; j < tests.size(); j++) {
+                if (refMatch[j] >= 0) {
+                    matched[refMatch[j]] = true;
+                } else {
+                    unmatchedTests.add(tests.get(j));
+                }
+            }
+            for (int i = 0; i < refs.size(); i++) {
+                if (!matched[i]) {
+                    unmatchedRefs.add(refs.get(i));
+                }
+            }
+        }
+        for (List<IndexedRow> tests : testGroups.values()) {
+            unmatchedTests.addAll(tests);
+        }
+    }
+
+    /**
+     * Computes a maximum matching between the reference rows and the test rows of one group. Rows with equal cells in
+     * all compared columns are paired first; this initial matching is then completed by augmenting paths, so a test
+     * row that is close to several reference rows cannot take away the only match of another test row. The candidates
+     * of a test row are the reference rows that the checkers accept, searched only in the same and the adjacent
+     * buckets of the sort column, see {@link UnorderedComparison#bucket(DataRow)}.
+     *
+     * @param refs the reference rows of the group
+     * @param tests the test rows of the group
+     * @param comparison the state of the comparison
+     * @return the index of the matched reference row for each test row or -1 if the test row is not matched
+     */
+    private int[] matchGroup(final List<IndexedRow> refs, final List<IndexedRow> tests,
+        final UnorderedComparison comparison) {
+        Map<List<DataCell>, Deque<Integer>> refsByCells = new HashMap<>();
+        for (int i = 0; i < refs.size(); i++) {
+            refsByCells.computeIfAbsent(getComparedCells(refs.get(i).row(), comparison.checkers()),
+                k -> new ArrayDeque<>()).add(i);
+        }
+        int[] initialMatch = new int[tests.size()];
+        for (int j = 0; j < tests.size(); j++) {
+            DataRow testRow = tests.get(j).row();
+            Deque<Integer> equalRefs = refsByCells.get(getComparedCells(testRow, comparison.checkers()));
+            if ((equalRefs != null) && !equalRefs.isEmpty()
+                && matches(refs.get(equalRefs.peekFirst()).row(), testRow, comparison)) {
+                initialMatch[j] = equalRefs.removeFirst();
+            } else {
+                initialMatch[j] = -1;
+            }
+        }
+
+        // all rows of a segment have the same kind of value in the sort column, only numbers are put into buckets
+        final Map<Long, List<Integer>> buckets;
+        if (comparison.hasBucket(refs.get(0).row())) {
+            buckets = new HashMap<>();
+            for (int i = 0; i < refs.size(); i++) {
+                buckets.computeIfAbsent(comparison.bucket(refs.get(i).row()), k -> new ArrayList<>()).add(i);
+            }
+        } else {
+            buckets = null;
+        }
+
+        return BipartiteMatching.maximumMatching(tests.size(), refs.size(),
+            j -> getCandidates(refs, buckets, tests.get(j).row(), comparison), initialMatch);
+    }
+
+    /**
+     * Returns the indices of the reference rows that match the test row.
+     */
+    private int[] getCandidates(final List<IndexedRow> refs, final Map<Long, List<Integer>> buckets,
+        final DataRow testRow, final UnorderedComparison comparison) {
+        List<Integer> candidates = new ArrayList<>();
+        if (buckets == null) {
+            for (int i = 0; i < refs.size(); i++) {
+                candidates.add(i);
+            }
+        } else {
+            final long bucket = comparison.bucket(testRow);
+            // without a tolerance only equal numbers match
+            final int reach = (comparison.tolerance() > 0) ? 1 : 0;
+            for (int b = -reach; b <= reach; b++) {
+                // the outermost buckets wrap around, which only adds candidates that are checked anyway
+                candidates.addAll(buckets.getOrDefault(bucket + b, List.of()));
+            }
+        }
+        return candidates.stream().filter(i -> matches(refs.get(i).row(), testRow, comparison))
+            .mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the cells of all columns that are not ignored, rows with equal cells are paired first.
+     */
+    private static List<DataCell> getComparedCells(final DataRow row, final DifferenceChecker<DataValue>[] checkers) {
+        List<DataCell> cells = new ArrayList<>(checkers.length);
+        for (int i = 0; i < checkers.length; i++) {
+            if (!(checkers[i] instanceof IgnoreChecker)) {
+                cells.add(row.getCell(i));
+            }
+        }
+        return cells;
+    }
+
+    private boolean matches(final DataRow refRow, final DataRow testRow, final UnorderedComparison comparison) {
+        try {
+            compareMatchedRows(comparison.spec(), comparison.checkers(), refRow, testRow, null);
+            return true;
+        } catch (IllegalStateException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Compares the cells of two rows that have been matched regardless of their positions in the tables.
+     */
+    private void compareMatchedRows(final DataTableSpec spec, final DifferenceChecker<DataValue>[] checkers,
+        final DataRow refRow, final DataRow testRow, final DifferenceReport.Range range) {
+        String refKey = refRow.getKey().getString();
         for (int i = 0; i < spec.getNumColumns(); i++) {
-            DataColumnSpec colSpec = spec.getColumnSpec(i);
-            DifferenceChecker<DataValue> checker = (DifferenceChecker<DataValue>)m_checkers.get(colSpec);
+            if (!(checkers[i] instanceof IgnoreChecker)) {
+                compareCells(spec.getColumnSpec(i), checkers[i], refKey, refRow.getCell(i), testRow.getCell(i), i,
+                    range);
+            }
+        }
+    }
+
+    /**
+     * Compares the rows between the two indices. Without a report the comparison stops at the first difference or as
+     * soon as another range has found a difference in a row before the current row. With a report all differences
+     * are added to it and the comparison continues until the end of the range.
+     *
+     * @param testCursor a cursor over the test table positioned before the start row
+     * @param refCursor a cursor over the reference table positioned before the start row
+     * @param checkers the checkers for all columns
+     * @param start the index of the first row (inclusive)
+     * @param end the index of the last row (exclusive)
+     * @param comparison the state shared by all ranges
+     * @param range the report for the range or <code>null</code> if the comparison should stop at the first
+     *            difference
+     * @return the first difference in the range or <code>null</code> if the range contains no difference or the
+     *         differences have been reported
+     * @throws CanceledExecutionException if execution has been canceled
+     */
+    private Difference compareRange(final RowCursor testCursor, final RowCursor refCursor,
+        final DifferenceChecker<DataValue>[] checkers, final long start, final long end, final Comparison comparison,
+        final DifferenceReport.Range range) throws CanceledExecutionException {
+        if (comparison.batched()) {
+            return compareRangeInBatches(testCursor, refCursor, checkers, start, end, comparison, range);
+        }
+
+        DataTableSpec spec = comparison.spec();
+        for (long i = start; i < end; i++) {
+            if (((i - start) % PROGRESS_INTERVAL) == 0) {
+                if (!comparison.proceed(i, Math.min(PROGRESS_INTERVAL, end - i))) {
+                    return null;
+                }
+            }
+
+            try {
+                compareRow(spec, checkers, testCursor.forward(), refCursor.forward(), i, range);
+            } catch (IllegalStateException ex) {
+                return comparison.found(i, ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether all columns can be compared in batches of primitive values. This is the case if all columns that
+     * are not ignored contain int, long, or double cells and their checkers implement {@link BatchChecker}.
+     */
+    private boolean canCompareInBatches(final DataTableSpec spec) {
+        boolean compared = false;
+        for (DataColumnSpec colSpec : spec) {
+            DifferenceChecker<? extends DataValue> checker = m_checkers.get(colSpec);
             if (checker instanceof IgnoreChecker) {
                 continue;
             }
+            DataType type = colSpec.getType();
+            if (!(checker instanceof BatchChecker)
+                || !(type.equals(IntCell.TYPE) || type.equals(LongCell.TYPE) || type.equals(DoubleCell.TYPE))) {
+                return false;
+            }
+            compared = true;
+        }
+        return compared;
+    }
 
-            DataCell testCell = testRow.getCell(i);
-            DataCell refCell = refRow.getCell(i);
+    /**
+     * Compares the rows between the two indices in batches. The values of each batch of rows are read into primitive
+     * arrays per column, which are then searched by the columns' {@link BatchChecker}s. Rows with differences are
+     * compared again cell by cell, so that differences are reported exactly as by {@link #compareRow}.
+     *
+     * @see #compareRange(RowCursor, RowCursor, DifferenceChecker[], long, long, Comparison, DifferenceReport.Range)
+     */
+    private Difference compareRangeInBatches(final RowCursor testCursor, final RowCursor refCursor,
+        final DifferenceChecker<DataValue>[] checkers, final long start, final long end, final Comparison comparison,
+        final DifferenceReport.Range range) throws CanceledExecutionException {
+        DataTableSpec spec = comparison.spec();
+        ColumnBatch[] batches = new ColumnBatch[spec.getNumColumns()];
+        for (int c = 0; c < batches.length; c++) {
+            if (!(checkers[c] instanceof IgnoreChecker)) {
+                batches[c] = new ColumnBatch(spec.getColumnSpec(c).getType(), PROGRESS_INTERVAL);
+            }
+        }
+        boolean compareKeys = !m_settings.ignoreRowIds();
+        String[] refKeys = (compareKeys || (range != null)) ? new String[PROGRESS_INTERVAL] : null;
+        String[] testKeys = compareKeys ? new String[PROGRESS_INTERVAL] : null;
+        int[] nextDifference = new int[batches.length];
 
-            if (refCell.isMissing() && !testCell.isMissing()) {
-                throw new IllegalStateException("Expected missing cell in row '" + refRow.getKey() + "' and column '"
-                        + colSpec.getName() + "' but got '" + testCell + "'");
-            } else if (!refCell.isMissing() && testCell.isMissing()) {
-                throw new IllegalStateException("Unexpected missing cell in row '" + refRow.getKey() + "' and column '"
-                        + colSpec.getName() + "'");
-            } else if (!refCell.isMissing() && !testCell.isMissing()) {
-                if (colSpec.getType().isCollectionType() && !(checker instanceof EqualityChecker)) {
-                    compareCollection(colSpec, checker, testCell, refCell, refRow.getKey());
-                } else {
-                    Result res = checker.check(refCell, testCell);
-                    if (!res.ok()) {
-                        throw new IllegalStateException("Wrong value in row '" + refRow.getKey() + "' and column '"
-                                + colSpec.getName() + "': " + res.getMessage() + " (using checker '"
-                                + checker.getDescription() + "')");
+        for (long batchStart = start; batchStart < end; batchStart += PROGRESS_INTERVAL) {
+            int batchSize = (int)Math.min(PROGRESS_INTERVAL, end - batchStart);
+            if (!comparison.proceed(batchStart, batchSize)) {
+                return null;
+            }
+
+            for (int r = 0; r < batchSize; r++) {
+                RowRead refRow = refCursor.forward();
+                RowRead testRow = testCursor.forward();
+                if (refKeys != null) {
+                    refKeys[r] = refRow.getRowKey().getString();
+                }
+                if (testKeys != null) {
+                    testKeys[r] = testRow.getRowKey().getString();
+                }
+                for (int c = 0; c < batches.length; c++) {
+                    if (batches[c] != null) {
+                        batches[c].read(refRow, testRow, c, r);
+                    }
+                }
+            }
+
+            // the next difference per column is only searched again once the comparison has passed it
+            Arrays.fill(nextDifference, -1);
+            int nextKeyDifference = -1;
+            int row = 0;
+            while (row < batchSize) {
+                if (nextKeyDifference < row) {
+                    nextKeyDifference = nextKeyDifference(refKeys, testKeys, row, batchSize);
+                }
+                int diffRow = nextKeyDifference;
+                for (int c = 0; c < batches.length; c++) {
+                    if (batches[c] != null) {
+                        if (nextDifference[c] < row) {
+                            nextDifference[c] = batches[c].nextDifference(checkers[c], row, batchSize);
+                        }
+                        diffRow = Math.min(diffRow, nextDifference[c]);
+                    }
+                }
+                if (diffRow >= batchSize) {
+                    break;
+                }
+
+                long rowIndex = batchStart + diffRow;
+                String refKey = (refKeys != null) ? refKeys[diffRow] : getRowKey(comparison.refTable(), rowIndex);
+                try {
+                    if (testKeys != null) {
+                        compareRowKeys(refKey, testKeys[diffRow], rowIndex, range);
                     }
+                    for (int c = 0; c < batches.length; c++) {
+                        if (batches[c] != null) {
+                            compareCells(spec.getColumnSpec(c), checkers[c], refKey,
+                                batches[c].getCell(true, diffRow), batches[c].getCell(false, diffRow), c, range);
+                        }
+                    }
+                } catch (IllegalStateException ex) {
+                    return comparison.found(rowIndex, ex);
+                }
+                if (range == null) {
+                    throw new IllegalStateException("Batch comparison of row " + rowIndex + " reported a difference "
+                        + "that does not exist. This is a coding problem.");
                 }
+                row = diffRow + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first row between the two indices whose row IDs differ, or the end index if all row IDs match or
+     * row IDs are not compared.
+     */
+    private static int nextKeyDifference(final String[] refKeys, final String[] testKeys, final int from,
+        final int to) {
+        if (testKeys == null) {
+            return to;
+        }
+        for (int r = from; r < to; r++) {
+            if (!refKeys[r].equals(testKeys[r])) {
+                return r;
+            }
+        }
+        return to;
+    }
+
+    private static String getRowKey(final BufferedDataTable table, final long rowIndex) {
+        try (RowCursor cursor = table.cursor(TableFilter.filterRangeOfRows(rowIndex, rowIndex))) {
+            return cursor.forward().getRowKey().getString();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private DifferenceChecker<DataValue>[] createCheckers(final BufferedDataTable refTable)
+        throws InvalidSettingsException {
+        DataTableSpec spec = refTable.getDataTableSpec();
+        DifferenceChecker<DataValue>[] checkers = new DifferenceChecker[spec.getNumColumns()];
+        for (int i = 0; i < checkers.length; i++) {
+            checkers[i] = (DifferenceChecker<DataValue>)m_settings.createCheckerForColumn(spec.getColumnSpec(i)
+                .getName());
+        }
+        return checkers;
+    }
+
+    private void compareRow(final DataTableSpec spec, final DifferenceChecker<DataValue>[] checkers,
+        final RowRead testRow, final RowRead refRow, final long rowIndex, final DifferenceReport.Range range) {
+        String refKey = refRow.getRowKey().getString();
+        if (!m_settings.ignoreRowIds()) {
+            compareRowKeys(refKey, testRow.getRowKey().getString(), rowIndex, range);
+        }
+
+        for (int i = 0; i < spec.getNumColumns(); i++) {
+            DifferenceChecker<DataValue> checker = checkers[i];
+            if (checker instanceof IgnoreChecker) {
+                continue;
+            }
+
+            boolean refMissing = refRow.isMissing(i);
+            boolean testMissing = testRow.isMissing(i);
+            if (!refMissing && !testMissing && matchesPrimitive(spec.getColumnSpec(i).getType(), checker, testRow,
+                refRow, i)) {
+                // fast path without creating cells
+                continue;
+            }
+
+            compareCells(spec.getColumnSpec(i), checker, refKey,
+                refMissing ? DataType.getMissingCell() : toCell(refRow.getValue(i)),
+                testMissing ? DataType.getMissingCell() : toCell(testRow.getValue(i)), i, range);
+        }
+    }
+
+    /**
+     * Compares the row IDs of a row. A difference is added to the report or thrown if there is no report.
+     */
+    private static void compareRowKeys(final String refKey, final String testKey, final long rowIndex,
+        final DifferenceReport.Range range) {
+        if (!refKey.equals(testKey)) {
+            IllegalStateException ex = new IllegalStateException("Wrong row key in row " + rowIndex + ": expected '"
+                + refKey + "', got '" + testKey + "'");
+            if (range == null) {
+                throw ex;
+            }
+            range.add(refKey, DifferenceReport.ROW_ID, refKey, testKey, ex.getMessage());
+        }
+    }
+
+    /**
+     * Compares two cells of a column. A difference is added to the report or thrown if there is no report.
+     */
+    private void compareCells(final DataColumnSpec colSpec, final DifferenceChecker<DataValue> checker,
+        final String refKey, final DataCell refCell, final DataCell testCell, final int column,
+        final DifferenceReport.Range range) {
+        try {
+            checkCells(colSpec, checker, refKey, refCell, testCell);
+        } catch (IllegalStateException ex) {
+            if (range == null) {
+                throw ex;
+            }
+            range.add(refKey, column, refCell, testCell, ex.getMessage());
+        }
+    }
+
+    private void checkCells(final DataColumnSpec colSpec, final DifferenceChecker<DataValue> checker,
+        final String refKey, final DataCell refCell, final DataCell testCell) {
+        if (refCell.isMissing() && !testCell.isMissing()) {
+            throw new IllegalStateException("Expected missing cell in row '" + refKey + "' and column '"
+                    + colSpec.getName() + "' but got '" + testCell + "'");
+        } else if (!refCell.isMissing() && testCell.isMissing()) {
+            throw new IllegalStateException("Unexpected missing cell in row '" + refKey + "' and column '"
+                    + colSpec.getName() + "'");
+        } else if (!refCell.isMissing() && !testCell.isMissing()) {
+            if (colSpec.getType().isCollectionType() && !(checker instanceof EqualityChecker)) {
+                compareCollection(colSpec, checker, testCell, refCell, refKey);
             } else {
-                // both cells are missing => OK
+                Result res = checker.check(refCell, testCell);
+                if (!res.ok()) {
+                    throw new IllegalStateException("Wrong value in row '" + refKey + "' and column '"
+                            + colSpec.getName() + "': " + res.getMessage() + " (using checker '"
+                            + checker.getDescription() + "')");
+                }
             }
+        } else {
+            // both cells are missing => OK
+        }
+    }
+
+    /**
+     * Compares int, long, double, and string cells by their primitive values if the checker supports it. This avoids
+     * creating cells for columnar tables. Only matching values are detected here, all other values are compared by
+     * the checker's regular method, which also creates the message.
+     *
+     * @return <code>true</code> if the values match, <code>false</code> if they must be compared as cells
+     */
+    private static boolean matchesPrimitive(final DataType type, final DifferenceChecker<DataValue> checker,
+        final RowRead testRow, final RowRead refRow, final int index) {
+        if (!(checker instanceof PrimitiveChecker pc)) {
+            return false;
+        } else if (type.equals(IntCell.TYPE)) {
+            return pc.matches(refRow.<IntValue> getValue(index).getIntValue(),
+                testRow.<IntValue> getValue(index).getIntValue());
+        } else if (type.equals(LongCell.TYPE)) {
+            return pc.matches(refRow.<LongValue> getValue(index).getLongValue(),
+                testRow.<LongValue> getValue(index).getLongValue());
+        } else if (type.equals(DoubleCell.TYPE)) {
+            return pc.matches(refRow.<DoubleValue> getValue(index).getDoubleValue(),
+                testRow.<DoubleValue> getValue(index).getDoubleValue());
+        } else if (type.equals(StringCell.TYPE)) {
+            return pc.matches(refRow.<StringValue> getValue(index).getStringValue(),
+                testRow.<StringValue> getValue(index).getStringValue());
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the cell for a value read from a cursor. Row-based tables return the cells themselves, columnar tables
+     * return read values that create the cell on demand.
+     */
+    private static DataCell toCell(final DataValue value) {
+        if (value instanceof DataCell cell) {
+            return cell;
+        } else {
+            return ((ReadValue)value).getDataCell();
         }
     }
 
@@ -227,7 +1473,7 @@ private void compareRow(final DataTableSpec spec, final DataRow testRow, final D
      * @param refCollCell
      */
     private void compareCollection(final DataColumnSpec colSpec, final DifferenceChecker<DataValue> checker,
-                                   final DataCell testCollCell, final DataCell refCollCell, final RowKey rowKey) {
+                                   final DataCell testCollCell, final DataCell refCollCell, final String rowKey) {
         CollectionDataValue testCollection = (CollectionDataValue)testCollCell;
         CollectionDataValue refCollection = (CollectionDataValue)refCollCell;
 
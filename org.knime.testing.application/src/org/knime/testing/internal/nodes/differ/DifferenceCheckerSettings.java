@@ -75,6 +75,12 @@ class DifferenceCheckerSettings {
 
     private boolean m_ignoreRowIds;
 
+    private boolean m_parallelComparison;
+
+    private int m_maxDifferences = 1000;
+
+    private boolean m_ignoreRowOrder;
+
     /**
      * Returns a collection with all configured columns.
      *
@@ -178,6 +184,60 @@ public void ignoreRowIds(final boolean ignore) {
         m_ignoreRowIds = ignore;
     }
 
+    /**
+     * Returns if the rows should be compared in parallel.
+     *
+     * @return <code>true</code> if rows are compared in parallel, <code>false</code> otherwise
+     */
+    public boolean parallelComparison() {
+        return m_parallelComparison;
+    }
+
+    /**
+     * Sets if the rows should be compared in parallel.
+     *
+     * @param parallel <code>true</code> if rows are compared in parallel, <code>false</code> otherwise
+     */
+    public void parallelComparison(final boolean parallel) {
+        m_parallelComparison = parallel;
+    }
+
+    /**
+     * Returns the maximum number of differences that are listed in the difference table.
+     *
+     * @return the maximum number of differences
+     */
+    public int maxDifferences() {
+        return m_maxDifferences;
+    }
+
+    /**
+     * Sets the maximum number of differences that are listed in the difference table.
+     *
+     * @param max the maximum number of differences
+     */
+    public void maxDifferences(final int max) {
+        m_maxDifferences = max;
+    }
+
+    /**
+     * Returns if the order of the rows should be ignored when comparing the tables.
+     *
+     * @return <code>true</code> if the row order should be ignored, <code>false</code> otherwise
+     */
+    public boolean ignoreRowOrder() {
+        return m_ignoreRowOrder;
+    }
+
+    /**
+     * Sets if the order of the rows should be ignored when comparing the tables.
+     *
+     * @param ignore <code>true</code> if the row order should be ignored, <code>false</code> otherwise
+     */
+    public void ignoreRowOrder(final boolean ignore) {
+        m_ignoreRowOrder = ignore;
+    }
+
 
     /**
      * Loads the settings from the given settings object.
@@ -211,6 +271,16 @@ public void loadSettings(final NodeSettingsRO settings) throws InvalidSettingsEx
 
         // added in 2.11
         m_ignoreRowIds = settings.getBoolean("ignoreRowIds", false);
+        // added in 5.12
+        m_parallelComparison = settings.getBoolean("parallelComparison", false);
+        // added in 5.12
+        m_maxDifferences = settings.getInt("maxDifferences", 1000);
+        if (m_maxDifferences < 0) {
+            throw new InvalidSettingsException("Maximum number of differences must not be negative: "
+                + m_maxDifferences);
+        }
+        // added in 5.12
+        m_ignoreRowOrder = settings.getBoolean("ignoreRowOrder", false);
     }
 
     /**
@@ -255,6 +325,9 @@ public void loadSettingsForDialog(final NodeSettingsRO settings, final DataTable
         }
 
         m_ignoreRowIds = settings.getBoolean("ignoreRowIds", false);
+        m_parallelComparison = settings.getBoolean("parallelComparison", false);
+        m_maxDifferences = settings.getInt("maxDifferences", 1000);
+        m_ignoreRowOrder = settings.getBoolean("ignoreRowOrder", false);
     }
 
     /**
@@ -274,5 +347,8 @@ public void saveSettings(final NodeSettingsWO settings) {
         }
 
         settings.addBoolean("ignoreRowIds", m_ignoreRowIds);
+        settings.addBoolean("parallelComparison", m_parallelComparison);
+        settings.addInt("maxDifferences", m_maxDifferences);
+        settings.addBoolean("ignoreRowOrder", m_ignoreRowOrder);
     }
 }
@@ -0,0 +1,271 @@
+/*
+ * ------------------------------------------------------------------------
+ *  Copyright by KNIME AG, Zurich, Switzerland
+ *  Website: http://www.knime.com; Email: contact@knime.com
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME AG herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   17.10.2026: created
+ */
+package org.knime.testing.internal.nodes.differ;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.ExecutionContext;
+
+/**
+ * Collects the differences found by the Table Difference Checker instead of failing at the first one. The
+ * differences are listed up to a maximum number while the number of differences per column is always complete. Each
+ * range of rows that is compared collects into its own {@link Range}, the ranges are merged in the order in which
+ * they have been created.
+ *
+ * @author KNIME AG, Zurich, Switzerland
+ */
+class DifferenceReport {
+    /** The spec of the table that lists the differences. */
+    static final DataTableSpec DIFFERENCES_SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("Row ID", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("Column", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("Expected", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("Actual", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("Message", StringCell.TYPE).createSpec());
+
+    /** The spec of the table with the number of differences per column. */
+    static final DataTableSpec SUMMARY_SPEC = new DataTableSpec(
+        new DataColumnSpecCreator("Column", StringCell.TYPE).createSpec(),
+        new DataColumnSpecCreator("Differences", LongCell.TYPE).createSpec());
+
+    /** Column index used for differences in the row IDs and for rows without a matching row. */
+    static final int ROW_ID = -1;
+
+    private final DataTableSpec m_spec;
+
+    private final boolean m_rowDifferences;
+
+    private final int m_maxDifferences;
+
+    private final List<Range> m_ranges = new ArrayList<>();
+
+    /**
+     * A single difference.
+     *
+     * @param rowKey the row ID in the reference table
+     * @param column the column index or {@link DifferenceReport#ROW_ID}
+     * @param expected the expected value, <code>null</code> if the cell is missing
+     * @param actual the actual value, <code>null</code> if the cell is missing
+     * @param message the message describing the difference
+     */
+    record Entry(String rowKey, int column, String expected, String actual, String message) {
+    }
+
+    /**
+     * The differences found in one range of rows. A range is only used by a single thread.
+     */
+    final class Range {
+        private final List<Entry> m_entries = new ArrayList<>();
+
+        private final long[] m_counts = new long[m_spec.getNumColumns() + 1];
+
+        /**
+         * Adds a difference in a cell.
+         *
+         * @param rowKey the row ID in the reference table
+         * @param column the column index
+         * @param expected the cell in the reference table
+         * @param actual the cell in the test table
+         * @param message the message describing the difference
+         */
+        void add(final String rowKey, final int column, final DataCell expected, final DataCell actual,
+            final String message) {
+            add(rowKey, column, expected.isMissing() ? null : expected.toString(),
+                actual.isMissing() ? null : actual.toString(), message);
+        }
+
+        /**
+         * Adds a difference.
+         *
+         * @param rowKey the row ID in the reference table
+         * @param column the column index or {@link DifferenceReport#ROW_ID}
+         * @param expected the expected value, <code>null</code> if the cell is missing
+         * @param actual the actual value, <code>null</code> if the cell is missing
+         * @param message the message describing the difference
+         */
+        void add(final String rowKey, final int column, final String expected, final String actual,
+            final String message) {
+            m_counts[column + 1]++;
+            // no range can contribute more than the maximum
+            if (m_entries.size() < m_maxDifferences) {
+                m_entries.add(new Entry(rowKey, column, expected, actual, message));
+            }
+        }
+    }
+
+    /**
+     * Creates a new report.
+     *
+     * @param spec the spec of the reference table
+     * @param rowDifferences <code>true</code> if differences of whole rows are possible, i.e. row IDs are compared
+     *            or rows are matched regardless of their order, <code>false</code> otherwise
+     * @param maxDifferences the maximum number of differences that are listed, 0 if only the number of differences
+     *            per column is needed
+     */
+    DifferenceReport(final DataTableSpec spec, final boolean rowDifferences, final int maxDifferences) {
+        m_spec = spec;
+        m_rowDifferences = rowDifferences;
+        m_maxDifferences = maxDifferences;
+    }
+
+    /**
+     * Creates a new range that collects the differences of the next rows.
+     *
+     * @return a new range
+     */
+    Range newRange() {
+        Range range = new Range();
+        m_ranges.add(range);
+        return range;
+    }
+
+    /**
+     * Returns the total number of differences in all ranges.
+     *
+     * @return the number of differences
+     */
+    long differenceCount() {
+        long count = 0;
+        for (Range r : m_ranges) {
+            for (long c : r.m_counts) {
+                count += c;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates the table listing the first differences.
+     *
+     * @param exec the execution context for creating the table
+     * @return a new table with the {@link #DIFFERENCES_SPEC}
+     */
+    BufferedDataTable createDifferencesTable(final ExecutionContext exec) {
+        BufferedDataContainer cont = exec.createDataContainer(DIFFERENCES_SPEC);
+        long index = 0;
+        for (Entry e : getListedDifferences()) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey(index++), new StringCell(e.rowKey()),
+                (e.column() == ROW_ID) ? DataType.getMissingCell()
+                    : new StringCell(m_spec.getColumnSpec(e.column()).getName()),
+                toCell(e.expected()), toCell(e.actual()), new StringCell(e.message())));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    /**
+     * Returns the differences that are listed, i.e. the first differences of all ranges in the order of the ranges
+     * up to the maximum number.
+     *
+     * @return the listed differences
+     */
+    List<Entry> getListedDifferences() {
+        List<Entry> listed = new ArrayList<>();
+        for (Range r : m_ranges) {
+            for (Entry e : r.m_entries) {
+                if (listed.size() >= m_maxDifferences) {
+                    return listed;
+                }
+                listed.add(e);
+            }
+        }
+        return listed;
+    }
+
+    /**
+     * Returns the number of differences per column.
+     *
+     * @return the number of differences in the row IDs or of whole rows, followed by the numbers for all columns
+     */
+    long[] getColumnCounts() {
+        long[] counts = new long[m_spec.getNumColumns() + 1];
+        for (Range r : m_ranges) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += r.m_counts[i];
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Creates the table with the number of differences per column.
+     *
+     * @param exec the execution context for creating the table
+     * @return a new table with the {@link #SUMMARY_SPEC}
+     */
+    BufferedDataTable createSummaryTable(final ExecutionContext exec) {
+        long[] counts = getColumnCounts();
+
+        BufferedDataContainer cont = exec.createDataContainer(SUMMARY_SPEC);
+        if (m_rowDifferences) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey(0L), DataType.getMissingCell(),
+                new LongCell(counts[0])));
+        }
+        for (int i = 0; i < m_spec.getNumColumns(); i++) {
+            cont.addRowToTable(new DefaultRow(RowKey.createRowKey(i + 1L),
+                new StringCell(m_spec.getColumnSpec(i).getName()), new LongCell(counts[i + 1])));
+        }
+        cont.close();
+        return cont.getTable();
+    }
+
+    private static DataCell toCell(final String value) {
+        return (value == null) ? DataType.getMissingCell() : new StringCell(value);
+    }
+}
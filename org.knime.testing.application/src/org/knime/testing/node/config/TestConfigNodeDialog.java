@@ -135,10 +135,24 @@ public class TestConfigNodeDialog extends NodeDialogPane {
 
     private final JSpinner m_maxHiliteRows = new JSpinner(new SpinnerNumberModel(2500, 0, Integer.MAX_VALUE, 10));
 
+    private final JSpinner m_maxSlowdown =
+        new JSpinner(new SpinnerNumberModel(TestConfigSettings.DEFAULT_MAX_SLOWDOWN, 0, 10000, 5));
+
+    private final JSpinner m_allowedThreadIncrease = new JSpinner(new SpinnerNumberModel(0, 0, 10000, 1));
+
+    private final JSpinner m_allowedOffHeapIncrease = new JSpinner(
+        new SpinnerNumberModel(TestConfigSettings.DEFAULT_ALLOWED_OFF_HEAP_INCREASE, 0, Integer.MAX_VALUE, 1));
+
+    private final JSpinner m_allowedFileHandleIncrease = new JSpinner(new SpinnerNumberModel(0, 0, 100000, 1));
+
+    private final JSpinner m_allowedTempFiles = new JSpinner(new SpinnerNumberModel(0, 0, 100000, 1));
+
     private final JCheckBox m_streamingTest = new JCheckBox();
 
     private final JCheckBox m_testSubnodes = new JCheckBox();
 
+    private final JCheckBox m_runExclusively = new JCheckBox();
+
     private final JCheckBox[] m_supportedTableBackends = TableBackendRegistry.getInstance().getTableBackends().stream()
             .map(TestConfigNodeDialog::createTableBackendCheckBox)//
             .toArray(JCheckBox[]::new);
@@ -251,6 +265,60 @@ private JPanel createWorkflowSettingsPanel() {
         c.weightx = 1;
         p.add(m_maxHiliteRows, c);
 
+        c.gridx = 0;
+        c.gridy++;
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        p.add(new JLabel("Maximum slowdown in performance test (%):   "), c);
+        c.gridx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        p.add(m_maxSlowdown, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        p.add(new JLabel("Allowed additional threads after close:   "), c);
+
+        c.gridx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        p.add(m_allowedThreadIncrease, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        p.add(new JLabel("Allowed off-heap memory increase (MB):   "), c);
+
+        c.gridx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        p.add(m_allowedOffHeapIncrease, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        p.add(new JLabel("Allowed additional file handles after close:   "), c);
+
+        c.gridx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        p.add(m_allowedFileHandleIncrease, c);
+
+        c.gridx = 0;
+        c.gridy++;
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        p.add(new JLabel("Allowed new files in temp directory:   "), c);
+
+        c.gridx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        p.add(m_allowedTempFiles, c);
+
         c.gridx = 0;
         c.gridy++;
         c.fill = GridBagConstraints.NONE;
@@ -274,6 +342,16 @@ private JPanel createWorkflowSettingsPanel() {
             fillNodeList();
         });
 
+        c.gridx = 0;
+        c.gridy++;
+        c.fill = GridBagConstraints.NONE;
+        c.weightx = 0;
+        p.add(new JLabel("Do not run in parallel with other testflows:   "), c);
+        c.gridx = 1;
+        c.fill = GridBagConstraints.HORIZONTAL;
+        c.weightx = 1;
+        p.add(m_runExclusively, c);
+
         c.gridx = 0;
         c.gridy++;
         c.fill = GridBagConstraints.NONE;
@@ -572,8 +650,14 @@ protected void saveSettingsTo(final NodeSettingsWO settings)
         m_settings.owner(m_owner.getText());
         m_settings.timeout((Integer) m_timeout.getValue());
         m_settings.maxHiliteRows((Integer) m_maxHiliteRows.getValue());
+        m_settings.maxSlowdown((Integer) m_maxSlowdown.getValue());
+        m_settings.allowedThreadIncrease((Integer) m_allowedThreadIncrease.getValue());
+        m_settings.allowedOffHeapIncrease((Integer) m_allowedOffHeapIncrease.getValue());
+        m_settings.allowedFileHandleIncrease((Integer) m_allowedFileHandleIncrease.getValue());
+        m_settings.allowedTempFiles((Integer) m_allowedTempFiles.getValue());
         m_settings.streamingTest(m_streamingTest.isSelected());
         m_settings.testNodesInComponents(m_testSubnodes.isSelected());
+        m_settings.runExclusively(m_runExclusively.isSelected());
 
         final String requiredLoadVersionName = (String)m_requiredLoadVersion.getSelectedItem();
         m_settings.requiredLoadVersion(TestConfigSettings.parseLoadVersion(requiredLoadVersionName));
@@ -630,8 +714,14 @@ protected void loadSettingsFrom(final NodeSettingsRO settings,
         m_owner.setText(m_settings.owner());
         m_timeout.setValue(m_settings.timeout());
         m_maxHiliteRows.setValue(m_settings.maxHiliteRows());
+        m_maxSlowdown.setValue(m_settings.maxSlowdown());
+        m_allowedThreadIncrease.setValue(m_settings.allowedThreadIncrease());
+        m_allowedOffHeapIncrease.setValue(m_settings.allowedOffHeapIncrease());
+        m_allowedFileHandleIncrease.setValue(m_settings.allowedFileHandleIncrease());
+        m_allowedTempFiles.setValue(m_settings.allowedTempFiles());
         m_streamingTest.setSelected(m_settings.streamingTest());
         m_testSubnodes.setSelected(m_settings.testNodesInComponents());
+        m_runExclusively.setSelected(m_settings.runExclusively());
 
         LoadVersion loadVersion = m_settings.requiredLoadVersion();
         m_requiredLoadVersion
@@ -105,10 +105,32 @@ public class TestConfigSettings {
 
     private boolean m_testNodesInComponents = false;
 
+    private boolean m_runExclusively = false;
+
+    private int m_maxSlowdown = DEFAULT_MAX_SLOWDOWN;
+
+    private int m_allowedThreadIncrease = 0;
+
+    private int m_allowedOffHeapIncrease = DEFAULT_ALLOWED_OFF_HEAP_INCREASE;
+
+    private int m_allowedFileHandleIncrease = 0;
+
+    private int m_allowedTempFiles = 0;
+
     private LoadVersion m_requiredLoadVersion = LoadVersion.FUTURE;
 
     private static final String[] EMPTY = new String[0];
 
+    /**
+     * The default maximum slowdown in percent that is tolerated by the performance test.
+     */
+    public static final int DEFAULT_MAX_SLOWDOWN = 20;
+
+    /**
+     * The default increase of direct and mapped buffer memory in MB that is tolerated by the resource leak test.
+     */
+    public static final int DEFAULT_ALLOWED_OFF_HEAP_INCREASE = 16;
+
     private List<String> m_usedJanitors = new ArrayList<>();
 
     /**
@@ -359,6 +381,112 @@ public boolean testNodesInComponents() {
         return m_testNodesInComponents;
     }
 
+    /**
+     * Whether the workflow must not be executed concurrently with other testflows, e.g. because it modifies global
+     * preferences or installs its own default uncaught exception handler.
+     *
+     * @param exclusively <code>true</code> if the workflow must run alone, <code>false</code> otherwise
+     */
+    public void runExclusively(final boolean exclusively) {
+        m_runExclusively = exclusively;
+    }
+
+    /**
+     * @return <code>true</code> if the workflow must not be executed concurrently with other testflows
+     */
+    public boolean runExclusively() {
+        return m_runExclusively;
+    }
+
+    /**
+     * Sets the maximum slowdown of the workflow's execution time compared to the baseline (in percent) that is
+     * tolerated by the performance test. Larger slowdowns only let the test fail if they are also statistically
+     * significant.
+     *
+     * @param percent the maximum slowdown in percent
+     */
+    public void maxSlowdown(final int percent) {
+        m_maxSlowdown = percent;
+    }
+
+    /**
+     * Returns the maximum slowdown of the workflow's execution time compared to the baseline (in percent) that is
+     * tolerated by the performance test.
+     *
+     * @return the maximum slowdown in percent
+     */
+    public int maxSlowdown() {
+        return m_maxSlowdown;
+    }
+
+    /**
+     * Sets the number of additional live threads after the workflow has been closed that is tolerated by the resource
+     * leak test.
+     *
+     * @param threads the number of threads
+     */
+    public void allowedThreadIncrease(final int threads) {
+        m_allowedThreadIncrease = threads;
+    }
+
+    /**
+     * @return the number of additional live threads tolerated by the resource leak test
+     */
+    public int allowedThreadIncrease() {
+        return m_allowedThreadIncrease;
+    }
+
+    /**
+     * Sets the increase of direct and mapped buffer memory after the workflow has been closed that is tolerated by the
+     * resource leak test.
+     *
+     * @param megabytes the memory increase in MB
+     */
+    public void allowedOffHeapIncrease(final int megabytes) {
+        m_allowedOffHeapIncrease = megabytes;
+    }
+
+    /**
+     * @return the increase of direct and mapped buffer memory in MB tolerated by the resource leak test
+     */
+    public int allowedOffHeapIncrease() {
+        return m_allowedOffHeapIncrease;
+    }
+
+    /**
+     * Sets the number of additional open file handles after the workflow has been closed that is tolerated by the
+     * resource leak test.
+     *
+     * @param handles the number of file handles
+     */
+    public void allowedFileHandleIncrease(final int handles) {
+        m_allowedFileHandleIncrease = handles;
+    }
+
+    /**
+     * @return the number of additional open file handles tolerated by the resource leak test
+     */
+    public int allowedFileHandleIncrease() {
+        return m_allowedFileHandleIncrease;
+    }
+
+    /**
+     * Sets the number of new files or directories in the KNIME temp directory after the workflow has been closed that
+     * is tolerated by the resource leak test.
+     *
+     * @param files the number of files
+     */
+    public void allowedTempFiles(final int files) {
+        m_allowedTempFiles = files;
+    }
+
+    /**
+     * @return the number of new files or directories in the KNIME temp directory tolerated by the resource leak test
+     */
+    public int allowedTempFiles() {
+        return m_allowedTempFiles;
+    }
+
     /**
      * Sets the version in which this test workflow is required to stay in to be functional. If no specific version
      * is required, pass {@link LoadVersion#FUTURE}.
@@ -488,6 +616,14 @@ public void loadSettings(final NodeSettingsRO settings)
 
         // since 5.1
         m_supportedTableBackends = settings.getStringArray("supportedTableBackends", m_supportedTableBackends);
+
+        // since 5.12
+        m_runExclusively = settings.getBoolean("runExclusively", false);
+        m_maxSlowdown = settings.getInt("maxSlowdown", DEFAULT_MAX_SLOWDOWN);
+        m_allowedThreadIncrease = settings.getInt("allowedThreadIncrease", 0);
+        m_allowedOffHeapIncrease = settings.getInt("allowedOffHeapIncrease", DEFAULT_ALLOWED_OFF_HEAP_INCREASE);
+        m_allowedFileHandleIncrease = settings.getInt("allowedFileHandleIncrease", 0);
+        m_allowedTempFiles = settings.getInt("allowedTempFiles", 0);
     }
 
     /**
@@ -582,6 +718,13 @@ public void loadSettingsForDialog(final NodeSettingsRO settings) {
 
         // since 5.1
         m_supportedTableBackends = settings.getStringArray("supportedTableBackends", m_supportedTableBackends);
+
+        m_runExclusively = settings.getBoolean("runExclusively", false);
+        m_maxSlowdown = settings.getInt("maxSlowdown", DEFAULT_MAX_SLOWDOWN);
+        m_allowedThreadIncrease = settings.getInt("allowedThreadIncrease", 0);
+        m_allowedOffHeapIncrease = settings.getInt("allowedOffHeapIncrease", DEFAULT_ALLOWED_OFF_HEAP_INCREASE);
+        m_allowedFileHandleIncrease = settings.getInt("allowedFileHandleIncrease", 0);
+        m_allowedTempFiles = settings.getInt("allowedTempFiles", 0);
     }
 
     void setSupportedTableBackends(final String... supportedTableBackendClassNames) {
@@ -662,6 +805,12 @@ public void saveSettings(final NodeSettingsWO settings) {
             (m_requiredLoadVersion == null) ? "" : m_requiredLoadVersion.getVersionString());
 
         settings.addStringArray("supportedTableBackends", m_supportedTableBackends);
+        settings.addBoolean("runExclusively", m_runExclusively);
+        settings.addInt("maxSlowdown", m_maxSlowdown);
+        settings.addInt("allowedThreadIncrease", m_allowedThreadIncrease);
+        settings.addInt("allowedOffHeapIncrease", m_allowedOffHeapIncrease);
+        settings.addInt("allowedFileHandleIncrease", m_allowedFileHandleIncrease);
+        settings.addInt("allowedTempFiles", m_allowedTempFiles);
     }
 
     /**